@@ -3,6 +3,7 @@ package com.saidworks.florida_storms.config;
 
 import com.saidworks.florida_storms.helper.ConfigurableThreadPool;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,4 +40,11 @@ public class AsyncConfig {
                 executorConfigProperties.getIoBlocking().getConfig();
         return ConfigurableThreadPool.createInstance(databaseThreadConfig);
     }
+
+    @Bean(name = "aggregationPool", destroyMethod = "shutdown")
+    public ForkJoinPool aggregationPool() {
+        int parallelism = executorConfigProperties.getAggregation().getParallelism();
+        return new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
 }
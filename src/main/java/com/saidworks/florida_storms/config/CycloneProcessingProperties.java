@@ -1,6 +1,8 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.config;
 
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
@@ -11,14 +13,113 @@ import org.springframework.context.annotation.Configuration;
 public class CycloneProcessingProperties {
     private Processing processing = new Processing();
     private Data data = new Data();
+    private Snapshot snapshot = new Snapshot();
+    private Reload reload = new Reload();
+    private Landfall landfall = new Landfall();
+    private QueryCache queryCache = new QueryCache();
+    private Statistics statistics = new Statistics();
 
     @lombok.Data
     public static class Processing {
         private int chunkSize;
+        // ADAPTIVE derives the chunk size of every source from its size and past batch timings
+        private ChunkSizeMode chunkSizeMode = ChunkSizeMode.FIXED;
+        // processing time aimed for one batch once timings of a previous run are known
+        private long targetBatchMs = 50;
+        private int minChunkSize = 100;
+        private int maxChunkSize = 100_000;
+        private LoaderMode loaderMode = LoaderMode.STREAM;
+        // number of byte ranges scanned in parallel by the mapped loader, 0 = available cores
+        private int scanParallelism;
+        private IngestionMode ingestionMode = IngestionMode.FULL;
+        // batches read ahead or being processed at the same time, 0 = twice the available cores,
+        // lowered until the batches of the concurrent pipelines fit in the service pool
+        private int maxInFlightBatches;
+        // basin file pipelines running at the same time, they share the service pool
+        private int maxConcurrentPipelines = 2;
+        // decode the radii of points of mapped batches on first access
+        private boolean lazyTrackPoints;
+        // ring of buffers between the inflater thread of a .gz or .zip source and the loader
+        private int decompressionBuffers = 8;
+        private int decompressionBufferSize = 64 * 1024;
     }
 
     @lombok.Data
     public static class Data {
-        private String hurdat2;
+        // one HURDAT2 file per basin (Atlantic, NE/Central Pacific), each has its own pipeline
+        private List<String> hurdat2 = new ArrayList<>();
+    }
+
+    @lombok.Data
+    public static class Snapshot {
+        private boolean enabled = true;
+        // snapshots are named after the source file and keyed by its checksum
+        private String directory = System.getProperty("java.io.tmpdir") + "/florida-storms";
+    }
+
+    @lombok.Data
+    public static class Reload {
+        // rebuild the resident dataset when the source file changes
+        private boolean watch = true;
+        // quiet period after the last file event before rebuilding
+        private long debounceMs = 500;
+    }
+
+    @lombok.Data
+    public static class Landfall {
+        private LandfallDetection detection = LandfallDetection.FLAG;
+        // GeoJSON land polygons (Polygon or MultiPolygon features), required by GEOMETRIC
+        private String coastline;
+    }
+
+    @lombok.Data
+    public static class QueryCache {
+        private boolean enabled = true;
+        // boundaries are widened to this grid, nearby boxes share one cached superset
+        private double gridDegrees = 0.5;
+        private int maxEntries = 512;
+        private long ttlMs = 600_000;
+    }
+
+    @lombok.Data
+    public static class Statistics {
+        // answer unbounded statistics from the cube built with the dataset instead of the points
+        private boolean cube = true;
+    }
+
+    /**
+     * STREAM reads the resource line by line, MAPPED maps the file and scans byte ranges in
+     * parallel (falls back to STREAM when the resource is not a file, e.g. inside a jar)
+     */
+    public enum LoaderMode {
+        STREAM,
+        MAPPED
+    }
+
+    /**
+     * FIXED cuts batches of {@code chunk-size} lines, ADAPTIVE starts from the source size and the
+     * serviceTaskExecutor capacity and converges on {@code target-batch-ms} over later runs
+     */
+    public enum ChunkSizeMode {
+        FIXED,
+        ADAPTIVE
+    }
+
+    /**
+     * FLAG takes the points whose record identifier is L, GEOMETRIC finds where consecutive track
+     * points go from sea to land on the {@code coastline} polygons
+     */
+    public enum LandfallDetection {
+        FLAG,
+        GEOMETRIC
+    }
+
+    /**
+     * FULL reprocesses the whole file on every reload, INCREMENTAL only processes what was appended
+     * after the last cyclone header when the bytes before it are unchanged
+     */
+    public enum IngestionMode {
+        FULL,
+        INCREMENTAL
     }
 }
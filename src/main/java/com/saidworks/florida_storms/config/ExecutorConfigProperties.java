@@ -12,6 +12,7 @@ public class ExecutorConfigProperties {
     private IOBlocking ioBlocking = new IOBlocking();
     private Service service = new Service();
     private Controller controller = new Controller();
+    private Aggregation aggregation = new Aggregation();
 
     @Data
     public static class IOBlocking {
@@ -28,6 +29,12 @@ public class ExecutorConfigProperties {
         private Config config = new Config();
     }
 
+    @Data
+    public static class Aggregation {
+        // fork/join workers reducing landfall statistics, 0 = available cores
+        private int parallelism;
+    }
+
     @Data
     public static class Config {
         private int corePoolSize;
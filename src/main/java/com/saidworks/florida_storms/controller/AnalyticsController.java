@@ -0,0 +1,168 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.controller;
+
+import com.saidworks.florida_storms.models.domain.LandfallDimension;
+import com.saidworks.florida_storms.models.domain.LandfallMetric;
+import com.saidworks.florida_storms.service.landfall.LandfallAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller for group-by, region and pivot queries over the landfall frame
+ */
+@Tag(
+        name = "Analytics",
+        description = "Group-by, join and pivot queries over the columnar landfall frame")
+@RestController
+@RequestMapping("/analytics")
+@Log4j2
+public class AnalyticsController {
+    private final LandfallAnalyticsService landfallAnalyticsService;
+
+    public AnalyticsController(LandfallAnalyticsService landfallAnalyticsService) {
+        this.landfallAnalyticsService = landfallAnalyticsService;
+    }
+
+    /**
+     * Get landfall metrics grouped by one or more dimensions
+     * Example: GET /analytics/group?by=DECADE&by=CATEGORY&basin=AL
+     */
+    @Operation(
+            summary = "Group landfalls",
+            description =
+                    "Count landfalls with their highest and mean wind and lowest pressure per"
+                            + " combination of year, decade, month, category, basin, status or 5"
+                            + " degree region. Region groups carry the label of the region.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Successfully grouped landfalls"),
+                @ApiResponse(responseCode = "400", description = "Invalid dimension")
+            })
+    @GetMapping("/group")
+    public CompletableFuture<List<Map<String, Object>>> groupLandfalls(
+            @Parameter(
+                            description =
+                                    "YEAR, DECADE, MONTH, CATEGORY, BASIN, STATUS or REGION,"
+                                            + " repeated to group by several",
+                            example = "DECADE",
+                            required = true)
+                    @RequestParam("by")
+                    List<LandfallDimension> by,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1999")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
+
+        log.info("Request received: landfalls grouped by {}", by);
+        if (by.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "At least one dimension is required");
+        }
+
+        return landfallAnalyticsService.groupBy(by, basin, fromYear, toYear);
+    }
+
+    /**
+     * Get the regions with the most landfalls, joined with the region table
+     * Example: GET /analytics/regions?limit=10&fromYear=1950
+     */
+    @Operation(
+            summary = "Landfall regions",
+            description =
+                    "Join the landfalls with the table of 5 degree regions and rank the regions"
+                            + " by landfall count, with their bounds. The limit is capped at"
+                            + " 1000.")
+    @ApiResponse(responseCode = "200", description = "Successfully ranked the regions")
+    @GetMapping("/regions")
+    public CompletableFuture<List<Map<String, Object>>> getLandfallRegions(
+            @Parameter(description = "Number of regions", example = "10")
+                    @RequestParam(value = "limit", defaultValue = "10")
+                    int limit,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1999")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
+
+        log.info("Request received: top {} landfall regions", limit);
+
+        return landfallAnalyticsService.regions(limit, basin, fromYear, toYear);
+    }
+
+    /**
+     * Get one landfall metric pivoted by two dimensions
+     * Example: GET /analytics/pivot?rows=DECADE&columns=CATEGORY&metric=COUNT
+     */
+    @Operation(
+            summary = "Pivot landfalls",
+            description =
+                    "One row per key of the first dimension and one column per key of the"
+                            + " second, each cell holding the count, highest wind, mean wind or"
+                            + " lowest pressure of the landfalls. Empty counts are 0, other"
+                            + " empty cells are null.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Successfully pivoted landfalls"),
+                @ApiResponse(
+                        responseCode = "400",
+                        description =
+                                "Invalid dimension or metric, or the same dimension for rows and"
+                                        + " columns")
+            })
+    @GetMapping("/pivot")
+    public CompletableFuture<List<Map<String, Object>>> pivotLandfalls(
+            @Parameter(description = "Dimension of the rows", example = "DECADE", required = true)
+                    @RequestParam("rows")
+                    LandfallDimension rows,
+            @Parameter(
+                            description = "Dimension of the columns",
+                            example = "CATEGORY",
+                            required = true)
+                    @RequestParam("columns")
+                    LandfallDimension columns,
+            @Parameter(
+                            description = "COUNT, MAX_WIND, MEAN_WIND or MIN_PRESSURE",
+                            example = "COUNT")
+                    @RequestParam(value = "metric", defaultValue = "COUNT")
+                    LandfallMetric metric,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1999")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
+
+        log.info("Request received: {} of landfalls by {} and {}", metric, rows, columns);
+        if (rows == columns) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Rows and columns must be different dimensions");
+        }
+
+        return landfallAnalyticsService.pivot(rows, columns, metric, basin, fromYear, toYear);
+    }
+}
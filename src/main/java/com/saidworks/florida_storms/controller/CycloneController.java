@@ -2,40 +2,53 @@
 package com.saidworks.florida_storms.controller;
 
 import com.saidworks.florida_storms.models.domain.Cyclone;
-import com.saidworks.florida_storms.models.exception.BatchProcessingException;
-import com.saidworks.florida_storms.service.batch.CycloneProcessingOrchestrator;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.GeoCircle;
+import com.saidworks.florida_storms.models.domain.RadiusBatchRequest;
+import com.saidworks.florida_storms.models.domain.RadiusMatches;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.service.dataset.CycloneDatasetHolder;
+import com.saidworks.florida_storms.service.landfall.TrackProximityService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Cyclones", description = "Operations related to cyclone data processing and retrieval")
 @RestController
 @RequestMapping("/cyclones")
 public class CycloneController {
-    private final CycloneProcessingOrchestrator orchestrator;
+    private final CycloneDatasetHolder datasetHolder;
+    private final TrackProximityService trackProximityService;
     private final ExecutorService controllerTaskExecutor;
 
     public CycloneController(
-            CycloneProcessingOrchestrator orchestrator, ExecutorService controllerTaskExecutor) {
-        this.orchestrator = orchestrator;
+            CycloneDatasetHolder datasetHolder,
+            TrackProximityService trackProximityService,
+            ExecutorService controllerTaskExecutor) {
+        this.datasetHolder = datasetHolder;
+        this.trackProximityService = trackProximityService;
         this.controllerTaskExecutor = controllerTaskExecutor;
     }
 
     @Operation(
             summary = "Retrieve all cyclones",
             description =
-                    "Fetches and processes all available cyclone data from the data source. This"
-                            + " operation performs batch processing and may take some time to"
+                    "Returns all cyclones of the resident dataset, or of one basin. The first call"
+                            + " after startup performs batch processing and may take some time to"
                             + " complete.")
     @ApiResponses(
             value = {
@@ -52,17 +65,165 @@ public class CycloneController {
                         content = @Content)
             })
     @GetMapping
-    public List<Cyclone> getAllCyclones() {
+    public List<Cyclone> getAllCyclones(
+            @Parameter(description = "Basin (AL, EP, CP), every basin when omitted", example = "EP")
+                    @RequestParam(value = "basin", required = false)
+                    String basin) {
         return CompletableFuture.supplyAsync(
-                        () -> {
-                            try {
-                                return orchestrator.processAllCyclones();
-                            } catch (IOException e) {
-                                throw new BatchProcessingException(
-                                        "controller failed to process batch", e);
-                            }
-                        },
+                        () ->
+                                basin == null
+                                        ? datasetHolder.getCyclones()
+                                        : datasetHolder.getCyclones(basin),
                         controllerTaskExecutor)
                 .join();
     }
+
+    /**
+     * Selects track points of the resident landfall dataset, no file is parsed per request
+     * Example: GET /cyclones/search?fromYear=2004&toYear=2005&statuses=HU&minWind=100
+     */
+    @Operation(
+            summary = "Search track points",
+            description =
+                    "Keeps only the landfall points since 1900 matching every given criterion,"
+                            + " cyclones without a matching point are omitted.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved the matching cyclones",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = Cyclone.class))),
+                @ApiResponse(
+                        responseCode = "500",
+                        description = "Internal server error during batch processing",
+                        content = @Content)
+            })
+    @GetMapping("/search")
+    public List<Cyclone> searchCyclones(
+            @Parameter(description = "First year, inclusive", example = "2004")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year, inclusive", example = "2005")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear,
+            @Parameter(description = "Accepted record identifiers", example = "LI")
+                    @RequestParam(value = "recordTypes", required = false)
+                    String recordTypes,
+            @Parameter(description = "Accepted status codes", example = "HU")
+                    @RequestParam(value = "statuses", required = false)
+                    List<String> statuses,
+            @Parameter(description = "Minimum sustained wind in knots", example = "100")
+                    @RequestParam(value = "minWind", defaultValue = "0")
+                    int minWind,
+            @Parameter(description = "Minimum latitude", example = "24.0")
+                    @RequestParam(value = "minLat", required = false)
+                    Double minLat,
+            @Parameter(description = "Maximum latitude", example = "31.0")
+                    @RequestParam(value = "maxLat", required = false)
+                    Double maxLat,
+            @Parameter(description = "Minimum longitude", example = "-87.0")
+                    @RequestParam(value = "minLon", required = false)
+                    Double minLon,
+            @Parameter(description = "Maximum longitude", example = "-80.0")
+                    @RequestParam(value = "maxLon", required = false)
+                    Double maxLon) {
+
+        TrackPredicate.TrackPredicateBuilder predicate =
+                TrackPredicate.builder()
+                        .recordTypes(recordTypes)
+                        .statuses(statuses == null ? null : new HashSet<>(statuses))
+                        .minWindSpeed(minWind);
+        if (fromYear != null) {
+            predicate.fromDate(fromYear * 10_000 + 101);
+        }
+        if (toYear != null) {
+            predicate.toDate(toYear * 10_000 + 1231);
+        }
+        if (minLat != null && maxLat != null && minLon != null && maxLon != null) {
+            predicate.boundary(
+                    GeoBoundary.builder()
+                            .name("Search")
+                            .minLatitude(minLat)
+                            .maxLatitude(maxLat)
+                            .minLongitude(minLon)
+                            .maxLongitude(maxLon)
+                            .build());
+        }
+
+        return CompletableFuture.supplyAsync(
+                        () -> datasetHolder.getDataset().select(predicate.build()),
+                        controllerTaskExecutor)
+                .join();
+    }
+
+    /**
+     * Selects storms whose track came within a great-circle radius of a point, the closest
+     * approach of every track segment is measured, not only the recorded points
+     * Example: GET /cyclones/near?lat=25.77&lon=-80.19&radiusNm=50
+     */
+    @Operation(
+            summary = "Search tracks near a point",
+            description =
+                    "Returns the storms whose track passed within a radius in nautical miles of a"
+                            + " point. The first call after startup or a reload indexes the"
+                            + " tracks and may take some time to complete.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved the matching cyclones",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = Cyclone.class))),
+                @ApiResponse(
+                        responseCode = "500",
+                        description = "Internal server error during batch processing",
+                        content = @Content)
+            })
+    @GetMapping("/near")
+    public List<Cyclone> searchCyclonesNear(
+            @Parameter(description = "Latitude of the point", example = "25.77", required = true)
+                    @RequestParam("lat")
+                    double lat,
+            @Parameter(description = "Longitude of the point", example = "-80.19", required = true)
+                    @RequestParam("lon")
+                    double lon,
+            @Parameter(description = "Radius in nautical miles", example = "50", required = true)
+                    @RequestParam("radiusNm")
+                    double radiusNm,
+            @Parameter(description = "Basin (AL, EP, CP), every basin when omitted", example = "AL")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year, inclusive", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year, inclusive", example = "2024")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
+        GeoCircle circle = new GeoCircle(null, lat, lon, radiusNm);
+        return CompletableFuture.supplyAsync(
+                        () -> trackProximityService.cyclonesNear(circle, basin, fromYear, toYear),
+                        controllerTaskExecutor)
+                .join();
+    }
+
+    /**
+     * Batch form of {@code /cyclones/near} for many points, e.g. the assets of a portfolio
+     */
+    @Operation(
+            summary = "Search tracks near many points",
+            description =
+                    "Returns, for every circle of the request, the storms whose track passed"
+                            + " within its radius.")
+    @ApiResponse(responseCode = "200", description = "Successfully matched every circle")
+    @PostMapping("/near")
+    public List<RadiusMatches> searchCyclonesNearAll(@RequestBody RadiusBatchRequest request) {
+        return CompletableFuture.supplyAsync(
+                        () -> trackProximityService.cyclonesNear(request), controllerTaskExecutor)
+                .join();
+    }
 }
@@ -1,8 +1,22 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.controller;
 
+import com.saidworks.florida_storms.models.domain.AttributeFilter;
 import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.GeoCircle;
+import com.saidworks.florida_storms.models.domain.LandfallGrouping;
+import com.saidworks.florida_storms.models.domain.LandfallRanking;
+import com.saidworks.florida_storms.models.domain.LandfallStatistics;
+import com.saidworks.florida_storms.models.domain.RadiusBatchRequest;
+import com.saidworks.florida_storms.models.domain.RadiusMatches;
+import com.saidworks.florida_storms.models.domain.RankedLandfall;
+import com.saidworks.florida_storms.models.domain.RegionBatchRequest;
+import com.saidworks.florida_storms.models.domain.RegionLandfalls;
 import com.saidworks.florida_storms.service.landfall.LandfallFilterService;
+import com.saidworks.florida_storms.service.landfall.LandfallQueryCache;
+import com.saidworks.florida_storms.service.landfall.LandfallRankingService;
+import com.saidworks.florida_storms.service.landfall.LandfallStatisticsService;
 import com.saidworks.florida_storms.service.report.LandfallReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,9 +25,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ContentDisposition;
@@ -21,6 +39,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -39,14 +59,20 @@ public class LandfallController {
 
     private final LandfallFilterService landfallFilterService;
     private final LandfallReportService landfallReportService;
+    private final LandfallStatisticsService landfallStatisticsService;
+    private final LandfallRankingService landfallRankingService;
     private final ExecutorService controllerTaskExecutor;
 
     public LandfallController(
             LandfallFilterService landfallFilterService,
             LandfallReportService landfallReportService,
+            LandfallStatisticsService landfallStatisticsService,
+            LandfallRankingService landfallRankingService,
             @Qualifier("controllerTaskExecutor") ExecutorService controllerTaskExecutor) {
         this.landfallFilterService = landfallFilterService;
         this.landfallReportService = landfallReportService;
+        this.landfallStatisticsService = landfallStatisticsService;
+        this.landfallRankingService = landfallRankingService;
         this.controllerTaskExecutor = controllerTaskExecutor;
     }
 
@@ -79,14 +105,26 @@ public class LandfallController {
                             description = "Name of the geographic area to filter storms by",
                             example = "Miami")
                     @RequestParam(value = "area", defaultValue = "Florida")
-                    String areaName) {
+                    String areaName,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1980")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
 
         log.info("Request received: filtering storms by area: {}", areaName);
 
         return CompletableFuture.runAsync(
                         () -> log.info("Processing request for area: {}", areaName),
                         controllerTaskExecutor)
-                .thenCompose(_ -> landfallFilterService.filterByAreaLandfall(areaName));
+                .thenCompose(
+                        _ ->
+                                landfallFilterService.filterByAreaLandfall(
+                                        areaName, basin, fromYear, toYear));
     }
 
     /**
@@ -126,7 +164,16 @@ public class LandfallController {
                     double minLon,
             @Parameter(description = "Maximum longitude", example = "-80.0", required = true)
                     @RequestParam("maxLon")
-                    double maxLon) {
+                    double maxLon,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1980")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
 
         log.info("Request received: filtering storms by coordinates");
 
@@ -143,7 +190,417 @@ public class LandfallController {
                 .thenCompose(
                         _ ->
                                 landfallFilterService.filterByCustomBoundaries(
-                                        minLat, maxLat, minLon, maxLon));
+                                        minLat, maxLat, minLon, maxLon, basin, fromYear, toYear));
+    }
+
+    /**
+     * Get storms that made landfall in each of many areas and boxes
+     * Example: POST /landfall/by-regions {"areas": ["Miami", "Tampa"], "boxes": [...]}
+     */
+    @Operation(
+            summary = "Filter storms by many regions",
+            description =
+                    "Resolve the boundaries of many areas concurrently, then match every area and"
+                            + " box in one pass over the landfall points. Returns one result per"
+                            + " area then per box, in request order. An area that can not be"
+                            + " geocoded gets an error and no storms, the other regions are"
+                            + " still matched.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved storms for every region",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = RegionLandfalls.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid region list",
+                        content = @Content)
+            })
+    @PostMapping("/by-regions")
+    public CompletableFuture<List<RegionLandfalls>> getStormsByRegions(
+            @RequestBody RegionBatchRequest request) {
+
+        log.info("Request received: filtering storms by regions");
+
+        return landfallFilterService.filterByRegions(request);
+    }
+
+    /**
+     * Get storms that made landfall within a great-circle radius of a point
+     * Example: GET /landfall/by-radius?lat=25.77&lon=-80.19&radiusNm=50
+     */
+    @Operation(
+            summary = "Filter storms by radius",
+            description =
+                    "Retrieve storms with a landfall within a radius in nautical miles of a point,"
+                            + " measured along the great circle.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved storms within the radius",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = Cyclone.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid point or radius",
+                        content = @Content)
+            })
+    @GetMapping("/by-radius")
+    public CompletableFuture<List<Cyclone>> getStormsByRadius(
+            @Parameter(description = "Latitude of the point", example = "25.77", required = true)
+                    @RequestParam("lat")
+                    double lat,
+            @Parameter(description = "Longitude of the point", example = "-80.19", required = true)
+                    @RequestParam("lon")
+                    double lon,
+            @Parameter(description = "Radius in nautical miles", example = "50", required = true)
+                    @RequestParam("radiusNm")
+                    double radiusNm,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1999")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
+
+        log.info("Request received: filtering storms within {}nm of {}, {}", radiusNm, lat, lon);
+
+        return landfallFilterService.filterWithinRadius(
+                new GeoCircle(null, lat, lon, radiusNm), basin, fromYear, toYear);
+    }
+
+    /**
+     * Get storms that made landfall within each of many radius circles
+     * Example: POST /landfall/by-radii
+     */
+    @Operation(
+            summary = "Filter storms by many radii",
+            description =
+                    "Retrieve, for every circle of the request, the storms with a landfall within"
+                            + " its radius. Every circle is matched in a single pass over the"
+                            + " landfall points.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully matched every circle",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = RadiusMatches.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid circle list",
+                        content = @Content)
+            })
+    @PostMapping("/by-radii")
+    public CompletableFuture<List<RadiusMatches>> getStormsByRadii(
+            @RequestBody RadiusBatchRequest request) {
+
+        log.info("Request received: filtering storms by radii");
+
+        return landfallFilterService.filterWithinRadii(request);
+    }
+
+    /**
+     * Get storms by a combination of landfall attributes, optionally within a boundary
+     * Example: GET /landfall/by-attributes?statuses=HU&minCategory=3&decades=1950
+     */
+    @Operation(
+            summary = "Filter storms by attributes",
+            description =
+                    "Retrieve storms with a landfall matching every given attribute: status,"
+                            + " record identifier, Saffir-Simpson category and decade. The"
+                            + " boundary applies when all four coordinates are given.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved the matching storms",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = Cyclone.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid attribute parameters",
+                        content = @Content)
+            })
+    @GetMapping("/by-attributes")
+    public CompletableFuture<List<Cyclone>> getStormsByAttributes(
+            @Parameter(description = "Accepted status codes", example = "HU")
+                    @RequestParam(value = "statuses", required = false)
+                    List<String> statuses,
+            @Parameter(description = "Accepted record identifiers", example = "L")
+                    @RequestParam(value = "recordTypes", required = false)
+                    String recordTypes,
+            @Parameter(
+                            description =
+                                    "Lowest Saffir-Simpson category, points without a recorded"
+                                            + " wind never match",
+                            example = "3")
+                    @RequestParam(value = "minCategory", required = false)
+                    Integer minCategory,
+            @Parameter(description = "Accepted decades as their first year", example = "1950")
+                    @RequestParam(value = "decades", required = false)
+                    List<Integer> decades,
+            @Parameter(description = "Minimum latitude", example = "24.0")
+                    @RequestParam(value = "minLat", required = false)
+                    Double minLat,
+            @Parameter(description = "Maximum latitude", example = "31.0")
+                    @RequestParam(value = "maxLat", required = false)
+                    Double maxLat,
+            @Parameter(description = "Minimum longitude", example = "-87.0")
+                    @RequestParam(value = "minLon", required = false)
+                    Double minLon,
+            @Parameter(description = "Maximum longitude", example = "-80.0")
+                    @RequestParam(value = "maxLon", required = false)
+                    Double maxLon,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin) {
+
+        AttributeFilter filter =
+                new AttributeFilter(
+                        statuses == null
+                                ? null
+                                : statuses.stream()
+                                        .map(status -> status.toUpperCase(Locale.ROOT))
+                                        .collect(Collectors.toSet()),
+                        recordTypes == null
+                                ? null
+                                : recordTypes
+                                        .chars()
+                                        .mapToObj(type -> (char) type)
+                                        .collect(Collectors.toSet()),
+                        minCategory,
+                        decades == null ? null : Set.copyOf(decades));
+        GeoBoundary boundary =
+                minLat != null && maxLat != null && minLon != null && maxLon != null
+                        ? GeoBoundary.builder()
+                                .name("Custom Area")
+                                .minLatitude(minLat)
+                                .maxLatitude(maxLat)
+                                .minLongitude(minLon)
+                                .maxLongitude(maxLon)
+                                .build()
+                        : null;
+
+        log.info("Request received: filtering storms by attributes {}", filter);
+
+        return landfallFilterService.filterByAttributes(filter, boundary, basin);
+    }
+
+    /**
+     * Get landfalling storms active on a date, between the first and last point of their track
+     * Example: GET /landfall/active?date=2004-09-05
+     */
+    @Operation(
+            summary = "Filter storms by date",
+            description =
+                    "Retrieve storms with a landfall that were active on a date, from the first"
+                            + " to the last point of their track.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved storms active on the date",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = Cyclone.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid date parameter",
+                        content = @Content)
+            })
+    @GetMapping("/active")
+    public CompletableFuture<List<Cyclone>> getStormsActiveOn(
+            @Parameter(description = "Date (yyyy-MM-dd)", example = "2004-09-05", required = true)
+                    @RequestParam("date")
+                    LocalDate date) {
+
+        log.info("Request received: filtering storms active on {}", date);
+
+        return landfallFilterService.filterActiveOn(date);
+    }
+
+    /**
+     * Get landfall counts and wind statistics grouped by one dimension
+     * Example: GET /landfall/statistics?groupBy=DECADE&minCategory=3
+     */
+    @Operation(
+            summary = "Landfall statistics",
+            description =
+                    "Count landfalls with their maximum and mean wind speed per year, decade,"
+                            + " month, Saffir-Simpson category or 5 degree region. Landfalls"
+                            + " without a recorded wind are grouped in the UNKNOWN category and"
+                            + " never match minCategory. The boundary applies when all four"
+                            + " coordinates are given.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully computed the statistics",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema =
+                                                @Schema(
+                                                        implementation =
+                                                                LandfallStatistics.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid grouping or parameters",
+                        content = @Content)
+            })
+    @GetMapping("/statistics")
+    public CompletableFuture<List<LandfallStatistics>> getLandfallStatistics(
+            @Parameter(
+                            description = "YEAR, DECADE, MONTH, CATEGORY or REGION",
+                            example = "DECADE",
+                            required = true)
+                    @RequestParam("groupBy")
+                    LandfallGrouping groupBy,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1999")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear,
+            @Parameter(description = "Lowest Saffir-Simpson category", example = "3")
+                    @RequestParam(value = "minCategory", required = false)
+                    Integer minCategory,
+            @Parameter(description = "Minimum latitude", example = "24.0")
+                    @RequestParam(value = "minLat", required = false)
+                    Double minLat,
+            @Parameter(description = "Maximum latitude", example = "31.0")
+                    @RequestParam(value = "maxLat", required = false)
+                    Double maxLat,
+            @Parameter(description = "Minimum longitude", example = "-87.0")
+                    @RequestParam(value = "minLon", required = false)
+                    Double minLon,
+            @Parameter(description = "Maximum longitude", example = "-80.0")
+                    @RequestParam(value = "maxLon", required = false)
+                    Double maxLon,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin) {
+
+        GeoBoundary boundary =
+                minLat != null && maxLat != null && minLon != null && maxLon != null
+                        ? GeoBoundary.builder()
+                                .name("Custom Area")
+                                .minLatitude(minLat)
+                                .maxLatitude(maxLat)
+                                .minLongitude(minLon)
+                                .maxLongitude(maxLon)
+                                .build()
+                        : null;
+
+        log.info("Request received: landfall statistics by {}", groupBy);
+
+        return landfallStatisticsService.statistics(
+                groupBy, boundary, basin, fromYear, toYear, minCategory);
+    }
+
+    /**
+     * Get the K highest ranked landfalls, in a geocoded area, a box or anywhere
+     * Example: GET /landfall/top?by=WIND&k=10&area=Florida
+     */
+    @Operation(
+            summary = "Top landfalls",
+            description =
+                    "Retrieve the K strongest landfalls by maximum wind, by lowest central"
+                            + " pressure, or the K most recent ones. The area takes precedence"
+                            + " over the boundary, which applies when all four coordinates are"
+                            + " given. K is capped at 1000.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Successfully retrieved the top landfalls",
+                        content =
+                                @Content(
+                                        mediaType = "application/json",
+                                        schema = @Schema(implementation = RankedLandfall.class))),
+                @ApiResponse(
+                        responseCode = "400",
+                        description = "Invalid ranking or parameters",
+                        content = @Content)
+            })
+    @GetMapping("/top")
+    public CompletableFuture<List<RankedLandfall>> getTopLandfalls(
+            @Parameter(description = "WIND, PRESSURE or RECENT", example = "WIND")
+                    @RequestParam(value = "by", defaultValue = "WIND")
+                    LandfallRanking by,
+            @Parameter(description = "Number of landfalls", example = "10")
+                    @RequestParam(value = "k", defaultValue = "10")
+                    int k,
+            @Parameter(description = "Area name to geocode", example = "Florida")
+                    @RequestParam(value = "area", required = false)
+                    String area,
+            @Parameter(description = "Minimum latitude", example = "24.0")
+                    @RequestParam(value = "minLat", required = false)
+                    Double minLat,
+            @Parameter(description = "Maximum latitude", example = "31.0")
+                    @RequestParam(value = "maxLat", required = false)
+                    Double maxLat,
+            @Parameter(description = "Minimum longitude", example = "-87.0")
+                    @RequestParam(value = "minLon", required = false)
+                    Double minLon,
+            @Parameter(description = "Maximum longitude", example = "-80.0")
+                    @RequestParam(value = "maxLon", required = false)
+                    Double maxLon,
+            @Parameter(description = "Basin to search (AL, EP, CP), every basin when omitted")
+                    @RequestParam(value = "basin", required = false)
+                    String basin,
+            @Parameter(description = "First year of the landfalls", example = "1950")
+                    @RequestParam(value = "fromYear", required = false)
+                    Integer fromYear,
+            @Parameter(description = "Last year of the landfalls", example = "1999")
+                    @RequestParam(value = "toYear", required = false)
+                    Integer toYear) {
+
+        log.info("Request received: top {} landfalls by {}", k, by);
+
+        if (area != null) {
+            return landfallRankingService.topLandfallsInArea(
+                    area, by, k, basin, fromYear, toYear);
+        }
+        GeoBoundary boundary =
+                minLat != null && maxLat != null && minLon != null && maxLon != null
+                        ? GeoBoundary.builder()
+                                .name("Custom Area")
+                                .minLatitude(minLat)
+                                .maxLatitude(maxLat)
+                                .minLongitude(minLon)
+                                .maxLongitude(maxLon)
+                                .build()
+                        : null;
+        return landfallRankingService.topLandfalls(by, k, boundary, basin, fromYear, toYear);
+    }
+
+    /**
+     * Get the counters of the boundary query cache
+     * Example: GET /landfall/cache/stats
+     */
+    @Operation(
+            summary = "Query cache statistics",
+            description = "Hits, misses, evictions and size of the boundary query result cache.")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved the counters")
+    @GetMapping("/cache/stats")
+    public LandfallQueryCache.Stats getQueryCacheStats() {
+        return landfallFilterService.queryCacheStats();
     }
 
     @Operation(
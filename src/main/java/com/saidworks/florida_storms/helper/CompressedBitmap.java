@@ -0,0 +1,470 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.helper;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed set of non negative ints, split like a roaring bitmap into chunks of 65536
+ * values sharing their high 16 bits
+ * Each chunk keeps the smallest of three containers: the sorted low bits (up to 4096 values), a
+ * 65536 bit bitmap, or runs of consecutive values
+ * Sets are built in increasing order with {@link Builder} and combined with {@link #and} and
+ * {@link #or}, which only visit the chunks present in their operands, two run containers are
+ * combined run by run without expanding them to a bitmap
+ */
+public final class CompressedBitmap {
+    private static final int CHUNK_BITS = 16;
+    private static final int WORDS = (1 << CHUNK_BITS) / Long.SIZE;
+    // an array container is smaller than a bitmap up to this many values
+    private static final int MAX_ARRAY_VALUES = 4_096;
+    private static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new Chunk[0]);
+
+    // chunk i holds the values whose high 16 bits are highs[i]
+    private final char[] highs;
+    private final Chunk[] chunks;
+
+    private CompressedBitmap(char[] highs, Chunk[] chunks) {
+        this.highs = highs;
+        this.chunks = chunks;
+    }
+
+    public static CompressedBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Every value from 0 to {@code size} excluded
+     */
+    public static CompressedBitmap range(int size) {
+        Builder builder = new Builder();
+        for (int value = 0; value < size; value++) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+
+    public boolean contains(int value) {
+        int chunk = Arrays.binarySearch(highs, (char) (value >>> CHUNK_BITS));
+        return chunk >= 0 && chunks[chunk].contains((char) value);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (Chunk chunk : chunks) {
+            cardinality += chunk.cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return chunks.length == 0;
+    }
+
+    /**
+     * @return approximate heap size of the containers in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 16 + 2L * highs.length;
+        for (Chunk chunk : chunks) {
+            bytes += 16 + chunk.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Visits the values in increasing order
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < chunks.length; i++) {
+            int high = highs[i] << CHUNK_BITS;
+            chunks[i].forEach(low -> action.accept(high | low));
+        }
+    }
+
+    public CompressedBitmap and(CompressedBitmap other) {
+        char[] resultHighs = new char[Math.min(highs.length, other.highs.length)];
+        Chunk[] resultChunks = new Chunk[resultHighs.length];
+        int size = 0;
+        for (int i = 0, j = 0; i < highs.length && j < other.highs.length; ) {
+            if (highs[i] < other.highs[j]) {
+                i++;
+            } else if (highs[i] > other.highs[j]) {
+                j++;
+            } else {
+                Chunk chunk = and(chunks[i], other.chunks[j]);
+                if (chunk != null) {
+                    resultHighs[size] = highs[i];
+                    resultChunks[size++] = chunk;
+                }
+                i++;
+                j++;
+            }
+        }
+        return new CompressedBitmap(
+                Arrays.copyOf(resultHighs, size), Arrays.copyOf(resultChunks, size));
+    }
+
+    public CompressedBitmap or(CompressedBitmap other) {
+        char[] resultHighs = new char[highs.length + other.highs.length];
+        Chunk[] resultChunks = new Chunk[resultHighs.length];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < highs.length || j < other.highs.length) {
+            if (j == other.highs.length || (i < highs.length && highs[i] < other.highs[j])) {
+                resultHighs[size] = highs[i];
+                resultChunks[size++] = chunks[i++];
+            } else if (i == highs.length || highs[i] > other.highs[j]) {
+                resultHighs[size] = other.highs[j];
+                resultChunks[size++] = other.chunks[j++];
+            } else {
+                resultHighs[size] = highs[i];
+                resultChunks[size++] = or(chunks[i], other.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return new CompressedBitmap(
+                Arrays.copyOf(resultHighs, size), Arrays.copyOf(resultChunks, size));
+    }
+
+    /**
+     * @return null when the chunks share no value
+     */
+    private static Chunk and(Chunk chunk, Chunk other) {
+        if (chunk instanceof RunChunk runs && other instanceof RunChunk otherRuns) {
+            return runs.and(otherRuns);
+        }
+        long[] words = chunk.words();
+        long[] otherWords = other.words();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] &= otherWords[w];
+        }
+        return Chunk.of(words);
+    }
+
+    private static Chunk or(Chunk chunk, Chunk other) {
+        if (chunk instanceof RunChunk runs && other instanceof RunChunk otherRuns) {
+            return runs.or(otherRuns);
+        }
+        long[] words = chunk.words();
+        long[] otherWords = other.words();
+        for (int w = 0; w < WORDS; w++) {
+            words[w] |= otherWords[w];
+        }
+        return Chunk.of(words);
+    }
+
+    /**
+     * Collects values added in increasing order
+     */
+    public static final class Builder {
+        private char[] highs = new char[4];
+        private Chunk[] chunks = new Chunk[4];
+        private int size;
+        private long[] words;
+        private int currentHigh = -1;
+        private int last = -1;
+
+        public Builder add(int value) {
+            if (value <= last) {
+                throw new IllegalArgumentException(
+                        "Values must be added in increasing order: " + value + " after " + last);
+            }
+            last = value;
+            int high = value >>> CHUNK_BITS;
+            if (high != currentHigh) {
+                flush();
+                currentHigh = high;
+                words = new long[WORDS];
+            }
+            int low = value & 0xFFFF;
+            words[low >>> 6] |= 1L << low;
+            return this;
+        }
+
+        public CompressedBitmap build() {
+            flush();
+            return size == 0
+                    ? EMPTY
+                    : new CompressedBitmap(Arrays.copyOf(highs, size), Arrays.copyOf(chunks, size));
+        }
+
+        private void flush() {
+            if (words == null) {
+                return;
+            }
+            if (size == highs.length) {
+                highs = Arrays.copyOf(highs, 2 * size);
+                chunks = Arrays.copyOf(chunks, 2 * size);
+            }
+            highs[size] = (char) currentHigh;
+            chunks[size++] = Chunk.of(words);
+            words = null;
+        }
+    }
+
+    /**
+     * Container of the low 16 bits of one chunk
+     */
+    private sealed interface Chunk {
+
+        boolean contains(char low);
+
+        int cardinality();
+
+        long sizeInBytes();
+
+        void forEach(IntConsumer action);
+
+        /**
+         * @return a fresh bitmap of the chunk, one bit per low value
+         */
+        long[] words();
+
+        /**
+         * Smallest container for a bitmap
+         * @return null when no bit is set
+         */
+        static Chunk of(long[] words) {
+            int cardinality = 0;
+            int runs = 0;
+            long previous = 0;
+            for (long word : words) {
+                cardinality += Long.bitCount(word);
+                // a run starts at every set bit whose lower neighbour is clear
+                runs += Long.bitCount(word & ~(word << 1 | previous >>> 63));
+                previous = word;
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            long runBytes = 4L * runs;
+            long arrayBytes = cardinality <= MAX_ARRAY_VALUES ? 2L * cardinality : Long.MAX_VALUE;
+            long bitmapBytes = 8L * WORDS;
+            if (runBytes <= arrayBytes && runBytes <= bitmapBytes) {
+                return RunChunk.of(words, runs);
+            }
+            if (arrayBytes <= bitmapBytes) {
+                return ArrayChunk.of(words, cardinality);
+            }
+            return new BitmapChunk(words, cardinality);
+        }
+
+        /**
+         * Smallest container for the first {@code runs} runs, sorted and not adjacent
+         * @return null when there is no run
+         */
+        static Chunk ofRuns(char[] starts, char[] ends, int runs) {
+            if (runs == 0) {
+                return null;
+            }
+            RunChunk chunk = new RunChunk(Arrays.copyOf(starts, runs), Arrays.copyOf(ends, runs));
+            int cardinality = chunk.cardinality();
+            long runBytes = 4L * runs;
+            long arrayBytes = cardinality <= MAX_ARRAY_VALUES ? 2L * cardinality : Long.MAX_VALUE;
+            if (runBytes <= arrayBytes && runBytes <= 8L * WORDS) {
+                return chunk;
+            }
+            return of(chunk.words());
+        }
+    }
+
+    private record ArrayChunk(char[] values) implements Chunk {
+
+        static ArrayChunk of(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    values[size++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayChunk(values);
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 2L * values.length;
+        }
+
+        @Override
+        public void forEach(IntConsumer action) {
+            for (char value : values) {
+                action.accept(value);
+            }
+        }
+
+        @Override
+        public long[] words() {
+            long[] words = new long[WORDS];
+            for (char value : values) {
+                words[value >>> 6] |= 1L << value;
+            }
+            return words;
+        }
+    }
+
+    private record BitmapChunk(long[] bits, int cardinality) implements Chunk {
+
+        @Override
+        public boolean contains(char low) {
+            return (bits[low >>> 6] & 1L << low) != 0;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 8L * bits.length;
+        }
+
+        @Override
+        public void forEach(IntConsumer action) {
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    action.accept(w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override
+        public long[] words() {
+            return bits.clone();
+        }
+    }
+
+    /**
+     * Runs of consecutive values, run i covers starts[i] to ends[i] included
+     */
+    private record RunChunk(char[] starts, char[] ends) implements Chunk {
+
+        static RunChunk of(long[] words, int runs) {
+            char[] starts = new char[runs];
+            char[] ends = new char[runs];
+            int run = -1;
+            int previous = -2;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    int value = w << 6 | Long.numberOfTrailingZeros(word);
+                    if (value != previous + 1) {
+                        starts[++run] = (char) value;
+                    }
+                    ends[run] = (char) value;
+                    previous = value;
+                }
+            }
+            return new RunChunk(starts, ends);
+        }
+
+        /**
+         * Overlaps of the runs of both chunks, walked in start order
+         */
+        Chunk and(RunChunk other) {
+            char[] resultStarts = new char[starts.length + other.starts.length];
+            char[] resultEnds = new char[resultStarts.length];
+            int runs = 0;
+            int i = 0;
+            int j = 0;
+            while (i < starts.length && j < other.starts.length) {
+                int start = Math.max(starts[i], other.starts[j]);
+                int end = Math.min(ends[i], other.ends[j]);
+                if (start <= end) {
+                    resultStarts[runs] = (char) start;
+                    resultEnds[runs++] = (char) end;
+                }
+                // the run ending first can not overlap a later run of the other chunk
+                if (ends[i] < other.ends[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Chunk.ofRuns(resultStarts, resultEnds, runs);
+        }
+
+        /**
+         * Runs of both chunks in start order, overlapping or adjacent runs are joined
+         */
+        Chunk or(RunChunk other) {
+            char[] resultStarts = new char[starts.length + other.starts.length];
+            char[] resultEnds = new char[resultStarts.length];
+            int runs = 0;
+            int i = 0;
+            int j = 0;
+            while (i < starts.length || j < other.starts.length) {
+                int start;
+                int end;
+                if (j == other.starts.length
+                        || (i < starts.length && starts[i] <= other.starts[j])) {
+                    start = starts[i];
+                    end = ends[i++];
+                } else {
+                    start = other.starts[j];
+                    end = other.ends[j++];
+                }
+                if (runs > 0 && start <= resultEnds[runs - 1] + 1) {
+                    resultEnds[runs - 1] = (char) Math.max(resultEnds[runs - 1], end);
+                } else {
+                    resultStarts[runs] = (char) start;
+                    resultEnds[runs++] = (char) end;
+                }
+            }
+            return Chunk.ofRuns(resultStarts, resultEnds, runs);
+        }
+
+        @Override
+        public boolean contains(char low) {
+            int run = Arrays.binarySearch(starts, low);
+            if (run >= 0) {
+                return true;
+            }
+            // the run starting just below the value
+            run = -run - 2;
+            return run >= 0 && low <= ends[run];
+        }
+
+        @Override
+        public int cardinality() {
+            int cardinality = 0;
+            for (int run = 0; run < starts.length; run++) {
+                cardinality += ends[run] - starts[run] + 1;
+            }
+            return cardinality;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 4L * starts.length;
+        }
+
+        @Override
+        public void forEach(IntConsumer action) {
+            for (int run = 0; run < starts.length; run++) {
+                for (int value = starts[run]; value <= ends[run]; value++) {
+                    action.accept(value);
+                }
+            }
+        }
+
+        @Override
+        public long[] words() {
+            long[] words = new long[WORDS];
+            for (int run = 0; run < starts.length; run++) {
+                for (int value = starts[run]; value <= ends[run]; value++) {
+                    words[value >>> 6] |= 1L << value;
+                }
+            }
+            return words;
+        }
+    }
+}
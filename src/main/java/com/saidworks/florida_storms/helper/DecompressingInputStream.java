@@ -0,0 +1,186 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Input stream inflating a gzip or zip source on its own thread
+ * Inflated blocks are handed over through a bounded ring of reusable buffers: the reader splits a
+ * block into batches while the next blocks are inflated, the inflater waits when every buffer is
+ * full and the reader waits when every buffer is empty
+ * A zip source is read from its first file entry
+ * Any failure of the inflater is rethrown to the reader once the blocks before it are read, a
+ * failed source never looks like a shorter file
+ */
+public class DecompressingInputStream extends InputStream {
+    private static final Block END = new Block(0);
+
+    /**
+     * Compression formats recognized from the file extension
+     */
+    public enum Format {
+        GZIP,
+        ZIP
+    }
+
+    private final InputStream source;
+    private final BlockingQueue<Block> freeBlocks;
+    private final BlockingQueue<Block> filledBlocks;
+    private final Thread inflater;
+    private volatile Exception failure;
+    private Block current;
+    private int position;
+
+    /**
+     * Starts inflating {@code compressed} right away
+     * @param bufferCount number of buffers of the ring
+     * @param bufferSize size of each buffer in bytes
+     * @param name name of the source, used for the inflater thread
+     */
+    public DecompressingInputStream(
+            InputStream compressed, Format format, int bufferCount, int bufferSize, String name)
+            throws IOException {
+        this.source =
+                format == Format.GZIP
+                        ? new GZIPInputStream(compressed, bufferSize)
+                        : firstFileEntry(compressed);
+        this.freeBlocks = new ArrayBlockingQueue<>(bufferCount);
+        // one more slot so the end marker always fits
+        this.filledBlocks = new ArrayBlockingQueue<>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; i++) {
+            freeBlocks.add(new Block(bufferSize));
+        }
+        this.inflater = new Thread(this::inflate, "hurdat2-inflater-" + name);
+        inflater.setDaemon(true);
+        inflater.start();
+    }
+
+    /**
+     * Format of a file from its extension, empty for plain text
+     */
+    public static Optional<Format> formatOf(String filename) {
+        if (filename == null) {
+            return Optional.empty();
+        }
+        String name = filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            return Optional.of(Format.GZIP);
+        }
+        if (name.endsWith(".zip")) {
+            return Optional.of(Format.ZIP);
+        }
+        return Optional.empty();
+    }
+
+    private static InputStream firstFileEntry(InputStream compressed) throws IOException {
+        ZipInputStream zip = new ZipInputStream(compressed);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return zip;
+            }
+        }
+        zip.close();
+        throw new IOException("Zip archive has no file entry");
+    }
+
+    private void inflate() {
+        try (source) {
+            while (true) {
+                Block block = freeBlocks.take();
+                block.length = source.readNBytes(block.data, 0, block.data.length);
+                if (block.length > 0) {
+                    filledBlocks.put(block);
+                }
+                if (block.length < block.data.length) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            // the reader closed the stream
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        } finally {
+            filledBlocks.add(END);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        Block block = currentBlock();
+        if (block == null) {
+            return -1;
+        }
+        int value = block.data[position++] & 0xFF;
+        releaseIfConsumed(block);
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        Block block = currentBlock();
+        if (block == null) {
+            return -1;
+        }
+        int count = Math.min(length, block.length - position);
+        System.arraycopy(block.data, position, buffer, offset, count);
+        position += count;
+        releaseIfConsumed(block);
+        return count;
+    }
+
+    private Block currentBlock() throws IOException {
+        if (current == null) {
+            try {
+                current = filledBlocks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for inflated data");
+            }
+            position = 0;
+        }
+        if (current == END) {
+            if (failure != null) {
+                throw new IOException("Failed to decompress cyclone data", failure);
+            }
+            return null;
+        }
+        return current;
+    }
+
+    private void releaseIfConsumed(Block block) {
+        if (position == block.length) {
+            // the ring owns every buffer, giving it back never blocks
+            freeBlocks.add(block);
+            current = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        // the inflater closes the source once it stops
+        inflater.interrupt();
+    }
+
+    private static final class Block {
+        final byte[] data;
+        int length;
+
+        Block(int size) {
+            this.data = new byte[size];
+        }
+    }
+}
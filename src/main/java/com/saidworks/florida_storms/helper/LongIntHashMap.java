@@ -0,0 +1,89 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.helper;
+
+/**
+ * Open addressing hash map from long keys to int values without boxing
+ * Not thread safe, meant for single threaded folds such as the batch merge
+ */
+public class LongIntHashMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        // next power of two able to hold the expected keys
+        int slots = Math.max((int) (expectedSize / LOAD_FACTOR), 8);
+        int capacity = Integer.highestOneBit(slots - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * @return the value of {@code key} or {@code missing} when the key is absent
+     */
+    public int get(long key, int missing) {
+        int slot = slot(key);
+        return used[slot] ? values[slot] : missing;
+    }
+
+    /**
+     * Associates {@code value} with {@code key} unless the key is already present
+     * @return the existing value or {@code value} when it was inserted
+     */
+    public int putIfAbsent(long key, int value) {
+        int slot = slot(key);
+        if (used[slot]) {
+            return values[slot];
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        if (++size > keys.length * LOAD_FACTOR) {
+            rehash(keys.length << 1);
+        }
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.helper;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Line scanning helpers over a memory mapped HURDAT2 file
+ * All positions are absolute byte offsets into the segment, HURDAT2 is plain ASCII so one byte is
+ * one character
+ */
+public class SegmentLines {
+    private static final byte NEW_LINE = '\n';
+    private static final byte COMMA = ',';
+
+    private SegmentLines() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    /**
+     * Returns the offset of the line feed ending the line that starts at {@code position}, or
+     * {@code limit} when the last line has no line feed
+     */
+    public static long lineEnd(MemorySegment segment, long position, long limit) {
+        long cursor = position;
+        while (cursor < limit && segment.get(ValueLayout.JAVA_BYTE, cursor) != NEW_LINE) {
+            cursor++;
+        }
+        return cursor;
+    }
+
+    /**
+     * Returns the offset of the first byte of the line following {@code position}
+     */
+    public static long nextLineStart(MemorySegment segment, long position, long limit) {
+        long end = lineEnd(segment, position, limit);
+        return end < limit ? end + 1 : limit;
+    }
+
+    /**
+     * Returns the offset of the first byte of the line ending at {@code end} (its line feed or the
+     * end of the segment), used to walk a file backwards
+     */
+    public static long lineStart(MemorySegment segment, long end) {
+        long cursor = end;
+        while (cursor > 0 && segment.get(ValueLayout.JAVA_BYTE, cursor - 1) != NEW_LINE) {
+            cursor--;
+        }
+        return cursor;
+    }
+
+    /**
+     * Counts the line feeds in [{@code start}, {@code end})
+     */
+    public static int countLines(MemorySegment segment, long start, long end) {
+        int count = 0;
+        for (long cursor = start; cursor < end; cursor++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, cursor) == NEW_LINE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Skips leading whitespace (same rules as {@link String#trim()})
+     */
+    public static long trimStart(MemorySegment segment, long start, long end) {
+        long cursor = start;
+        while (cursor < end && segment.get(ValueLayout.JAVA_BYTE, cursor) <= ' ') {
+            cursor++;
+        }
+        return cursor;
+    }
+
+    /**
+     * Skips trailing whitespace including the carriage return of CRLF files
+     */
+    public static long trimEnd(MemorySegment segment, long start, long end) {
+        long cursor = end;
+        while (cursor > start && segment.get(ValueLayout.JAVA_BYTE, cursor - 1) <= ' ') {
+            cursor--;
+        }
+        return cursor;
+    }
+
+    /**
+     * Same rule as the line based loader: header lines have at most 3 commas while data lines have
+     * 20+, the range is expected to be already trimmed
+     */
+    public static boolean isHeaderLine(MemorySegment segment, long start, long end) {
+        if (start >= end) {
+            return false;
+        }
+        int commaCount = 0;
+        for (long cursor = start; cursor < end; cursor++) {
+            if (segment.get(ValueLayout.JAVA_BYTE, cursor) == COMMA && ++commaCount > 3) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,21 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.batch;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Position of the last cyclone header of an ingested file together with a checksum of every byte
+ * before it
+ * The last cyclone is re-read on the next tail ingestion because new data lines may have been
+ * appended to it, anything before {@code lastHeaderOffset} must be unchanged
+ */
+@Data
+@Builder
+public class IngestionCheckpoint {
+    private long lastHeaderOffset;
+    private int lastHeaderLineNumber; // lines before the last header
+    private String lastCycloneId; // null when the file has no header yet
+    private long prefixChecksum; // CRC32C of [0, lastHeaderOffset)
+    private long fileSize;
+}
@@ -28,9 +28,17 @@ public class ProcessedBatch {
     public static class PartialCyclone {
         private String cycloneId; // e.g., "AL011851"
         private HeaderLine header; // May be null if batch starts mid-cyclone
-        private List<DataLine> dataLines;
+        private List<DataLine> dataLines; // view over the batch track store
         private boolean isHeaderPresent;
         private boolean isComplete; // True if we know this is the last batch for this cyclone
+        // epoch minutes of the first and last parsed point, kept by the predicate or not
+        @Builder.Default private int firstMinute = Integer.MAX_VALUE;
+        @Builder.Default private int lastMinute = Integer.MIN_VALUE;
+        // year of the first point of the partial, 0 without points, a continuation takes the
+        // year of its header batch when that batch has one
+        private int cycloneYear;
+        // false when a cyclone of cycloneYear can not match the predicate
+        @Builder.Default private boolean cycloneMayMatch = true;
     }
 
     public static ProcessedBatch.ProcessedBatchBuilder createEmptyBatch(int batchId) {
@@ -1,12 +1,15 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.models.batch;
 
+import java.lang.foreign.MemorySegment;
 import java.util.List;
 import lombok.Builder;
 import lombok.Data;
 
 /**
  * Represents a batch of raw file lines before parsing
+ * A batch is either line based ({@code lines}) or, when produced by the mapped loader, a byte
+ * range [{@code startOffset}, {@code endOffset}) of the mapped {@code source} file
  */
 @Data
 @Builder
@@ -15,4 +18,22 @@ public class RawBatch {
     private List<String> lines;
     private int startLineNumber;
     private int endLineNumber;
+
+    private MemorySegment source; // null for line based batches
+    private long startOffset;
+    private long endOffset;
+
+    /**
+     * @return true if the batch references a byte range of a mapped file instead of lines
+     */
+    public boolean isMapped() {
+        return source != null;
+    }
+
+    /**
+     * @return number of lines covered by the batch
+     */
+    public int getLineCount() {
+        return isMapped() ? endLineNumber - startLineNumber : lines.size();
+    }
 }
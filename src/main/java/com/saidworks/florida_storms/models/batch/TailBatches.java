@@ -0,0 +1,18 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.batch;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Raw batches covering the tail of a file starting at the previous checkpoint, along with the
+ * checkpoint and the checksum of the file they were read from
+ */
+@Data
+@Builder
+public class TailBatches {
+    private List<RawBatch> batches;
+    private IngestionCheckpoint checkpoint;
+    private long sourceChecksum; // CRC32C of the whole file
+}
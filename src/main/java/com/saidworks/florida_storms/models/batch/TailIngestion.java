@@ -0,0 +1,20 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.batch;
+
+import com.saidworks.florida_storms.models.domain.BasinPartition;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Partition updated from the tail of its file, along with the cyclones parsed from that tail
+ * with their full track when the landfalls are detected from the tracks
+ */
+@Data
+@Builder
+public class TailIngestion {
+    private BasinPartition partition;
+    // the last known cyclone parsed again then every appended one, empty unless asked for
+    private List<Cyclone> tracks;
+}
@@ -0,0 +1,22 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.Set;
+
+/**
+ * Combination of point attributes looked up in an {@link AttributeIndex}, a point matches when it
+ * has one of the accepted values of every given attribute
+ * @param statuses accepted status codes (HU, TS, ...), null for any
+ * @param recordTypes accepted record identifiers (L, I, ...), null for any
+ * @param minCategory lowest Saffir-Simpson category, 0 for tropical storms and weaker, null for
+ *     any
+ * @param decades accepted decades as their first year (1950, 1960, ...), null for any
+ */
+public record AttributeFilter(
+        Set<String> statuses,
+        Set<Character> recordTypes,
+        Integer minCategory,
+        Set<Integer> decades) {
+
+    public static final AttributeFilter ANY = new AttributeFilter(null, null, null, null);
+}
@@ -0,0 +1,196 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.helper.CompressedBitmap;
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import com.saidworks.florida_storms.models.track.StormStatusCodes;
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compressed bitmaps over the ordinals of the track points of a list of cyclones, one per status,
+ * record identifier, Saffir-Simpson category and decade, built once per dataset
+ * Points without a recorded wind have their own bitmap and match no category filter
+ * A filter is answered by OR-ing the bitmaps of the accepted values of an attribute and AND-ing
+ * the attributes, only the points left are then read
+ * Building the category bitmaps decodes the wind of lazily decoded track points
+ */
+public final class AttributeIndex {
+    // lowest sustained wind in knots of categories 1 to 5
+    private static final int[] CATEGORY_WINDS = {64, 83, 96, 113, 137};
+    // category key of the points without a recorded wind, after category 5
+    static final int MISSING_WIND = CATEGORY_WINDS.length + 1;
+
+    private final List<Cyclone> cyclones;
+    private final int[] latitudes;
+    private final int[] longitudes;
+    private final int[] cycloneIndexes;
+    private final CompressedBitmap all;
+    private final Map<String, CompressedBitmap> statuses;
+    private final Map<Character, CompressedBitmap> recordTypes;
+    private final CompressedBitmap[] categories = new CompressedBitmap[MISSING_WIND + 1];
+    private final Map<Integer, CompressedBitmap> decades;
+    private final long buildMillis;
+
+    /**
+     * @param cyclones indexed cyclones, query results keep their order
+     */
+    public AttributeIndex(List<Cyclone> cyclones) {
+        this(cyclones, new IndexedPoints(cyclones));
+    }
+
+    AttributeIndex(List<Cyclone> cyclones, IndexedPoints points) {
+        long start = System.currentTimeMillis();
+        this.cyclones = cyclones;
+        this.latitudes = points.latitudes;
+        this.longitudes = points.longitudes;
+        this.cycloneIndexes = points.cycloneIndexes;
+
+        Map<String, CompressedBitmap.Builder> statusBuilders = new HashMap<>();
+        Map<Character, CompressedBitmap.Builder> recordTypeBuilders = new HashMap<>();
+        CompressedBitmap.Builder[] categoryBuilders =
+                new CompressedBitmap.Builder[categories.length];
+        Map<Integer, CompressedBitmap.Builder> decadeBuilders = new HashMap<>();
+        for (int category = 0; category < categories.length; category++) {
+            categoryBuilders[category] = new CompressedBitmap.Builder();
+        }
+        // ordinals are added in increasing order as the builders require
+        for (int i = 0; i < points.size; i++) {
+            String status = StormStatusCodes.decode(points.statusCodes[i]);
+            if (status != null) {
+                statusBuilders.computeIfAbsent(status, _ -> new CompressedBitmap.Builder()).add(i);
+            }
+            recordTypeBuilders
+                    .computeIfAbsent(points.recordTypes[i], _ -> new CompressedBitmap.Builder())
+                    .add(i);
+            categoryBuilders[categoryKey(points.maxWindSpeeds[i])].add(i);
+            decadeBuilders
+                    .computeIfAbsent(
+                            decade(points.epochMinutes[i]), _ -> new CompressedBitmap.Builder())
+                    .add(i);
+        }
+        all = CompressedBitmap.range(points.size);
+        statuses = build(statusBuilders);
+        recordTypes = build(recordTypeBuilders);
+        for (int category = 0; category < categories.length; category++) {
+            categories[category] = categoryBuilders[category].build();
+        }
+        decades = build(decadeBuilders);
+        buildMillis = System.currentTimeMillis() - start;
+    }
+
+    /**
+     * Saffir-Simpson category of a sustained wind in knots, 0 below hurricane strength
+     */
+    public static int category(int maxWindSpeed) {
+        int category = 0;
+        while (category < CATEGORY_WINDS.length && maxWindSpeed >= CATEGORY_WINDS[category]) {
+            category++;
+        }
+        return category;
+    }
+
+    /**
+     * Category of a recorded wind, {@link #MISSING_WIND} when the wind is missing (negative)
+     */
+    static int categoryKey(int maxWindSpeed) {
+        return maxWindSpeed < 0 ? MISSING_WIND : category(maxWindSpeed);
+    }
+
+    /**
+     * @return number of indexed points
+     */
+    public int size() {
+        return cycloneIndexes.length;
+    }
+
+    /**
+     * @return approximate heap size of every bitmap in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = all.sizeInBytes();
+        for (Map<?, CompressedBitmap> bitmaps : List.of(statuses, recordTypes, decades)) {
+            for (CompressedBitmap bitmap : bitmaps.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        for (CompressedBitmap bitmap : categories) {
+            bytes += bitmap.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    public long buildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * Ordinals of the points matching every attribute of the filter
+     */
+    public CompressedBitmap matching(AttributeFilter filter) {
+        CompressedBitmap matched = all;
+        matched = and(matched, filter.statuses(), statuses::get);
+        matched = and(matched, filter.recordTypes(), recordTypes::get);
+        if (filter.minCategory() != null) {
+            CompressedBitmap accepted = CompressedBitmap.empty();
+            for (int category = Math.max(filter.minCategory(), 0);
+                    category <= CATEGORY_WINDS.length;
+                    category++) {
+                accepted = accepted.or(categories[category]);
+            }
+            matched = matched.and(accepted);
+        }
+        return and(matched, filter.decades(), decades::get);
+    }
+
+    /**
+     * Cyclones with at least one point matching the filter, within the boundary when one is given
+     * @param boundary null for anywhere
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesMatching(AttributeFilter filter, GeoBoundary boundary) {
+        BoundaryScan scan = boundary == null ? null : BoundaryScan.of(boundary);
+        BitSet matched = new BitSet(cyclones.size());
+        matching(filter)
+                .forEach(
+                        point -> {
+                            if (scan == null
+                                    || scan.contains(latitudes[point], longitudes[point])) {
+                                matched.set(cycloneIndexes[point]);
+                            }
+                        });
+        return matched.stream().mapToObj(cyclones::get).toList();
+    }
+
+    private static <K> CompressedBitmap and(
+            CompressedBitmap matched,
+            Set<K> accepted,
+            Function<K, CompressedBitmap> bitmaps) {
+        if (accepted == null) {
+            return matched;
+        }
+        CompressedBitmap union = CompressedBitmap.empty();
+        for (K value : accepted) {
+            CompressedBitmap bitmap = bitmaps.apply(value);
+            if (bitmap != null) {
+                union = union.or(bitmap);
+            }
+        }
+        return matched.and(union);
+    }
+
+    private static <K> Map<K, CompressedBitmap> build(Map<K, CompressedBitmap.Builder> builders) {
+        Map<K, CompressedBitmap> bitmaps = new HashMap<>();
+        builders.forEach((key, builder) -> bitmaps.put(key, builder.build()));
+        return Map.copyOf(bitmaps);
+    }
+
+    private static int decade(int epochMinute) {
+        return TrackStore.toDateTime(epochMinute).getYear() / 10 * 10;
+    }
+}
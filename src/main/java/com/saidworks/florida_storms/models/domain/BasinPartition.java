@@ -0,0 +1,20 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.batch.IngestionCheckpoint;
+import java.util.List;
+
+/**
+ * Cyclones parsed from one basin file, each file is loaded and reloaded on its own
+ * @param source location of the HURDAT2 file
+ * @param cyclones merged cyclones in file order
+ * @param checkpoint where the next tail ingestion of the file starts, null when only full reloads
+ *     are possible
+ */
+public record BasinPartition(
+        String source, List<Cyclone> cyclones, IngestionCheckpoint checkpoint) {
+
+    public BasinPartition {
+        cyclones = List.copyOf(cyclones);
+    }
+}
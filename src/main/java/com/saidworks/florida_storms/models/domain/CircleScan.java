@@ -0,0 +1,106 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * Exact test of points and track segments in signed tenths of a degree against a
+ * {@link GeoCircle}
+ * Positions are unit vectors, a point is within the radius when the cosine of its angle to the
+ * center is at least the cosine of the radius, a segment when its closest approach along the
+ * great-circle arc between its two points is within the radius
+ */
+final class CircleScan {
+    private final double x;
+    private final double y;
+    private final double z;
+    private final double radius;
+    private final double cosRadius;
+    private final boolean empty;
+
+    CircleScan(GeoCircle circle) {
+        double latitude = Math.toRadians(circle.latitude());
+        double longitude = Math.toRadians(circle.longitude());
+        x = Math.cos(latitude) * Math.cos(longitude);
+        y = Math.cos(latitude) * Math.sin(longitude);
+        z = Math.sin(latitude);
+        radius = circle.angularRadius();
+        cosRadius = Math.cos(radius);
+        empty = !(circle.radiusNm() >= 0);
+    }
+
+    boolean contains(int latitudeTenths, int longitudeTenths) {
+        return !empty && cosine(latitudeTenths, longitudeTenths) >= cosRadius;
+    }
+
+    /**
+     * @return whether the closest approach of the arc between two points is within the radius
+     */
+    boolean nearSegment(
+            int fromLatitudeTenths,
+            int fromLongitudeTenths,
+            int toLatitudeTenths,
+            int toLongitudeTenths) {
+        if (contains(fromLatitudeTenths, fromLongitudeTenths)
+                || contains(toLatitudeTenths, toLongitudeTenths)) {
+            return true;
+        }
+        if (empty) {
+            return false;
+        }
+        double[] from = unit(fromLatitudeTenths, fromLongitudeTenths);
+        double[] to = unit(toLatitudeTenths, toLongitudeTenths);
+        // normal of the plane of the arc
+        double nx = from[1] * to[2] - from[2] * to[1];
+        double ny = from[2] * to[0] - from[0] * to[2];
+        double nz = from[0] * to[1] - from[1] * to[0];
+        double norm = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (norm < 1e-12) {
+            // both points at the same position, already tested
+            return false;
+        }
+        nx /= norm;
+        ny /= norm;
+        nz /= norm;
+        double offPlane = x * nx + y * ny + z * nz;
+        if (Math.asin(Math.min(1, Math.abs(offPlane))) > radius) {
+            return false;
+        }
+        // foot of the perpendicular on the great circle, the arc holds it when it lies between
+        // both points in the direction of travel
+        double px = x - offPlane * nx;
+        double py = y - offPlane * ny;
+        double pz = z - offPlane * nz;
+        return side(from[0], from[1], from[2], px, py, pz, nx, ny, nz) >= 0
+                && side(px, py, pz, to[0], to[1], to[2], nx, ny, nz) >= 0;
+    }
+
+    private double cosine(int latitudeTenths, int longitudeTenths) {
+        double[] point = unit(latitudeTenths, longitudeTenths);
+        return x * point[0] + y * point[1] + z * point[2];
+    }
+
+    private static double[] unit(int latitudeTenths, int longitudeTenths) {
+        double latitude = Math.toRadians(latitudeTenths / 10.0);
+        double longitude = Math.toRadians(longitudeTenths / 10.0);
+        return new double[] {
+            Math.cos(latitude) * Math.cos(longitude),
+            Math.cos(latitude) * Math.sin(longitude),
+            Math.sin(latitude)
+        };
+    }
+
+    /**
+     * @return sign of (a x b) . n, positive when b follows a along the arc
+     */
+    private static double side(
+            double ax,
+            double ay,
+            double az,
+            double bx,
+            double by,
+            double bz,
+            double nx,
+            double ny,
+            double nz) {
+        return (ay * bz - az * by) * nx + (az * bx - ax * bz) * ny + (ax * by - ay * bx) * nz;
+    }
+}
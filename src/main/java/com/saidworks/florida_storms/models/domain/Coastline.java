@@ -0,0 +1,156 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Land polygons with a uniform grid over their edges, coordinates are signed degrees
+ * Every ring is closed implicitly and holes are rings of their own, a point is on land when a ray
+ * from it crosses an odd number of edges
+ * Edges are bucketed twice on cells of one degree: by latitude band for the ray test and by cell
+ * for the intersection of a track segment, each query only reads the edges near it
+ */
+public final class Coastline {
+    private static final int MIN_LATITUDE = -90;
+    private static final int MIN_LONGITUDE = -180;
+    private static final int ROWS = 181;
+    private static final int COLUMNS = 361;
+
+    // edge i goes from (x0[i], y0[i]) to (x1[i], y1[i]), x is the longitude and y the latitude
+    private final double[] x0;
+    private final double[] y0;
+    private final double[] x1;
+    private final double[] y1;
+    // edges crossing latitude band r are bandEdges[bandStarts[r]..bandStarts[r + 1])
+    private final int[] bandStarts = new int[ROWS + 1];
+    private final int[] bandEdges;
+    // edges whose bounding box overlaps cell c are cellEdges[cellStarts[c]..cellStarts[c + 1])
+    private final int[] cellStarts = new int[ROWS * COLUMNS + 1];
+    private final int[] cellEdges;
+
+    /**
+     * @param rings polygon rings, each one as {lon0, lat0, lon1, lat1, ...}
+     */
+    public Coastline(List<double[]> rings) {
+        int edgeCount = rings.stream().mapToInt(ring -> ring.length / 2).sum();
+        x0 = new double[edgeCount];
+        y0 = new double[edgeCount];
+        x1 = new double[edgeCount];
+        y1 = new double[edgeCount];
+        int edge = 0;
+        for (double[] ring : rings) {
+            int vertices = ring.length / 2;
+            for (int v = 0; v < vertices; v++) {
+                int next = (v + 1) % vertices;
+                x0[edge] = ring[2 * v];
+                y0[edge] = ring[2 * v + 1];
+                x1[edge] = ring[2 * next];
+                y1[edge] = ring[2 * next + 1];
+                edge++;
+            }
+        }
+        bandEdges = bucket(bandStarts, ROWS, false);
+        cellEdges = bucket(cellStarts, ROWS * COLUMNS, true);
+    }
+
+    /**
+     * @return number of polygon edges
+     */
+    public int size() {
+        return x0.length;
+    }
+
+    /**
+     * Ray test against the edges of the latitude band of the point
+     */
+    public boolean isLand(double latitude, double longitude) {
+        int band = row(latitude);
+        boolean inside = false;
+        for (int i = bandStarts[band]; i < bandStarts[band + 1]; i++) {
+            int e = bandEdges[i];
+            if ((y0[e] > latitude) != (y1[e] > latitude)
+                    && longitude
+                            < x0[e] + (latitude - y0[e]) * (x1[e] - x0[e]) / (y1[e] - y0[e])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * First crossing of the coastline by the segment from the first to the second point
+     * @return position of the crossing along the segment between 0 and 1, -1 when the segment
+     *     crosses no edge
+     */
+    public double firstCrossing(
+            double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double dx = toLongitude - fromLongitude;
+        double dy = toLatitude - fromLatitude;
+        double first = -1;
+        for (int row = row(Math.min(fromLatitude, toLatitude));
+                row <= row(Math.max(fromLatitude, toLatitude));
+                row++) {
+            for (int column = column(Math.min(fromLongitude, toLongitude));
+                    column <= column(Math.max(fromLongitude, toLongitude));
+                    column++) {
+                int cell = row * COLUMNS + column;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int e = cellEdges[i];
+                    double ex = x1[e] - x0[e];
+                    double ey = y1[e] - y0[e];
+                    double denominator = dx * ey - dy * ex;
+                    if (denominator == 0) {
+                        continue; // parallel
+                    }
+                    double qx = x0[e] - fromLongitude;
+                    double qy = y0[e] - fromLatitude;
+                    double t = (qx * ey - qy * ex) / denominator;
+                    double u = (qx * dy - qy * dx) / denominator;
+                    if (t >= 0 && t <= 1 && u >= 0 && u <= 1 && (first < 0 || t < first)) {
+                        first = t;
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Counting sort of the edges into latitude bands or cells, an edge is listed in every bucket
+     * its bounding box overlaps
+     */
+    private int[] bucket(int[] starts, int bucketCount, boolean byCell) {
+        for (int e = 0; e < x0.length; e++) {
+            forEachBucket(e, byCell, bucket -> starts[bucket + 1]++);
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            starts[bucket + 1] += starts[bucket];
+        }
+        int[] entries = new int[starts[bucketCount]];
+        int[] next = starts.clone();
+        for (int e = 0; e < x0.length; e++) {
+            int edge = e;
+            forEachBucket(e, byCell, bucket -> entries[next[bucket]++] = edge);
+        }
+        return entries;
+    }
+
+    private void forEachBucket(int e, boolean byCell, IntConsumer action) {
+        int firstColumn = byCell ? column(Math.min(x0[e], x1[e])) : 0;
+        int lastColumn = byCell ? column(Math.max(x0[e], x1[e])) : 0;
+        for (int row = row(Math.min(y0[e], y1[e])); row <= row(Math.max(y0[e], y1[e])); row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                action.accept(byCell ? row * COLUMNS + column : row);
+            }
+        }
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.clamp(Math.floor(latitude) - MIN_LATITUDE, 0, ROWS - 1);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.clamp(Math.floor(longitude) - MIN_LONGITUDE, 0, COLUMNS - 1);
+    }
+}
@@ -1,20 +1,69 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.models.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.saidworks.florida_storms.models.track.TrackSlice;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+/**
+ * A cyclone header with its track points
+ * Cyclones built by the pipeline hold a {@link TrackSlice} of the shared columnar store, DataLine
+ * objects are only created when the list is read (JSON, reports)
+ */
 @Data
 @AllArgsConstructor
 public class Cyclone {
+    private static final int NOT_RECORDED_FIRST = Integer.MAX_VALUE;
+    private static final int NOT_RECORDED_LAST = Integer.MIN_VALUE;
+
     private HeaderLine header;
     private List<DataLine> dataLines;
 
+    // epoch minutes of the first and last point of the whole track, recorded by the parser so
+    // they hold when only some points are kept, not recorded when the track is not filtered
+    private int firstTrackMinute;
+    private int lastTrackMinute;
+
     public Cyclone(HeaderLine header) {
-        this.header = header;
-        this.dataLines = new ArrayList<>();
+        this(header, new ArrayList<>());
+    }
+
+    public Cyclone(HeaderLine header, List<DataLine> dataLines) {
+        this(header, dataLines, NOT_RECORDED_FIRST, NOT_RECORDED_LAST);
+    }
+
+    /**
+     * Same cyclone holding only some points of its track, the track span is kept
+     */
+    public Cyclone withDataLines(List<DataLine> points) {
+        return new Cyclone(header, points, getFirstTrackMinute(), getLastTrackMinute());
+    }
+
+    /**
+     * @return epoch minute of the first point of the track, {@link Integer#MAX_VALUE} for a
+     *     cyclone without points
+     */
+    @JsonIgnore
+    public int getFirstTrackMinute() {
+        if (firstTrackMinute != NOT_RECORDED_FIRST || dataLines.isEmpty()) {
+            return firstTrackMinute;
+        }
+        return TemporalIndex.epochMinute(dataLines.getFirst().getDateTime());
+    }
+
+    /**
+     * @return epoch minute of the last point of the track, {@link Integer#MIN_VALUE} for a
+     *     cyclone without points
+     */
+    @JsonIgnore
+    public int getLastTrackMinute() {
+        if (lastTrackMinute != NOT_RECORDED_LAST || dataLines.isEmpty()) {
+            return lastTrackMinute;
+        }
+        return TemporalIndex.epochMinute(dataLines.getLast().getDateTime());
     }
 
     /**
@@ -0,0 +1,176 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable parsed dataset published by the dataset holder, readers keep the instance they got
+ * even when a newer one is swapped in
+ * @param partitions one partition per basin file in configuration order
+ * @param cyclones merged cyclones of every partition in file order
+ * @param basins cyclones by basin code (AL, EP, CP), a basin scoped query only reads its list
+ * @param landfalls grid over the landfalls of the configured detection, the track points of
+ *     {@code cyclones} or the detected coastline crossings, built with the dataset
+ * @param landfallTimes time index over the same landfalls
+ * @param landfallAttributes status, record, category and decade bitmaps of the same landfalls
+ * @param landfallCube statistics of the same landfalls per year, month, category and region
+ * @param landfallRanks top-K index over the grid
+ * @param landfallRadii great-circle radius queries over the grid
+ * @param version incremented on every successful (re)load
+ * @param loadedAt time the dataset was published
+ */
+public record CycloneDataset(
+        List<BasinPartition> partitions,
+        List<Cyclone> cyclones,
+        Map<String, List<Cyclone>> basins,
+        LandfallIndex landfalls,
+        TemporalIndex landfallTimes,
+        AttributeIndex landfallAttributes,
+        LandfallCube landfallCube,
+        RankIndex landfallRanks,
+        RadiusSearch landfallRadii,
+        long version,
+        Instant loadedAt) {
+
+    public CycloneDataset {
+        partitions = List.copyOf(partitions);
+        cyclones = List.copyOf(cyclones);
+        basins = Map.copyOf(basins);
+    }
+
+    public CycloneDataset(List<BasinPartition> partitions, long version, Instant loadedAt) {
+        this(partitions, null, version, loadedAt);
+    }
+
+    /**
+     * @param detectedLandfalls cyclones holding only their detected landfall points, null to
+     *     index the track points of the partitions
+     */
+    public CycloneDataset(
+            List<BasinPartition> partitions,
+            List<Cyclone> detectedLandfalls,
+            long version,
+            Instant loadedAt) {
+        this(partitions, concat(partitions), detectedLandfalls, version, loadedAt);
+    }
+
+    private CycloneDataset(
+            List<BasinPartition> partitions,
+            List<Cyclone> cyclones,
+            List<Cyclone> detectedLandfalls,
+            long version,
+            Instant loadedAt) {
+        this(
+                partitions,
+                cyclones,
+                new IndexedPoints(
+                        List.copyOf(detectedLandfalls == null ? cyclones : detectedLandfalls)),
+                version,
+                loadedAt);
+    }
+
+    private CycloneDataset(
+            List<BasinPartition> partitions,
+            List<Cyclone> cyclones,
+            IndexedPoints landfalls,
+            long version,
+            Instant loadedAt) {
+        this(partitions, cyclones, new LandfallIndex(landfalls), landfalls, version, loadedAt);
+    }
+
+    // the landfall points are read once by every index, the grid is shared by the grid queries
+    private CycloneDataset(
+            List<BasinPartition> partitions,
+            List<Cyclone> cyclones,
+            LandfallIndex grid,
+            IndexedPoints landfalls,
+            long version,
+            Instant loadedAt) {
+        this(
+                partitions,
+                cyclones,
+                byBasin(partitions),
+                grid,
+                new TemporalIndex(landfalls.cyclones, landfalls),
+                new AttributeIndex(landfalls.cyclones, landfalls),
+                new LandfallCube(landfalls),
+                new RankIndex(grid, landfalls),
+                new RadiusSearch(grid),
+                version,
+                loadedAt);
+    }
+
+    /**
+     * Cyclones of one basin, empty when no configured file has that basin
+     */
+    public List<Cyclone> cyclones(String basin) {
+        return basins.getOrDefault(basin, List.of());
+    }
+
+    /**
+     * Cyclones of one basin with a landfall within the boundary and between two epoch minutes,
+     * both included
+     * The time index is read instead of the grid when the time range holds fewer landfalls than
+     * the grid cells the boundary overlaps
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed landfalls
+     */
+    public List<Cyclone> landfallsWithin(
+            GeoBoundary boundary, String basin, int fromMinute, int toMinute) {
+        boolean bounded = fromMinute != Integer.MIN_VALUE || toMinute != Integer.MAX_VALUE;
+        if (bounded
+                && landfallTimes.pointsBetween(fromMinute, toMinute)
+                        < landfalls.pointsWithin(boundary, basin)) {
+            return landfallTimes.cyclonesWithin(boundary, basin, fromMinute, toMinute);
+        }
+        return landfalls.cyclonesWithin(boundary, basin, fromMinute, toMinute);
+    }
+
+    /**
+     * Cyclones holding only their points matching the predicate, cyclones without such a point
+     * are left out
+     */
+    public List<Cyclone> select(TrackPredicate predicate) {
+        List<Cyclone> selected = new ArrayList<>();
+        for (Cyclone cyclone : cyclones) {
+            if (!predicate.mayMatchCycloneOf(cyclone.getHeader().getYear())) {
+                continue;
+            }
+            List<DataLine> points =
+                    cyclone.getDataLines().stream().filter(point -> predicate.test(point)).toList();
+            if (points.size() == cyclone.getDataLines().size()) {
+                selected.add(cyclone);
+            } else if (!points.isEmpty()) {
+                selected.add(cyclone.withDataLines(points));
+            }
+        }
+        return selected;
+    }
+
+    private static List<Cyclone> concat(List<BasinPartition> partitions) {
+        if (partitions.size() == 1) {
+            return partitions.getFirst().cyclones();
+        }
+        List<Cyclone> cyclones = new ArrayList<>();
+        partitions.forEach(partition -> cyclones.addAll(partition.cyclones()));
+        return cyclones;
+    }
+
+    private static Map<String, List<Cyclone>> byBasin(List<BasinPartition> partitions) {
+        // the Pacific file holds both EP and CP cyclones
+        Map<String, List<Cyclone>> basins = new LinkedHashMap<>();
+        for (BasinPartition partition : partitions) {
+            for (Cyclone cyclone : partition.cyclones()) {
+                basins.computeIfAbsent(cyclone.getHeader().getBasin(), _ -> new ArrayList<>())
+                        .add(cyclone);
+            }
+        }
+        basins.replaceAll((_, cyclones) -> List.copyOf(cyclones));
+        return basins;
+    }
+}
@@ -0,0 +1,69 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.Locale;
+
+/**
+ * Cyclone identifiers packed in a long: the two basin characters, the cyclone number and the year
+ * in 16 bits each, e.g. AL011851
+ * Keys compare and hash without creating the identifier String
+ */
+public class CycloneKeys {
+    private static final int BASIN_FIRST_SHIFT = 40;
+    private static final int BASIN_SECOND_SHIFT = 32;
+    private static final int NUMBER_SHIFT = 16;
+    private static final long FIELD_MASK = 0xFFFF;
+    private static final long CHAR_MASK = 0xFF;
+
+    private CycloneKeys() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    /**
+     * @param basin two letter basin code, a missing basin is packed as zero characters
+     */
+    public static long pack(String basin, int cycloneNumber, int year) {
+        long first = basin != null && !basin.isEmpty() ? basin.charAt(0) & CHAR_MASK : 0;
+        long second = basin != null && basin.length() > 1 ? basin.charAt(1) & CHAR_MASK : 0;
+        return first << BASIN_FIRST_SHIFT
+                | second << BASIN_SECOND_SHIFT
+                | (cycloneNumber & FIELD_MASK) << NUMBER_SHIFT
+                | year & FIELD_MASK;
+    }
+
+    /**
+     * Basin code of a request parameter (al, Ep, CP), null when no basin is given
+     */
+    public static String basinCode(String basin) {
+        return basin == null ? null : basin.toUpperCase(Locale.ROOT);
+    }
+
+    public static String basin(long key) {
+        char first = (char) (key >>> BASIN_FIRST_SHIFT & CHAR_MASK);
+        char second = (char) (key >>> BASIN_SECOND_SHIFT & CHAR_MASK);
+        if (first == 0) {
+            return null;
+        }
+        return second == 0 ? String.valueOf(first) : "" + first + second;
+    }
+
+    public static int cycloneNumber(long key) {
+        return (int) (key >>> NUMBER_SHIFT & FIELD_MASK);
+    }
+
+    public static int year(long key) {
+        return (int) (key & FIELD_MASK);
+    }
+
+    /**
+     * Identifier of the key, same text as the HURDAT2 header (basin, 2 digit number, year)
+     */
+    public static String format(long key) {
+        int cycloneNumber = cycloneNumber(key);
+        StringBuilder id = new StringBuilder(8).append(basin(key));
+        if (cycloneNumber < 10) {
+            id.append('0');
+        }
+        return id.append(cycloneNumber).append(year(key)).toString();
+    }
+}
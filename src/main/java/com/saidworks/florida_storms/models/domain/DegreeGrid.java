@@ -0,0 +1,83 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * Cells of one degree shared by the landfall, region, radius and track segment grids
+ * Coordinates are signed tenths of a degree, row 0 starts at 90S and column 0 at 180W, the last
+ * row and column only hold the poles and 180E
+ */
+final class DegreeGrid {
+    static final int CELL_TENTHS = 10;
+    static final int MIN_LATITUDE = -900;
+    static final int MAX_LATITUDE = 900;
+    static final int MIN_LONGITUDE = -1800;
+    static final int MAX_LONGITUDE = 1800;
+    static final int ROWS = (MAX_LATITUDE - MIN_LATITUDE) / CELL_TENTHS + 1;
+    static final int COLUMNS = (MAX_LONGITUDE - MIN_LONGITUDE) / CELL_TENTHS + 1;
+    static final int CELLS = ROWS * COLUMNS;
+
+    private DegreeGrid() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    /**
+     * Row holding a latitude in degrees, bounds of boxes and circles are looked up this way
+     */
+    static int latitudeRow(double degrees) {
+        return row(latitudeTenths(degrees));
+    }
+
+    /**
+     * Column holding a longitude in degrees
+     */
+    static int longitudeColumn(double degrees) {
+        return column(longitudeTenths(degrees));
+    }
+
+    static int row(int latitudeTenths) {
+        return Math.clamp((latitudeTenths - MIN_LATITUDE) / CELL_TENTHS, 0, ROWS - 1);
+    }
+
+    static int column(int longitudeTenths) {
+        return Math.clamp((longitudeTenths - MIN_LONGITUDE) / CELL_TENTHS, 0, COLUMNS - 1);
+    }
+
+    /**
+     * Column of a longitude east of 180E, or west of 180W, taken round the antimeridian
+     * @param column column counted from 180W, may be negative or past the last column
+     */
+    static int wrap(int column) {
+        return Math.floorMod(column, COLUMNS - 1);
+    }
+
+    static int cell(int row, int column) {
+        return row * COLUMNS + column;
+    }
+
+    /**
+     * Cell of a point in signed tenths of a degree
+     */
+    static int cellOf(int latitudeTenths, int longitudeTenths) {
+        return cell(row(latitudeTenths), column(longitudeTenths));
+    }
+
+    /**
+     * Turns the entry counts of a counting sort into cell starts, on entry
+     * {@code cellStarts[c + 1]} holds the count of cell c, on return the entries of cell c are at
+     * {@code [cellStarts[c], cellStarts[c + 1])}
+     */
+    static void accumulate(int[] cellStarts) {
+        for (int cell = 0; cell < cellStarts.length - 1; cell++) {
+            cellStarts[cell + 1] += cellStarts[cell];
+        }
+    }
+
+    // the exact test is done on every candidate, the cell only has to contain the bound
+    private static int latitudeTenths(double degrees) {
+        return (int) Math.clamp(Math.floor(degrees * 10), MIN_LATITUDE, MAX_LATITUDE);
+    }
+
+    private static int longitudeTenths(double degrees) {
+        return (int) Math.clamp(Math.floor(degrees * 10), MIN_LONGITUDE, MAX_LONGITUDE);
+    }
+}
@@ -29,6 +29,17 @@ public class GeoBoundary {
         double signedLat = latDirection == 'S' ? -latitude : latitude;
         double signedLon = lonDirection == 'W' ? -longitude : longitude;
 
+        return containsSigned(signedLat, signedLon);
+    }
+
+    /**
+     * Checks a coordinate stored as signed tenths of a degree (columnar track store)
+     */
+    public boolean containsTenths(int latitudeTenths, int longitudeTenths) {
+        return containsSigned(latitudeTenths / 10.0, longitudeTenths / 10.0);
+    }
+
+    private boolean containsSigned(double signedLat, double signedLon) {
         return signedLat >= minLatitude
                 && signedLat <= maxLatitude
                 && signedLon >= minLongitude
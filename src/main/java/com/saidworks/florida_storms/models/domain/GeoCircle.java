@@ -0,0 +1,84 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.List;
+
+/**
+ * Great-circle radius around a point, e.g. an insured asset
+ * @param name label returned with the results, may be null
+ * @param latitude signed degrees, north positive
+ * @param longitude signed degrees, east positive
+ * @param radiusNm radius in nautical miles, a negative or missing radius matches nothing
+ */
+public record GeoCircle(String name, double latitude, double longitude, double radiusNm) {
+    public static final double EARTH_RADIUS_NM = 3_440.065;
+
+    /**
+     * @return radius as an angle at the center of the earth, in radians
+     */
+    public double angularRadius() {
+        return radiusNm / EARTH_RADIUS_NM;
+    }
+
+    /**
+     * Boxes covering every point within the radius, candidates are pruned with them before the
+     * exact distance is computed
+     * The longitude half width is the widest of the circle, at its tangent latitude, the box
+     * spans every longitude when the circle reaches a pole, and is cut in two at the antimeridian
+     * @return one or two boxes, none when the radius matches nothing
+     */
+    public List<GeoBoundary> pruneBoxes() {
+        if (!(radiusNm >= 0)) {
+            return List.of();
+        }
+        double radius = angularRadius();
+        double latitudeSpan = Math.toDegrees(radius);
+        double minLatitude = latitude - latitudeSpan;
+        double maxLatitude = latitude + latitudeSpan;
+        double reach = Math.sin(radius) / Math.cos(Math.toRadians(latitude));
+        if (minLatitude <= -90 || maxLatitude >= 90 || reach >= 1 || radius >= Math.PI / 2) {
+            return List.of(box(Math.max(minLatitude, -90), Math.min(maxLatitude, 90), -180, 180));
+        }
+        double longitudeSpan = Math.toDegrees(Math.asin(reach));
+        double minLongitude = longitude - longitudeSpan;
+        double maxLongitude = longitude + longitudeSpan;
+        if (minLongitude < -180) {
+            return List.of(
+                    box(minLatitude, maxLatitude, -180, maxLongitude),
+                    box(minLatitude, maxLatitude, minLongitude + 360, 180));
+        }
+        if (maxLongitude > 180) {
+            return List.of(
+                    box(minLatitude, maxLatitude, minLongitude, 180),
+                    box(minLatitude, maxLatitude, -180, maxLongitude - 360));
+        }
+        return List.of(box(minLatitude, maxLatitude, minLongitude, maxLongitude));
+    }
+
+    /**
+     * @return great-circle distance in nautical miles from the center to a point in signed
+     *     degrees
+     */
+    public double distanceNm(double pointLatitude, double pointLongitude) {
+        double dLat = Math.toRadians(pointLatitude - latitude);
+        double dLon = Math.toRadians(pointLongitude - longitude);
+        double a =
+                Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                        + Math.cos(Math.toRadians(latitude))
+                                * Math.cos(Math.toRadians(pointLatitude))
+                                * Math.sin(dLon / 2)
+                                * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_NM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private GeoBoundary box(
+            double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        return GeoBoundary.builder()
+                .name(name)
+                .minLatitude(minLatitude)
+                .maxLatitude(maxLatitude)
+                .minLongitude(minLongitude)
+                .maxLongitude(maxLongitude)
+                .build();
+    }
+}
@@ -1,50 +1,78 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.models.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.saidworks.florida_storms.models.track.SymbolTable;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Setter;
 
 @Data
-@Builder
 public class HeaderLine {
+    // basins and names repeat across thousands of headers, every header shares one instance
+    private static final SymbolTable BASINS = new SymbolTable("basins", 0x100, "AL", "EP", "CP");
+    // HURDAT2 holds a few thousand distinct names, names past the cap are kept unshared
+    private static final SymbolTable NAMES = new SymbolTable("storm names", 0x4000, "UNNAMED");
+
     private String basin; // AL, EP, CP
     private int cycloneNumber; // 01
     private int year; // 1851
     private String name; // UNNAMED
     private int entriesCount; // 14
 
+    // string form of the packed key, rebuilt by the setters of the key fields
+    @Setter(AccessLevel.NONE)
+    private transient String cycloneId;
+
+    @Builder
+    public HeaderLine(
+            String basin, int cycloneNumber, int year, String name, int entriesCount) {
+        this.basin = BASINS.intern(basin);
+        this.cycloneNumber = cycloneNumber;
+        this.year = year;
+        this.name = NAMES.intern(name);
+        this.entriesCount = entriesCount;
+        this.cycloneId = CycloneKeys.format(getCycloneKey());
+    }
+
     /**
      * Parses a header line in the format:
      * AL011851,            UNNAMED,     14,
+     * Thin wrapper over {@link HurdatLineCursor}
      */
     public static HeaderLine parse(String line) {
-        String[] parts = line.split(",");
-        if (parts.length < 3) {
-            throw new IllegalArgumentException("Invalid header line format: " + line);
-        }
-
-        String headerData = parts[0].trim();
-        String name = parts[1].trim();
-        String entriesCount = parts[2].trim();
-
-        if (headerData.length() < 8) {
-            throw new IllegalArgumentException("Invalid header data format: " + headerData);
-        }
+        return new HurdatLineCursor().reset(line).parseHeaderLine().toHeaderLine();
+    }
 
-        return HeaderLine.builder()
-                .basin(headerData.substring(0, 2))
-                .cycloneNumber(Integer.parseInt(headerData.substring(2, 4)))
-                .year(Integer.parseInt(headerData.substring(4, 8)))
-                .name(name)
-                .entriesCount(Integer.parseInt(entriesCount))
-                .build();
+    /**
+     * Packed identifier, see {@link CycloneKeys}
+     */
+    @JsonIgnore
+    public long getCycloneKey() {
+        return CycloneKeys.pack(basin, cycloneNumber, year);
     }
 
     /**
-     * Generates the cyclone identifier (e.g., "AL011851")
+     * Cyclone identifier (e.g., "AL011851"), built once per header
      */
     public String getCycloneId() {
-        return String.format("%s%02d%d", basin, cycloneNumber, year);
+        return cycloneId;
+    }
+
+    public void setBasin(String basin) {
+        this.basin = BASINS.intern(basin);
+        this.cycloneId = CycloneKeys.format(getCycloneKey());
+    }
+
+    public void setCycloneNumber(int cycloneNumber) {
+        this.cycloneNumber = cycloneNumber;
+        this.cycloneId = CycloneKeys.format(getCycloneKey());
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+        this.cycloneId = CycloneKeys.format(getCycloneKey());
     }
 
     @Override
@@ -0,0 +1,566 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Reusable, allocation free tokenizer for HURDAT2 header and data lines
+ * The cursor reads either a {@link CharSequence} or a byte range of a mapped file, splits fields on
+ * commas in place and decodes numbers and coordinates straight into primitive fields
+ * Objects ({@link DataLine}, {@link HeaderLine}) are only created when asked for, so lines that
+ * get filtered out cost no garbage
+ * A cursor is not thread safe, use one per batch
+ */
+public class HurdatLineCursor {
+    public static final int MISSING = -999;
+    public static final int DATA_FIELD_COUNT = 20; // without the optional max wind radius
+    public static final int RADII_COUNT = 13; // 12 quadrant radii + radius of maximum wind
+    public static final int MAX_WIND_RADIUS = 12; // index of the radius of maximum wind in radii
+
+    private static final int CUTOFF_DATE_1900 = 19000101;
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000};
+
+    // source, either a text line or a mapped byte range
+    private CharSequence text;
+    private MemorySegment segment;
+    private long lineStart;
+    private long lineEnd;
+
+    // tokenizer state, bounds of the current trimmed field
+    private long position;
+    private long fieldStart;
+    private long fieldEnd;
+    private int coordinateScale; // decimals of the last coordinate read by parseCoordinate
+
+    // decoded data line fields
+    private int date; // yyyyMMdd
+    private int time; // HHmm
+    private char recordType; // 0 when the record identifier is blank
+    private long statusStart;
+    private long statusEnd;
+    private int latitudeUnits; // latitude without the decimal point, e.g. 280 for 28.0
+    private int latitudeScale; // number of decimals, 1 in HURDAT2
+    private char latitudeDirection;
+    private int longitudeUnits;
+    private int longitudeScale;
+    private char longitudeDirection;
+    private int maxWindSpeed;
+    private int centralPressure;
+    private final int[] radii = new int[RADII_COUNT];
+
+    // decoded header line fields
+    private long idStart;
+    private long nameStart;
+    private long nameEnd;
+    private int cycloneNumber;
+    private int year;
+    private int entriesCount;
+
+    public HurdatLineCursor reset(CharSequence line) {
+        this.text = line;
+        this.segment = null;
+        this.lineStart = 0;
+        this.lineEnd = line.length();
+        this.position = 0;
+        return this;
+    }
+
+    public HurdatLineCursor reset(MemorySegment source, long start, long end) {
+        this.text = null;
+        this.segment = source;
+        this.lineStart = start;
+        this.lineEnd = end;
+        this.position = start;
+        return this;
+    }
+
+    /**
+     * @return true if the trimmed line starts with the given prefix (e.g. a basin code)
+     */
+    public boolean startsWith(String prefix) {
+        long start = skipWhitespace(lineStart, lineEnd);
+        if (lineEnd - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same rule as the loaders: a header of any basin (AL, EP, CP) has at most 3 commas, a data
+     * line has 20
+     */
+    public boolean isHeaderLine() {
+        if (lineStart >= lineEnd) {
+            return false;
+        }
+        int commaCount = 0;
+        for (long cursor = lineStart; cursor < lineEnd; cursor++) {
+            if (charAt(cursor) == ',' && ++commaCount > 3) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a data line in the format:
+     * 18510625, 0000,  , HU, 28.0N,  94.8W,  80, -999, -999, -999, -999, -999, -999, -999, -999, -999, -999, -999, -999, -999, -999
+     */
+    public HurdatLineCursor parseDataLine() {
+        return requireDataFields()
+                .parseDataLineKeys()
+                .parseDataLinePosition()
+                .parseDataLineMeasurements();
+    }
+
+    /**
+     * Rejects a data line with fewer fields than {@link #DATA_FIELD_COUNT}, the check of
+     * {@link #parseDataLine()} for lines decoded field group by field group
+     */
+    public HurdatLineCursor requireDataFields() {
+        if (countFields() < DATA_FIELD_COUNT) {
+            throw new IllegalArgumentException(
+                    "Invalid data line format: not enough fields in line: " + lineAsString());
+        }
+        return this;
+    }
+
+    /**
+     * Decodes only the date, time and record identifier, enough to decide whether a line is kept
+     * The field count is not checked, the remaining fields are decoded by
+     * {@link #parseDataLinePosition()} and {@link #parseDataLineMeasurements()}
+     */
+    public HurdatLineCursor parseDataLineKeys() {
+        position = lineStart;
+
+        // date and time
+        nextField();
+        if (fieldEnd - fieldStart != 8) {
+            throw new IllegalArgumentException("Invalid date format: " + fieldAsString());
+        }
+        date = parseInt(fieldStart, fieldEnd);
+        nextField();
+        if (fieldEnd - fieldStart < 3) {
+            throw new IllegalArgumentException("Invalid time format: " + fieldAsString());
+        }
+        time = parseInt(fieldStart, fieldEnd);
+        validateDateTime();
+
+        // record identifier (can be empty)
+        nextField();
+        recordType = fieldStart < fieldEnd ? charAt(fieldStart) : 0;
+        return this;
+    }
+
+    /**
+     * Decodes the status and the coordinates, follows {@link #parseDataLineKeys()}
+     */
+    public HurdatLineCursor parseDataLinePosition() {
+        nextField();
+        statusStart = fieldStart;
+        statusEnd = fieldEnd;
+
+        // latitude and longitude with hemisphere validation
+        nextField();
+        latitudeDirection = fieldEnd > fieldStart ? charAt(fieldEnd - 1) : 0;
+        if (latitudeDirection != 'N' && latitudeDirection != 'S') {
+            throw new IllegalArgumentException("Invalid latitude format: " + fieldAsString());
+        }
+        latitudeUnits = parseCoordinate(fieldStart, fieldEnd - 1);
+        latitudeScale = coordinateScale;
+        if (latitudeUnits < 0) {
+            throw new IllegalArgumentException("Invalid latitude format: " + fieldAsString());
+        }
+
+        nextField();
+        longitudeDirection = fieldEnd > fieldStart ? charAt(fieldEnd - 1) : 0;
+        if (longitudeDirection != 'W' && longitudeDirection != 'E') {
+            throw new IllegalArgumentException("Invalid longitude format: " + fieldAsString());
+        }
+        longitudeUnits = parseCoordinate(fieldStart, fieldEnd - 1);
+        longitudeScale = coordinateScale;
+        if (longitudeUnits < 0) {
+            throw new IllegalArgumentException("Invalid longitude format: " + fieldAsString());
+        }
+        return this;
+    }
+
+    /**
+     * Decodes wind, pressure and radii, follows {@link #parseDataLinePosition()}
+     */
+    public HurdatLineCursor parseDataLineMeasurements() {
+        return parseDataLineIntensity().parseDataLineRadii();
+    }
+
+    /**
+     * Decodes wind and pressure, follows {@link #parseDataLinePosition()}
+     */
+    public HurdatLineCursor parseDataLineIntensity() {
+        // -999 marks missing data
+        nextField();
+        maxWindSpeed = parseInt(fieldStart, fieldEnd);
+        nextField();
+        centralPressure = parseInt(fieldStart, fieldEnd);
+        return this;
+    }
+
+    /**
+     * Decodes the wind radii, follows {@link #parseDataLineIntensity()}
+     */
+    public HurdatLineCursor parseDataLineRadii() {
+        for (int i = 0; i < RADII_COUNT - 1; i++) {
+            nextField();
+            radii[i] = parseInt(fieldStart, fieldEnd);
+        }
+
+        // the radius of maximum wind is not in all HURDAT2 versions
+        radii[MAX_WIND_RADIUS] =
+                nextField() && fieldStart < fieldEnd ? parseInt(fieldStart, fieldEnd) : MISSING;
+        return this;
+    }
+
+    /**
+     * Decodes a header line in the format:
+     * AL011851,            UNNAMED,     14,
+     */
+    public HurdatLineCursor parseHeaderLine() {
+        if (countFields() < 3) {
+            throw new IllegalArgumentException("Invalid header line format: " + lineAsString());
+        }
+        position = lineStart;
+
+        nextField();
+        if (fieldEnd - fieldStart < 8) {
+            throw new IllegalArgumentException("Invalid header data format: " + fieldAsString());
+        }
+        idStart = fieldStart;
+        cycloneNumber = parseInt(idStart + 2, idStart + 4);
+        year = parseInt(idStart + 4, idStart + 8);
+
+        nextField();
+        nameStart = fieldStart;
+        nameEnd = fieldEnd;
+
+        nextField();
+        entriesCount = parseInt(fieldStart, fieldEnd);
+        return this;
+    }
+
+    /**
+     * Checks if the decoded data line has a landfall record
+     */
+    public boolean isLandfall() {
+        return recordType == 'L';
+    }
+
+    /**
+     * Same rule as {@link DataLine#isAfter1900()} evaluated on the packed date
+     */
+    public boolean isAfter1900() {
+        return date > CUTOFF_DATE_1900;
+    }
+
+    public int getDate() {
+        return date;
+    }
+
+    public int getTime() {
+        return time;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMaxWindSpeed() {
+        return maxWindSpeed;
+    }
+
+    public int getCentralPressure() {
+        return centralPressure;
+    }
+
+    public char getRecordType() {
+        return recordType;
+    }
+
+    public char getLatitudeDirection() {
+        return latitudeDirection;
+    }
+
+    public char getLongitudeDirection() {
+        return longitudeDirection;
+    }
+
+    /**
+     * @param index 0-11 for the 34/50/64kt quadrant radii (NE, SE, SW, NW), 12 for the radius of
+     *     maximum wind
+     */
+    public int getRadius(int index) {
+        return radii[index];
+    }
+
+    public double getLatitude() {
+        return latitudeUnits / POWERS_OF_TEN[latitudeScale];
+    }
+
+    public double getLongitude() {
+        return longitudeUnits / POWERS_OF_TEN[longitudeScale];
+    }
+
+    /**
+     * @return unsigned latitude in tenths of a degree
+     */
+    public int getLatitudeTenths() {
+        return toTenths(latitudeUnits, latitudeScale);
+    }
+
+    /**
+     * @return unsigned longitude in tenths of a degree
+     */
+    public int getLongitudeTenths() {
+        return toTenths(longitudeUnits, longitudeScale);
+    }
+
+    /**
+     * Compares the status code against a literal without creating a String
+     */
+    public boolean statusEquals(String status) {
+        if (statusEnd - statusStart != status.length()) {
+            return false;
+        }
+        for (int i = 0; i < status.length(); i++) {
+            if (charAt(statusStart + i) != status.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getStormStatus() {
+        return substring(statusStart, statusEnd);
+    }
+
+    /**
+     * Builds a {@link DataLine} from the decoded fields, call it only for lines that are kept
+     */
+    public DataLine toDataLine() {
+        return DataLine.builder()
+                .dateTime(getDateTime())
+                .recordType(recordType == 0 ? null : recordType)
+                .stormStatus(getStormStatus())
+                .latitude(getLatitude())
+                .latitudeDirection(latitudeDirection)
+                .longitude(getLongitude())
+                .longitudeDirection(longitudeDirection)
+                .maxWindSpeed(maxWindSpeed)
+                .centralPressure(boxed(centralPressure))
+                .windRadius34NE(boxed(radii[0]))
+                .windRadius34SE(boxed(radii[1]))
+                .windRadius34SW(boxed(radii[2]))
+                .windRadius34NW(boxed(radii[3]))
+                .windRadius50NE(boxed(radii[4]))
+                .windRadius50SE(boxed(radii[5]))
+                .windRadius50SW(boxed(radii[6]))
+                .windRadius50NW(boxed(radii[7]))
+                .windRadius64NE(boxed(radii[8]))
+                .windRadius64SE(boxed(radii[9]))
+                .windRadius64SW(boxed(radii[10]))
+                .windRadius64NW(boxed(radii[11]))
+                .maxWindRadius(boxed(radii[MAX_WIND_RADIUS]))
+                .build();
+    }
+
+    /**
+     * Builds a {@link HeaderLine} from the decoded header fields
+     */
+    public HeaderLine toHeaderLine() {
+        return HeaderLine.builder()
+                .basin(substring(idStart, idStart + 2))
+                .cycloneNumber(cycloneNumber)
+                .year(year)
+                .name(substring(nameStart, nameEnd))
+                .entriesCount(entriesCount)
+                .build();
+    }
+
+    /**
+     * @return the String or mapped segment the current line is read from
+     */
+    public Object getSource() {
+        return segment != null ? segment : text;
+    }
+
+    public long getLineStart() {
+        return lineStart;
+    }
+
+    public long getLineEnd() {
+        return lineEnd;
+    }
+
+    public LocalDateTime getDateTime() {
+        return LocalDateTime.of(
+                date / 10_000, date / 100 % 100, date % 100, time / 100, time % 100);
+    }
+
+    private String fieldAsString() {
+        return substring(fieldStart, fieldEnd);
+    }
+
+    /**
+     * @return the whole line, only meant for error reporting
+     */
+    public String lineAsString() {
+        return substring(lineStart, lineEnd);
+    }
+
+    private void validateDateTime() {
+        int month = date / 100 % 100;
+        int day = date % 100;
+        if (month < 1
+                || month > 12
+                || day < 1
+                || day > Month.of(month).length(Year.isLeap(date / 10_000))
+                || time / 100 > 23
+                || time % 100 > 59) {
+            throw new IllegalArgumentException(
+                    "Invalid date time: " + date + " " + String.format("%04d", time));
+        }
+    }
+
+    /**
+     * Moves to the next comma separated field and trims it
+     * @return false when the end of the line was already reached
+     */
+    private boolean nextField() {
+        if (position > lineEnd) {
+            fieldStart = lineEnd;
+            fieldEnd = lineEnd;
+            return false;
+        }
+        long end = position;
+        while (end < lineEnd && charAt(end) != ',') {
+            end++;
+        }
+        fieldStart = skipWhitespace(position, end);
+        long trimmedEnd = end;
+        while (trimmedEnd > fieldStart && charAt(trimmedEnd - 1) <= ' ') {
+            trimmedEnd--;
+        }
+        fieldEnd = trimmedEnd;
+        position = end + 1;
+        return true;
+    }
+
+    /**
+     * Counts fields like {@link String#split(String)} does: trailing empty fields are dropped
+     */
+    private int countFields() {
+        int fields = 1;
+        for (long cursor = lineStart; cursor < lineEnd; cursor++) {
+            if (charAt(cursor) == ',') {
+                fields++;
+            }
+        }
+        for (long cursor = lineEnd; cursor > lineStart && charAt(cursor - 1) == ','; cursor--) {
+            fields--;
+        }
+        return fields;
+    }
+
+    private long skipWhitespace(long from, long to) {
+        long cursor = from;
+        while (cursor < to && charAt(cursor) <= ' ') {
+            cursor++;
+        }
+        return cursor;
+    }
+
+    private int parseInt(long start, long end) {
+        long cursor = start;
+        boolean negative = false;
+        if (cursor < end && (charAt(cursor) == '-' || charAt(cursor) == '+')) {
+            negative = charAt(cursor) == '-';
+            cursor++;
+        }
+        if (cursor >= end) {
+            throw new NumberFormatException(
+                    "For input string: \"" + substring(start, end) + "\"");
+        }
+        int value = 0;
+        for (; cursor < end; cursor++) {
+            int digit = charAt(cursor) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException(
+                        "For input string: \"" + substring(start, end) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an unsigned "ddd.d" decimal into its digits without the point
+     * @return the digits as an int, or -1 when the text does not match \d+\.\d+
+     */
+    private int parseCoordinate(long start, long end) {
+        int value = 0;
+        int integerDigits = 0;
+        int scale = -1;
+        for (long cursor = start; cursor < end; cursor++) {
+            char ch = charAt(cursor);
+            if (ch == '.' && scale < 0 && integerDigits > 0) {
+                scale = 0;
+            } else if (ch >= '0' && ch <= '9') {
+                value = value * 10 + (ch - '0');
+                if (scale < 0) {
+                    integerDigits++;
+                } else {
+                    scale++;
+                }
+            } else {
+                return -1;
+            }
+        }
+        if (scale < 1 || scale >= POWERS_OF_TEN.length) {
+            return -1;
+        }
+        coordinateScale = scale;
+        return value;
+    }
+
+    private static int toTenths(int units, int scale) {
+        return scale == 1 ? units : (int) Math.round(units / POWERS_OF_TEN[scale - 1]);
+    }
+
+    private static Integer boxed(int value) {
+        return value == MISSING ? null : value;
+    }
+
+    private char charAt(long index) {
+        return segment != null
+                ? (char) (segment.get(ValueLayout.JAVA_BYTE, index) & 0xFF)
+                : text.charAt((int) index);
+    }
+
+    private String substring(long start, long end) {
+        if (segment == null) {
+            return text.subSequence((int) start, (int) end).toString();
+        }
+        StringBuilder builder = new StringBuilder((int) (end - start));
+        for (long cursor = start; cursor < end; cursor++) {
+            builder.append(charAt(cursor));
+        }
+        return builder.toString();
+    }
+}
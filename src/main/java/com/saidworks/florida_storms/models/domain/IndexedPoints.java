@@ -0,0 +1,91 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.StormStatusCodes;
+import com.saidworks.florida_storms.models.track.TrackSlice;
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Position, time, attributes and cyclone of every track point of a list of cyclones in file
+ * order, the input of the dataset indexes
+ * Coordinates are signed tenths of a degree, read from the columns when the track is a
+ * {@link TrackSlice}
+ */
+final class IndexedPoints {
+    final List<Cyclone> cyclones;
+    final int[] latitudes;
+    final int[] longitudes;
+    final int[] epochMinutes;
+    final byte[] statusCodes;
+    // 0 when the record identifier is blank
+    final char[] recordTypes;
+    final int[] maxWindSpeeds;
+    // millibars, not positive when missing
+    final int[] centralPressures;
+    final int[] cycloneIndexes;
+    // position of the point in the data lines of its cyclone
+    final int[] lineIndexes;
+    int size;
+
+    IndexedPoints(List<Cyclone> cyclones) {
+        this.cyclones = cyclones;
+        int capacity = cyclones.stream().mapToInt(cyclone -> cyclone.getDataLines().size()).sum();
+        latitudes = new int[capacity];
+        longitudes = new int[capacity];
+        epochMinutes = new int[capacity];
+        statusCodes = new byte[capacity];
+        recordTypes = new char[capacity];
+        maxWindSpeeds = new int[capacity];
+        centralPressures = new int[capacity];
+        cycloneIndexes = new int[capacity];
+        lineIndexes = new int[capacity];
+        for (int i = 0; i < cyclones.size(); i++) {
+            addAll(i, cyclones.get(i).getDataLines());
+        }
+    }
+
+    private void addAll(int cycloneIndex, List<DataLine> dataLines) {
+        if (dataLines instanceof TrackSlice slice) {
+            TrackStore store = slice.getStore();
+            for (int i = slice.getOffset(); i < slice.getOffset() + slice.size(); i++) {
+                statusCodes[size] = store.statusCode(i);
+                recordTypes[size] = store.recordType(i);
+                maxWindSpeeds[size] = store.maxWindSpeed(i);
+                centralPressures[size] = store.centralPressure(i);
+                lineIndexes[size] = i - slice.getOffset();
+                add(
+                        cycloneIndex,
+                        store.latitudeTenths(i),
+                        store.longitudeTenths(i),
+                        store.epochMinute(i));
+            }
+            return;
+        }
+        for (int line = 0; line < dataLines.size(); line++) {
+            DataLine dataLine = dataLines.get(line);
+            int latitude = (int) Math.round(dataLine.getLatitude() * 10);
+            int longitude = (int) Math.round(dataLine.getLongitude() * 10);
+            statusCodes[size] = StormStatusCodes.encode(dataLine.getStormStatus());
+            recordTypes[size] = dataLine.getRecordType() == null ? 0 : dataLine.getRecordType();
+            maxWindSpeeds[size] = dataLine.getMaxWindSpeed();
+            centralPressures[size] =
+                    dataLine.getCentralPressure() == null ? 0 : dataLine.getCentralPressure();
+            lineIndexes[size] = line;
+            add(
+                    cycloneIndex,
+                    dataLine.getLatitudeDirection() == 'S' ? -latitude : latitude,
+                    dataLine.getLongitudeDirection() == 'W' ? -longitude : longitude,
+                    (int) (dataLine.getDateTime().toEpochSecond(ZoneOffset.UTC) / 60));
+        }
+    }
+
+    private void add(int cycloneIndex, int latitude, int longitude, int epochMinute) {
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        epochMinutes[size] = epochMinute;
+        cycloneIndexes[size] = cycloneIndex;
+        size++;
+    }
+}
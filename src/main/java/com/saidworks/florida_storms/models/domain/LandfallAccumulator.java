@@ -0,0 +1,76 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Partial landfall statistics of one grouping in dense arrays indexed by group key, each
+ * aggregation task fills its own before they are merged
+ */
+final class LandfallAccumulator {
+    private final LandfallGrouping grouping;
+    private final long[] counts;
+    // points with a recorded wind, missing winds are counted but not averaged
+    private final long[] windCounts;
+    private final long[] windSums;
+    private final int[] maxWinds;
+
+    LandfallAccumulator(LandfallGrouping grouping) {
+        this.grouping = grouping;
+        counts = new long[grouping.keyCount()];
+        windCounts = new long[grouping.keyCount()];
+        windSums = new long[grouping.keyCount()];
+        maxWinds = new int[grouping.keyCount()];
+        Arrays.fill(maxWinds, Integer.MIN_VALUE);
+    }
+
+    void add(int key, int maxWindSpeed) {
+        counts[key]++;
+        if (maxWindSpeed >= 0) {
+            windCounts[key]++;
+            windSums[key] += maxWindSpeed;
+            maxWinds[key] = Math.max(maxWinds[key], maxWindSpeed);
+        }
+    }
+
+    void add(int key, long count, long windCount, long windSum, int maxWind) {
+        counts[key] += count;
+        windCounts[key] += windCount;
+        windSums[key] += windSum;
+        maxWinds[key] = Math.max(maxWinds[key], maxWind);
+    }
+
+    LandfallAccumulator merge(LandfallAccumulator other) {
+        for (int key = 0; key < counts.length; key++) {
+            add(
+                    key,
+                    other.counts[key],
+                    other.windCounts[key],
+                    other.windSums[key],
+                    other.maxWinds[key]);
+        }
+        return this;
+    }
+
+    /**
+     * @return non empty groups in key order
+     */
+    List<LandfallStatistics> statistics() {
+        List<LandfallStatistics> statistics = new ArrayList<>();
+        for (int key = 0; key < counts.length; key++) {
+            if (counts[key] == 0) {
+                continue;
+            }
+            boolean hasWind = windCounts[key] > 0;
+            statistics.add(
+                    new LandfallStatistics(
+                            grouping.label(key),
+                            counts[key],
+                            hasWind ? maxWinds[key] : null,
+                            hasWind ? (double) windSums[key] / windCounts[key] : null));
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,141 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join reduction of landfall statistics over a range of indexed points
+ * Ranges are halved down to {@link #POINTS_PER_TASK} points, each leaf fills its own
+ * {@link LandfallAccumulator} and partial results are merged on the way back up
+ */
+public final class LandfallAggregation extends RecursiveTask<LandfallAccumulator> {
+    private static final int POINTS_PER_TASK = 4_096;
+
+    private final Columns columns;
+    private final LandfallGrouping grouping;
+    private final Selection selection;
+    private final int from;
+    private final int to;
+
+    /**
+     * Grid order columns of the indexed points read by an aggregation
+     */
+    record Columns(
+            short[] latitudes, short[] longitudes, int[] epochMinutes, short[] maxWindSpeeds) {}
+
+    /**
+     * Points counted by an aggregation, the basin is chosen by the range of points
+     * @param boundary null for anywhere
+     * @param minCategory lowest category key counted
+     * @param maxCategory highest category key counted, {@link AttributeIndex#MISSING_WIND} to
+     *     count points without a recorded wind
+     */
+    record Selection(
+            BoundaryScan boundary,
+            int fromMinute,
+            int toMinute,
+            int minCategory,
+            int maxCategory) {}
+
+    /**
+     * Statistics of the points of a grid between two epoch minutes, both included, reduced in
+     * parallel by per task accumulators merged at the end
+     * Only the range of the grid columns holding the basin is read
+     * @param boundary null for anywhere
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param minCategory lowest Saffir-Simpson category, null for any, points without a recorded
+     *     wind only match when null
+     * @return non empty groups in key order
+     */
+    public static List<LandfallStatistics> statistics(
+            LandfallIndex landfalls,
+            LandfallGrouping grouping,
+            GeoBoundary boundary,
+            String basin,
+            int fromMinute,
+            int toMinute,
+            Integer minCategory,
+            ForkJoinPool pool) {
+        Selection selection =
+                new Selection(
+                        boundary == null ? null : BoundaryScan.of(boundary),
+                        fromMinute,
+                        toMinute,
+                        minCategory == null ? 0 : minCategory,
+                        minCategory == null
+                                ? AttributeIndex.MISSING_WIND
+                                : AttributeIndex.MISSING_WIND - 1);
+        Columns columns =
+                new Columns(
+                        landfalls.latitudes,
+                        landfalls.longitudes,
+                        landfalls.epochMinutes,
+                        landfalls.maxWindSpeeds);
+        int[] blocks = landfalls.blocksOf(basin);
+        return pool.invoke(
+                        new LandfallAggregation(
+                                columns,
+                                grouping,
+                                selection,
+                                landfalls.firstPosition(blocks),
+                                landfalls.endPosition(blocks)))
+                .statistics();
+    }
+
+    LandfallAggregation(
+            Columns columns, LandfallGrouping grouping, Selection selection, int from, int to) {
+        this.columns = columns;
+        this.grouping = grouping;
+        this.selection = selection;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected LandfallAccumulator compute() {
+        if (to - from <= POINTS_PER_TASK) {
+            return aggregate();
+        }
+        int middle = (from + to) >>> 1;
+        LandfallAggregation left =
+                new LandfallAggregation(columns, grouping, selection, from, middle);
+        left.fork();
+        LandfallAccumulator right =
+                new LandfallAggregation(columns, grouping, selection, middle, to).compute();
+        return left.join().merge(right);
+    }
+
+    private LandfallAccumulator aggregate() {
+        LandfallAccumulator accumulator = new LandfallAccumulator(grouping);
+        short[] latitudes = columns.latitudes();
+        short[] longitudes = columns.longitudes();
+        int[] epochMinutes = columns.epochMinutes();
+        short[] maxWindSpeeds = columns.maxWindSpeeds();
+        for (int i = from; i < to; i++) {
+            int minute = epochMinutes[i];
+            int category = AttributeIndex.categoryKey(maxWindSpeeds[i]);
+            if (minute < selection.fromMinute()
+                    || minute > selection.toMinute()
+                    || category < selection.minCategory()
+                    || category > selection.maxCategory()
+                    || (selection.boundary() != null
+                            && !selection.boundary().contains(latitudes[i], longitudes[i]))) {
+                continue;
+            }
+            LocalDateTime dateTime = TrackStore.toDateTime(minute);
+            accumulator.add(
+                    grouping.key(
+                            dateTime.getYear(),
+                            dateTime.getMonthValue(),
+                            category,
+                            LandfallGrouping.region(latitudes[i], longitudes[i])),
+                    maxWindSpeeds[i]);
+        }
+        return accumulator;
+    }
+}
@@ -0,0 +1,333 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static org.dflib.Exp.$col;
+import static org.dflib.Exp.$int;
+import static org.dflib.Exp.$str;
+import static org.dflib.Exp.$val;
+import static org.dflib.Exp.count;
+
+import com.saidworks.florida_storms.models.track.StormStatusCodes;
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.dflib.Condition;
+import org.dflib.DataFrame;
+import org.dflib.Exp;
+import org.dflib.Series;
+import org.dflib.Sorter;
+
+/**
+ * Columnar dflib frame of the landfall points of a {@link LandfallIndex}, one row per point, with
+ * the table of the {@link LandfallGrouping#REGION} cells it joins with, built once per dataset
+ * Every query selects the rows of a basin and a range of years, groups them and reduces every
+ * group to its count, highest and mean wind and lowest pressure
+ */
+public final class LandfallAnalytics {
+    private static final String REGION_LABEL = "regionLabel";
+    // reduced into the mean wind, a missing wind counts for neither
+    private static final String KNOWN_WIND = "knownWind";
+    private static final String WIND_COUNT = "windCount";
+    private static final String WIND_SUM = "windSum";
+    // missing pressures are Integer.MAX_VALUE so they never are the lowest
+    private static final String PRESSURE = "pressure";
+
+    private final DataFrame landfalls;
+    private final DataFrame regions;
+
+    /**
+     * Copies the indexed points into the columns of the frame
+     */
+    public LandfallAnalytics(LandfallIndex index) {
+        this.landfalls = landfalls(index);
+        this.regions = regions();
+    }
+
+    /**
+     * @return number of rows of the landfall frame
+     */
+    public int size() {
+        return landfalls.height();
+    }
+
+    /**
+     * Landfall metrics per combination of dimensions, grouped by region rows are joined with the
+     * region table for their label
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return one row per non empty group in ascending key order
+     */
+    public List<Map<String, Object>> groupBy(
+            List<LandfallDimension> dimensions, String basin, int fromYear, int toYear) {
+        String[] keys =
+                dimensions.stream()
+                        .map(LandfallDimension::column)
+                        .distinct()
+                        .toArray(String[]::new);
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one dimension is required");
+        }
+        DataFrame grouped = aggregate(select(basin, fromYear, toYear), keys);
+        boolean regional = dimensions.contains(LandfallDimension.REGION);
+        if (regional) {
+            grouped = grouped.leftJoin(regions).on(LandfallDimension.REGION.column()).select();
+        }
+        grouped = grouped.sort(ascending(keys));
+
+        List<Map<String, Object>> rows = new ArrayList<>(grouped.height());
+        for (int row = 0; row < grouped.height(); row++) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String key : keys) {
+                values.put(key, grouped.getColumn(key).get(row));
+            }
+            if (regional) {
+                values.put(REGION_LABEL, grouped.getColumn(REGION_LABEL).get(row));
+            }
+            for (LandfallMetric metric : LandfallMetric.values()) {
+                values.put(metric.column(), metric(grouped, row, metric));
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    /**
+     * Regions with the most landfalls, the landfall rows are joined with the region table
+     * before they are grouped
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param limit highest number of regions
+     * @return regions with their bounds and metrics, by descending count
+     */
+    public List<Map<String, Object>> regions(String basin, int fromYear, int toYear, int limit) {
+        String[] keys = {LandfallDimension.REGION.column(), REGION_LABEL, "south", "west"};
+        DataFrame joined =
+                select(basin, fromYear, toYear)
+                        .innerJoin(regions)
+                        .on(LandfallDimension.REGION.column())
+                        .select();
+        DataFrame grouped =
+                aggregate(joined, keys)
+                        .sort(
+                                $int(LandfallMetric.COUNT.column()).desc(),
+                                $int(LandfallDimension.REGION.column()).asc())
+                        .head(Math.max(limit, 0));
+
+        List<Map<String, Object>> rows = new ArrayList<>(grouped.height());
+        for (int row = 0; row < grouped.height(); row++) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String key : keys) {
+                values.put(key, grouped.getColumn(key).get(row));
+            }
+            for (LandfallMetric metric : LandfallMetric.values()) {
+                values.put(metric.column(), metric(grouped, row, metric));
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    /**
+     * One metric of the groups of two dimensions, reshaped into a row per key of the first
+     * dimension and a column per key of the second, regions are given by their label
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return rows in ascending key order, every row has every column, 0 or null when empty
+     */
+    public List<Map<String, Object>> pivot(
+            LandfallDimension rows,
+            LandfallDimension columns,
+            LandfallMetric metric,
+            String basin,
+            int fromYear,
+            int toYear) {
+        if (rows == columns) {
+            throw new IllegalArgumentException("Rows and columns must be different dimensions");
+        }
+        DataFrame grouped =
+                aggregate(select(basin, fromYear, toYear), rows.column(), columns.column())
+                        .sort(ascending(rows.column(), columns.column()));
+        Series<?> rowKeys = grouped.getColumn(rows.column());
+        Series<?> columnKeys = grouped.getColumn(columns.column());
+
+        // keys of one dimension are all Integer or all String
+        TreeSet<Object> headers = new TreeSet<>();
+        for (int row = 0; row < grouped.height(); row++) {
+            headers.add(columnKeys.get(row));
+        }
+        Object empty = metric == LandfallMetric.COUNT ? 0 : null;
+        Map<Object, Map<String, Object>> table = new LinkedHashMap<>();
+        for (int row = 0; row < grouped.height(); row++) {
+            Map<String, Object> values =
+                    table.computeIfAbsent(
+                            rowKeys.get(row),
+                            key -> {
+                                Map<String, Object> line = new LinkedHashMap<>();
+                                line.put(rows.column(), label(rows, key));
+                                for (Object header : headers) {
+                                    line.put(String.valueOf(label(columns, header)), empty);
+                                }
+                                return line;
+                            });
+            values.put(
+                    String.valueOf(label(columns, columnKeys.get(row))),
+                    metric(grouped, row, metric));
+        }
+        return new ArrayList<>(table.values());
+    }
+
+    private DataFrame select(String basin, int fromYear, int toYear) {
+        Condition condition =
+                $int(LandfallDimension.YEAR.column())
+                        .ge($val(fromYear))
+                        .and($int(LandfallDimension.YEAR.column()).le($val(toYear)));
+        if (basin != null) {
+            condition = condition.and($str(LandfallDimension.BASIN.column()).eq($val(basin)));
+        }
+        return landfalls.rows(condition).select();
+    }
+
+    private static DataFrame aggregate(DataFrame landfalls, String... keys) {
+        List<Exp<?>> columns = new ArrayList<>();
+        for (String key : keys) {
+            columns.add($col(key).first().as(key));
+        }
+        columns.add(count().as(LandfallMetric.COUNT.column()));
+        columns.add($int("maxWind").max().as(LandfallMetric.MAX_WIND.column()));
+        columns.add($int(WIND_COUNT).sum().as(WIND_COUNT));
+        columns.add($int(KNOWN_WIND).sum().as(WIND_SUM));
+        columns.add($int(PRESSURE).min().as(LandfallMetric.MIN_PRESSURE.column()));
+        return landfalls.group(keys).agg(columns.toArray(Exp<?>[]::new));
+    }
+
+    private static Object metric(DataFrame grouped, int row, LandfallMetric metric) {
+        return switch (metric) {
+            case COUNT -> number(grouped, LandfallMetric.COUNT.column(), row).intValue();
+            case MAX_WIND -> {
+                int wind = number(grouped, LandfallMetric.MAX_WIND.column(), row).intValue();
+                yield wind < 0 ? null : wind;
+            }
+            case MEAN_WIND -> {
+                long known = number(grouped, WIND_COUNT, row).longValue();
+                yield known == 0 ? null : number(grouped, WIND_SUM, row).doubleValue() / known;
+            }
+            case MIN_PRESSURE -> {
+                int pressure =
+                        number(grouped, LandfallMetric.MIN_PRESSURE.column(), row).intValue();
+                yield pressure == Integer.MAX_VALUE ? null : pressure;
+            }
+        };
+    }
+
+    private static Number number(DataFrame grouped, String column, int row) {
+        return (Number) grouped.getColumn(column).get(row);
+    }
+
+    private static Object label(LandfallDimension dimension, Object key) {
+        return dimension == LandfallDimension.REGION
+                ? LandfallGrouping.REGION.label((Integer) key)
+                : key;
+    }
+
+    private static Sorter[] ascending(String... keys) {
+        return Arrays.stream(keys).map(key -> $col(key).asc()).toArray(Sorter[]::new);
+    }
+
+    private static DataFrame landfalls(LandfallIndex index) {
+        List<Cyclone> cyclones = index.cyclones();
+        // the index does not keep its file order points, they are read again for the frame
+        IndexedPoints points = new IndexedPoints(cyclones);
+        int size = points.size;
+        String[] cycloneIds = new String[size];
+        String[] names = new String[size];
+        String[] basins = new String[size];
+        String[] statuses = new String[size];
+        int[] years = new int[size];
+        int[] decades = new int[size];
+        int[] months = new int[size];
+        int[] categories = new int[size];
+        int[] regionKeys = new int[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        int[] winds = new int[size];
+        int[] knownWinds = new int[size];
+        int[] windCounts = new int[size];
+        int[] pressures = new int[size];
+        for (int i = 0; i < size; i++) {
+            HeaderLine header = cyclones.get(points.cycloneIndexes[i]).getHeader();
+            LocalDateTime dateTime = TrackStore.toDateTime(points.epochMinutes[i]);
+            String status = StormStatusCodes.decode(points.statusCodes[i]);
+            int wind = points.maxWindSpeeds[i];
+            int pressure = points.centralPressures[i];
+            cycloneIds[i] = header.getCycloneId();
+            names[i] = header.getName();
+            basins[i] = header.getBasin();
+            statuses[i] = status == null ? "" : status;
+            years[i] = dateTime.getYear();
+            decades[i] = dateTime.getYear() / 10 * 10;
+            months[i] = dateTime.getMonthValue();
+            categories[i] = AttributeIndex.categoryKey(wind);
+            regionKeys[i] = LandfallGrouping.region(points.latitudes[i], points.longitudes[i]);
+            latitudes[i] = points.latitudes[i] / 10.0;
+            longitudes[i] = points.longitudes[i] / 10.0;
+            winds[i] = wind;
+            knownWinds[i] = Math.max(wind, 0);
+            windCounts[i] = wind >= 0 ? 1 : 0;
+            pressures[i] = pressure > 0 ? pressure : Integer.MAX_VALUE;
+        }
+        return DataFrame.byColumn(
+                        "cycloneId",
+                        "name",
+                        LandfallDimension.BASIN.column(),
+                        LandfallDimension.YEAR.column(),
+                        LandfallDimension.DECADE.column(),
+                        LandfallDimension.MONTH.column(),
+                        LandfallDimension.CATEGORY.column(),
+                        LandfallDimension.STATUS.column(),
+                        LandfallDimension.REGION.column(),
+                        "latitude",
+                        "longitude",
+                        "maxWind",
+                        KNOWN_WIND,
+                        WIND_COUNT,
+                        PRESSURE)
+                .of(
+                        Series.of(cycloneIds),
+                        Series.of(names),
+                        Series.of(basins),
+                        Series.ofInt(years),
+                        Series.ofInt(decades),
+                        Series.ofInt(months),
+                        Series.ofInt(categories),
+                        Series.of(statuses),
+                        Series.ofInt(regionKeys),
+                        Series.ofDouble(latitudes),
+                        Series.ofDouble(longitudes),
+                        Series.ofInt(winds),
+                        Series.ofInt(knownWinds),
+                        Series.ofInt(windCounts),
+                        Series.ofInt(pressures));
+    }
+
+    private static DataFrame regions() {
+        int count = LandfallGrouping.REGION.keyCount();
+        int[] keys = new int[count];
+        String[] labels = new String[count];
+        int[] souths = new int[count];
+        int[] wests = new int[count];
+        for (int region = 0; region < count; region++) {
+            keys[region] = region;
+            labels[region] = LandfallGrouping.REGION.label(region);
+            souths[region] = LandfallGrouping.minLatitude(region);
+            wests[region] = LandfallGrouping.minLongitude(region);
+        }
+        return DataFrame.byColumn(LandfallDimension.REGION.column(), REGION_LABEL, "south", "west")
+                .of(
+                        Series.ofInt(keys),
+                        Series.of(labels),
+                        Series.ofInt(souths),
+                        Series.ofInt(wests));
+    }
+}
@@ -0,0 +1,119 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Landfall statistics precomputed per year, month, Saffir-Simpson category and region, built once
+ * per dataset
+ * Only non empty cells are kept, sorted by their packed coordinates, so a grouped query reads a
+ * few thousand cells instead of every point
+ * Queries bounded by a box or a basin cannot be answered from the cells and go through
+ * {@link LandfallAggregation#statistics}
+ */
+public final class LandfallCube {
+    private static final int MONTHS = 12;
+    private static final int CATEGORIES = LandfallGrouping.CATEGORY.keyCount();
+    private static final int REGIONS = LandfallGrouping.REGION.keyCount();
+
+    // cell key ((year * MONTHS + month - 1) * CATEGORIES + category) * REGIONS + region
+    private final int[] keys;
+    private final long[] counts;
+    private final long[] windCounts;
+    private final long[] windSums;
+    private final int[] maxWinds;
+
+    LandfallCube(IndexedPoints points) {
+        // cell key in the high half, point in the low half, sorting groups the points by cell
+        long[] sortKeys = new long[points.size];
+        for (int i = 0; i < points.size; i++) {
+            LocalDateTime dateTime = TrackStore.toDateTime(points.epochMinutes[i]);
+            int key =
+                    key(
+                            dateTime.getYear(),
+                            dateTime.getMonthValue(),
+                            AttributeIndex.categoryKey(points.maxWindSpeeds[i]),
+                            LandfallGrouping.region(points.latitudes[i], points.longitudes[i]));
+            sortKeys[i] = (long) key << 32 | i;
+        }
+        Arrays.sort(sortKeys);
+
+        int cellCount = 0;
+        for (int i = 0; i < sortKeys.length; i++) {
+            if (i == 0 || sortKeys[i] >>> 32 != sortKeys[i - 1] >>> 32) {
+                cellCount++;
+            }
+        }
+        keys = new int[cellCount];
+        counts = new long[cellCount];
+        windCounts = new long[cellCount];
+        windSums = new long[cellCount];
+        maxWinds = new int[cellCount];
+        Arrays.fill(maxWinds, Integer.MIN_VALUE);
+        int cell = -1;
+        for (int i = 0; i < sortKeys.length; i++) {
+            int key = (int) (sortKeys[i] >>> 32);
+            if (cell < 0 || keys[cell] != key) {
+                keys[++cell] = key;
+            }
+            counts[cell]++;
+            int wind = points.maxWindSpeeds[(int) sortKeys[i]];
+            if (wind >= 0) {
+                windCounts[cell]++;
+                windSums[cell] += wind;
+                maxWinds[cell] = Math.max(maxWinds[cell], wind);
+            }
+        }
+    }
+
+    /**
+     * @return number of non empty cells
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Rolls the cells up to one grouping
+     * @param fromYear first year, null for no lower bound
+     * @param toYear last year, null for no upper bound
+     * @param minCategory lowest Saffir-Simpson category, null for any, points without a recorded
+     *     wind only match when null
+     * @return non empty groups in key order
+     */
+    public List<LandfallStatistics> aggregate(
+            LandfallGrouping grouping, Integer fromYear, Integer toYear, Integer minCategory) {
+        LandfallAccumulator accumulator = new LandfallAccumulator(grouping);
+        for (int cell = 0; cell < keys.length; cell++) {
+            int key = keys[cell];
+            int region = key % REGIONS;
+            int category = key / REGIONS % CATEGORIES;
+            int month = key / REGIONS / CATEGORIES % MONTHS + 1;
+            int year = key / REGIONS / CATEGORIES / MONTHS;
+            if ((fromYear != null && year < fromYear)
+                    || (toYear != null && year > toYear)
+                    || (minCategory != null
+                            && (category < minCategory
+                                    || category == AttributeIndex.MISSING_WIND))) {
+                continue;
+            }
+            accumulator.add(
+                    grouping.key(year, month, category, region),
+                    counts[cell],
+                    windCounts[cell],
+                    windSums[cell],
+                    maxWinds[cell]);
+        }
+        return accumulator.statistics();
+    }
+
+    /**
+     * @return cell key, below 2^31 for years up to 3000
+     */
+    private static int key(int year, int month, int category, int region) {
+        return ((year * MONTHS + month - 1) * CATEGORIES + category) * REGIONS + region;
+    }
+}
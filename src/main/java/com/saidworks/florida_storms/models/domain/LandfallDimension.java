@@ -0,0 +1,31 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * Column of the landfall frame analytics queries group and pivot by
+ * CATEGORY groups by {@link AttributeIndex#categoryKey}, landfalls without a recorded wind have
+ * the key {@link AttributeIndex#MISSING_WIND} instead of tropical storm 0
+ * REGION groups by the cells of {@link LandfallGrouping#REGION}, labelled from the region table
+ */
+public enum LandfallDimension {
+    YEAR("year"),
+    DECADE("decade"),
+    MONTH("month"),
+    CATEGORY("category"),
+    BASIN("basin"),
+    STATUS("status"),
+    REGION("region");
+
+    private final String column;
+
+    LandfallDimension(String column) {
+        this.column = column;
+    }
+
+    /**
+     * @return label of the column in the landfall frame and in the query results
+     */
+    public String column() {
+        return column;
+    }
+}
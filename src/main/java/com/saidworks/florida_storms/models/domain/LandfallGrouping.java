@@ -0,0 +1,107 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.time.Month;
+import java.util.Locale;
+
+/**
+ * Dimension landfall statistics are grouped by, every group is a dense int key
+ * CATEGORY groups by {@link AttributeIndex#categoryKey}, points without a recorded wind are
+ * labelled UNKNOWN rather than counted as tropical storms
+ * REGION groups by cells of {@link #REGION_DEGREES} degrees, labelled by their bounds
+ */
+public enum LandfallGrouping {
+    YEAR(3_000),
+    DECADE(300),
+    MONTH(12),
+    CATEGORY(AttributeIndex.MISSING_WIND + 1),
+    REGION(36 * 72);
+
+    public static final int REGION_DEGREES = 5;
+    private static final int REGION_COLUMNS = 72;
+
+    private final int keyCount;
+
+    LandfallGrouping(int keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    int keyCount() {
+        return keyCount;
+    }
+
+    /**
+     * @param month 1 to 12
+     * @param category key from {@link AttributeIndex#categoryKey(int)}
+     * @param region cell from {@link #region(int, int)}
+     */
+    int key(int year, int month, int category, int region) {
+        return switch (this) {
+            case YEAR -> year;
+            case DECADE -> year / 10;
+            case MONTH -> month - 1;
+            case CATEGORY -> category;
+            case REGION -> region;
+        };
+    }
+
+    String label(int key) {
+        return switch (this) {
+            case YEAR -> String.valueOf(key);
+            case DECADE -> key * 10 + "s";
+            case MONTH -> Month.of(key + 1).name();
+            case CATEGORY -> categoryLabel(key);
+            case REGION -> regionLabel(key);
+        };
+    }
+
+    /**
+     * Region cell of a point in signed tenths of a degree
+     */
+    static int region(int latitudeTenths, int longitudeTenths) {
+        int row = Math.clamp((latitudeTenths + 900) / (REGION_DEGREES * 10), 0, 35);
+        int column = Math.clamp((longitudeTenths + 1800) / (REGION_DEGREES * 10), 0, 71);
+        return row * REGION_COLUMNS + column;
+    }
+
+    /**
+     * @return southern bound of a region cell in degrees
+     */
+    static int minLatitude(int region) {
+        return region / REGION_COLUMNS * REGION_DEGREES - 90;
+    }
+
+    /**
+     * @return western bound of a region cell in degrees
+     */
+    static int minLongitude(int region) {
+        return region % REGION_COLUMNS * REGION_DEGREES - 180;
+    }
+
+    private static String categoryLabel(int category) {
+        if (category == AttributeIndex.MISSING_WIND) {
+            return "UNKNOWN";
+        }
+        return category == 0 ? "TS" : "CAT" + category;
+    }
+
+    private static String regionLabel(int region) {
+        int minLatitude = minLatitude(region);
+        int minLongitude = minLongitude(region);
+        return String.format(
+                Locale.ROOT,
+                "%s-%s %s-%s",
+                latitude(minLatitude),
+                latitude(minLatitude + REGION_DEGREES),
+                longitude(minLongitude),
+                longitude(minLongitude + REGION_DEGREES));
+    }
+
+    private static String latitude(int degrees) {
+        return Math.abs(degrees) + (degrees < 0 ? "S" : "N");
+    }
+
+    private static String longitude(int degrees) {
+        return Math.abs(degrees) + (degrees < 0 ? "W" : "E");
+    }
+}
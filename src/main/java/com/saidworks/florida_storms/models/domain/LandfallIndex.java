@@ -0,0 +1,278 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Uniform grid over the track points of a list of cyclones, built once per dataset
+ * Points are bucketed by basin then by cells of one degree on their signed tenths of a degree, a
+ * bounding box query only reads the points of the cells it overlaps in the basins it asks for,
+ * each row of cells of a basin is one packed range scanned by {@link BoundaryScan}
+ * The grid order columns are also read by the ranking, radius and aggregation queries
+ */
+public final class LandfallIndex {
+    final List<Cyclone> cyclones;
+    // basin codes in order of first appearance, the grid of basin b starts at cell b * CELLS
+    private final String[] basins;
+    private final int[] allBasins;
+    // points of cell c are at [cellStarts[c], cellStarts[c + 1]) of the point columns
+    final int[] cellStarts;
+    final short[] latitudes;
+    final short[] longitudes;
+    final int[] epochMinutes;
+    final int[] cycloneIndexes;
+    final int[] lineIndexes;
+    // aggregated by fork/join over the range of a basin when the cube cannot answer
+    final short[] maxWindSpeeds;
+    // grid position of every file order point
+    final int[] positions;
+
+    /**
+     * @param cyclones indexed cyclones, query results keep their order
+     */
+    public LandfallIndex(List<Cyclone> cyclones) {
+        this(new IndexedPoints(cyclones));
+    }
+
+    LandfallIndex(IndexedPoints points) {
+        this.cyclones = points.cyclones;
+        int pointCount = points.size;
+
+        latitudes = new short[pointCount];
+        longitudes = new short[pointCount];
+        epochMinutes = new int[pointCount];
+        cycloneIndexes = new int[pointCount];
+        lineIndexes = new int[pointCount];
+        maxWindSpeeds = new short[pointCount];
+        positions = new int[pointCount];
+        int[] cycloneBasins = new int[cyclones.size()];
+        List<String> codes = new ArrayList<>();
+        for (int c = 0; c < cyclones.size(); c++) {
+            String basin = cyclones.get(c).getHeader().getBasin();
+            int block = codes.indexOf(basin);
+            if (block < 0) {
+                block = codes.size();
+                codes.add(basin);
+            }
+            cycloneBasins[c] = block;
+        }
+        basins = codes.toArray(String[]::new);
+        allBasins = IntStream.range(0, basins.length).toArray();
+        cellStarts = new int[basins.length * DegreeGrid.CELLS + 1];
+        // counting sort of the points by basin and cell, points of a cell stay in file order
+        int[] cells = new int[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            cells[i] =
+                    cycloneBasins[points.cycloneIndexes[i]] * DegreeGrid.CELLS
+                            + DegreeGrid.cellOf(points.latitudes[i], points.longitudes[i]);
+            cellStarts[cells[i] + 1]++;
+        }
+        DegreeGrid.accumulate(cellStarts);
+        int[] next = cellStarts.clone();
+        for (int i = 0; i < pointCount; i++) {
+            int position = next[cells[i]]++;
+            positions[i] = position;
+            latitudes[position] = (short) points.latitudes[i];
+            longitudes[position] = (short) points.longitudes[i];
+            epochMinutes[position] = points.epochMinutes[i];
+            cycloneIndexes[position] = points.cycloneIndexes[i];
+            lineIndexes[position] = points.lineIndexes[i];
+            maxWindSpeeds[position] = (short) points.maxWindSpeeds[i];
+        }
+    }
+
+    /**
+     * @return number of indexed points
+     */
+    public int size() {
+        return cycloneIndexes.length;
+    }
+
+    /**
+     * @return indexed cyclones in their original order
+     */
+    public List<Cyclone> cyclones() {
+        return cyclones;
+    }
+
+    /**
+     * Number of indexed points in the grid cells overlapped by the boundary in one basin, what a
+     * boundary query reads
+     * @param basin basin code (AL, EP, CP), null for every basin
+     */
+    public int pointsWithin(GeoBoundary boundary, String basin) {
+        if (boundary.getMinLatitude() > boundary.getMaxLatitude()
+                || boundary.getMinLongitude() > boundary.getMaxLongitude()) {
+            return 0;
+        }
+        return gridPoints(
+                blocksOf(basin),
+                DegreeGrid.latitudeRow(boundary.getMinLatitude()),
+                DegreeGrid.latitudeRow(boundary.getMaxLatitude()),
+                DegreeGrid.longitudeColumn(boundary.getMinLongitude()),
+                DegreeGrid.longitudeColumn(boundary.getMaxLongitude()));
+    }
+
+    /**
+     * Cyclones with at least one indexed point within the boundary
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesWithin(GeoBoundary boundary) {
+        return cyclonesWithin(boundary, null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cyclones with at least one indexed point within the boundary and between two epoch minutes,
+     * both included
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesWithin(GeoBoundary boundary, int fromMinute, int toMinute) {
+        return cyclonesWithin(boundary, null, fromMinute, toMinute);
+    }
+
+    /**
+     * Cyclones of one basin with at least one indexed point within the boundary
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesWithin(GeoBoundary boundary, String basin) {
+        return cyclonesWithin(boundary, basin, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cyclones of one basin with at least one indexed point within the boundary and between two
+     * epoch minutes, both included
+     * Only the grid of the basin is read
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesWithin(
+            GeoBoundary boundary, String basin, int fromMinute, int toMinute) {
+        int[] blocks = blocksOf(basin);
+        if (boundary.getMinLatitude() > boundary.getMaxLatitude()
+                || boundary.getMinLongitude() > boundary.getMaxLongitude()
+                || fromMinute > toMinute
+                || blocks.length == 0) {
+            return List.of();
+        }
+        int firstRow = DegreeGrid.latitudeRow(boundary.getMinLatitude());
+        int lastRow = DegreeGrid.latitudeRow(boundary.getMaxLatitude());
+        int firstColumn = DegreeGrid.longitudeColumn(boundary.getMinLongitude());
+        int lastColumn = DegreeGrid.longitudeColumn(boundary.getMaxLongitude());
+
+        BoundaryScan scan = BoundaryScan.of(boundary);
+        // one bit per cyclone, set by its first point found within the boundary
+        BitSet matched = new BitSet(cyclones.size());
+        boolean bounded = fromMinute != Integer.MIN_VALUE || toMinute != Integer.MAX_VALUE;
+        for (int block : blocks) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                // the cells of a row are contiguous, one range covers every overlapped column
+                int end = cellStarts[cell(block, row, lastColumn) + 1];
+                int i =
+                        scan.nextMatch(
+                                latitudes,
+                                longitudes,
+                                cellStarts[cell(block, row, firstColumn)],
+                                end);
+                while (i < end) {
+                    if (!bounded || within(epochMinutes[i], fromMinute, toMinute)) {
+                        matched.set(cycloneIndexes[i]);
+                    }
+                    i = scan.nextMatch(latitudes, longitudes, i + 1, end);
+                }
+            }
+        }
+        return matched.stream().mapToObj(cyclones::get).toList();
+    }
+
+    /**
+     * Cyclones of one basin with at least one indexed point between two epoch minutes within each
+     * region, found in one pass over the indexed points
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return one list per region in the order of {@code regions}, each in the order of the
+     *     indexed list
+     */
+    public List<List<Cyclone>> cyclonesWithin(
+            RegionIndex regions, String basin, int fromMinute, int toMinute) {
+        // the points of a basin are one range of the point columns
+        int[] blocks = blocksOf(basin);
+        BitSet[] matched =
+                regions.match(
+                        latitudes,
+                        longitudes,
+                        epochMinutes,
+                        cycloneIndexes,
+                        firstPosition(blocks),
+                        endPosition(blocks),
+                        fromMinute,
+                        toMinute);
+        return cyclonesOf(matched);
+    }
+
+    /**
+     * @return one list per set of cyclone indexes, each in the order of the indexed list
+     */
+    List<List<Cyclone>> cyclonesOf(BitSet[] matched) {
+        List<List<Cyclone>> results = new ArrayList<>(matched.length);
+        for (BitSet set : matched) {
+            results.add(set.stream().mapToObj(cyclones::get).toList());
+        }
+        return results;
+    }
+
+    int gridPoints(int[] blocks, int firstRow, int lastRow, int firstColumn, int lastColumn) {
+        int points = 0;
+        for (int block : blocks) {
+            for (int row = firstRow; row <= lastRow; row++) {
+                points +=
+                        cellStarts[cell(block, row, lastColumn) + 1]
+                                - cellStarts[cell(block, row, firstColumn)];
+            }
+        }
+        return points;
+    }
+
+    /**
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return grids holding the points of the basin, none when no indexed cyclone has that basin
+     */
+    int[] blocksOf(String basin) {
+        if (basin == null) {
+            return allBasins;
+        }
+        for (int block = 0; block < basins.length; block++) {
+            if (basins[block].equals(basin)) {
+                return new int[] {block};
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * @return first grid position of the blocks, their grids are contiguous
+     */
+    int firstPosition(int[] blocks) {
+        return blocks.length == 0 ? 0 : cellStarts[blocks[0] * DegreeGrid.CELLS];
+    }
+
+    /**
+     * @return grid position past the last point of the blocks
+     */
+    int endPosition(int[] blocks) {
+        return blocks.length == 0
+                ? 0
+                : cellStarts[(blocks[blocks.length - 1] + 1) * DegreeGrid.CELLS];
+    }
+
+    static boolean within(int minute, int fromMinute, int toMinute) {
+        return minute >= fromMinute && minute <= toMinute;
+    }
+
+    static int cell(int block, int row, int column) {
+        return block * DegreeGrid.CELLS + DegreeGrid.cell(row, column);
+    }
+}
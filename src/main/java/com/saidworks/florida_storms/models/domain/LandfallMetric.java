@@ -0,0 +1,25 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * Aggregate of the landfalls of one group, the cell value of a pivot
+ */
+public enum LandfallMetric {
+    COUNT("count"),
+    MAX_WIND("maxWind"),
+    MEAN_WIND("meanWind"),
+    MIN_PRESSURE("minPressure");
+
+    private final String column;
+
+    LandfallMetric(String column) {
+        this.column = column;
+    }
+
+    /**
+     * @return key of the metric in the query results
+     */
+    public String column() {
+        return column;
+    }
+}
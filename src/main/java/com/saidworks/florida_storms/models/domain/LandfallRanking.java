@@ -0,0 +1,27 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * Order of a top-K landfall query, every landfall gets an int score, higher ranks first
+ * WIND ranks by maximum sustained wind, PRESSURE by lowest central pressure and RECENT by date,
+ * landfalls without the measure are left out
+ */
+public enum LandfallRanking {
+    WIND,
+    PRESSURE,
+    RECENT;
+
+    static final int EXCLUDED = Integer.MIN_VALUE;
+
+    /**
+     * @param centralPressure millibars, not positive when missing
+     * @return score of a landfall, {@link #EXCLUDED} when it lacks the measure
+     */
+    int score(int maxWindSpeed, int centralPressure, int epochMinute) {
+        return switch (this) {
+            case WIND -> maxWindSpeed >= 0 ? maxWindSpeed : EXCLUDED;
+            case PRESSURE -> centralPressure > 0 ? -centralPressure : EXCLUDED;
+            case RECENT -> epochMinute;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * Landfall counts and wind of one group
+ * @param group label of the group (1950, 1950s, SEPTEMBER, CAT3, UNKNOWN, 25N-30N 85W-80W)
+ * @param count number of landfall points
+ * @param maxWindSpeed highest sustained wind in knots, null when no point has a wind
+ * @param meanWindSpeed mean sustained wind in knots, null when no point has a wind
+ */
+public record LandfallStatistics(
+        String group, long count, Integer maxWindSpeed, Double meanWindSpeed) {}
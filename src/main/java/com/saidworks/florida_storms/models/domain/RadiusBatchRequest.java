@@ -0,0 +1,14 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.List;
+
+/**
+ * Radius circles searched together by one batch query, e.g. the insured assets of a portfolio
+ * @param circles circles in result order
+ * @param basin basin code (AL, EP, CP), null for every basin
+ * @param fromYear first year of the matched points, null for no lower bound
+ * @param toYear last year of the matched points, null for no upper bound
+ */
+public record RadiusBatchRequest(
+        List<GeoCircle> circles, String basin, Integer fromYear, Integer toYear) {}
@@ -0,0 +1,97 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over many radius circles, built per batch query
+ * Every cell of the {@link DegreeGrid} lists the circles whose prune boxes overlap it, so the
+ * circles that may contain a point are found from its cell and only those get the exact
+ * great-circle test
+ */
+public final class RadiusIndex {
+    private final List<GeoCircle> circles;
+    private final CircleScan[] scans;
+    // circles overlapping cell c are cellCircles[cellStarts[c]..cellStarts[c + 1])
+    private final int[] cellStarts = new int[DegreeGrid.CELLS + 1];
+    private final int[] cellCircles;
+
+    /**
+     * @param circles radius circles, a negative radius matches nothing
+     */
+    public RadiusIndex(List<GeoCircle> circles) {
+        this.circles = List.copyOf(circles);
+        this.scans = new CircleScan[circles.size()];
+        for (int c = 0; c < circles.size(); c++) {
+            scans[c] = new CircleScan(circles.get(c));
+            forEachCell(circles.get(c), cell -> cellStarts[cell + 1]++);
+        }
+        DegreeGrid.accumulate(cellStarts);
+        cellCircles = new int[cellStarts[DegreeGrid.CELLS]];
+        int[] next = cellStarts.clone();
+        for (int c = 0; c < circles.size(); c++) {
+            int circle = c;
+            forEachCell(circles.get(c), cell -> cellCircles[next[cell]++] = circle);
+        }
+    }
+
+    public int size() {
+        return circles.size();
+    }
+
+    public GeoCircle circle(int index) {
+        return circles.get(index);
+    }
+
+    /**
+     * One pass over the points setting, for every circle containing a point between two epoch
+     * minutes, the bit of the point's cyclone
+     * @param from first point read
+     * @param to point after the last one read
+     * @return one set of cyclone indexes per circle
+     */
+    BitSet[] match(
+            short[] latitudes,
+            short[] longitudes,
+            int[] epochMinutes,
+            int[] cycloneIndexes,
+            int from,
+            int to,
+            int fromMinute,
+            int toMinute) {
+        BitSet[] matched = new BitSet[circles.size()];
+        for (int c = 0; c < matched.length; c++) {
+            matched[c] = new BitSet();
+        }
+        for (int i = from; i < to; i++) {
+            if (epochMinutes[i] < fromMinute || epochMinutes[i] > toMinute) {
+                continue;
+            }
+            int cell = DegreeGrid.cellOf(latitudes[i], longitudes[i]);
+            for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+                int circle = cellCircles[k];
+                if (!matched[circle].get(cycloneIndexes[i])
+                        && scans[circle].contains(latitudes[i], longitudes[i])) {
+                    matched[circle].set(cycloneIndexes[i]);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static void forEachCell(GeoCircle circle, IntConsumer action) {
+        for (GeoBoundary box : circle.pruneBoxes()) {
+            int firstRow = DegreeGrid.latitudeRow(box.getMinLatitude());
+            int lastRow = DegreeGrid.latitudeRow(box.getMaxLatitude());
+            int firstColumn = DegreeGrid.longitudeColumn(box.getMinLongitude());
+            int lastColumn = DegreeGrid.longitudeColumn(box.getMaxLongitude());
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    action.accept(DegreeGrid.cell(row, column));
+                }
+            }
+        }
+    }
+}
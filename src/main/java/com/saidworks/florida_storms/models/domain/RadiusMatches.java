@@ -0,0 +1,11 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.List;
+
+/**
+ * Result of one circle of a radius query
+ * @param circle searched circle
+ * @param cyclones cyclones that came within its radius, in dataset order
+ */
+public record RadiusMatches(GeoCircle circle, List<Cyclone> cyclones) {}
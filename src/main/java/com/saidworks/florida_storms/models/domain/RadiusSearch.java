@@ -0,0 +1,89 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Great-circle radius queries over the grid of a {@link LandfallIndex}
+ * A single circle scans the grid rows of its prune boxes as a box query does, many circles are
+ * gridded by a {@link RadiusIndex} and matched in one pass over the points of the basin
+ */
+public final class RadiusSearch {
+    private final LandfallIndex grid;
+
+    /**
+     * @param grid grid searched by every query
+     */
+    public RadiusSearch(LandfallIndex grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Cyclones of one basin with at least one indexed point within a great-circle radius and
+     * between two epoch minutes, both included
+     * Only the points inside a prune box get the exact distance test
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesWithin(
+            GeoCircle circle, String basin, int fromMinute, int toMinute) {
+        CircleScan circleScan = new CircleScan(circle);
+        short[] latitudes = grid.latitudes;
+        short[] longitudes = grid.longitudes;
+        BitSet matched = new BitSet(grid.cyclones.size());
+        for (GeoBoundary box : circle.pruneBoxes()) {
+            int firstRow = DegreeGrid.latitudeRow(box.getMinLatitude());
+            int lastRow = DegreeGrid.latitudeRow(box.getMaxLatitude());
+            int firstColumn = DegreeGrid.longitudeColumn(box.getMinLongitude());
+            int lastColumn = DegreeGrid.longitudeColumn(box.getMaxLongitude());
+            BoundaryScan scan = BoundaryScan.of(box);
+            for (int block : grid.blocksOf(basin)) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    int end = grid.cellStarts[LandfallIndex.cell(block, row, lastColumn) + 1];
+                    int i =
+                            scan.nextMatch(
+                                    latitudes,
+                                    longitudes,
+                                    grid.cellStarts[LandfallIndex.cell(block, row, firstColumn)],
+                                    end);
+                    while (i < end) {
+                        int cyclone = grid.cycloneIndexes[i];
+                        if (LandfallIndex.within(grid.epochMinutes[i], fromMinute, toMinute)
+                                && !matched.get(cyclone)
+                                && circleScan.contains(latitudes[i], longitudes[i])) {
+                            matched.set(cyclone);
+                        }
+                        i = scan.nextMatch(latitudes, longitudes, i + 1, end);
+                    }
+                }
+            }
+        }
+        return matched.stream().mapToObj(grid.cyclones::get).toList();
+    }
+
+    /**
+     * Cyclones of one basin with at least one indexed point between two epoch minutes within each
+     * great-circle radius
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return one list per circle in the order of {@code circles}, each in the order of the
+     *     indexed list
+     */
+    public List<List<Cyclone>> cyclonesWithin(
+            RadiusIndex circles, String basin, int fromMinute, int toMinute) {
+        // the points of a basin are one range of the point columns
+        int[] blocks = grid.blocksOf(basin);
+        BitSet[] matched =
+                circles.match(
+                        grid.latitudes,
+                        grid.longitudes,
+                        grid.epochMinutes,
+                        grid.cycloneIndexes,
+                        grid.firstPosition(blocks),
+                        grid.endPosition(blocks),
+                        fromMinute,
+                        toMinute);
+        return grid.cyclonesOf(matched);
+    }
+}
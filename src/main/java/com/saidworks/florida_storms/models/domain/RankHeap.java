@@ -0,0 +1,96 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap of packed ranks keeping the K highest, each ranking task fills its own before
+ * they are merged
+ * A rank packs a score in the high bits and an inverted point position in the low 31 bits, so
+ * equal scores are ordered by position and every split of a query gives the same answer
+ */
+final class RankHeap {
+    private final long[] heap;
+    private int size;
+
+    RankHeap(int capacity) {
+        heap = new long[capacity];
+    }
+
+    static long rank(int score, int position) {
+        return ((long) score << 31) + (Integer.MAX_VALUE - position);
+    }
+
+    static int position(long rank) {
+        return Integer.MAX_VALUE - (int) (rank & Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return whether {@code rank} would be dropped, every later candidate of a cell sorted by
+     *     descending rank is dropped as well
+     */
+    boolean rejects(long rank) {
+        return size == heap.length && (size == 0 || rank <= heap[0]);
+    }
+
+    void offer(long rank) {
+        if (size < heap.length) {
+            heap[size] = rank;
+            siftUp(size++);
+        } else if (rank > heap[0]) {
+            heap[0] = rank;
+            siftDown(0);
+        }
+    }
+
+    RankHeap merge(RankHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.heap[i]);
+        }
+        return this;
+    }
+
+    /**
+     * @return kept ranks, highest first
+     */
+    long[] descending() {
+        long[] ranks = Arrays.copyOf(heap, size);
+        Arrays.sort(ranks);
+        for (int i = 0; i < size / 2; i++) {
+            long swap = ranks[i];
+            ranks[i] = ranks[size - 1 - i];
+            ranks[size - 1 - i] = swap;
+        }
+        return ranks;
+    }
+
+    private void siftUp(int index) {
+        long rank = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= rank) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = rank;
+    }
+
+    private void siftDown(int index) {
+        long rank = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (rank <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = rank;
+    }
+}
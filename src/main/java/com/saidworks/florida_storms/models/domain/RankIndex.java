@@ -0,0 +1,190 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Top-K index over the grid of a {@link LandfallIndex}, built once per dataset
+ * {@link RankedCells} lists the points of every cell by descending score of each
+ * {@link LandfallRanking}, a query stops reading a cell at the first point that cannot enter its
+ * K best
+ */
+public final class RankIndex {
+    private final LandfallIndex grid;
+    private final RankedCells rankedCells;
+
+    /**
+     * @param grid grid over the same points
+     */
+    public RankIndex(LandfallIndex grid) {
+        this(grid, new IndexedPoints(grid.cyclones));
+    }
+
+    RankIndex(LandfallIndex grid, IndexedPoints points) {
+        this.grid = grid;
+        rankedCells = new RankedCells(points, grid.positions, grid.cellStarts);
+    }
+
+    /**
+     * K highest ranked indexed points between two epoch minutes, both included
+     * The overlapped rows are split across the pool, every task keeps its own bounded heap and
+     * reads each cell in ranked order until a point cannot beat its K-th best, the heaps are
+     * merged at the end
+     * @param boundary null for anywhere
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return at most {@code k} landfalls, highest ranked first
+     */
+    public List<RankedLandfall> top(
+            LandfallRanking ranking,
+            int k,
+            GeoBoundary boundary,
+            String basin,
+            int fromMinute,
+            int toMinute,
+            ForkJoinPool pool) {
+        if (k <= 0
+                || fromMinute > toMinute
+                || (boundary != null
+                        && (boundary.getMinLatitude() > boundary.getMaxLatitude()
+                                || boundary.getMinLongitude() > boundary.getMaxLongitude()))) {
+            return List.of();
+        }
+        RankingTask task =
+                boundary == null
+                        ? new RankingTask(
+                                ranking,
+                                k,
+                                null,
+                                grid.blocksOf(basin),
+                                fromMinute,
+                                toMinute,
+                                0,
+                                DegreeGrid.ROWS - 1,
+                                0,
+                                DegreeGrid.COLUMNS - 1)
+                        : new RankingTask(
+                                ranking,
+                                k,
+                                BoundaryScan.of(boundary),
+                                grid.blocksOf(basin),
+                                fromMinute,
+                                toMinute,
+                                DegreeGrid.latitudeRow(boundary.getMinLatitude()),
+                                DegreeGrid.latitudeRow(boundary.getMaxLatitude()),
+                                DegreeGrid.longitudeColumn(boundary.getMinLongitude()),
+                                DegreeGrid.longitudeColumn(boundary.getMaxLongitude()));
+        long[] ranks = pool.invoke(task).descending();
+        List<RankedLandfall> landfalls = new ArrayList<>(ranks.length);
+        for (long rank : ranks) {
+            int position = RankHeap.position(rank);
+            Cyclone cyclone = grid.cyclones.get(grid.cycloneIndexes[position]);
+            landfalls.add(
+                    new RankedLandfall(
+                            cyclone.getHeader(),
+                            cyclone.getDataLines().get(grid.lineIndexes[position])));
+        }
+        return landfalls;
+    }
+
+    /**
+     * Top-K search over a block of rows and columns of the grid, split in halves of rows while
+     * they hold more than {@link #POINTS_PER_TASK} points
+     */
+    private final class RankingTask extends RecursiveTask<RankHeap> {
+        private static final int POINTS_PER_TASK = 16_384;
+
+        private final LandfallRanking ranking;
+        private final int k;
+        private final BoundaryScan scan;
+        private final int[] blocks;
+        private final int fromMinute;
+        private final int toMinute;
+        private final int firstRow;
+        private final int lastRow;
+        private final int firstColumn;
+        private final int lastColumn;
+
+        RankingTask(
+                LandfallRanking ranking,
+                int k,
+                BoundaryScan scan,
+                int[] blocks,
+                int fromMinute,
+                int toMinute,
+                int firstRow,
+                int lastRow,
+                int firstColumn,
+                int lastColumn) {
+            this.ranking = ranking;
+            this.k = k;
+            this.scan = scan;
+            this.blocks = blocks;
+            this.fromMinute = fromMinute;
+            this.toMinute = toMinute;
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.firstColumn = firstColumn;
+            this.lastColumn = lastColumn;
+        }
+
+        @Override
+        protected RankHeap compute() {
+            if (firstRow < lastRow
+                    && grid.gridPoints(blocks, firstRow, lastRow, firstColumn, lastColumn)
+                            > POINTS_PER_TASK) {
+                int middle = (firstRow + lastRow) >>> 1;
+                RankingTask left = rows(firstRow, middle);
+                left.fork();
+                RankHeap right = rows(middle + 1, lastRow).compute();
+                return left.join().merge(right);
+            }
+            int[] scores = rankedCells.scores(ranking);
+            int[] ranked = rankedCells.ranked(ranking);
+            RankHeap heap = new RankHeap(k);
+            for (int block : blocks) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    for (int column = firstColumn; column <= lastColumn; column++) {
+                        offerCell(heap, scores, ranked, LandfallIndex.cell(block, row, column));
+                    }
+                }
+            }
+            return heap;
+        }
+
+        private void offerCell(RankHeap heap, int[] scores, int[] ranked, int cell) {
+            for (int j = grid.cellStarts[cell]; j < grid.cellStarts[cell + 1]; j++) {
+                int position = ranked[j];
+                int score = scores[position];
+                long rank = RankHeap.rank(score, position);
+                // the cell is sorted, nothing after this point can enter the heap
+                if (score == LandfallRanking.EXCLUDED || heap.rejects(rank)) {
+                    return;
+                }
+                if (LandfallIndex.within(grid.epochMinutes[position], fromMinute, toMinute)
+                        && (scan == null
+                                || scan.contains(
+                                        grid.latitudes[position], grid.longitudes[position]))) {
+                    heap.offer(rank);
+                }
+            }
+        }
+
+        private RankingTask rows(int first, int last) {
+            return new RankingTask(
+                    ranking,
+                    k,
+                    scan,
+                    blocks,
+                    fromMinute,
+                    toMinute,
+                    first,
+                    last,
+                    firstColumn,
+                    lastColumn);
+        }
+    }
+}
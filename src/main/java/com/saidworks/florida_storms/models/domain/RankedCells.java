@@ -0,0 +1,72 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.Arrays;
+
+/**
+ * Scores of the grid points of a {@link LandfallIndex} under every {@link LandfallRanking}, with
+ * the points of every cell listed by descending score
+ * Built once from the file order points, only the scores and the ranked grid positions are kept
+ */
+final class RankedCells {
+    // per ranking ordinal, score of every grid position
+    private final int[][] scores;
+    // per ranking ordinal, grid positions with the points of every cell by descending score
+    private final int[][] ranked;
+
+    /**
+     * @param positions grid position of every file order point
+     * @param cellStarts points of cell c are at [cellStarts[c], cellStarts[c + 1]) of the grid
+     */
+    RankedCells(IndexedPoints points, int[] positions, int[] cellStarts) {
+        LandfallRanking[] rankings = LandfallRanking.values();
+        scores = new int[rankings.length][points.size];
+        ranked = new int[rankings.length][];
+        for (LandfallRanking ranking : rankings) {
+            int[] rankScores = scores[ranking.ordinal()];
+            for (int i = 0; i < points.size; i++) {
+                rankScores[positions[i]] =
+                        ranking.score(
+                                points.maxWindSpeeds[i],
+                                points.centralPressures[i],
+                                points.epochMinutes[i]);
+            }
+            ranked[ranking.ordinal()] = rankCells(rankScores, cellStarts);
+        }
+    }
+
+    /**
+     * @return score of every grid position
+     */
+    int[] scores(LandfallRanking ranking) {
+        return scores[ranking.ordinal()];
+    }
+
+    /**
+     * @return grid positions with the points of every cell by descending score
+     */
+    int[] ranked(LandfallRanking ranking) {
+        return ranked[ranking.ordinal()];
+    }
+
+    /**
+     * @return grid positions with the points of every cell sorted by descending score, equal
+     *     scores by position
+     */
+    private static int[] rankCells(int[] scores, int[] cellStarts) {
+        // the inverted unsigned score in the high bits, the position in the low 31 bits
+        long[] keys = new long[scores.length];
+        for (int position = 0; position < scores.length; position++) {
+            long descending = 0xFFFF_FFFFL - (scores[position] - (long) Integer.MIN_VALUE);
+            keys[position] = descending << 31 | position;
+        }
+        for (int cell = 0; cell < cellStarts.length - 1; cell++) {
+            Arrays.sort(keys, cellStarts[cell], cellStarts[cell + 1]);
+        }
+        int[] ranked = new int[keys.length];
+        for (int j = 0; j < keys.length; j++) {
+            ranked[j] = (int) (keys[j] & Integer.MAX_VALUE);
+        }
+        return ranked;
+    }
+}
@@ -0,0 +1,9 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+/**
+ * One landfall of a top-K query
+ * @param header header of the storm
+ * @param landfall the ranked landfall point
+ */
+public record RankedLandfall(HeaderLine header, DataLine landfall) {}
@@ -0,0 +1,19 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.List;
+
+/**
+ * Regions searched together by one batch landfall query
+ * @param areas area names resolved by geocoding, null for none
+ * @param boxes custom boxes, null for none
+ * @param basin basin code (AL, EP, CP), null for every basin
+ * @param fromYear first year of the landfalls, null for no lower bound
+ * @param toYear last year of the landfalls, null for no upper bound
+ */
+public record RegionBatchRequest(
+        List<String> areas,
+        List<GeoBoundary> boxes,
+        String basin,
+        Integer fromYear,
+        Integer toYear) {}
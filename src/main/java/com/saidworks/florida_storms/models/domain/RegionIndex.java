@@ -0,0 +1,100 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over many region boxes, built per batch query
+ * Every cell of the {@link DegreeGrid} lists the regions whose box overlaps it, so the regions
+ * containing a point are found from its cell and only those are compared exactly
+ * Matching a set of points costs one cell lookup per point plus one comparison per candidate
+ * region instead of one comparison per point and region
+ */
+public final class RegionIndex {
+    private final List<GeoBoundary> regions;
+    private final BoundaryScan[] scans;
+    // regions overlapping cell c are cellRegions[cellStarts[c]..cellStarts[c + 1])
+    private final int[] cellStarts = new int[DegreeGrid.CELLS + 1];
+    private final int[] cellRegions;
+
+    /**
+     * @param regions region boxes, inverted boxes match nothing
+     */
+    public RegionIndex(List<GeoBoundary> regions) {
+        this.regions = List.copyOf(regions);
+        this.scans = new BoundaryScan[regions.size()];
+        for (int r = 0; r < regions.size(); r++) {
+            scans[r] = BoundaryScan.of(regions.get(r));
+            forEachCell(regions.get(r), cell -> cellStarts[cell + 1]++);
+        }
+        DegreeGrid.accumulate(cellStarts);
+        cellRegions = new int[cellStarts[DegreeGrid.CELLS]];
+        int[] next = cellStarts.clone();
+        for (int r = 0; r < regions.size(); r++) {
+            int region = r;
+            forEachCell(regions.get(r), cell -> cellRegions[next[cell]++] = region);
+        }
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    public GeoBoundary region(int index) {
+        return regions.get(index);
+    }
+
+    /**
+     * One pass over the points setting, for every region containing a point between two epoch
+     * minutes, the bit of the point's cyclone
+     * @param from first point read
+     * @param to point after the last one read
+     * @return one set of cyclone indexes per region
+     */
+    BitSet[] match(
+            short[] latitudes,
+            short[] longitudes,
+            int[] epochMinutes,
+            int[] cycloneIndexes,
+            int from,
+            int to,
+            int fromMinute,
+            int toMinute) {
+        BitSet[] matched = new BitSet[regions.size()];
+        for (int r = 0; r < matched.length; r++) {
+            matched[r] = new BitSet();
+        }
+        for (int i = from; i < to; i++) {
+            if (epochMinutes[i] < fromMinute || epochMinutes[i] > toMinute) {
+                continue;
+            }
+            int cell = DegreeGrid.cellOf(latitudes[i], longitudes[i]);
+            for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+                int region = cellRegions[k];
+                if (scans[region].contains(latitudes[i], longitudes[i])) {
+                    matched[region].set(cycloneIndexes[i]);
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static void forEachCell(GeoBoundary boundary, IntConsumer action) {
+        if (boundary.getMinLatitude() > boundary.getMaxLatitude()
+                || boundary.getMinLongitude() > boundary.getMaxLongitude()) {
+            return;
+        }
+        int firstRow = DegreeGrid.latitudeRow(boundary.getMinLatitude());
+        int lastRow = DegreeGrid.latitudeRow(boundary.getMaxLatitude());
+        int firstColumn = DegreeGrid.longitudeColumn(boundary.getMinLongitude());
+        int lastColumn = DegreeGrid.longitudeColumn(boundary.getMaxLongitude());
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                action.accept(DegreeGrid.cell(row, column));
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.List;
+
+/**
+ * Result of one region of a batch landfall query
+ * @param boundary resolved or given box of the region, its name is the area name
+ * @param cyclones cyclones with a landfall in the box, in dataset order
+ * @param error why the area could not be geocoded, null once its boundary is resolved
+ */
+public record RegionLandfalls(GeoBoundary boundary, List<Cyclone> cyclones, String error) {
+
+    public RegionLandfalls(GeoBoundary boundary, List<Cyclone> cyclones) {
+        this(boundary, cyclones, null);
+    }
+
+    /**
+     * Result of an area whose boundary lookup failed, it matches no cyclone
+     */
+    public static RegionLandfalls unresolved(String area, String error) {
+        return new RegionLandfalls(GeoBoundary.builder().name(area).build(), List.of(), error);
+    }
+}
@@ -0,0 +1,234 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Time index over the track points of a list of cyclones, built once per dataset
+ * Points are sorted by epoch minute so a date range is one binary search and one packed range, and
+ * the span of every cyclone with indexed points, from the first to the last point of its whole
+ * track as recorded by the parser, is kept in an interval tree for stabbing queries
+ */
+public final class TemporalIndex {
+    private final List<Cyclone> cyclones;
+    // points sorted by epoch minute, points of the same minute stay in file order
+    private final int[] epochMinutes;
+    private final short[] latitudes;
+    private final short[] longitudes;
+    private final int[] cycloneIndexes;
+    // interval tree laid out on spans sorted by start, the node of [lo, hi) is (lo + hi) / 2 and
+    // holds the greatest end of its subtree
+    private final int[] spanStarts;
+    private final int[] spanEnds;
+    private final int[] spanCyclones;
+    private final int[] subtreeEnds;
+
+    /**
+     * @param cyclones indexed cyclones, query results keep their order
+     */
+    public TemporalIndex(List<Cyclone> cyclones) {
+        this(cyclones, new IndexedPoints(cyclones));
+    }
+
+    TemporalIndex(List<Cyclone> cyclones, IndexedPoints points) {
+        this.cyclones = cyclones;
+        int pointCount = points.size;
+        // sort keys hold the minute then the file position, ties keep file order
+        long[] order = new long[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            order[i] = sortKey(points.epochMinutes[i], i);
+        }
+        Arrays.sort(order);
+        epochMinutes = new int[pointCount];
+        latitudes = new short[pointCount];
+        longitudes = new short[pointCount];
+        cycloneIndexes = new int[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            int point = (int) order[i];
+            epochMinutes[i] = points.epochMinutes[point];
+            latitudes[i] = (short) points.latitudes[point];
+            longitudes[i] = (short) points.longitudes[point];
+            cycloneIndexes[i] = points.cycloneIndexes[point];
+        }
+
+        int[] starts = new int[cyclones.size()];
+        int[] ends = new int[cyclones.size()];
+        Arrays.fill(starts, Integer.MAX_VALUE);
+        Arrays.fill(ends, Integer.MIN_VALUE);
+        for (int i = 0; i < pointCount; i++) {
+            int cyclone = points.cycloneIndexes[i];
+            if (starts[cyclone] == Integer.MAX_VALUE) {
+                // the indexed points lie within the track, a track span missing a point is widened
+                Cyclone track = cyclones.get(cyclone);
+                starts[cyclone] = track.getFirstTrackMinute();
+                ends[cyclone] = track.getLastTrackMinute();
+            }
+            starts[cyclone] = Math.min(starts[cyclone], points.epochMinutes[i]);
+            ends[cyclone] = Math.max(ends[cyclone], points.epochMinutes[i]);
+        }
+        // cyclones without indexed points have no span
+        long[] spans =
+                IntStream.range(0, cyclones.size())
+                        .filter(cyclone -> starts[cyclone] <= ends[cyclone])
+                        .mapToLong(cyclone -> sortKey(starts[cyclone], cyclone))
+                        .sorted()
+                        .toArray();
+        spanStarts = new int[spans.length];
+        spanEnds = new int[spans.length];
+        spanCyclones = new int[spans.length];
+        subtreeEnds = new int[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            int cyclone = (int) spans[i];
+            spanStarts[i] = starts[cyclone];
+            spanEnds[i] = ends[cyclone];
+            spanCyclones[i] = cyclone;
+        }
+        buildSubtreeEnds(0, spans.length);
+    }
+
+    /**
+     * @return first epoch minute of a year
+     */
+    public static int startOfYear(int year) {
+        return (int) (LocalDate.of(year, 1, 1).toEpochDay() * 1_440);
+    }
+
+    /**
+     * @return last epoch minute of a year
+     */
+    public static int endOfYear(int year) {
+        return startOfYear(year + 1) - 1;
+    }
+
+    /**
+     * @return epoch minute of a UTC date and time
+     */
+    public static int epochMinute(LocalDateTime dateTime) {
+        return (int) (dateTime.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    /**
+     * @return number of indexed points
+     */
+    public int size() {
+        return epochMinutes.length;
+    }
+
+    /**
+     * Number of points between two epoch minutes, both included
+     */
+    public int pointsBetween(int fromMinute, int toMinute) {
+        return Math.max(0, firstAfter(toMinute) - firstAtOrAfter(fromMinute));
+    }
+
+    /**
+     * Cyclones with at least one indexed point between two epoch minutes, both included
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesBetween(int fromMinute, int toMinute) {
+        BitSet matched = new BitSet(cyclones.size());
+        for (int i = firstAtOrAfter(fromMinute); i < firstAfter(toMinute); i++) {
+            matched.set(cycloneIndexes[i]);
+        }
+        return matched.stream().mapToObj(cyclones::get).toList();
+    }
+
+    /**
+     * Cyclones whose track span overlaps the range between two epoch minutes, both included, by
+     * stabbing the interval tree
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesActive(int fromMinute, int toMinute) {
+        BitSet matched = new BitSet(cyclones.size());
+        if (fromMinute <= toMinute) {
+            stab(0, spanStarts.length, fromMinute, toMinute, matched);
+        }
+        return matched.stream().mapToObj(cyclones::get).toList();
+    }
+
+    /**
+     * Cyclones of one basin with at least one indexed point within the boundary and between two
+     * epoch minutes, both included, the time range is one packed range scanned by
+     * {@link BoundaryScan}
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesWithin(
+            GeoBoundary boundary, String basin, int fromMinute, int toMinute) {
+        BitSet matched = new BitSet(cyclones.size());
+        int end = firstAfter(toMinute);
+        int start = firstAtOrAfter(fromMinute);
+        if (start < end) {
+            BoundaryScan scan = BoundaryScan.of(boundary);
+            int i = scan.nextMatch(latitudes, longitudes, start, end);
+            while (i < end) {
+                matched.set(cycloneIndexes[i]);
+                i = scan.nextMatch(latitudes, longitudes, i + 1, end);
+            }
+        }
+        return matched.stream()
+                .mapToObj(cyclones::get)
+                .filter(cyclone -> basin == null || basin.equals(cyclone.getHeader().getBasin()))
+                .toList();
+    }
+
+    private static long sortKey(int minute, int index) {
+        return (long) minute << 32 | index;
+    }
+
+    private int firstAtOrAfter(int minute) {
+        int lo = 0;
+        int hi = epochMinutes.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochMinutes[mid] < minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int firstAfter(int minute) {
+        return minute == Integer.MAX_VALUE ? epochMinutes.length : firstAtOrAfter(minute + 1);
+    }
+
+    private int buildSubtreeEnds(int lo, int hi) {
+        if (lo >= hi) {
+            return Integer.MIN_VALUE;
+        }
+        int node = (lo + hi) >>> 1;
+        int end =
+                Math.max(
+                        spanEnds[node],
+                        Math.max(buildSubtreeEnds(lo, node), buildSubtreeEnds(node + 1, hi)));
+        subtreeEnds[node] = end;
+        return end;
+    }
+
+    private void stab(int lo, int hi, int fromMinute, int toMinute, BitSet matched) {
+        if (lo >= hi) {
+            return;
+        }
+        int node = (lo + hi) >>> 1;
+        if (subtreeEnds[node] < fromMinute) {
+            return; // every span of the subtree ended before the range
+        }
+        stab(lo, node, fromMinute, toMinute, matched);
+        if (spanStarts[node] > toMinute) {
+            return; // this span and the right subtree start after the range
+        }
+        if (spanEnds[node] >= fromMinute) {
+            matched.set(spanCyclones[node]);
+        }
+        stab(node + 1, hi, fromMinute, toMinute, matched);
+    }
+}
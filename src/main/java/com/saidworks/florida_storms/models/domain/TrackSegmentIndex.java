@@ -0,0 +1,166 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Uniform grid over the segments between consecutive track points of a list of cyclones, built
+ * once per dataset version from the full tracks
+ * Every cell of the {@link DegreeGrid} lists the segments whose box overlaps it, a radius query
+ * only tests the segments listed in the cells of the circle's prune boxes, each for its closest
+ * approach along the arc
+ * A cyclone with a single point gets a segment from that point to itself
+ */
+public final class TrackSegmentIndex {
+    private final List<Cyclone> cyclones;
+    private final IndexedPoints points;
+    // segment s goes from point segmentStarts[s] to point segmentEnds[s]
+    private final int[] segmentStarts;
+    private final int[] segmentEnds;
+    // segments overlapping cell c are cellSegments[cellStarts[c]..cellStarts[c + 1])
+    private final int[] cellStarts = new int[DegreeGrid.CELLS + 1];
+    private final int[] cellSegments;
+
+    /**
+     * @param cyclones cyclones with their full track, query results keep their order
+     */
+    public TrackSegmentIndex(List<Cyclone> cyclones) {
+        this.cyclones = cyclones;
+        this.points = new IndexedPoints(cyclones);
+        int count = 0;
+        for (int i = 0; i < points.size; i++) {
+            if (hasNext(i) || !hasPrevious(i)) {
+                count++;
+            }
+        }
+        segmentStarts = new int[count];
+        segmentEnds = new int[count];
+        int segment = 0;
+        for (int i = 0; i < points.size; i++) {
+            if (hasNext(i)) {
+                segmentStarts[segment] = i;
+                segmentEnds[segment++] = i + 1;
+            } else if (!hasPrevious(i)) {
+                segmentStarts[segment] = i;
+                segmentEnds[segment++] = i;
+            }
+        }
+
+        for (int s = 0; s < count; s++) {
+            forEachCell(s, cell -> cellStarts[cell + 1]++);
+        }
+        DegreeGrid.accumulate(cellStarts);
+        cellSegments = new int[cellStarts[DegreeGrid.CELLS]];
+        int[] next = cellStarts.clone();
+        for (int s = 0; s < count; s++) {
+            int current = s;
+            forEachCell(s, cell -> cellSegments[next[cell]++] = current);
+        }
+    }
+
+    /**
+     * @return number of indexed segments
+     */
+    public int size() {
+        return segmentStarts.length;
+    }
+
+    /**
+     * Cyclones of one basin whose track comes within the radius between two epoch minutes, a
+     * segment counts when its time span overlaps the range
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed list
+     */
+    public List<Cyclone> cyclonesNear(
+            GeoCircle circle, String basin, int fromMinute, int toMinute) {
+        CircleScan scan = new CircleScan(circle);
+        BitSet matched = new BitSet(cyclones.size());
+        for (GeoBoundary box : circle.pruneBoxes()) {
+            int firstRow = DegreeGrid.latitudeRow(box.getMinLatitude());
+            int lastRow = DegreeGrid.latitudeRow(box.getMaxLatitude());
+            int firstColumn = DegreeGrid.longitudeColumn(box.getMinLongitude());
+            int lastColumn = DegreeGrid.longitudeColumn(box.getMaxLongitude());
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    // a box ending on the antimeridian also reads the wrapped first column
+                    int cell = DegreeGrid.cell(row, DegreeGrid.wrap(column));
+                    for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+                        int segment = cellSegments[k];
+                        int from = segmentStarts[segment];
+                        int to = segmentEnds[segment];
+                        if (!matched.get(points.cycloneIndexes[from])
+                                && overlaps(from, to, fromMinute, toMinute)
+                                && scan.nearSegment(
+                                        points.latitudes[from],
+                                        points.longitudes[from],
+                                        points.latitudes[to],
+                                        points.longitudes[to])) {
+                            matched.set(points.cycloneIndexes[from]);
+                        }
+                    }
+                }
+            }
+        }
+        return matched.stream()
+                .mapToObj(cyclones::get)
+                .filter(cyclone -> basin == null || basin.equals(cyclone.getHeader().getBasin()))
+                .toList();
+    }
+
+    /**
+     * Batch form of {@link #cyclonesNear(GeoCircle, String, int, int)}, every circle is answered
+     * from the same segment grid
+     * @return one list per circle in the order of {@code circles}
+     */
+    public List<List<Cyclone>> cyclonesNear(
+            List<GeoCircle> circles, String basin, int fromMinute, int toMinute) {
+        List<List<Cyclone>> results = new ArrayList<>(circles.size());
+        for (GeoCircle circle : circles) {
+            results.add(cyclonesNear(circle, basin, fromMinute, toMinute));
+        }
+        return results;
+    }
+
+    private boolean hasNext(int point) {
+        return point + 1 < points.size
+                && points.cycloneIndexes[point + 1] == points.cycloneIndexes[point];
+    }
+
+    private boolean hasPrevious(int point) {
+        return point > 0 && points.cycloneIndexes[point - 1] == points.cycloneIndexes[point];
+    }
+
+    private boolean overlaps(int from, int to, int fromMinute, int toMinute) {
+        int start = Math.min(points.epochMinutes[from], points.epochMinutes[to]);
+        int end = Math.max(points.epochMinutes[from], points.epochMinutes[to]);
+        return start <= toMinute && end >= fromMinute;
+    }
+
+    private void forEachCell(int segment, IntConsumer action) {
+        int from = segmentStarts[segment];
+        int to = segmentEnds[segment];
+        // the arc bulges poleward of its end points, by far less than a cell for 6-hourly points
+        int south = Math.min(points.latitudes[from], points.latitudes[to]);
+        int north = Math.max(points.latitudes[from], points.latitudes[to]);
+        int firstRow = Math.max(DegreeGrid.row(south) - 1, 0);
+        int lastRow = Math.min(DegreeGrid.row(north) + 1, DegreeGrid.ROWS - 1);
+        int west = Math.min(points.longitudes[from], points.longitudes[to]);
+        int east = Math.max(points.longitudes[from], points.longitudes[to]);
+        int firstColumn = DegreeGrid.column(west);
+        int lastColumn = DegreeGrid.column(east);
+        if (east - west > 1800) {
+            // the segment crosses the antimeridian, go east from its eastern point round to its
+            // western one
+            firstColumn = lastColumn;
+            lastColumn = DegreeGrid.column(west) + DegreeGrid.COLUMNS - 1;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                action.accept(DegreeGrid.cell(row, DegreeGrid.wrap(column)));
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Heap {@link TrackStore} keeping every column in its own primitive array
+ * A point costs 29 bytes plus 26 bytes of radii instead of a DataLine object graph
+ * The store is append only and filled by a single thread (a batch or the merger), it is read only
+ * once published
+ * Points appended with {@link #appendDeferred(HurdatLineCursor)} keep the position of their line in
+ * the mapped file and decode their radii on first access, racing readers decode the same values
+ * and the decoded flag is published with release semantics
+ * Wind and pressure are always decoded, every dataset index reads them
+ */
+@Log4j2
+public class ArrayTrackStore implements TrackStore {
+    private static final int RADII = HurdatLineCursor.RADII_COUNT;
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final byte DECODED = 0;
+    private static final byte DEFERRED = 1;
+    private static final VarHandle DECODE_STATE =
+            MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private int size;
+    private int[] epochMinutes;
+    private short[] latitudes;
+    private short[] longitudes;
+    private byte[] hemispheres;
+    private byte[] recordTypes;
+    private byte[] statusCodes;
+    private short[] maxWindSpeeds;
+    private short[] centralPressures;
+    private short[] radii; // RADII values per point
+
+    // deferred points only, allocated on the first deferred append
+    private byte[] decodeStates;
+    private MemorySegment[] lineSources;
+    private long[] lineStarts;
+    private long[] lineEnds;
+
+    public ArrayTrackStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayTrackStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        epochMinutes = new int[capacity];
+        latitudes = new short[capacity];
+        longitudes = new short[capacity];
+        hemispheres = new byte[capacity];
+        recordTypes = new byte[capacity];
+        statusCodes = new byte[capacity];
+        maxWindSpeeds = new short[capacity];
+        centralPressures = new short[capacity];
+        radii = new short[capacity * RADII];
+    }
+
+    /**
+     * Appends the data line currently decoded by the cursor
+     * @return index of the new point
+     */
+    public int append(HurdatLineCursor cursor) {
+        int index = nextIndex();
+        appendPosition(index, cursor);
+        storeMeasurements(index, cursor);
+        return index;
+    }
+
+    private void appendPosition(int index, HurdatLineCursor cursor) {
+        byte hemisphere = 0;
+        int latitude = cursor.getLatitudeTenths();
+        int longitude = cursor.getLongitudeTenths();
+        if (cursor.getLatitudeDirection() == 'S') {
+            hemisphere |= SOUTH;
+            latitude = -latitude;
+        }
+        if (cursor.getLongitudeDirection() == 'E') {
+            hemisphere |= EAST;
+        } else {
+            longitude = -longitude;
+        }
+        epochMinutes[index] = TrackStore.toEpochMinute(cursor.getDate(), cursor.getTime());
+        latitudes[index] = (short) latitude;
+        longitudes[index] = (short) longitude;
+        hemispheres[index] = hemisphere;
+        recordTypes[index] = (byte) cursor.getRecordType();
+        statusCodes[index] = StormStatusCodes.encode(cursor);
+    }
+
+    private void storeMeasurements(int index, HurdatLineCursor cursor) {
+        maxWindSpeeds[index] = (short) cursor.getMaxWindSpeed();
+        centralPressures[index] = (short) cursor.getCentralPressure();
+        storeRadii(index, cursor);
+    }
+
+    private void storeRadii(int index, HurdatLineCursor cursor) {
+        for (int r = 0; r < RADII; r++) {
+            radii[index * RADII + r] = (short) cursor.getRadius(r);
+        }
+    }
+
+    /**
+     * Appends the line of a mapped file currently decoded by the cursor up to its wind and
+     * pressure, the radii are decoded from the mapping when first read
+     * @return index of the new point
+     */
+    public int appendDeferred(HurdatLineCursor cursor) {
+        if (!(cursor.getSource() instanceof MemorySegment source)) {
+            throw new IllegalArgumentException("Only lines of a mapped file can be deferred");
+        }
+        int index = nextIndex();
+        appendPosition(index, cursor);
+        maxWindSpeeds[index] = (short) cursor.getMaxWindSpeed();
+        centralPressures[index] = (short) cursor.getCentralPressure();
+        ensureDeferredColumns();
+        lineSources[index] = source;
+        lineStarts[index] = cursor.getLineStart();
+        lineEnds[index] = cursor.getLineEnd();
+        decodeStates[index] = DEFERRED;
+        return index;
+    }
+
+    /**
+     * Appends a DataLine built outside of the parser (e.g. by tests)
+     */
+    public int append(DataLine dataLine) {
+        int index = nextIndex();
+        int latitude = (int) Math.round(dataLine.getLatitude() * 10);
+        int longitude = (int) Math.round(dataLine.getLongitude() * 10);
+        byte hemisphere = 0;
+        if (dataLine.getLatitudeDirection() == 'S') {
+            hemisphere |= SOUTH;
+            latitude = -latitude;
+        }
+        if (dataLine.getLongitudeDirection() == 'E') {
+            hemisphere |= EAST;
+        } else {
+            longitude = -longitude;
+        }
+        epochMinutes[index] =
+                (int) (dataLine.getDateTime().toEpochSecond(ZoneOffset.UTC) / 60);
+        latitudes[index] = (short) latitude;
+        longitudes[index] = (short) longitude;
+        hemispheres[index] = hemisphere;
+        recordTypes[index] =
+                dataLine.getRecordType() == null ? 0 : (byte) dataLine.getRecordType().charValue();
+        statusCodes[index] = StormStatusCodes.encode(dataLine.getStormStatus());
+        maxWindSpeeds[index] = (short) dataLine.getMaxWindSpeed();
+        centralPressures[index] = unboxed(dataLine.getCentralPressure());
+        Integer[] values = {
+            dataLine.getWindRadius34NE(), dataLine.getWindRadius34SE(),
+            dataLine.getWindRadius34SW(), dataLine.getWindRadius34NW(),
+            dataLine.getWindRadius50NE(), dataLine.getWindRadius50SE(),
+            dataLine.getWindRadius50SW(), dataLine.getWindRadius50NW(),
+            dataLine.getWindRadius64NE(), dataLine.getWindRadius64SE(),
+            dataLine.getWindRadius64SW(), dataLine.getWindRadius64NW(),
+            dataLine.getMaxWindRadius()
+        };
+        for (int r = 0; r < RADII; r++) {
+            radii[index * RADII + r] = unboxed(values[r]);
+        }
+        return index;
+    }
+
+    /**
+     * Copies a range of another array store column by column
+     * @return index of the first copied point
+     */
+    public int appendRange(ArrayTrackStore source, int offset, int length) {
+        int index = size;
+        ensureCapacity(size + length);
+        if (source.decodeStates != null) {
+            // states first, a point decoded meanwhile is copied as deferred and decoded again
+            ensureDeferredColumns();
+            for (int i = 0; i < length; i++) {
+                decodeStates[index + i] =
+                        (byte) DECODE_STATE.getAcquire(source.decodeStates, offset + i);
+            }
+            System.arraycopy(source.lineSources, offset, lineSources, index, length);
+            System.arraycopy(source.lineStarts, offset, lineStarts, index, length);
+            System.arraycopy(source.lineEnds, offset, lineEnds, index, length);
+        }
+        System.arraycopy(source.epochMinutes, offset, epochMinutes, index, length);
+        System.arraycopy(source.latitudes, offset, latitudes, index, length);
+        System.arraycopy(source.longitudes, offset, longitudes, index, length);
+        System.arraycopy(source.hemispheres, offset, hemispheres, index, length);
+        System.arraycopy(source.recordTypes, offset, recordTypes, index, length);
+        System.arraycopy(source.statusCodes, offset, statusCodes, index, length);
+        System.arraycopy(source.maxWindSpeeds, offset, maxWindSpeeds, index, length);
+        System.arraycopy(source.centralPressures, offset, centralPressures, index, length);
+        System.arraycopy(source.radii, offset * RADII, radii, index * RADII, length * RADII);
+        size += length;
+        return index;
+    }
+
+    /**
+     * Appends all points of a list, copying columns directly when it is a slice of an array store
+     * @return index of the first appended point
+     */
+    public int appendAll(List<DataLine> dataLines) {
+        if (dataLines instanceof TrackSlice slice
+                && slice.getStore() instanceof ArrayTrackStore source) {
+            return appendRange(source, slice.getOffset(), slice.size());
+        }
+        int index = size;
+        dataLines.forEach(this::append);
+        return index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the first point of [{@code from}, {@code to}) within the boundary on the packed
+     * coordinate columns
+     * @return index of that point, {@code to} when there is none
+     */
+    public int nextPointWithin(BoundaryScan scan, int from, int to) {
+        return scan.nextMatch(latitudes, longitudes, from, to);
+    }
+
+    @Override
+    public int epochMinute(int index) {
+        return epochMinutes[index];
+    }
+
+    @Override
+    public char recordType(int index) {
+        return (char) (recordTypes[index] & 0xFF);
+    }
+
+    @Override
+    public byte statusCode(int index) {
+        return statusCodes[index];
+    }
+
+    @Override
+    public int latitudeTenths(int index) {
+        return latitudes[index];
+    }
+
+    @Override
+    public int longitudeTenths(int index) {
+        return longitudes[index];
+    }
+
+    @Override
+    public byte hemispheres(int index) {
+        return hemispheres[index];
+    }
+
+    @Override
+    public int maxWindSpeed(int index) {
+        return maxWindSpeeds[index];
+    }
+
+    @Override
+    public int centralPressure(int index) {
+        return centralPressures[index];
+    }
+
+    @Override
+    public int radius(int index, int radius) {
+        ensureDecoded(index);
+        return radii[index * RADII + radius];
+    }
+
+    private void ensureDecoded(int index) {
+        if (decodeStates == null
+                || (byte) DECODE_STATE.getAcquire(decodeStates, index) == DECODED) {
+            return;
+        }
+        HurdatLineCursor cursor = new HurdatLineCursor();
+        cursor.reset(lineSources[index], lineStarts[index], lineEnds[index]);
+        try {
+            storeRadii(
+                    index,
+                    cursor.parseDataLineKeys()
+                            .parseDataLinePosition()
+                            .parseDataLineIntensity()
+                            .parseDataLineRadii());
+        } catch (IllegalArgumentException e) {
+            // a radius the eager parser would have rejected, the radii of the point are unknown
+            log.warn("Failed to decode deferred track point: {}", cursor.lineAsString(), e);
+            Arrays.fill(
+                    radii, index * RADII, (index + 1) * RADII, (short) HurdatLineCursor.MISSING);
+        }
+        DECODE_STATE.setRelease(decodeStates, index, DECODED);
+    }
+
+    private int nextIndex() {
+        ensureCapacity(size + 1);
+        return size++;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > epochMinutes.length) {
+            resize(Math.max(required, epochMinutes.length + (epochMinutes.length >> 1)));
+        }
+    }
+
+    private void ensureDeferredColumns() {
+        if (decodeStates == null) {
+            int capacity = epochMinutes.length;
+            decodeStates = new byte[capacity];
+            lineSources = new MemorySegment[capacity];
+            lineStarts = new long[capacity];
+            lineEnds = new long[capacity];
+        }
+    }
+
+    private void resize(int capacity) {
+        epochMinutes = Arrays.copyOf(epochMinutes, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        hemispheres = Arrays.copyOf(hemispheres, capacity);
+        recordTypes = Arrays.copyOf(recordTypes, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        maxWindSpeeds = Arrays.copyOf(maxWindSpeeds, capacity);
+        centralPressures = Arrays.copyOf(centralPressures, capacity);
+        radii = Arrays.copyOf(radii, capacity * RADII);
+        if (decodeStates != null) {
+            decodeStates = Arrays.copyOf(decodeStates, capacity);
+            lineSources = Arrays.copyOf(lineSources, capacity);
+            lineStarts = Arrays.copyOf(lineStarts, capacity);
+            lineEnds = Arrays.copyOf(lineEnds, capacity);
+        }
+    }
+
+    private static short unboxed(Integer value) {
+        return (short) (value == null ? HurdatLineCursor.MISSING : value);
+    }
+}
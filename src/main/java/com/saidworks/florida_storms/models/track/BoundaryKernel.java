@@ -0,0 +1,26 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+/**
+ * Bulk loop of {@link BoundaryScan} over packed coordinate columns
+ * The Vector API implementation is only built with the {@code vectorScan} Gradle property,
+ * without it the scans stay scalar
+ */
+interface BoundaryKernel {
+
+    String describe();
+
+    /**
+     * Compares whole vectors of points, a vector with a match returns its first matching lane
+     * @return index of the first match, or the start of the tail left for the scalar loop
+     */
+    int nextMatch(
+            short[] latitudes,
+            short[] longitudes,
+            int from,
+            int to,
+            short minLatitude,
+            short maxLatitude,
+            short minLongitude,
+            short maxLongitude);
+}
@@ -0,0 +1,138 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Tests packed coordinate columns (signed tenths of a degree) against a {@link GeoBoundary}
+ * The boundary is converted once to inclusive bounds in tenths that accept exactly the points
+ * {@link GeoBoundary#containsTenths(int, int)} accepts, the columns are then compared as shorts
+ * many lanes at a time with the Vector API, or one point at a time when the vector kernel was
+ * not built (Gradle property {@code vectorScan}) or the jdk.incubator.vector module is not
+ * available
+ */
+@Log4j2
+public final class BoundaryScan {
+    private static final BoundaryKernel KERNEL = vectorKernel();
+
+    private final short minLatitude;
+    private final short maxLatitude;
+    private final short minLongitude;
+    private final short maxLongitude;
+    private final boolean empty;
+
+    private BoundaryScan(GeoBoundary boundary) {
+        int minLat = minTenths(boundary.getMinLatitude());
+        int maxLat = maxTenths(boundary.getMaxLatitude());
+        int minLon = minTenths(boundary.getMinLongitude());
+        int maxLon = maxTenths(boundary.getMaxLongitude());
+        empty = minLat > maxLat || minLon > maxLon;
+        minLatitude = (short) minLat;
+        maxLatitude = (short) maxLat;
+        minLongitude = (short) minLon;
+        maxLongitude = (short) maxLon;
+    }
+
+    public static BoundaryScan of(GeoBoundary boundary) {
+        return new BoundaryScan(boundary);
+    }
+
+    /**
+     * @return index of the first point of [{@code from}, {@code to}) within the boundary,
+     *     {@code to} when there is none
+     */
+    public int nextMatch(short[] latitudes, short[] longitudes, int from, int to) {
+        if (empty) {
+            return to;
+        }
+        int i = from;
+        if (KERNEL != null) {
+            i =
+                    KERNEL.nextMatch(
+                            latitudes,
+                            longitudes,
+                            from,
+                            to,
+                            minLatitude,
+                            maxLatitude,
+                            minLongitude,
+                            maxLongitude);
+        }
+        // the vector loop leaves the tail shorter than one vector to the scalar loop
+        for (; i < to; i++) {
+            if (contains(latitudes[i], longitudes[i])) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Scalar test of a single point
+     */
+    public boolean contains(int latitudeTenths, int longitudeTenths) {
+        return !empty
+                && latitudeTenths >= minLatitude
+                && latitudeTenths <= maxLatitude
+                && longitudeTenths >= minLongitude
+                && longitudeTenths <= maxLongitude;
+    }
+
+    /**
+     * Smallest tenth {@code t} with {@code t / 10.0 >= degrees}, clamped to the short range
+     */
+    private static int minTenths(double degrees) {
+        if (Double.isNaN(degrees)) {
+            return Short.MAX_VALUE + 1;
+        }
+        double clamped = Math.clamp(degrees, Short.MIN_VALUE / 10.0, Short.MAX_VALUE / 10.0);
+        int tenths = (int) Math.ceil(clamped * 10);
+        // degrees * 10 is rounded, step to the exact bound of the double comparison
+        while (tenths > Short.MIN_VALUE && (tenths - 1) / 10.0 >= degrees) {
+            tenths--;
+        }
+        while (tenths <= Short.MAX_VALUE && tenths / 10.0 < degrees) {
+            tenths++;
+        }
+        return tenths;
+    }
+
+    /**
+     * Largest tenth {@code t} with {@code t / 10.0 <= degrees}, clamped to the short range
+     */
+    private static int maxTenths(double degrees) {
+        if (Double.isNaN(degrees)) {
+            return Short.MIN_VALUE - 1;
+        }
+        double clamped = Math.clamp(degrees, Short.MIN_VALUE / 10.0, Short.MAX_VALUE / 10.0);
+        int tenths = (int) Math.floor(clamped * 10);
+        while (tenths < Short.MAX_VALUE && (tenths + 1) / 10.0 <= degrees) {
+            tenths++;
+        }
+        while (tenths >= Short.MIN_VALUE && tenths / 10.0 > degrees) {
+            tenths--;
+        }
+        return tenths;
+    }
+
+    /**
+     * Kernel loaded by name, so neither the kernel nor the incubator module has to be present
+     * @return null when the scans are scalar
+     */
+    private static BoundaryKernel vectorKernel() {
+        try {
+            Class.forName("jdk.incubator.vector.ShortVector");
+            String name = BoundaryScan.class.getPackageName() + ".VectorBoundaryKernel";
+            BoundaryKernel kernel =
+                    (BoundaryKernel) Class.forName(name).getDeclaredConstructor().newInstance();
+            log.info("Boundary scans use {}", kernel.describe());
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.info(
+                    "Vector kernel not built or jdk.incubator.vector not available, boundary"
+                            + " scans are scalar");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+
+/**
+ * Byte codes for the storm status column of the {@link TrackStore}
+ * The HURDAT2 statuses are registered upfront, unexpected codes are appended on first use so no
+ * value is ever lost, every decoded status is the shared instance of the symbol table
+ */
+public class StormStatusCodes {
+    private static final SymbolTable STATUSES =
+            new SymbolTable(
+                    "storm status codes",
+                    0x100,
+                    "",
+                    "TD",
+                    "TS",
+                    "HU",
+                    "EX",
+                    "SD",
+                    "SS",
+                    "LO",
+                    "WV",
+                    "DB");
+
+    private StormStatusCodes() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    /**
+     * Encodes the status currently decoded by the cursor without creating a String for known codes
+     */
+    public static byte encode(HurdatLineCursor cursor) {
+        int size = STATUSES.size();
+        for (int i = 0; i < size; i++) {
+            if (cursor.statusEquals(STATUSES.decode(i))) {
+                return (byte) i;
+            }
+        }
+        return (byte) STATUSES.encode(cursor.getStormStatus());
+    }
+
+    public static byte encode(String status) {
+        if (status == null) {
+            return 0;
+        }
+        return (byte) STATUSES.encode(status);
+    }
+
+    public static String decode(byte code) {
+        return STATUSES.decode(code & 0xFF);
+    }
+
+    /**
+     * @return all registered codes, the array index is the byte code
+     */
+    public static String[] registeredCodes() {
+        return STATUSES.symbols();
+    }
+}
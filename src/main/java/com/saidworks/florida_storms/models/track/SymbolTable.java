@@ -0,0 +1,101 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append only table giving each distinct string a small code and a single shared instance
+ * Known symbols are read without locking, a new symbol is registered under the table lock and
+ * keeps its code for the lifetime of the application
+ */
+public class SymbolTable {
+    private final String description;
+    private final int capacity;
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    // grows by doubling, only the first size slots hold symbols
+    private volatile String[] symbols = new String[8];
+    private volatile int size;
+
+    /**
+     * @param description what the symbols are, used in error messages
+     * @param capacity maximum number of distinct symbols
+     * @param known symbols registered upfront, they get the codes 0, 1, ...
+     */
+    public SymbolTable(String description, int capacity, String... known) {
+        this.description = description;
+        this.capacity = capacity;
+        for (String symbol : known) {
+            encode(symbol);
+        }
+    }
+
+    /**
+     * Code of the symbol, registered on first use
+     */
+    public int encode(String symbol) {
+        Integer code = codes.get(symbol);
+        if (code != null) {
+            return code;
+        }
+        int registered = register(symbol);
+        if (registered < 0) {
+            throw new IllegalStateException("Too many distinct " + description + ": " + symbol);
+        }
+        return registered;
+    }
+
+    public String decode(int code) {
+        return symbols[code];
+    }
+
+    /**
+     * Shared instance equal to {@code symbol}, null stays null
+     * Once the table is full an unknown symbol is returned as is instead of failing
+     */
+    public String intern(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        Integer known = codes.get(symbol);
+        int code = known != null ? known : register(symbol);
+        return code < 0 ? symbol : decode(code);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return all registered symbols, the array index is the code
+     */
+    public String[] symbols() {
+        return Arrays.copyOf(symbols, size);
+    }
+
+    /**
+     * @return code of the new symbol, -1 when the table is full
+     */
+    private synchronized int register(String symbol) {
+        Integer existing = codes.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        if (code >= capacity) {
+            return -1;
+        }
+        String[] current = symbols;
+        if (code == current.length) {
+            // amortized growth, a new symbol costs O(1) instead of a copy of the whole table
+            current = Arrays.copyOf(current, (int) Math.min((long) code * 2, capacity));
+        }
+        current[code] = symbol;
+        // publish the symbol before its code so a reader never sees a code it can not decode
+        symbols = current;
+        size = code + 1;
+        codes.put(symbol, code);
+        return code;
+    }
+}
@@ -0,0 +1,152 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import java.time.LocalDateTime;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Selection of track points pushed down to the parser
+ * Each criterion is evaluated on the raw fields of the cursor as soon as they are decoded, so a
+ * dropped line never has its remaining fields parsed, null or default criteria accept everything
+ * Whole cyclones are skipped from the year of their first point when it can not match the date
+ * range
+ */
+@Value
+@Builder(toBuilder = true)
+public class TrackPredicate {
+    private static final int MIN_DATE = 0;
+    private static final int MAX_DATE = 99_991_231;
+
+    /**
+     * Landfall points after 1900-01-01, the selection of the resident dataset
+     */
+    public static final TrackPredicate LANDFALL_SINCE_1900 =
+            TrackPredicate.builder().fromDate(19_000_102).recordTypes("L").build();
+
+    /**
+     * Every point after 1900-01-01, the tracks searched by geometric landfall detection
+     */
+    public static final TrackPredicate SINCE_1900 =
+            LANDFALL_SINCE_1900.toBuilder().recordTypes(null).build();
+
+    /**
+     * Every point of the file
+     */
+    public static final TrackPredicate ALL = TrackPredicate.builder().build();
+
+    @Builder.Default int fromDate = MIN_DATE; // yyyyMMdd inclusive
+    @Builder.Default int toDate = MAX_DATE; // yyyyMMdd inclusive
+    String recordTypes; // accepted record identifiers e.g. "LI", null for any
+    Set<String> statuses; // accepted status codes, null for any
+    int minWindSpeed; // knots, 0 for any
+    GeoBoundary boundary; // null for anywhere
+
+    /**
+     * Predicate accepting every point of the years {@code fromYear} to {@code toYear} inclusive
+     */
+    public static TrackPredicate forYears(int fromYear, int toYear) {
+        return TrackPredicate.builder()
+                .fromDate(fromYear * 10_000 + 101)
+                .toDate(toYear * 10_000 + 1231)
+                .build();
+    }
+
+    /**
+     * Whether a cyclone starting in {@code year} may have a matching point, a cyclone can run into
+     * the next year
+     */
+    public boolean mayMatchCycloneOf(int year) {
+        return year <= toDate / 10_000 && year + 1 >= fromDate / 10_000;
+    }
+
+    /**
+     * Checks the date and record type, requires {@link HurdatLineCursor#parseDataLineKeys()}
+     */
+    public boolean testKeys(HurdatLineCursor cursor) {
+        int date = cursor.getDate();
+        return date >= fromDate
+                && date <= toDate
+                && (recordTypes == null || recordTypes.indexOf(cursor.getRecordType()) >= 0);
+    }
+
+    /**
+     * Checks the status and location, requires {@link HurdatLineCursor#parseDataLinePosition()}
+     */
+    public boolean testPosition(HurdatLineCursor cursor) {
+        return matchesStatus(cursor) && matchesBoundary(cursor);
+    }
+
+    /**
+     * Whether {@link #testMeasurements(HurdatLineCursor)} needs the wind of the point
+     */
+    public boolean needsMeasurements() {
+        return minWindSpeed > 0;
+    }
+
+    /**
+     * Checks the wind, requires {@link HurdatLineCursor#parseDataLineMeasurements()}
+     */
+    public boolean testMeasurements(HurdatLineCursor cursor) {
+        return cursor.getMaxWindSpeed() >= minWindSpeed;
+    }
+
+    /**
+     * Checks every criterion on a fully decoded data line
+     */
+    public boolean test(HurdatLineCursor cursor) {
+        return testKeys(cursor)
+                && testPosition(cursor)
+                && (!needsMeasurements() || testMeasurements(cursor));
+    }
+
+    /**
+     * Checks every criterion on a point that is already decoded, e.g. of the resident dataset
+     */
+    public boolean test(DataLine point) {
+        LocalDateTime dateTime = point.getDateTime();
+        int date =
+                dateTime.getYear() * 10_000
+                        + dateTime.getMonthValue() * 100
+                        + dateTime.getDayOfMonth();
+        char recordType = point.getRecordType() == null ? 0 : point.getRecordType();
+        return date >= fromDate
+                && date <= toDate
+                && (recordTypes == null || recordTypes.indexOf(recordType) >= 0)
+                && (statuses == null || statuses.contains(point.getStormStatus()))
+                && (!needsMeasurements() || point.getMaxWindSpeed() >= minWindSpeed)
+                && (boundary == null
+                        || boundary.containsCoordinate(
+                                point.getLatitude(),
+                                point.getLatitudeDirection(),
+                                point.getLongitude(),
+                                point.getLongitudeDirection()));
+    }
+
+    private boolean matchesStatus(HurdatLineCursor cursor) {
+        if (statuses == null) {
+            return true;
+        }
+        for (String status : statuses) {
+            if (cursor.statusEquals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesBoundary(HurdatLineCursor cursor) {
+        if (boundary == null) {
+            return true;
+        }
+        int latitude = cursor.getLatitudeTenths();
+        int longitude = cursor.getLongitudeTenths();
+        return boundary.containsTenths(
+                cursor.getLatitudeDirection() == 'S' ? -latitude : latitude,
+                cursor.getLongitudeDirection() == 'E' ? longitude : -longitude);
+    }
+}
@@ -0,0 +1,79 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import static java.util.Objects.checkIndex;
+
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read only {@code List<DataLine>} view over a contiguous range of a {@link TrackStore}
+ * Each {@link #get(int)} builds a fresh DataLine, scans should use the column accessors instead
+ */
+public class TrackSlice extends AbstractList<DataLine> implements RandomAccess {
+    private final TrackStore store;
+    private final int offset;
+    private final int length;
+
+    public TrackSlice(TrackStore store, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > store.size()) {
+            throw new IndexOutOfBoundsException(
+                    "Slice [" + offset + ", " + (offset + length) + ") of " + store.size());
+        }
+        this.store = store;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public DataLine get(int index) {
+        return store.dataLine(offset + checkIndex(index, length));
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    public TrackStore getStore() {
+        return store;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Checks the coordinate columns against the boundary without building any DataLine, heap
+     * columns are scanned with {@link BoundaryScan}
+     */
+    public boolean anyPointWithin(GeoBoundary boundary) {
+        BoundaryScan scan = BoundaryScan.of(boundary);
+        if (store instanceof ArrayTrackStore arrayStore) {
+            return arrayStore.nextPointWithin(scan, offset, offset + length) < offset + length;
+        }
+        for (int i = offset; i < offset + length; i++) {
+            if (scan.contains(store.latitudeTenths(i), store.longitudeTenths(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same check restricted to the points between two epoch minutes, both included
+     */
+    public boolean anyPointWithin(BoundaryScan scan, int fromMinute, int toMinute) {
+        for (int i = offset; i < offset + length; i++) {
+            int minute = store.epochMinute(i);
+            if (minute >= fromMinute
+                    && minute <= toMinute
+                    && scan.contains(store.latitudeTenths(i), store.longitudeTenths(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
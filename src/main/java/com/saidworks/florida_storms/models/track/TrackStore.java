@@ -0,0 +1,119 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Columnar storage of track points
+ * Every column is addressed by the point index, coordinates are signed tenths of a degree (south
+ * and west are negative), missing values use the HURDAT2 -999 sentinel
+ * {@link DataLine} objects are only built as views at the JSON/report boundary
+ */
+public interface TrackStore {
+    byte SOUTH = 1;
+    byte EAST = 2;
+
+    int size();
+
+    /**
+     * @return minutes since 1970-01-01T00:00 UTC
+     */
+    int epochMinute(int index);
+
+    /**
+     * @return 0 when the record identifier is blank
+     */
+    char recordType(int index);
+
+    byte statusCode(int index);
+
+    int latitudeTenths(int index);
+
+    int longitudeTenths(int index);
+
+    /**
+     * @return hemisphere bits ({@link #SOUTH}, {@link #EAST}), kept so that views reproduce the
+     *     parsed directions even for 0.0 coordinates
+     */
+    byte hemispheres(int index);
+
+    int maxWindSpeed(int index);
+
+    int centralPressure(int index);
+
+    /**
+     * @param radius 0-11 for the 34/50/64kt quadrant radii, 12 for the radius of maximum wind
+     */
+    int radius(int index, int radius);
+
+    default TrackSlice slice(int offset, int length) {
+        return new TrackSlice(this, offset, length);
+    }
+
+    default boolean isLandfall(int index) {
+        return recordType(index) == 'L';
+    }
+
+    /**
+     * Materializes a single point as a {@link DataLine}
+     */
+    default DataLine dataLine(int index) {
+        byte hemispheres = hemispheres(index);
+        char recordType = recordType(index);
+        return DataLine.builder()
+                .dateTime(toDateTime(epochMinute(index)))
+                .recordType(recordType == 0 ? null : recordType)
+                .stormStatus(StormStatusCodes.decode(statusCode(index)))
+                .latitude(Math.abs(latitudeTenths(index)) / 10.0)
+                .latitudeDirection((hemispheres & SOUTH) != 0 ? 'S' : 'N')
+                .longitude(Math.abs(longitudeTenths(index)) / 10.0)
+                .longitudeDirection((hemispheres & EAST) != 0 ? 'E' : 'W')
+                .maxWindSpeed(maxWindSpeed(index))
+                .centralPressure(boxed(centralPressure(index)))
+                .windRadius34NE(boxed(radius(index, 0)))
+                .windRadius34SE(boxed(radius(index, 1)))
+                .windRadius34SW(boxed(radius(index, 2)))
+                .windRadius34NW(boxed(radius(index, 3)))
+                .windRadius50NE(boxed(radius(index, 4)))
+                .windRadius50SE(boxed(radius(index, 5)))
+                .windRadius50SW(boxed(radius(index, 6)))
+                .windRadius50NW(boxed(radius(index, 7)))
+                .windRadius64NE(boxed(radius(index, 8)))
+                .windRadius64SE(boxed(radius(index, 9)))
+                .windRadius64SW(boxed(radius(index, 10)))
+                .windRadius64NW(boxed(radius(index, 11)))
+                .maxWindRadius(boxed(radius(index, HurdatLineCursor.MAX_WIND_RADIUS)))
+                .build();
+    }
+
+    /**
+     * Converts a yyyyMMdd date and HHmm time to minutes since the epoch without allocating
+     */
+    static int toEpochMinute(int date, int time) {
+        long days = epochDay(date / 10_000, date / 100 % 100, date % 100);
+        return (int) (days * 1_440 + time / 100 * 60 + time % 100);
+    }
+
+    static LocalDateTime toDateTime(int epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Days from 1970-01-01 for a proleptic Gregorian date (days_from_civil)
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    private static Integer boxed(int value) {
+        return value == HurdatLineCursor.MISSING ? null : value;
+    }
+}
@@ -2,16 +2,35 @@
 package com.saidworks.florida_storms.service.batch;
 
 import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.helper.DecompressingInputStream;
+import com.saidworks.florida_storms.helper.SegmentLines;
+import com.saidworks.florida_storms.models.batch.IngestionCheckpoint;
 import com.saidworks.florida_storms.models.batch.RawBatch;
+import com.saidworks.florida_storms.models.batch.TailBatches;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
 import com.saidworks.florida_storms.models.exception.IoBlockingException;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.Resource;
@@ -21,6 +40,8 @@ import org.springframework.stereotype.Service;
 /**
  * Service responsible for loading the file and splitting it into raw batches using async execution
  * Ensures cyclone headers and their data lines stay together in the same batch
+ * Sources ending with .gz or .zip are inflated on their own thread while they are split, they are
+ * always read as a stream and only support full reloads
  */
 @Service
 @Log4j2
@@ -28,64 +49,170 @@ public class BatchLoaderService {
     private final CycloneProcessingProperties properties;
     private final ResourceLoader resourceLoader;
     private final ExecutorService serviceTaskExecutor;
+    private final ExecutorService ioBlockingTaskExecutor;
 
     public BatchLoaderService(
             CycloneProcessingProperties properties,
             ResourceLoader resourceLoader,
-            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor) {
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor,
+            @Qualifier("ioBlockingTaskExecutor") ExecutorService ioBlockingTaskExecutor) {
         this.properties = properties;
         this.resourceLoader = resourceLoader;
         this.serviceTaskExecutor = serviceTaskExecutor;
+        this.ioBlockingTaskExecutor = ioBlockingTaskExecutor;
     }
 
     /**
-     * Loads the cyclone data file and splits it into raw batches asynchronously
-     * Each batch respects cyclone boundaries - no cyclone is split across batches
-     * @return List of raw batches ready for processing
+     * Publishes raw batches while the file is being read, the reader waits whenever
+     * {@code bufferCapacity} batches are published and not yet requested by the subscriber
+     * Reading starts when the subscriber subscribes, each subscription reads the file again
+     * The reader blocks until the subscriber requests more, it runs on the IO pool so that it
+     * never holds a thread the parsing tasks need
+     * @param source location of the HURDAT2 file
+     * @param bufferCapacity maximum number of batches read ahead of the subscriber demand
+     * @param targetChunkSize minimum number of lines of a batch, see {@link ChunkSizeTuner}
+     * @return publisher of raw batches in file order
      */
-    public List<RawBatch> loadBatches() {
-        Resource resource = resourceLoader.getResource(properties.getData().getHurdat2());
-        int targetChunkSize = properties.getProcessing().getChunkSize();
-        AtomicReference<List<RawBatch>> batches = new AtomicReference<>(new ArrayList<>());
+    public Flow.Publisher<RawBatch> publishBatches(
+            String source, int bufferCapacity, int targetChunkSize) {
+        return publishBatches(source, bufferCapacity, targetChunkSize, new CompletableFuture<>());
+    }
+
+    /**
+     * Publishes raw batches, see {@link #publishBatches(String, int, int)}
+     * @param sourceChecksum completed with the {@link #sourceChecksum} of the bytes the batches
+     *     were cut from before the publisher completes, the file may have changed since it was
+     *     last checked
+     */
+    public Flow.Publisher<RawBatch> publishBatches(
+            String source,
+            int bufferCapacity,
+            int targetChunkSize,
+            CompletableFuture<Long> sourceChecksum) {
+        return subscriber -> {
+            // delivery only hands batches over, it must not wait behind the parsing tasks
+            SubmissionPublisher<RawBatch> publisher =
+                    new SubmissionPublisher<>(ForkJoinPool.commonPool(), bufferCapacity);
+            publisher.subscribe(subscriber);
+            CompletableFuture.runAsync(
+                    () -> {
+                        try {
+                            sourceChecksum.complete(
+                                    readBatches(
+                                            source,
+                                            bufferCapacity,
+                                            targetChunkSize,
+                                            publisher::submit));
+                            publisher.close();
+                        } catch (RuntimeException e) {
+                            sourceChecksum.completeExceptionally(e);
+                            publisher.closeExceptionally(e);
+                        }
+                    },
+                    ioBlockingTaskExecutor);
+        };
+    }
+
+    /**
+     * CRC32C of the text of a HURDAT2 source as the loader reads it, compressed sources are
+     * inflated first
+     */
+    public long sourceChecksum(String source) {
+        Resource resource = resourceLoader.getResource(source);
+        if (isPlainFile(resource)) {
+            MemorySegment file = mapFile(resource);
+            return checksum(file, file.byteSize());
+        }
+        try (CheckedInputStream input = new CheckedInputStream(open(resource), new CRC32C())) {
+            input.transferTo(OutputStream.nullOutputStream());
+            return input.getChecksum().getValue();
+        } catch (IOException e) {
+            throw new IoBlockingException("Failed to checksum cyclone data file", e);
+        }
+    }
+
+    /**
+     * @param bufferCapacity batches the processing stage keeps in flight on the serviceTaskExecutor
+     * @return checksum of the bytes that were read
+     */
+    private long readBatches(
+            String source, int bufferCapacity, int targetChunkSize, Consumer<RawBatch> sink) {
+        Resource resource = resourceLoader.getResource(source);
         log.info("Loading cyclone data from: {}", resource.getFilename());
         log.info("Target batch chunk size: {}", targetChunkSize);
 
-        return CompletableFuture.supplyAsync(
-                        () -> {
-                            try (BufferedReader reader =
-                                    new BufferedReader(
-                                            new InputStreamReader(resource.getInputStream()))) {
-                                batches.set(processCurrentBatch(reader, targetChunkSize));
-                            } catch (IOException e) {
-                                log.error("Error reading file: {}", resource.getFilename(), e);
-                                throw new IoBlockingException(
-                                        "Failed to read cyclone data file", e);
-                            }
-                            int totalLines =
-                                    batches.get().stream().mapToInt(b -> b.getLines().size()).sum();
-                            log.info(
-                                    "Loaded {} batches from file (total lines: {})",
-                                    batches.get().size(),
-                                    totalLines);
-
-                            // Log batch size distribution
-                            batches.get()
-                                    .forEach(
-                                            batch ->
-                                                    log.debug(
-                                                            "Batch {}: {} lines",
-                                                            batch.getBatchId(),
-                                                            batch.getLines().size()));
-
-                            return batches.get();
-                        },
-                        serviceTaskExecutor)
-                .join();
-    }
-
-    private List<RawBatch> processCurrentBatch(BufferedReader reader, int targetChunkSize)
+        if (properties.getProcessing().getLoaderMode()
+                == CycloneProcessingProperties.LoaderMode.MAPPED) {
+            if (isPlainFile(resource)) {
+                return loadMappedBatches(resource, bufferCapacity, targetChunkSize, sink);
+            }
+            log.warn(
+                    "Resource {} is not a plain text file, falling back to stream loader",
+                    resource.getFilename());
+        }
+        return loadStreamBatches(resource, targetChunkSize, sink);
+    }
+
+    private long loadStreamBatches(
+            Resource resource, int targetChunkSize, Consumer<RawBatch> sink) {
+        int[] totals = new int[2]; // batches, lines
+        Consumer<RawBatch> countingSink =
+                batch -> {
+                    totals[0]++;
+                    totals[1] += batch.getLines().size();
+                    // Log batch size distribution
+                    log.debug("Batch {}: {} lines", batch.getBatchId(), batch.getLines().size());
+                    sink.accept(batch);
+                };
+        CRC32C crc = new CRC32C();
+        try (BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(new CheckedInputStream(open(resource), crc)))) {
+            processCurrentBatch(reader, targetChunkSize, countingSink);
+        } catch (IOException e) {
+            log.error("Error reading file: {}", resource.getFilename(), e);
+            throw new IoBlockingException("Failed to read cyclone data file", e);
+        }
+        log.info("Loaded {} batches from file (total lines: {})", totals[0], totals[1]);
+        // the reader stops at the end of the text, every byte went through the checksum
+        return crc.getValue();
+    }
+
+    /**
+     * Opens the resource, compressed sources are inflated ahead of the reader
+     */
+    private InputStream open(Resource resource) throws IOException {
+        Optional<DecompressingInputStream.Format> format =
+                DecompressingInputStream.formatOf(resource.getFilename());
+        InputStream input = resource.getInputStream();
+        if (format.isEmpty()) {
+            return input;
+        }
+        log.info("Inflating {} source {}", format.get(), resource.getFilename());
+        try {
+            return new DecompressingInputStream(
+                    input,
+                    format.get(),
+                    properties.getProcessing().getDecompressionBuffers(),
+                    properties.getProcessing().getDecompressionBufferSize(),
+                    resource.getFilename());
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Only plain text files can be mapped and read from an offset
+     */
+    private static boolean isPlainFile(Resource resource) {
+        return resource.isFile()
+                && DecompressingInputStream.formatOf(resource.getFilename()).isEmpty();
+    }
+
+    private void processCurrentBatch(
+            BufferedReader reader, int targetChunkSize, Consumer<RawBatch> batches)
             throws IOException {
-        List<RawBatch> batches = new ArrayList<>();
         BatchProcessingState state = new BatchProcessingState();
         String line;
 
@@ -107,11 +234,13 @@ public class BatchLoaderService {
         }
 
         finalizeBatches(state, batches);
-        return batches;
     }
 
     private void handleHeaderLine(
-            String line, BatchProcessingState state, List<RawBatch> batches, int targetChunkSize) {
+            String line,
+            BatchProcessingState state,
+            Consumer<RawBatch> batches,
+            int targetChunkSize) {
         finalizePreviousCyclone(state);
 
         if (shouldCreateNewBatch(state, targetChunkSize)) {
@@ -132,8 +261,8 @@ public class BatchLoaderService {
         return !state.currentBatch.isEmpty() && state.currentBatch.size() >= targetChunkSize;
     }
 
-    private void createAndAddBatch(BatchProcessingState state, List<RawBatch> batches) {
-        batches.add(
+    private void createAndAddBatch(BatchProcessingState state, Consumer<RawBatch> batches) {
+        batches.accept(
                 createBatch(
                         state.batchId++,
                         state.currentBatch,
@@ -153,13 +282,13 @@ public class BatchLoaderService {
         state.currentBatch.add(line);
     }
 
-    private void finalizeBatches(BatchProcessingState state, List<RawBatch> batches) {
+    private void finalizeBatches(BatchProcessingState state, Consumer<RawBatch> batches) {
         if (state.inCyclone && !state.currentCyclone.isEmpty()) {
             state.currentBatch.addAll(state.currentCyclone);
         }
 
         if (!state.currentBatch.isEmpty()) {
-            batches.add(
+            batches.accept(
                     createBatch(
                             state.batchId,
                             state.currentBatch,
@@ -177,7 +306,286 @@ public class BatchLoaderService {
         boolean inCyclone = false;
     }
 
-    // ... existing code ...
+    /**
+     * Maps the file and splits it into at most {@code scanParallelism} byte ranges, each range is
+     * aligned to the next header line and scanned on the serviceTaskExecutor
+     * The ranges never take the room of the batches the processing stage keeps in flight on the
+     * same executor, a single range is scanned by the reader itself
+     * Batches only carry byte offsets into the mapping, no line is copied into a String
+     */
+    private long loadMappedBatches(
+            Resource resource, int bufferCapacity, int targetChunkSize, Consumer<RawBatch> sink) {
+        MemorySegment file = mapFile(resource);
+
+        long[] rangeStarts = splitAtHeaders(file, scanRanges(bufferCapacity));
+        List<CompletableFuture<RangeScan>> scans = new ArrayList<>();
+        for (int i = 0; i < rangeStarts.length - 1; i++) {
+            long start = rangeStarts[i];
+            long end = rangeStarts[i + 1];
+            scans.add(
+                    rangeStarts.length == 2
+                            ? CompletableFuture.completedFuture(
+                                    scanRange(file, start, end, targetChunkSize))
+                            : scanAsync(file, start, end, targetChunkSize));
+        }
+
+        // ranges are stitched back in file order: batch ids and line numbers become global
+        // batches of the first range are emitted while the later ranges are still scanned
+        int batchCount = 0;
+        int linesBefore = 0;
+        for (CompletableFuture<RangeScan> scan : scans) {
+            RangeScan rangeScan = scan.join();
+            for (RawBatch batch : rangeScan.batches()) {
+                batch.setBatchId(batchCount++);
+                batch.setStartLineNumber(batch.getStartLineNumber() + linesBefore);
+                batch.setEndLineNumber(batch.getEndLineNumber() + linesBefore);
+                sink.accept(batch);
+            }
+            linesBefore += rangeScan.lineCount();
+        }
+
+        log.info(
+                "Loaded {} batches from {} mapped ranges (total lines: {})",
+                batchCount,
+                scans.size(),
+                linesBefore);
+        return checksum(file, file.byteSize());
+    }
+
+    private MemorySegment mapFile(Resource resource) {
+        try (FileChannel channel =
+                FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            // the auto arena unmaps the file once no batch references it anymore
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+        } catch (IOException e) {
+            log.error("Error mapping file: {}", resource.getFilename(), e);
+            throw new IoBlockingException("Failed to map cyclone data file", e);
+        }
+    }
+
+    /**
+     * Records where the last cyclone of a data file starts and a checksum of everything before
+     * it, empty when the resource is not a plain file and can not be read from an offset
+     * @param source location of the HURDAT2 file
+     */
+    public Optional<IngestionCheckpoint> createCheckpoint(String source) {
+        Resource resource = resourceLoader.getResource(source);
+        if (!isPlainFile(resource)) {
+            return Optional.empty();
+        }
+        return Optional.of(checkpointOf(mapFile(resource)));
+    }
+
+    /**
+     * Loads only the part of a data file starting at the last header of {@code checkpoint}
+     * The tail is cut into batches with the same rules as the mapped loader, line numbers are
+     * relative to the start of the file
+     * @return the tail batches with the checkpoint and checksum of the current file, empty when the
+     *     bytes before the checkpoint changed and the whole file has to be reprocessed
+     */
+    public Optional<TailBatches> loadTailBatches(String source, IngestionCheckpoint checkpoint) {
+        Resource resource = resourceLoader.getResource(source);
+        if (!isPlainFile(resource)) {
+            return Optional.empty();
+        }
+        MemorySegment file = mapFile(resource);
+        long tailStart = checkpoint.getLastHeaderOffset();
+        if (file.byteSize() < tailStart
+                || checksum(file, tailStart) != checkpoint.getPrefixChecksum()) {
+            log.info(
+                    "Cyclone data changed before offset {}, tail ingestion not possible",
+                    tailStart);
+            return Optional.empty();
+        }
+
+        RangeScan tail =
+                scanRange(
+                        file,
+                        tailStart,
+                        file.byteSize(),
+                        properties.getProcessing().getChunkSize());
+        for (int i = 0; i < tail.batches().size(); i++) {
+            RawBatch batch = tail.batches().get(i);
+            batch.setBatchId(i);
+            batch.setStartLineNumber(
+                    batch.getStartLineNumber() + checkpoint.getLastHeaderLineNumber());
+            batch.setEndLineNumber(batch.getEndLineNumber() + checkpoint.getLastHeaderLineNumber());
+        }
+        log.info(
+                "Loaded {} tail batches ({} lines) from offset {}",
+                tail.batches().size(),
+                tail.lineCount(),
+                tailStart);
+        return Optional.of(
+                TailBatches.builder()
+                        .batches(tail.batches())
+                        .checkpoint(checkpointOf(file))
+                        .sourceChecksum(checksum(file, file.byteSize()))
+                        .build());
+    }
+
+    private IngestionCheckpoint checkpointOf(MemorySegment file) {
+        long size = file.byteSize();
+        long lineEnd = size;
+        // walk backwards, the last header is a handful of lines away from the end
+        while (true) {
+            long lineStart = SegmentLines.lineStart(file, lineEnd);
+            long trimmedStart = SegmentLines.trimStart(file, lineStart, lineEnd);
+            long trimmedEnd = SegmentLines.trimEnd(file, trimmedStart, lineEnd);
+            if (SegmentLines.isHeaderLine(file, trimmedStart, trimmedEnd)) {
+                String cycloneId =
+                        new HurdatLineCursor()
+                                .reset(file, trimmedStart, trimmedEnd)
+                                .parseHeaderLine()
+                                .toHeaderLine()
+                                .getCycloneId();
+                return IngestionCheckpoint.builder()
+                        .lastHeaderOffset(lineStart)
+                        .lastHeaderLineNumber(SegmentLines.countLines(file, 0, lineStart))
+                        .lastCycloneId(cycloneId)
+                        .prefixChecksum(checksum(file, lineStart))
+                        .fileSize(size)
+                        .build();
+            }
+            if (lineStart == 0) {
+                break;
+            }
+            lineEnd = lineStart - 1;
+        }
+        return IngestionCheckpoint.builder()
+                .prefixChecksum(checksum(file, 0))
+                .fileSize(size)
+                .build();
+    }
+
+    private static long checksum(MemorySegment file, long length) {
+        CRC32C crc = new CRC32C();
+        crc.update(file.asSlice(0, length).asByteBuffer());
+        return crc.getValue();
+    }
+
+    private int scanParallelism() {
+        int configured = properties.getProcessing().getScanParallelism();
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Ranges scanned at the same time, {@code scanParallelism} at most and no more than the free
+     * threads and queue slots of the serviceTaskExecutor left once the processing stage has its
+     * batches in flight
+     * @param reservedTasks batches the processing stage submits to the same executor
+     */
+    private int scanRanges(int reservedTasks) {
+        if (!(serviceTaskExecutor instanceof ThreadPoolExecutor pool)) {
+            return scanParallelism();
+        }
+        long free =
+                (long) pool.getMaximumPoolSize()
+                        - pool.getActiveCount()
+                        + pool.getQueue().remainingCapacity()
+                        - reservedTasks;
+        return Math.clamp(free, 1, scanParallelism());
+    }
+
+    private CompletableFuture<RangeScan> scanAsync(
+            MemorySegment file, long start, long end, int targetChunkSize) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> scanRange(file, start, end, targetChunkSize), serviceTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            // another pipeline filled the pool since the ranges were counted
+            return CompletableFuture.completedFuture(scanRange(file, start, end, targetChunkSize));
+        }
+    }
+
+    /**
+     * Cuts the file in {@code rangeCount} equal byte ranges and moves every cut forward to the
+     * start of the next header line so that no cyclone is split between two ranges
+     * @return sorted range start offsets, the last element is the file size
+     */
+    private long[] splitAtHeaders(MemorySegment file, int rangeCount) {
+        long size = file.byteSize();
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        for (int i = 1; i < rangeCount; i++) {
+            long cut = alignToHeader(file, Math.max(size * i / rangeCount, starts.getLast()));
+            if (cut > starts.getLast() && cut < size) {
+                starts.add(cut);
+            }
+        }
+        starts.add(size);
+        return starts.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long alignToHeader(MemorySegment file, long position) {
+        long size = file.byteSize();
+        // a cut landing in the middle of a line belongs to that line, start from the next one
+        long lineStart = position == 0 ? 0 : SegmentLines.nextLineStart(file, position - 1, size);
+        while (lineStart < size) {
+            long lineEnd = SegmentLines.lineEnd(file, lineStart, size);
+            long trimmedStart = SegmentLines.trimStart(file, lineStart, lineEnd);
+            long trimmedEnd = SegmentLines.trimEnd(file, trimmedStart, lineEnd);
+            if (SegmentLines.isHeaderLine(file, trimmedStart, trimmedEnd)) {
+                return lineStart;
+            }
+            lineStart = lineEnd < size ? lineEnd + 1 : size;
+        }
+        return size;
+    }
+
+    /**
+     * Same batching rules as the stream loader applied to a byte range: a new batch is started on
+     * a header line once the current batch holds at least {@code targetChunkSize} lines
+     * Line numbers are relative to the range start and are rebased by the caller
+     */
+    private RangeScan scanRange(MemorySegment file, long start, long end, int targetChunkSize) {
+        List<RawBatch> batches = new ArrayList<>();
+        long batchStart = start;
+        int batchStartLine = 0;
+        int batchLines = 0;
+        int lineNumber = 0;
+        long lineStart = start;
+
+        while (lineStart < end) {
+            long lineEnd = SegmentLines.lineEnd(file, lineStart, end);
+            long trimmedStart = SegmentLines.trimStart(file, lineStart, lineEnd);
+            long trimmedEnd = SegmentLines.trimEnd(file, trimmedStart, lineEnd);
+            lineNumber++;
+
+            if (trimmedStart < trimmedEnd) {
+                if (batchLines >= targetChunkSize
+                        && SegmentLines.isHeaderLine(file, trimmedStart, trimmedEnd)) {
+                    batches.add(
+                            createMappedBatch(
+                                    file, batchStart, lineStart, batchStartLine, lineNumber - 1));
+                    batchStart = lineStart;
+                    batchStartLine = lineNumber - 1;
+                    batchLines = 0;
+                }
+                batchLines++;
+            }
+            lineStart = lineEnd < end ? lineEnd + 1 : end;
+        }
+
+        if (batchLines > 0) {
+            batches.add(createMappedBatch(file, batchStart, end, batchStartLine, lineNumber));
+        }
+        return new RangeScan(batches, lineNumber);
+    }
+
+    private RawBatch createMappedBatch(
+            MemorySegment file, long startOffset, long endOffset, int startLine, int endLine) {
+        return RawBatch.builder()
+                .source(file)
+                .startOffset(startOffset)
+                .endOffset(endOffset)
+                .startLineNumber(startLine)
+                .endLineNumber(endLine)
+                .build();
+    }
+
+    private record RangeScan(List<RawBatch> batches, int lineCount) {}
+
     /**
      * Determines if a line is a cyclone header line
      * Header lines have fewer commas and contain cyclone metadata
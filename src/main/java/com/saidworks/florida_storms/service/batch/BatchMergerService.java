@@ -16,6 +16,8 @@ import org.springframework.stereotype.Service;
 @Service
 @Log4j2
 public class BatchMergerService {
+    // batches folded sequentially by one task of the merge tree
+    private static final int MERGE_LEAF_BATCHES = 16;
 
     private final ExecutorService serviceTaskExecutor;
 
@@ -26,108 +28,64 @@ public class BatchMergerService {
 
     /**
      * Merges processed batches into complete cyclones
-     * The work is executed on the injected serviceTaskExecutor but the method keeps a
-     * synchronous signature for callers; heavy work runs on the executor and the result
-     * is returned when done.
+     * Ranges of batches are folded in parallel on the injected serviceTaskExecutor and combined
+     * pairwise in range order, the method keeps a synchronous signature for callers and returns
+     * when the whole tree is reduced.
      *
      * @param processedBatches List of processed batches in order
      * @return List of complete cyclones
      */
     public List<Cyclone> mergeBatches(List<ProcessedBatch> processedBatches) {
-        return CompletableFuture.supplyAsync(
-                        () -> {
-                            log.info("Merging {} processed batches", processedBatches.size());
-
-                            Map<String, Cyclone> cycloneMap = buildCycloneMap(processedBatches);
-
-                            List<Cyclone> cyclones = new ArrayList<>(cycloneMap.values());
-
-                            // Validate merged cyclones
-                            int completeCount = 0;
-                            int incompleteCount = 0;
-
-                            for (Cyclone cyclone : cyclones) {
-                                if (cyclone.isDataCompletePerHeader()) {
-                                    completeCount++;
-                                } else {
-                                    incompleteCount++;
-                                    log.debug(
-                                            "Cyclone {} has incomplete data: expected {} entries,"
-                                                    + " found {}",
-                                            cyclone.getHeader().getCycloneId(),
-                                            cyclone.getHeader().getEntriesCount(),
-                                            cyclone.getDataLines().size());
-                                }
-                            }
-
-                            log.info(
-                                    "Merged into {} cyclones ({} complete, {} incomplete)",
-                                    cyclones.size(),
-                                    completeCount,
-                                    incompleteCount);
-
-                            return cyclones;
-                        },
-                        serviceTaskExecutor)
+        log.info("Merging {} processed batches", processedBatches.size());
+        return reduce(processedBatches)
+                .thenApplyAsync(CycloneAccumulator::finish, serviceTaskExecutor)
                 .join();
     }
 
-    private Map<String, Cyclone> buildCycloneMap(List<ProcessedBatch> processedBatches) {
-        // Map to accumulate cyclone data by cyclone ID
-        Map<String, Cyclone> cycloneMap = new LinkedHashMap<>();
-
-        // Track orphaned data lines (data lines without a header in previous
-        // batches)
-        List<ProcessedBatch.PartialCyclone> orphanedPartials = new ArrayList<>();
-
-        for (ProcessedBatch batch : processedBatches) {
-            for (ProcessedBatch.PartialCyclone partial : batch.getPartialCyclones()) {
-
-                if (partial.isHeaderPresent()) {
-                    // This partial has a header, start or update cyclone
-                    Cyclone cyclone =
-                            cycloneMap.computeIfAbsent(
-                                    partial.getCycloneId(), _ -> new Cyclone(partial.getHeader()));
-
-                    cyclone.getDataLines().addAll(partial.getDataLines());
-
-                } else {
-                    // No header present - this is continuation from previous
-                    // batch
-                    // Try to attach to the last cyclone in map
-                    if (!cycloneMap.isEmpty()) {
-                        Cyclone lastCyclone = getLastCyclone(cycloneMap);
-                        lastCyclone.getDataLines().addAll(partial.getDataLines());
-                        log.debug(
-                                "Attached {} orphaned data lines to cyclone {}",
-                                partial.getDataLines().size(),
-                                lastCyclone.getHeader().getCycloneId());
-                    } else {
-                        // No cyclone to attach to yet, save for later
-                        orphanedPartials.add(partial);
-                        log.warn(
-                                "Found orphaned data lines in batch {} without"
-                                        + " any previous cyclone",
-                                batch.getBatchId());
-                    }
-                }
-            }
+    /**
+     * Folds small ranges directly, larger ranges are split in two halves reduced independently
+     * then merged, no task waits on another one
+     */
+    private CompletableFuture<CycloneAccumulator> reduce(List<ProcessedBatch> batches) {
+        if (batches.size() <= MERGE_LEAF_BATCHES) {
+            return CompletableFuture.supplyAsync(
+                    () -> {
+                        CycloneAccumulator accumulator = new CycloneAccumulator();
+                        batches.forEach(accumulator::add);
+                        return accumulator;
+                    },
+                    serviceTaskExecutor);
         }
+        int middle = batches.size() >>> 1;
+        return reduce(batches.subList(0, middle))
+                .thenCombine(
+                        reduce(batches.subList(middle, batches.size())),
+                        CycloneAccumulator::merge);
+    }
 
-        // Handle any remaining orphaned partials
-        if (!orphanedPartials.isEmpty()) {
-            log.warn("Found {} orphaned partials that couldn't be merged", orphanedPartials.size());
-        }
-        return cycloneMap;
+    /**
+     * Creates the last stage of the pipeline, it folds processed batches as they arrive
+     * @param window maximum number of batches requested and not yet folded
+     * @return a subscriber whose {@link OrderedMergeSubscriber#result()} completes with the
+     *     merged cyclones
+     */
+    public OrderedMergeSubscriber orderedMerge(int window) {
+        return new OrderedMergeSubscriber(new CycloneAccumulator(), window);
     }
 
     /**
-     * a private helper method that
-     * retrieves the last (most recently added) `Cyclone` object from a `Map<String, Cyclone>`.
-     * @param  map string description
-     * @return Cyclone
+     * Merges the batches read from the tail of the file and appends their cyclones to the
+     * cyclones retained from the previous ingestion, file order is kept
+     * @param retained cyclones located before the tail, not copied again
+     * @param tailBatches processed batches of the tail in order
+     * @return the retained cyclones followed by the cyclones of the tail
      */
-    private Cyclone getLastCyclone(Map<String, Cyclone> map) {
-        return map.values().stream().reduce((_, second) -> second).orElse(null);
+    public List<Cyclone> appendTailBatches(
+            List<Cyclone> retained, List<ProcessedBatch> tailBatches) {
+        List<Cyclone> tailCyclones = mergeBatches(tailBatches);
+        List<Cyclone> cyclones = new ArrayList<>(retained.size() + tailCyclones.size());
+        cyclones.addAll(retained);
+        cyclones.addAll(tailCyclones);
+        return cyclones;
     }
 }
@@ -0,0 +1,165 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.batch.RawBatch;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pipeline stage parsing raw batches as they are emitted by the loader
+ * At most {@code maxInFlight} batches are requested from the loader and not yet folded by the merge
+ * stage: past the first {@code maxInFlight} batches, the stage only requests from the loader what
+ * the merge stage requests from it, which it does for every batch it folds
+ * Batches are published in completion order, the merge stage restores the batch order
+ * The processing time of every batch is recorded for the {@link ChunkSizeTuner}
+ */
+@Log4j2
+public class BatchProcessingStage implements Flow.Processor<RawBatch, ProcessedBatch> {
+    private final BatchProcessorService batchProcessorService;
+    private final SubmissionPublisher<ProcessedBatch> downstream;
+    private final int maxInFlight;
+    private final TrackPredicate predicate;
+    private final ChunkSizeTuner.BatchTimings timings;
+    // one for the upstream plus one per batch being processed, downstream completes at zero
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicInteger validBatches = new AtomicInteger();
+    private final AtomicInteger invalidBatches = new AtomicInteger();
+    // requested by the merge stage, the first maxInFlight are covered by the initial request
+    private final AtomicLong downstreamDemand = new AtomicLong();
+    private volatile Flow.Subscription upstream;
+
+    BatchProcessingStage(
+            BatchProcessorService batchProcessorService,
+            int maxInFlight,
+            TrackPredicate predicate,
+            ChunkSizeTuner.BatchTimings timings) {
+        this.batchProcessorService = batchProcessorService;
+        this.maxInFlight = maxInFlight;
+        this.predicate = predicate;
+        this.timings = timings;
+        // delivery only hands batches over, it must not wait behind the parsing tasks
+        this.downstream = new SubmissionPublisher<>(ForkJoinPool.commonPool(), maxInFlight);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ProcessedBatch> subscriber) {
+        downstream.subscribe(new DemandForwardingSubscriber(subscriber));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        upstream = subscription;
+        subscription.request(maxInFlight);
+    }
+
+    @Override
+    public void onNext(RawBatch rawBatch) {
+        pending.incrementAndGet();
+        try {
+            batchProcessorService
+                    .processBatch(rawBatch, predicate)
+                    .whenComplete(
+                            (batch, error) -> {
+                                if (error != null) {
+                                    onError(error);
+                                    return;
+                                }
+                                timings.record(rawBatch, batch);
+                                if (batchProcessorService.validateBatch(batch)) {
+                                    validBatches.incrementAndGet();
+                                } else {
+                                    invalidBatches.incrementAndGet();
+                                }
+                                if (!downstream.isClosed()) {
+                                    downstream.submit(batch);
+                                }
+                                release();
+                            });
+        } catch (RuntimeException e) {
+            onError(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        log.error("Batch processing stage failed", throwable);
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        downstream.closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        release();
+    }
+
+    private void release() {
+        if (pending.decrementAndGet() == 0) {
+            log.info(
+                    "Validation: {} valid, {} invalid batches",
+                    validBatches.get(),
+                    invalidBatches.get());
+            downstream.close();
+        }
+    }
+
+    private void forwardDemand(long n) {
+        long total = downstreamDemand.accumulateAndGet(n, (a, b) -> Math.max(a + b, a));
+        long beyondInitial = Math.min(n, total - maxInFlight);
+        Flow.Subscription subscription = upstream;
+        if (beyondInitial > 0 && subscription != null) {
+            subscription.request(beyondInitial);
+        }
+    }
+
+    /**
+     * Passes the batches through and forwards what the subscriber requests to the loader
+     */
+    private final class DemandForwardingSubscriber implements Flow.Subscriber<ProcessedBatch> {
+        private final Flow.Subscriber<? super ProcessedBatch> delegate;
+
+        private DemandForwardingSubscriber(Flow.Subscriber<? super ProcessedBatch> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(
+                    new Flow.Subscription() {
+                        @Override
+                        public void request(long n) {
+                            subscription.request(n);
+                            forwardDemand(n);
+                        }
+
+                        @Override
+                        public void cancel() {
+                            subscription.cancel();
+                        }
+                    });
+        }
+
+        @Override
+        public void onNext(ProcessedBatch batch) {
+            delegate.onNext(batch);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+}
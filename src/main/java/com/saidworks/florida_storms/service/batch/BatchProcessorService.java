@@ -1,11 +1,17 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.service.batch;
 
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.helper.SegmentLines;
 import com.saidworks.florida_storms.models.batch.ProcessedBatch;
 import com.saidworks.florida_storms.models.batch.RawBatch;
-import com.saidworks.florida_storms.models.domain.DataLine;
 import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.models.track.TrackStore;
 import jakarta.annotation.Nonnull;
+import java.lang.foreign.MemorySegment;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -22,18 +28,32 @@ import org.springframework.stereotype.Service;
 public class BatchProcessorService {
 
     private final ExecutorService serviceTaskExecutor;
+    private final CycloneProcessingProperties properties;
 
     public BatchProcessorService(
-            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor) {
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor,
+            CycloneProcessingProperties properties) {
         this.serviceTaskExecutor = serviceTaskExecutor;
+        this.properties = properties;
     }
 
     /**
-     * Processes a raw batch asynchronously using the injected serviceTaskExecutor
+     * Processes a raw batch keeping the points of the resident dataset
      * @param rawBatch The raw batch to process
      * @return CompletableFuture containing the processed batch
      */
     public CompletableFuture<ProcessedBatch> processBatch(@Nonnull RawBatch rawBatch) {
+        return processBatch(rawBatch, TrackPredicate.LANDFALL_SINCE_1900);
+    }
+
+    /**
+     * Processes a raw batch asynchronously using the injected serviceTaskExecutor
+     * @param rawBatch The raw batch to process
+     * @param predicate points to keep, evaluated while the lines are parsed
+     * @return CompletableFuture containing the processed batch
+     */
+    public CompletableFuture<ProcessedBatch> processBatch(
+            @Nonnull RawBatch rawBatch, @Nonnull TrackPredicate predicate) {
         return CompletableFuture.supplyAsync(
                 () -> {
                     long startTime = System.currentTimeMillis();
@@ -46,28 +66,27 @@ public class BatchProcessorService {
                     ProcessedBatch.ProcessedBatchBuilder batchBuilder =
                             ProcessedBatch.createEmptyBatch(rawBatch.getBatchId());
 
-                    ProcessedBatch.PartialCyclone currentPartial = null;
-                    List<ProcessedBatch.PartialCyclone> partialCyclones = new ArrayList<>();
-                    List<String> errors = new ArrayList<>();
-
-                    for (int i = 0; i < rawBatch.getLines().size(); i++) {
-                        String line = rawBatch.getLines().get(i);
-                        int lineNumber = rawBatch.getStartLineNumber() + i + 1;
-
-                        currentPartial =
-                                processPartialCyclone(
-                                        rawBatch,
-                                        line,
-                                        currentPartial,
-                                        partialCyclones,
-                                        lineNumber,
-                                        errors);
+                    BatchParsingState state =
+                            new BatchParsingState(
+                                    rawBatch,
+                                    predicate,
+                                    deferRadii(rawBatch));
+
+                    if (rawBatch.isMapped()) {
+                        processMappedLines(rawBatch, state);
+                    } else {
+                        for (int i = 0; i < rawBatch.getLines().size(); i++) {
+                            String line = rawBatch.getLines().get(i);
+                            int lineNumber = rawBatch.getStartLineNumber() + i + 1;
+
+                            processPartialCyclone(state.cursor.reset(line), state, lineNumber);
+                        }
                     }
 
                     // Add last partial
-                    if (currentPartial != null) {
-                        partialCyclones.add(currentPartial);
-                    }
+                    state.closePartial();
+                    List<ProcessedBatch.PartialCyclone> partialCyclones = state.partialCyclones;
+                    List<String> errors = state.errors;
 
                     long processingTime = System.currentTimeMillis() - startTime;
 
@@ -90,59 +109,163 @@ public class BatchProcessorService {
                 serviceTaskExecutor);
     }
 
-    private static ProcessedBatch.PartialCyclone processPartialCyclone(
-            RawBatch rawBatch,
-            String line,
-            ProcessedBatch.PartialCyclone currentPartial,
-            List<ProcessedBatch.PartialCyclone> partialCyclones,
-            int lineNumber,
-            List<String> errors) {
+    /**
+     * Creates a pipeline stage processing batches as they are published, see
+     * {@link BatchProcessingStage}
+     * @param maxInFlight maximum number of batches requested and not yet completed
+     * @param predicate points to keep
+     * @param timings receives the processing time of every batch
+     */
+    public BatchProcessingStage processingStage(
+            int maxInFlight, TrackPredicate predicate, ChunkSizeTuner.BatchTimings timings) {
+        return new BatchProcessingStage(this, maxInFlight, predicate, timings);
+    }
+
+    /**
+     * Walks the byte range of a mapped batch line by line
+     */
+    private static void processMappedLines(RawBatch rawBatch, BatchParsingState state) {
+        MemorySegment source = rawBatch.getSource();
+        long end = rawBatch.getEndOffset();
+        long lineStart = rawBatch.getStartOffset();
+        int lineNumber = rawBatch.getStartLineNumber();
+
+        while (lineStart < end) {
+            long lineEnd = SegmentLines.lineEnd(source, lineStart, end);
+            long trimmedStart = SegmentLines.trimStart(source, lineStart, lineEnd);
+            long trimmedEnd = SegmentLines.trimEnd(source, trimmedStart, lineEnd);
+            lineNumber++;
+
+            if (trimmedStart < trimmedEnd) {
+                processPartialCyclone(
+                        state.cursor.reset(source, trimmedStart, trimmedEnd), state, lineNumber);
+            }
+            lineStart = lineEnd < end ? lineEnd + 1 : end;
+        }
+    }
+
+    private static void processPartialCyclone(
+            HurdatLineCursor cursor, BatchParsingState state, int lineNumber) {
         try {
-            if (line.startsWith("AL")) {
+            if (cursor.isHeaderLine()) {
                 // Save previous partial if exists
-                if (currentPartial != null) {
-                    partialCyclones.add(currentPartial);
-                }
+                state.closePartial();
 
                 // Start new partial cyclone
-                HeaderLine header = HeaderLine.parse(line);
-                currentPartial =
-                        ProcessedBatch.PartialCyclone.builder()
-                                .cycloneId(header.getCycloneId())
-                                .header(header)
-                                .dataLines(new ArrayList<>())
-                                .isHeaderPresent(true)
-                                .isComplete(false)
-                                .build();
+                HeaderLine header = cursor.parseHeaderLine().toHeaderLine();
+                state.openPartial(header.getCycloneId(), header);
 
             } else {
                 // Data line
-                if (currentPartial == null) {
+                if (state.currentPartial == null) {
                     // Batch starts mid-cyclone, create partial without header
-                    currentPartial =
-                            ProcessedBatch.PartialCyclone.builder()
-                                    .cycloneId("UNKNOWN_" + rawBatch.getBatchId())
-                                    .header(null)
-                                    .dataLines(new ArrayList<>())
-                                    .isHeaderPresent(false)
-                                    .isComplete(false)
-                                    .build();
+                    state.openPartial("UNKNOWN_" + state.rawBatch.getBatchId(), null);
                 }
-
-                DataLine dataLine = DataLine.parse(line);
-                if (dataLine.isLandfall() && dataLine.isAfter1900()) {
-                    currentPartial.getDataLines().add(dataLine);
+                ProcessedBatch.PartialCyclone partial = state.currentPartial;
+                if (partial.getCycloneYear() == 0) {
+                    // the year of the first point is the year of the cyclone, a cyclone that can
+                    // not match is kept without points and its other lines are not parsed
+                    int year = cursor.parseDataLineKeys().getDate() / 10_000;
+                    partial.setCycloneYear(year);
+                    partial.setCycloneMayMatch(state.predicate.mayMatchCycloneOf(year));
+                }
+                // a continuation only knows the year of its own first point, the accumulator
+                // decides with the year of the header batch
+                if (!partial.isHeaderPresent() || partial.isCycloneMayMatch()) {
+                    appendIfMatching(cursor, state);
+                    // every predicate decodes the date first, dropped points still span the track
+                    state.recordMinute(
+                            TrackStore.toEpochMinute(cursor.getDate(), cursor.getTime()));
                 }
             }
 
         } catch (Exception e) {
             String error =
                     String.format(
-                            "Error parsing line %d: %s - %s", lineNumber, e.getMessage(), line);
+                            "Error parsing line %d: %s - %s",
+                            lineNumber,
+                            e.getMessage(),
+                            cursor.lineAsString());
             log.warn(error);
-            errors.add(error);
+            state.errors.add(error);
+        }
+    }
+
+    /**
+     * Evaluates the predicate on the raw fields, kept lines go to the batch track store
+     * Fields are decoded in the order the predicate needs them, a dropped line stops at the first
+     * criterion it fails and the radii are only decoded for kept lines
+     */
+    private static void appendIfMatching(HurdatLineCursor cursor, BatchParsingState state) {
+        TrackPredicate predicate = state.predicate;
+        if (!predicate.testKeys(cursor.parseDataLineKeys())
+                || !predicate.testPosition(cursor.parseDataLinePosition())) {
+            return;
+        }
+        cursor.requireDataFields().parseDataLineIntensity();
+        if (predicate.needsMeasurements() && !predicate.testMeasurements(cursor)) {
+            return;
+        }
+        if (state.lazyTrackPoints) {
+            state.store.appendDeferred(cursor);
+        } else {
+            state.store.append(cursor.parseDataLineRadii());
+        }
+    }
+
+    /**
+     * Radii are only deferred for mapped batches, a line based batch would keep every line string
+     * alive, the snapshot writer decodes them after the dataset is published
+     */
+    private boolean deferRadii(RawBatch rawBatch) {
+        return properties.getProcessing().isLazyTrackPoints() && rawBatch.isMapped();
+    }
+
+    /**
+     * Per batch parsing state, kept points are appended to a batch local columnar store and each
+     * partial cyclone exposes its range of that store as its data lines
+     */
+    private static class BatchParsingState {
+        final RawBatch rawBatch;
+        final TrackPredicate predicate;
+        final boolean lazyTrackPoints;
+        // one cursor per batch, lines are decoded in place without temporary objects
+        final HurdatLineCursor cursor = new HurdatLineCursor();
+        final ArrayTrackStore store = new ArrayTrackStore();
+        final List<ProcessedBatch.PartialCyclone> partialCyclones = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        ProcessedBatch.PartialCyclone currentPartial;
+        int partialStart;
+
+        BatchParsingState(RawBatch rawBatch, TrackPredicate predicate, boolean lazyTrackPoints) {
+            this.rawBatch = rawBatch;
+            this.predicate = predicate;
+            this.lazyTrackPoints = lazyTrackPoints;
+        }
+
+        void openPartial(String cycloneId, HeaderLine header) {
+            currentPartial =
+                    ProcessedBatch.PartialCyclone.builder()
+                            .cycloneId(cycloneId)
+                            .header(header)
+                            .isHeaderPresent(header != null)
+                            .isComplete(false)
+                            .build();
+            partialStart = store.size();
+        }
+
+        void recordMinute(int epochMinute) {
+            currentPartial.setFirstMinute(Math.min(currentPartial.getFirstMinute(), epochMinute));
+            currentPartial.setLastMinute(Math.max(currentPartial.getLastMinute(), epochMinute));
+        }
+
+        void closePartial() {
+            if (currentPartial != null) {
+                currentPartial.setDataLines(store.slice(partialStart, store.size() - partialStart));
+                partialCyclones.add(currentPartial);
+                currentPartial = null;
+            }
         }
-        return currentPartial;
     }
 
     /**
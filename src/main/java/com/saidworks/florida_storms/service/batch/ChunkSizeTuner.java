@@ -0,0 +1,222 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.helper.DecompressingInputStream;
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.batch.RawBatch;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+/**
+ * Picks the number of lines per raw batch of every source
+ * In ADAPTIVE mode the first run derives it from the source size so that every worker of the
+ * serviceTaskExecutor gets a few batches and the batches of a file fit in its pool and queue
+ * Timings of each run are folded into the chunk size of the next run of the same source, it moves
+ * towards {@code target-batch-ms} per batch without leaving those bounds
+ */
+@Service
+@Log4j2
+public class ChunkSizeTuner {
+    // a HURDAT2 data line is about 120 bytes, header lines are shorter but rare
+    private static final int BYTES_PER_LINE = 120;
+    // inflated size of a compressed source, text compresses about 4 times
+    private static final int COMPRESSION_RATIO = 4;
+    // batches per worker, extra batches even out workers finishing at different times
+    private static final int BATCHES_PER_WORKER = 4;
+
+    private final CycloneProcessingProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final ExecutorService serviceTaskExecutor;
+
+    // chunk size of the last run of every source, absent before its first run
+    private final Map<String, Integer> tunedChunkSizes = new ConcurrentHashMap<>();
+
+    public ChunkSizeTuner(
+            CycloneProcessingProperties properties,
+            ResourceLoader resourceLoader,
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.serviceTaskExecutor = serviceTaskExecutor;
+    }
+
+    /**
+     * @param source location of the HURDAT2 file
+     * @return lines per batch for the next run of {@code source}
+     */
+    public int chunkSize(String source) {
+        CycloneProcessingProperties.Processing processing = properties.getProcessing();
+        if (processing.getChunkSizeMode() == CycloneProcessingProperties.ChunkSizeMode.FIXED) {
+            return processing.getChunkSize();
+        }
+        return tunedChunkSizes.computeIfAbsent(source, this::initialChunkSize);
+    }
+
+    /**
+     * Timings of the batches of one run, filled concurrently by the processing stage
+     * @param source location of the HURDAT2 file the run reads
+     */
+    public BatchTimings timings(String source) {
+        return new BatchTimings(source, chunkSize(source));
+    }
+
+    /**
+     * Folds the timings of a completed run into the chunk size of the next run of its source
+     * The measured time per line gives the chunk size processed in {@code target-batch-ms}, the
+     * next chunk size is halfway between the current one and that size so that it converges
+     * without oscillating on noisy timings
+     */
+    public void update(BatchTimings timings) {
+        CycloneProcessingProperties.Processing processing = properties.getProcessing();
+        long lines = timings.lines.sum();
+        long processingMs = timings.processingMs.sum();
+        if (processing.getChunkSizeMode() == CycloneProcessingProperties.ChunkSizeMode.FIXED
+                || lines == 0
+                || processingMs == 0) {
+            // millisecond timings of small files are all zero, nothing to learn from them
+            return;
+        }
+
+        double msPerLine = (double) processingMs / lines;
+        long measured = Math.round(processing.getTargetBatchMs() / msPerLine);
+        int next =
+                bounded(
+                        (timings.chunkSize + measured) / 2,
+                        lines,
+                        processing.getMinChunkSize(),
+                        processing.getMaxChunkSize());
+        tunedChunkSizes.put(timings.source, next);
+        log.info(
+                "Chunk size of {} tuned from {} to {} lines ({} batches, {} lines, {}ms)",
+                timings.source,
+                timings.chunkSize,
+                next,
+                timings.batches.sum(),
+                lines,
+                processingMs);
+    }
+
+    /**
+     * Batches one pipeline keeps in flight, {@code max-in-flight-batches} or twice the cores,
+     * lowered so that the batches of every concurrent pipeline fit in the threads and queue of
+     * the serviceTaskExecutor, which rejects any task beyond them
+     * @param pipelines basin file pipelines running at the same time
+     */
+    public int maxInFlightBatches(int pipelines) {
+        int configured = properties.getProcessing().getMaxInFlightBatches();
+        int window = configured > 0 ? configured : 2 * Runtime.getRuntime().availableProcessors();
+        long fitsInExecutor = (maxWorkers() + queueCapacity()) / Math.max(1, pipelines);
+        return Math.clamp(fitsInExecutor, 1, window);
+    }
+
+    private int initialChunkSize(String source) {
+        CycloneProcessingProperties.Processing processing = properties.getProcessing();
+        long lines = estimateLines(resourceLoader.getResource(source));
+        if (lines <= 0) {
+            return processing.getChunkSize();
+        }
+        int chunkSize =
+                bounded(
+                        ceilDiv(lines, (long) workers() * BATCHES_PER_WORKER),
+                        lines,
+                        processing.getMinChunkSize(),
+                        processing.getMaxChunkSize());
+        log.info(
+                "Initial chunk size of {}: {} lines (about {} lines, {} workers)",
+                source,
+                chunkSize,
+                lines,
+                workers());
+        return chunkSize;
+    }
+
+    /**
+     * Keeps at least one batch per worker so none of them idles and at most as many batches as
+     * the executor runs and queues, then applies the configured limits
+     */
+    private int bounded(long chunkSize, long lines, int minChunkSize, int maxChunkSize) {
+        long busyAllWorkers = ceilDiv(lines, workers());
+        long fitsInExecutor = ceilDiv(lines, (long) workers() + queueCapacity());
+        long size = Math.max(fitsInExecutor, Math.min(busyAllWorkers, chunkSize));
+        return Math.clamp(size, minChunkSize, Math.max(minChunkSize, maxChunkSize));
+    }
+
+    private static long estimateLines(Resource resource) {
+        try {
+            long bytes = resource.contentLength();
+            if (DecompressingInputStream.formatOf(resource.getFilename()).isPresent()) {
+                bytes *= COMPRESSION_RATIO;
+            }
+            return bytes / BYTES_PER_LINE;
+        } catch (IOException e) {
+            log.warn("Size of {} unknown, using the configured chunk size", resource, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Threads above the core size only start once the queue is full, the core threads are the
+     * workers a run can count on
+     */
+    private int workers() {
+        return serviceTaskExecutor instanceof ThreadPoolExecutor pool
+                ? pool.getCorePoolSize()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    private int maxWorkers() {
+        return serviceTaskExecutor instanceof ThreadPoolExecutor pool
+                ? pool.getMaximumPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    private long queueCapacity() {
+        if (serviceTaskExecutor instanceof ThreadPoolExecutor pool) {
+            return (long) pool.getQueue().size() + pool.getQueue().remainingCapacity();
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return Math.ceilDiv(dividend, Math.max(1, divisor));
+    }
+
+    /**
+     * Processing time and line count of the batches of one run
+     */
+    public static final class BatchTimings {
+        private final String source;
+        private final int chunkSize;
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder processingMs = new LongAdder();
+
+        BatchTimings(String source, int chunkSize) {
+            this.source = source;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * @return lines per batch the run was loaded with
+         */
+        public int chunkSize() {
+            return chunkSize;
+        }
+
+        void record(RawBatch rawBatch, ProcessedBatch processedBatch) {
+            batches.increment();
+            lines.add(rawBatch.getLineCount());
+            processingMs.add(processedBatch.getProcessingTimeMs());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import com.saidworks.florida_storms.helper.LongIntHashMap;
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Folds processed batches into complete cyclones, batches must be added in batch id order so that
+ * a partial without header continues the cyclone of the previous batch
+ * Accumulators of consecutive batch ranges combine with {@link #merge}, the open cyclone at the end
+ * of the left range takes the leading continuation of the right range, so folds of disjoint ranges
+ * can run in parallel and be merged in range order
+ */
+@Log4j2
+class CycloneAccumulator {
+    // cyclones in file order, indexed by their packed cyclone key
+    private final List<CycloneParts> cycloneParts = new ArrayList<>();
+    private final LongIntHashMap cycloneIndex = new LongIntHashMap();
+
+    // cyclone of the last header seen, continuations attach to it
+    private CycloneParts openCyclone;
+
+    // Data lines seen before any header, they continue a cyclone of an
+    // earlier range or are orphaned when no range precedes
+    private final List<ProcessedBatch.PartialCyclone> leadingPartials = new ArrayList<>();
+
+    void add(ProcessedBatch batch) {
+        for (ProcessedBatch.PartialCyclone partial : batch.getPartialCyclones()) {
+
+            if (partial.isHeaderPresent()) {
+                // This partial has a header, start or update cyclone
+                openCyclone = partsOf(partial.getHeader());
+                openCyclone.add(partial);
+
+            } else if (openCyclone != null) {
+                // No header present - this is continuation from previous
+                // batch
+                openCyclone.add(partial);
+                log.debug(
+                        "Attached {} orphaned data lines to cyclone {}",
+                        partial.getDataLines().size(),
+                        openCyclone.header.getCycloneId());
+            } else {
+                // No cyclone to attach to yet, an earlier range may own it
+                leadingPartials.add(partial);
+            }
+        }
+    }
+
+    /**
+     * Appends the batches folded by {@code next}, which must cover the batch range that directly
+     * follows the range of this accumulator
+     * @return this accumulator, {@code next} must not be used afterwards
+     */
+    CycloneAccumulator merge(CycloneAccumulator next) {
+        if (openCyclone != null) {
+            next.leadingPartials.forEach(openCyclone::add);
+        } else {
+            leadingPartials.addAll(next.leadingPartials);
+        }
+        for (CycloneParts parts : next.cycloneParts) {
+            CycloneParts merged = partsOf(parts.header);
+            merged.addAll(parts);
+            if (parts == next.openCyclone) {
+                openCyclone = merged;
+            }
+        }
+        return this;
+    }
+
+    private CycloneParts partsOf(HeaderLine header) {
+        int index = cycloneIndex.putIfAbsent(header.getCycloneKey(), cycloneParts.size());
+        if (index == cycloneParts.size()) {
+            cycloneParts.add(new CycloneParts(header));
+        }
+        return cycloneParts.get(index);
+    }
+
+    /**
+     * Builds the cyclones of every batch added so far
+     * @return List of complete cyclones in file order
+     */
+    List<Cyclone> finish() {
+        // Handle any remaining orphaned partials
+        if (!leadingPartials.isEmpty()) {
+            log.warn(
+                    "Found {} orphaned partials without any previous cyclone",
+                    leadingPartials.size());
+        }
+
+        List<Cyclone> cyclones = buildTrackStore();
+
+        // Validate merged cyclones
+        int completeCount = 0;
+        int incompleteCount = 0;
+
+        for (Cyclone cyclone : cyclones) {
+            if (cyclone.isDataCompletePerHeader()) {
+                completeCount++;
+            } else {
+                incompleteCount++;
+                log.debug(
+                        "Cyclone {} has incomplete data: expected {} entries, found {}",
+                        cyclone.getHeader().getCycloneId(),
+                        cyclone.getHeader().getEntriesCount(),
+                        cyclone.getDataLines().size());
+            }
+        }
+
+        log.info(
+                "Merged into {} cyclones ({} complete, {} incomplete)",
+                cyclones.size(),
+                completeCount,
+                incompleteCount);
+
+        return cyclones;
+    }
+
+    /**
+     * Copies the data lines of every cyclone into one columnar store, cyclone after cyclone, so
+     * that each cyclone becomes a contiguous slice of the store
+     */
+    private List<Cyclone> buildTrackStore() {
+        int totalPoints = cycloneParts.stream().mapToInt(CycloneParts::pointCount).sum();
+        ArrayTrackStore store = new ArrayTrackStore(totalPoints);
+        List<Cyclone> cyclones = new ArrayList<>(cycloneParts.size());
+
+        for (CycloneParts parts : cycloneParts) {
+            int offset = store.size();
+            parts.dataLines.forEach(store::appendAll);
+            cyclones.add(
+                    new Cyclone(
+                            parts.header,
+                            store.slice(offset, store.size() - offset),
+                            parts.firstMinute,
+                            parts.lastMinute));
+        }
+        return cyclones;
+    }
+
+    /**
+     * Data lines of one cyclone collected from the batches it spans, with the span of every
+     * parsed point of the track
+     * The year of the cyclone comes from the first part with a point, usually the batch of the
+     * header, a cyclone of a year the predicate can not match drops the parts of its continuations
+     */
+    private static class CycloneParts {
+        final HeaderLine header;
+        final List<List<DataLine>> dataLines = new ArrayList<>();
+        int firstMinute = Integer.MAX_VALUE;
+        int lastMinute = Integer.MIN_VALUE;
+        int year; // 0 until a part has a point
+        boolean mayMatch = true;
+
+        CycloneParts(HeaderLine header) {
+            this.header = header;
+        }
+
+        void add(ProcessedBatch.PartialCyclone partial) {
+            if (!resolveYear(partial.getCycloneYear(), partial.isCycloneMayMatch())) {
+                return;
+            }
+            dataLines.add(partial.getDataLines());
+            firstMinute = Math.min(firstMinute, partial.getFirstMinute());
+            lastMinute = Math.max(lastMinute, partial.getLastMinute());
+        }
+
+        void addAll(CycloneParts parts) {
+            if (!resolveYear(parts.year, parts.mayMatch)) {
+                return;
+            }
+            dataLines.addAll(parts.dataLines);
+            firstMinute = Math.min(firstMinute, parts.firstMinute);
+            lastMinute = Math.max(lastMinute, parts.lastMinute);
+        }
+
+        /**
+         * @return whether parts of the cyclone are kept once its year is known
+         */
+        private boolean resolveYear(int partYear, boolean partMayMatch) {
+            if (year == 0 && partYear != 0) {
+                year = partYear;
+                mayMatch = partMayMatch;
+            }
+            return mayMatch;
+        }
+
+        int pointCount() {
+            return dataLines.stream().mapToInt(List::size).sum();
+        }
+    }
+}
@@ -1,25 +1,42 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.service.batch;
 
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.batch.IngestionCheckpoint;
 import com.saidworks.florida_storms.models.batch.ProcessedBatch;
 import com.saidworks.florida_storms.models.batch.RawBatch;
+import com.saidworks.florida_storms.models.batch.TailBatches;
+import com.saidworks.florida_storms.models.batch.TailIngestion;
+import com.saidworks.florida_storms.models.domain.BasinPartition;
 import com.saidworks.florida_storms.models.domain.Cyclone;
 import com.saidworks.florida_storms.models.exception.BatchProcessingException;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.service.snapshot.DatasetSnapshotService;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
 /**
- * Orchestrates the three-phase cyclone data processing pipeline:
+ * Orchestrates the three-stage cyclone data processing pipeline:
  * 1. Load file into raw batches
  * 2. Process and validate batches in parallel
  * 3. Merge batches into complete cyclones
+ * The stages run concurrently with bounded demand, memory is bounded by the batches in flight
+ * Every basin file gets its own pipeline, at most {@code maxConcurrentPipelines} of them run at
+ * the same time
+ * When a snapshot of the same source exists the pipeline is skipped and the snapshot is mapped
+ * In incremental ingestion mode an appended file only has its tail processed
+ * Snapshots and tail ingestion only hold the resident selection
+ * {@link TrackPredicate#LANDFALL_SINCE_1900}, other predicates always run the pipeline
  */
 @Service
 @Log4j2
@@ -29,72 +46,279 @@ public class CycloneProcessingOrchestrator {
     private final BatchLoaderService batchLoaderService;
     private final BatchProcessorService batchProcessorService;
     private final BatchMergerService batchMergerService;
+    private final DatasetSnapshotService datasetSnapshotService;
+    private final ChunkSizeTuner chunkSizeTuner;
+    private final CycloneProcessingProperties properties;
 
     /**
-     * Executes the complete processing pipeline
-     * @return List of processed cyclones
+     * Processes every configured basin file, each one is read from its snapshot when it matches
+     * the source, otherwise its pipeline runs and refreshes the snapshot
+     * @return one partition per basin file in configuration order
      */
-    public List<Cyclone> processAllCyclones() throws IOException {
-        log.info("=== Starting Cyclone Data Processing Pipeline ===");
-        long pipelineStart = System.currentTimeMillis();
+    public List<BasinPartition> processAllCyclones() throws IOException {
+        List<String> sources = properties.getData().getHurdat2();
+        List<CompletableFuture<List<Cyclone>>> results = startBounded(sources, this::processSource);
+
+        List<BasinPartition> partitions = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            String source = sources.get(i);
+            List<Cyclone> cyclones = join(results.get(i));
+            partitions.add(
+                    new BasinPartition(
+                            source, cyclones, createCheckpoint(source, cyclones).orElse(null)));
+        }
+        return partitions;
+    }
+
+    /**
+     * Processes every configured basin file keeping only the points matching {@code predicate},
+     * cyclones without a matching point are kept with an empty track
+     * @param predicate points to keep, evaluated by the parser
+     * @return List of processed cyclones of all basin files
+     */
+    public List<Cyclone> processAllCyclones(TrackPredicate predicate) throws IOException {
+        if (TrackPredicate.LANDFALL_SINCE_1900.equals(predicate)) {
+            return processAllCyclones().stream()
+                    .flatMap(partition -> partition.cyclones().stream())
+                    .toList();
+        }
+        List<CompletableFuture<List<Cyclone>>> results =
+                startBounded(
+                        properties.getData().getHurdat2(),
+                        source -> runPipeline(source, predicate));
+        List<Cyclone> cyclones = new ArrayList<>();
+        results.forEach(result -> cyclones.addAll(join(result)));
+        return cyclones;
+    }
 
-        // Phase 1: Load batches
-        log.info("Phase 1: Loading raw batches...");
-        long phase1Start = System.currentTimeMillis();
-        List<RawBatch> rawBatches = batchLoaderService.loadBatches();
-        long phase1Duration = System.currentTimeMillis() - phase1Start;
-        log.info("Phase 1 completed in {}ms", phase1Duration);
-
-        // Phase 2: Process batches in parallel
-        log.info("Phase 2: Processing {} batches in parallel...", rawBatches.size());
-        long phase2Start = System.currentTimeMillis();
-        List<ProcessedBatch> processedBatches = processBatchesInParallel(rawBatches);
-        long phase2Duration = System.currentTimeMillis() - phase2Start;
-        log.info("Phase 2 completed in {}ms", phase2Duration);
-
-        // Validate processed batches
-        log.info("Validating processed batches...");
-        int validBatches = 0;
-        int invalidBatches = 0;
-        for (ProcessedBatch batch : processedBatches) {
-            if (batchProcessorService.validateBatch(batch)) {
-                validBatches++;
-            } else {
-                invalidBatches++;
+    /**
+     * Starts the pipeline of every source in order, a source waits until the pipeline started
+     * {@code maxConcurrentPipelines} sources before it has completed
+     * @return the results in source order, failures are only reported when they are joined
+     */
+    private List<CompletableFuture<List<Cyclone>>> startBounded(
+            List<String> sources, Function<String, CompletableFuture<List<Cyclone>>> pipeline) {
+        int lanes = lanes();
+        List<CompletableFuture<List<Cyclone>>> results = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            if (i >= lanes) {
+                results.get(i - lanes).handle((_, _) -> null).join();
             }
+            results.add(pipeline.apply(sources.get(i)));
+        }
+        return results;
+    }
+
+    private CompletableFuture<List<Cyclone>> processSource(String source) {
+        if (!datasetSnapshotService.isEnabled()) {
+            return runPipeline(source, TrackPredicate.LANDFALL_SINCE_1900);
+        }
+
+        Optional<List<Cyclone>> snapshot =
+                datasetSnapshotService.load(
+                        source,
+                        TrackPredicate.LANDFALL_SINCE_1900,
+                        batchLoaderService.sourceChecksum(source));
+        if (snapshot.isPresent()) {
+            return CompletableFuture.completedFuture(snapshot.get());
+        }
+
+        // the snapshot is keyed by the bytes the pipeline parsed, not by the file checked above
+        CompletableFuture<Long> parsedChecksum = new CompletableFuture<>();
+        return runPipeline(source, TrackPredicate.LANDFALL_SINCE_1900, parsedChecksum)
+                .thenApply(
+                        cyclones -> {
+                            datasetSnapshotService.writeInBackground(
+                                    source,
+                                    TrackPredicate.LANDFALL_SINCE_1900,
+                                    cyclones,
+                                    parsedChecksum.join());
+                            return cyclones;
+                        });
+    }
+
+    /**
+     * Checkpoint of the basin file the given cyclones were just read from, only available in
+     * incremental ingestion mode for file resources
+     */
+    private Optional<IngestionCheckpoint> createCheckpoint(String source, List<Cyclone> cyclones) {
+        if (properties.getProcessing().getIngestionMode()
+                != CycloneProcessingProperties.IngestionMode.INCREMENTAL) {
+            return Optional.empty();
+        }
+        // the file may have changed since it was read, such a checkpoint does not match the data
+        return batchLoaderService
+                .createCheckpoint(source)
+                .filter(checkpoint -> endsWithCheckpointCyclone(cyclones, checkpoint));
+    }
+
+    /**
+     * Processes only the part of a basin file appended since its checkpoint: the last known
+     * cyclone is parsed again together with every cyclone after it and merged with the others
+     * @param partition partition of the previous ingestion, it must have a checkpoint
+     * @return the updated partition, empty when the file was modified before the checkpoint
+     */
+    public Optional<BasinPartition> processAppendedCyclones(BasinPartition partition) {
+        return processAppendedCyclones(partition, false).map(TailIngestion::getPartition);
+    }
+
+    /**
+     * Processes only the part of a basin file appended since its checkpoint, see
+     * {@link #processAppendedCyclones(BasinPartition)}
+     * @param withTracks also parse the same tail batches with {@link TrackPredicate#SINCE_1900}
+     *     so the landfalls of the appended cyclones can be detected without reading the file again
+     * @return the updated partition and the tail tracks, empty when the file was modified before
+     *     the checkpoint
+     */
+    public Optional<TailIngestion> processAppendedCyclones(
+            BasinPartition partition, boolean withTracks) {
+        List<Cyclone> cyclones = partition.cyclones();
+        IngestionCheckpoint checkpoint = partition.checkpoint();
+        if (!endsWithCheckpointCyclone(cyclones, checkpoint)) {
+            return Optional.empty();
+        }
+        long start = System.currentTimeMillis();
+        Optional<TailBatches> tail =
+                batchLoaderService.loadTailBatches(partition.source(), checkpoint);
+        if (tail.isEmpty()) {
+            return Optional.empty();
         }
-        log.info("Validation: {} valid, {} invalid batches", validBatches, invalidBatches);
 
-        // Phase 3: Merge batches
-        log.info("Phase 3: Merging batches into complete cyclones...");
-        long phase3Start = System.currentTimeMillis();
-        List<Cyclone> cyclones = batchMergerService.mergeBatches(processedBatches);
-        long phase3Duration = System.currentTimeMillis() - phase3Start;
-        log.info("Phase 3 completed in {}ms", phase3Duration);
+        List<ProcessedBatch> processedBatches =
+                processBatchesInParallel(
+                        tail.get().getBatches(), TrackPredicate.LANDFALL_SINCE_1900);
+        processedBatches.forEach(batchProcessorService::validateBatch);
+        int retained =
+                checkpoint.getLastCycloneId() == null ? cyclones.size() : cyclones.size() - 1;
+        List<Cyclone> merged =
+                batchMergerService.appendTailBatches(
+                        cyclones.subList(0, retained), processedBatches);
 
-        long totalDuration = System.currentTimeMillis() - pipelineStart;
+        IngestionCheckpoint next = tail.get().getCheckpoint();
+        if (!endsWithCheckpointCyclone(merged, next)) {
+            return Optional.empty();
+        }
         log.info(
-                "=== Pipeline completed in {}ms (Load: {}ms, Process: {}ms, Merge: {}ms) ===",
-                totalDuration,
-                phase1Duration,
-                phase2Duration,
-                phase3Duration);
-        log.info("Total cyclones processed: {}", cyclones.size());
+                "Tail ingestion of {} completed in {}ms: {} cyclones retained, {} parsed",
+                partition.source(),
+                System.currentTimeMillis() - start,
+                retained,
+                merged.size() - retained);
+        if (datasetSnapshotService.isEnabled()) {
+            // the next startup maps the appended cyclones instead of parsing the whole file
+            datasetSnapshotService.write(
+                    partition.source(),
+                    TrackPredicate.LANDFALL_SINCE_1900,
+                    merged,
+                    tail.get().getSourceChecksum());
+        }
+        List<Cyclone> tracks =
+                withTracks
+                        ? batchMergerService.appendTailBatches(
+                                List.of(),
+                                processBatchesInParallel(
+                                        tail.get().getBatches(), TrackPredicate.SINCE_1900))
+                        : List.of();
+        return Optional.of(
+                TailIngestion.builder()
+                        .partition(new BasinPartition(partition.source(), merged, next))
+                        .tracks(tracks)
+                        .build());
+    }
 
-        return cyclones;
+    private static boolean endsWithCheckpointCyclone(
+            List<Cyclone> cyclones, IngestionCheckpoint checkpoint) {
+        if (checkpoint.getLastCycloneId() == null) {
+            return cyclones.isEmpty();
+        }
+        return !cyclones.isEmpty()
+                && checkpoint
+                        .getLastCycloneId()
+                        .equals(cyclones.getLast().getHeader().getCycloneId());
+    }
+
+    /**
+     * Starts the complete processing pipeline of one basin file, the stages are connected with
+     * {@link java.util.concurrent.Flow} so that batches are processed while the file is still
+     * being read and merged while later batches are still being processed
+     * @param source location of the HURDAT2 file
+     * @param predicate points to keep
+     * @return completes with the processed cyclones of the file
+     */
+    private CompletableFuture<List<Cyclone>> runPipeline(String source, TrackPredicate predicate) {
+        return runPipeline(source, predicate, new CompletableFuture<>());
+    }
+
+    /**
+     * @param sourceChecksum completed with the checksum of the bytes read by the loader
+     */
+    private CompletableFuture<List<Cyclone>> runPipeline(
+            String source, TrackPredicate predicate, CompletableFuture<Long> sourceChecksum) {
+        log.info("=== Starting Cyclone Data Processing Pipeline for {} ===", source);
+        long pipelineStart = System.currentTimeMillis();
+        int maxInFlight = chunkSizeTuner.maxInFlightBatches(lanes());
+        ChunkSizeTuner.BatchTimings timings = chunkSizeTuner.timings(source);
+
+        OrderedMergeSubscriber merge = batchMergerService.orderedMerge(maxInFlight);
+        BatchProcessingStage processing =
+                batchProcessorService.processingStage(maxInFlight, predicate, timings);
+        // subscribe downstream first, the loader starts reading as soon as it has a subscriber
+        processing.subscribe(merge);
+        batchLoaderService
+                .publishBatches(source, maxInFlight, timings.chunkSize(), sourceChecksum)
+                .subscribe(processing);
+
+        return merge.result()
+                .thenApply(
+                        cyclones -> {
+                            if (TrackPredicate.LANDFALL_SINCE_1900.equals(predicate)) {
+                                // only full loads are comparable from one run to the next
+                                chunkSizeTuner.update(timings);
+                            }
+                            log.info(
+                                    "=== Pipeline for {} completed in {}ms (at most {} batches in"
+                                            + " flight, {} lines per batch) ===",
+                                    source,
+                                    System.currentTimeMillis() - pipelineStart,
+                                    maxInFlight,
+                                    timings.chunkSize());
+                            log.info("Total cyclones processed: {}", cyclones.size());
+                            return cyclones;
+                        });
+    }
+
+    private static List<Cyclone> join(CompletableFuture<List<Cyclone>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw new BatchProcessingException("Cyclone processing pipeline failed", e.getCause());
+        }
+    }
+
+    /**
+     * Pipelines running at the same time, a single source never shares the pool with another
+     */
+    private int lanes() {
+        return Math.clamp(
+                properties.getProcessing().getMaxConcurrentPipelines(),
+                1,
+                Math.max(1, properties.getData().getHurdat2().size()));
     }
 
     /**
      * Processes all raw batches in parallel using async threads
      * @param rawBatches List of raw batches to process
+     * @param predicate points to keep
      * @return List of processed batches in original order
      */
-    private List<ProcessedBatch> processBatchesInParallel(List<RawBatch> rawBatches) {
+    private List<ProcessedBatch> processBatchesInParallel(
+            List<RawBatch> rawBatches, TrackPredicate predicate) {
         List<CompletableFuture<ProcessedBatch>> futures = new ArrayList<>();
 
         // Submit all batches for async processing
         for (RawBatch rawBatch : rawBatches) {
-            CompletableFuture<ProcessedBatch> future = batchProcessorService.processBatch(rawBatch);
+            CompletableFuture<ProcessedBatch> future =
+                    batchProcessorService.processBatch(rawBatch, predicate);
             futures.add(future);
         }
 
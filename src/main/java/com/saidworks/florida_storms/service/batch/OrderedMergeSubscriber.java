@@ -0,0 +1,138 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Last stage of the pipeline, folds processed batches into cyclones in batch id order whatever
+ * the order they complete in
+ * A batch arriving ahead of a lower batch id is folded right away into the accumulator of the
+ * run of consecutive batches it joins, runs are merged with {@link CycloneAccumulator#merge} as
+ * the gaps between them fill, so the pipeline uses the same associative merge as the tree
+ * reduction of {@link BatchMergerService#mergeBatches}
+ * At most {@code window} batches are requested and not yet merged into the leading run, a batch
+ * ahead of the leading run is not replaced by a new request, so at most {@code window} batches
+ * wait in runs
+ */
+@Log4j2
+public class OrderedMergeSubscriber implements Flow.Subscriber<ProcessedBatch> {
+    private final CycloneAccumulator accumulator;
+    // runs of consecutive batches ahead of the leading run, by their first batch id
+    private final TreeMap<Integer, Run> waiting = new TreeMap<>();
+    private final CompletableFuture<List<Cyclone>> result = new CompletableFuture<>();
+    private final int window;
+    private Flow.Subscription subscription;
+    private int nextBatchId;
+    private int mergedBatches;
+
+    OrderedMergeSubscriber(CycloneAccumulator accumulator, int window) {
+        this.accumulator = accumulator;
+        this.window = window;
+    }
+
+    /**
+     * @return completes with the merged cyclones once the upstream completes
+     */
+    public CompletableFuture<List<Cyclone>> result() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(window);
+    }
+
+    @Override
+    public void onNext(ProcessedBatch batch) {
+        int batchId = batch.getBatchId();
+        int merged = 0;
+        if (batchId == nextBatchId) {
+            accumulator.add(batch);
+            nextBatchId++;
+            merged++;
+        } else {
+            joinRun(batchId, batch);
+        }
+        Run leading = waiting.remove(nextBatchId);
+        if (leading != null) {
+            accumulator.merge(leading.accumulator);
+            merged += leading.last + 1 - nextBatchId;
+            nextBatchId = leading.last + 1;
+        }
+        mergedBatches += merged;
+        if (merged > 0) {
+            // only merged batches make room, the processing stage forwards this demand upstream
+            subscription.request(merged);
+        }
+    }
+
+    /**
+     * Folds a batch ahead of the leading run into the run it extends, runs it connects are merged
+     */
+    private void joinRun(int batchId, ProcessedBatch batch) {
+        CycloneAccumulator folded = new CycloneAccumulator();
+        folded.add(batch);
+        Map.Entry<Integer, Run> previous = waiting.lowerEntry(batchId);
+        Run run;
+        if (previous != null && previous.getValue().last == batchId - 1) {
+            run = previous.getValue();
+            run.accumulator.merge(folded);
+            run.last = batchId;
+        } else {
+            run = new Run(batchId, folded);
+            waiting.put(batchId, run);
+        }
+        Run following = waiting.remove(batchId + 1);
+        if (following != null) {
+            run.accumulator.merge(following.accumulator);
+            run.last = following.last;
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (!waiting.isEmpty()) {
+            // gaps in the batch ids, merge the runs left in order
+            log.warn("Batch ids are not contiguous after batch {}", nextBatchId - 1);
+            for (Run run : waiting.values()) {
+                accumulator.merge(run.accumulator);
+                mergedBatches += run.last + 1 - run.first;
+            }
+            waiting.clear();
+        }
+        log.info("Folded {} processed batches in batch order", mergedBatches);
+        try {
+            result.complete(accumulator.finish());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Consecutive batches from {@code first} to {@code last} folded into one accumulator
+     */
+    private static class Run {
+        final int first;
+        int last;
+        final CycloneAccumulator accumulator;
+
+        Run(int batchId, CycloneAccumulator accumulator) {
+            this.first = batchId;
+            this.last = batchId;
+            this.accumulator = accumulator;
+        }
+    }
+}
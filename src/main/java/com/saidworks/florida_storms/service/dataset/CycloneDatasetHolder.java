@@ -0,0 +1,337 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.dataset;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.batch.TailIngestion;
+import com.saidworks.florida_storms.models.domain.AttributeIndex;
+import com.saidworks.florida_storms.models.domain.BasinPartition;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.CycloneDataset;
+import com.saidworks.florida_storms.models.domain.CycloneKeys;
+import com.saidworks.florida_storms.models.exception.BatchProcessingException;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.service.batch.CycloneProcessingOrchestrator;
+import com.saidworks.florida_storms.service.landfall.GeometricLandfallService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps one parsed dataset resident so requests no longer run the pipeline themselves
+ * The dataset is built on first access, readers then get it with a single volatile read
+ * Basin files that are plain files are watched and rebuilt in the background, the new dataset is
+ * published with one reference swap and a failed rebuild keeps serving the previous one
+ * With geometric landfall detection the full tracks are parsed and searched for coastline
+ * crossings before each dataset is published, queries never wait for the detection
+ * A tail reload only searches the tracks of the file tails, the landfalls of the retained cyclones
+ * are taken from the previous dataset
+ */
+@Service
+@Log4j2
+public class CycloneDatasetHolder {
+
+    private final CycloneProcessingOrchestrator orchestrator;
+    private final GeometricLandfallService geometricLandfallService;
+    private final CycloneProcessingProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final ExecutorService ioBlockingTaskExecutor;
+
+    private final AtomicReference<CycloneDataset> current = new AtomicReference<>();
+    // coalesces bursts of file events into a single rebuild
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+    private final Object buildLock = new Object();
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public CycloneDatasetHolder(
+            CycloneProcessingOrchestrator orchestrator,
+            GeometricLandfallService geometricLandfallService,
+            CycloneProcessingProperties properties,
+            ResourceLoader resourceLoader,
+            @Qualifier("ioBlockingTaskExecutor") ExecutorService ioBlockingTaskExecutor) {
+        this.orchestrator = orchestrator;
+        this.geometricLandfallService = geometricLandfallService;
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.ioBlockingTaskExecutor = ioBlockingTaskExecutor;
+    }
+
+    /**
+     * Current dataset, the first caller builds it and concurrent first callers wait for that build
+     */
+    public CycloneDataset getDataset() {
+        CycloneDataset dataset = current.get();
+        if (dataset != null) {
+            return dataset;
+        }
+        synchronized (buildLock) {
+            dataset = current.get();
+            if (dataset == null) {
+                dataset = build(1);
+                current.set(dataset);
+            }
+            return dataset;
+        }
+    }
+
+    public List<Cyclone> getCyclones() {
+        return getDataset().cyclones();
+    }
+
+    /**
+     * Cyclones of one basin (AL, EP, CP in any case), only that partition of the dataset is read
+     */
+    public List<Cyclone> getCyclones(String basin) {
+        return getDataset().cyclones(CycloneKeys.basinCode(basin));
+    }
+
+    /**
+     * Rebuilds the dataset and swaps it in, readers keep using the previous one meanwhile
+     * When every partition has a checkpoint only the appended tails of the files are processed
+     */
+    public void reload() {
+        synchronized (buildLock) {
+            CycloneDataset previous = current.get();
+            long version = previous == null ? 1 : previous.version() + 1;
+            try {
+                boolean checkpointed =
+                        previous != null
+                                && previous.partitions().stream()
+                                        .allMatch(partition -> partition.checkpoint() != null);
+                current.set(checkpointed ? appendTails(previous, version) : build(version));
+            } catch (BatchProcessingException e) {
+                log.error("Dataset reload failed, keeping version {}", version - 1, e);
+            }
+        }
+    }
+
+    private CycloneDataset appendTails(CycloneDataset previous, long version) {
+        boolean detecting = geometricLandfallService.isEnabled();
+        List<BasinPartition> partitions = new ArrayList<>();
+        List<Cyclone> detectedLandfalls = detecting ? new ArrayList<>() : null;
+        try {
+            for (BasinPartition partition : previous.partitions()) {
+                Optional<TailIngestion> tail =
+                        orchestrator.processAppendedCyclones(partition, detecting);
+                if (tail.isEmpty()) {
+                    break;
+                }
+                if (detecting) {
+                    detectedLandfalls.addAll(retainedLandfalls(previous, partition));
+                    detectedLandfalls.addAll(
+                            geometricLandfallService.detectLandfalls(tail.get().getTracks()));
+                }
+                // added last, a failed detection leaves the partition out and forces a rebuild
+                partitions.add(tail.get().getPartition());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Tail ingestion failed, falling back to a full rebuild", e);
+        }
+        if (partitions.size() < previous.partitions().size()) {
+            // a file was modified before its checkpoint, the partitions must stay consistent
+            return build(version);
+        }
+        CycloneDataset dataset;
+        try {
+            dataset = new CycloneDataset(partitions, detectedLandfalls, version, Instant.now());
+        } catch (RuntimeException e) {
+            throw new BatchProcessingException("Failed to build cyclone dataset", e);
+        }
+        log.info(
+                "Published dataset version {} with {} cyclones from the file tails",
+                version,
+                dataset.cyclones().size());
+        logIndexes(dataset);
+        return dataset;
+    }
+
+    private CycloneDataset build(long version) {
+        long start = System.currentTimeMillis();
+        try {
+            CycloneDataset dataset =
+                    new CycloneDataset(
+                            orchestrator.processAllCyclones(),
+                            detectedLandfalls(),
+                            version,
+                            Instant.now());
+            log.info(
+                    "Published dataset version {} with {} cyclones of basins {} in {}ms",
+                    version,
+                    dataset.cyclones().size(),
+                    dataset.basins().keySet(),
+                    System.currentTimeMillis() - start);
+            logIndexes(dataset);
+            return dataset;
+        } catch (IOException | RuntimeException e) {
+            throw new BatchProcessingException("Failed to build cyclone dataset", e);
+        }
+    }
+
+    /**
+     * Detected landfalls of the previous dataset for the cyclones of a partition that its tail
+     * ingestion keeps, the last known cyclone is parsed again with the tail
+     */
+    private static List<Cyclone> retainedLandfalls(
+            CycloneDataset previous, BasinPartition partition) {
+        List<Cyclone> cyclones = partition.cyclones();
+        int retained =
+                partition.checkpoint().getLastCycloneId() == null
+                        ? cyclones.size()
+                        : cyclones.size() - 1;
+        Set<String> retainedIds = new HashSet<>();
+        for (Cyclone cyclone : cyclones.subList(0, retained)) {
+            retainedIds.add(cyclone.getHeader().getCycloneId());
+        }
+        return previous.landfalls().cyclones().stream()
+                .filter(cyclone -> retainedIds.contains(cyclone.getHeader().getCycloneId()))
+                .toList();
+    }
+
+    /**
+     * Parses the full tracks only with geometric detection, they are not kept once searched
+     * @return cyclones holding only their coastline crossings, null when landfalls are the
+     *     flagged points of the dataset
+     */
+    private List<Cyclone> detectedLandfalls() throws IOException {
+        if (!geometricLandfallService.isEnabled()) {
+            return null;
+        }
+        return geometricLandfallService.detectLandfalls(
+                orchestrator.processAllCyclones(TrackPredicate.SINCE_1900));
+    }
+
+    private static void logIndexes(CycloneDataset dataset) {
+        AttributeIndex attributes = dataset.landfallAttributes();
+        log.info(
+                "Built attribute bitmaps of {} points in {}ms, {} bytes",
+                attributes.size(),
+                attributes.buildMillis(),
+                attributes.sizeInBytes());
+        log.info("Built landfall cube of {} cells", dataset.landfallCube().size());
+    }
+
+    /**
+     * Registers the directories of the basin files, resources that are not plain files (e.g.
+     * inside a jar) are never reloaded
+     */
+    @PostConstruct
+    void startWatching() {
+        CycloneProcessingProperties.Reload reload = properties.getReload();
+        if (!reload.isWatch()) {
+            return;
+        }
+        try {
+            Set<Path> sources = new HashSet<>();
+            for (String location : properties.getData().getHurdat2()) {
+                Resource resource = resourceLoader.getResource(location);
+                if (resource.isFile()) {
+                    sources.add(resource.getFile().toPath().toAbsolutePath());
+                } else {
+                    log.info("Cyclone data {} is not a file, it is not reloaded", resource);
+                }
+            }
+            if (sources.isEmpty()) {
+                return;
+            }
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path directory : sources.stream().map(Path::getParent).distinct().toList()) {
+                directory.register(
+                        watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            watcherThread =
+                    new Thread(
+                            () -> watch(sources, reload.getDebounceMs()),
+                            "cyclone-dataset-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+            log.info("Watching {} for changes", sources);
+        } catch (IOException e) {
+            log.warn("Failed to watch cyclone data files, hot reload disabled", e);
+        }
+    }
+
+    private void watch(Set<Path> sources, long debounceMs) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |=
+                            event.context() instanceof Path name
+                                    && sources.contains(directory.resolve(name));
+                }
+                key.reset();
+                if (changed) {
+                    // writers touch the file several times, wait until it settles
+                    drainUntilQuiet(debounceMs);
+                    scheduleReload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Dataset watcher stopped");
+        }
+    }
+
+    private void drainUntilQuiet(long debounceMs) throws InterruptedException {
+        WatchKey key;
+        while ((key = watchService.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private void scheduleReload() {
+        if (!reloadScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ioBlockingTaskExecutor.execute(
+                    () -> {
+                        reloadScheduled.set(false);
+                        log.info("Cyclone data changed, rebuilding dataset");
+                        reload();
+                    });
+        } catch (RejectedExecutionException e) {
+            reloadScheduled.set(false);
+            log.warn("Dataset reload rejected, the next file change will retry", e);
+        }
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.saidworks.florida_storms.models.domain.GeoBoundary;
 import com.saidworks.florida_storms.models.exception.GeocodingException;
 import java.net.http.HttpResponse;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,13 @@ public class GeocodingService {
      * Fetches boundaries for a custom area/location
      */
     public CompletableFuture<GeoBoundary> getAreaBoundaries(String areaName) {
+        return getAreaBoundaries(areaName, serviceTaskExecutor);
+    }
+
+    /**
+     * Fetches boundaries for a custom area/location, the blocking lookup runs on the given executor
+     */
+    public CompletableFuture<GeoBoundary> getAreaBoundaries(String areaName, Executor executor) {
         return CompletableFuture.supplyAsync(
                 () -> {
                     try {
@@ -74,6 +82,6 @@ public class GeocodingService {
                         throw new GeocodingException("Failed to fetch geographic boundaries ", e);
                     }
                 },
-                serviceTaskExecutor);
+                executor);
     }
 }
@@ -0,0 +1,256 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.Coastline;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import com.saidworks.florida_storms.models.exception.IoBlockingException;
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds landfalls from the geometry of the tracks instead of the L record identifier, which is
+ * missing from much of the older record
+ * A landfall is where a segment between two consecutive points goes from sea to land, its time,
+ * position, wind and pressure are interpolated at the first coastline crossing of the segment
+ * The dataset holder hands the full tracks since 1900 over once per published dataset, they are
+ * split across the serviceTaskExecutor and the detected landfalls are indexed with the dataset
+ */
+@Service
+@Log4j2
+public class GeometricLandfallService {
+    // cyclones searched by one task
+    private static final int CYCLONES_PER_TASK = 256;
+    // HURDAT2 marks a missing wind with -99 and a missing pressure with -999
+    private static final int MISSING_WIND = -99;
+
+    private final CycloneProcessingProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final ExecutorService serviceTaskExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Object coastlineLock = new Object();
+    private Coastline coastline;
+
+    public GeometricLandfallService(
+            CycloneProcessingProperties properties,
+            ResourceLoader resourceLoader,
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.serviceTaskExecutor = serviceTaskExecutor;
+    }
+
+    /**
+     * @return true when landfalls come from coastline crossings rather than the L identifier
+     */
+    public boolean isEnabled() {
+        return properties.getLandfall().getDetection()
+                == CycloneProcessingProperties.LandfallDetection.GEOMETRIC;
+    }
+
+    /**
+     * Searches the tracks for coastline crossings in parallel
+     * @param tracks cyclones with their full track
+     * @return cyclones with at least one landfall, each holding only its landfall points, in the
+     *     order of {@code tracks}
+     */
+    public List<Cyclone> detectLandfalls(List<Cyclone> tracks) {
+        Coastline land = coastline();
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<List<List<DataLine>>>> tasks = new ArrayList<>();
+        for (int from = 0; from < tracks.size(); from += CYCLONES_PER_TASK) {
+            List<Cyclone> range =
+                    tracks.subList(from, Math.min(from + CYCLONES_PER_TASK, tracks.size()));
+            tasks.add(
+                    CompletableFuture.supplyAsync(
+                            () ->
+                                    range.stream()
+                                            .map(cyclone -> crossings(land, cyclone))
+                                            .toList(),
+                            serviceTaskExecutor));
+        }
+
+        // landfalls are copied into one columnar store, cyclone after cyclone
+        ArrayTrackStore store = new ArrayTrackStore();
+        List<Cyclone> landfalls = new ArrayList<>();
+        int cycloneIndex = 0;
+        for (CompletableFuture<List<List<DataLine>>> task : tasks) {
+            for (List<DataLine> crossings : task.join()) {
+                Cyclone cyclone = tracks.get(cycloneIndex++);
+                if (!crossings.isEmpty()) {
+                    int offset = store.appendAll(crossings);
+                    landfalls.add(cyclone.withDataLines(store.slice(offset, crossings.size())));
+                }
+            }
+        }
+        log.info(
+                "Detected landfalls of {} out of {} cyclones in {}ms",
+                landfalls.size(),
+                tracks.size(),
+                System.currentTimeMillis() - start);
+        return landfalls;
+    }
+
+    /**
+     * Landfall points of one track, a segment starting at sea and ending on land crosses the
+     * coastline at least once and the first crossing is kept
+     */
+    private static List<DataLine> crossings(Coastline land, Cyclone cyclone) {
+        List<DataLine> track = cyclone.getDataLines();
+        List<DataLine> crossings = new ArrayList<>();
+        DataLine previous = null;
+        boolean previousOnLand = false;
+        for (DataLine point : track) {
+            boolean onLand = land.isLand(signedLatitude(point), signedLongitude(point));
+            if (previous != null
+                    && !previousOnLand
+                    && onLand
+                    && !crossesAntimeridian(previous, point)) {
+                double t =
+                        land.firstCrossing(
+                                signedLatitude(previous),
+                                signedLongitude(previous),
+                                signedLatitude(point),
+                                signedLongitude(point));
+                // the endpoints disagree, a missed crossing can only be rounding at a vertex
+                crossings.add(interpolate(previous, point, t < 0 ? 1 : t));
+            }
+            previous = point;
+            previousOnLand = onLand;
+        }
+        return crossings;
+    }
+
+    private static DataLine interpolate(DataLine from, DataLine to, double t) {
+        long fromMinute = from.getDateTime().toEpochSecond(ZoneOffset.UTC) / 60;
+        long toMinute = to.getDateTime().toEpochSecond(ZoneOffset.UTC) / 60;
+        double latitude = lerp(signedLatitude(from), signedLatitude(to), t);
+        double longitude = lerp(signedLongitude(from), signedLongitude(to), t);
+        // a measurement is interpolated only when both ends are known
+        int wind =
+                isKnown(from.getMaxWindSpeed()) && isKnown(to.getMaxWindSpeed())
+                        ? (int) Math.round(lerp(from.getMaxWindSpeed(), to.getMaxWindSpeed(), t))
+                        : MISSING_WIND;
+        int pressure =
+                isKnown(from.getCentralPressure()) && isKnown(to.getCentralPressure())
+                        ? (int)
+                                Math.round(
+                                        lerp(
+                                                from.getCentralPressure(),
+                                                to.getCentralPressure(),
+                                                t))
+                        : HurdatLineCursor.MISSING;
+        return DataLine.builder()
+                .dateTime(TrackStore.toDateTime((int) Math.round(lerp(fromMinute, toMinute, t))))
+                .recordType('L')
+                .stormStatus(from.getStormStatus())
+                .latitude(Math.abs(latitude))
+                .latitudeDirection(latitude < 0 ? 'S' : 'N')
+                .longitude(Math.abs(longitude))
+                .longitudeDirection(longitude < 0 ? 'W' : 'E')
+                .maxWindSpeed(wind)
+                .centralPressure(pressure)
+                .build();
+    }
+
+    private static boolean isKnown(Integer measurement) {
+        return measurement != null && measurement >= 0;
+    }
+
+    private static double lerp(double from, double to, double t) {
+        return from + (to - from) * t;
+    }
+
+    private static double signedLatitude(DataLine point) {
+        return point.getLatitudeDirection() == 'S' ? -point.getLatitude() : point.getLatitude();
+    }
+
+    private static double signedLongitude(DataLine point) {
+        return point.getLongitudeDirection() == 'W' ? -point.getLongitude() : point.getLongitude();
+    }
+
+    private static boolean crossesAntimeridian(DataLine from, DataLine to) {
+        return Math.abs(signedLongitude(to) - signedLongitude(from)) > 180;
+    }
+
+    private Coastline coastline() {
+        synchronized (coastlineLock) {
+            if (coastline == null) {
+                coastline = loadCoastline();
+            }
+            return coastline;
+        }
+    }
+
+    /**
+     * Reads the outer rings and holes of every Polygon and MultiPolygon of a GeoJSON file
+     */
+    private Coastline loadCoastline() {
+        String location = properties.getLandfall().getCoastline();
+        if (location == null || location.isBlank()) {
+            throw new IllegalStateException(
+                    "cyclone.landfall.coastline is required for geometric landfall detection");
+        }
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream input = resource.getInputStream()) {
+            List<double[]> rings = new ArrayList<>();
+            collectRings(objectMapper.readTree(input), rings);
+            Coastline land = new Coastline(rings);
+            log.info(
+                    "Loaded coastline {} with {} rings and {} edges",
+                    resource.getFilename(),
+                    rings.size(),
+                    land.size());
+            return land;
+        } catch (IOException e) {
+            log.error("Error reading coastline: {}", location, e);
+            throw new IoBlockingException("Failed to read coastline polygons", e);
+        }
+    }
+
+    private static void collectRings(JsonNode node, List<double[]> rings) {
+        if (node == null) {
+            return;
+        }
+        switch (node.path("type").asText()) {
+            case "FeatureCollection" ->
+                    node.path("features").forEach(feature -> collectRings(feature, rings));
+            case "Feature" -> collectRings(node.get("geometry"), rings);
+            case "GeometryCollection" ->
+                    node.path("geometries").forEach(geometry -> collectRings(geometry, rings));
+            case "Polygon" -> node.path("coordinates").forEach(ring -> rings.add(ring(ring)));
+            case "MultiPolygon" ->
+                    node.path("coordinates")
+                            .forEach(polygon -> polygon.forEach(ring -> rings.add(ring(ring))));
+            default -> {
+                // lines and points do not bound any land
+            }
+        }
+    }
+
+    private static double[] ring(JsonNode positions) {
+        double[] ring = new double[2 * positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            ring[2 * i] = positions.get(i).get(0).asDouble();
+            ring[2 * i + 1] = positions.get(i).get(1).asDouble();
+        }
+        return ring;
+    }
+}
@@ -0,0 +1,162 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.saidworks.florida_storms.models.domain.CycloneKeys;
+import com.saidworks.florida_storms.models.domain.LandfallAnalytics;
+import com.saidworks.florida_storms.models.domain.LandfallDimension;
+import com.saidworks.florida_storms.models.domain.LandfallMetric;
+import com.saidworks.florida_storms.models.exception.GeocodingException;
+import com.saidworks.florida_storms.service.dataset.CycloneDatasetHolder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service answering group-by, region join and pivot queries over the landfalls
+ * The landfalls of the configured detection are copied once per dataset version into the
+ * columnar frame of {@link LandfallAnalytics}, every query after that only reads its columns
+ */
+@Service
+@Log4j2
+public class LandfallAnalyticsService {
+    // bounds the regions of a query whatever limit is asked for
+    static final int MAX_REGIONS = 1_000;
+
+    private final CycloneDatasetHolder datasetHolder;
+    private final ExecutorService serviceTaskExecutor;
+
+    private final Object frameLock = new Object();
+    private volatile Frame frame;
+
+    public LandfallAnalyticsService(
+            CycloneDatasetHolder datasetHolder,
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor) {
+        this.datasetHolder = datasetHolder;
+        this.serviceTaskExecutor = serviceTaskExecutor;
+    }
+
+    /**
+     * Landfall metrics per combination of dimensions
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @return CompletableFuture with one row per non empty group in key order
+     */
+    public CompletableFuture<List<Map<String, Object>>> groupBy(
+            List<LandfallDimension> dimensions, String basin, Integer fromYear, Integer toYear) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return analytics()
+                                .groupBy(
+                                        dimensions,
+                                        CycloneKeys.basinCode(basin),
+                                        LandfallQueries.fromYear(fromYear),
+                                        LandfallQueries.toYear(toYear));
+                    } catch (IllegalArgumentException e) {
+                        // an invalid query is not a failure of the service
+                        throw e;
+                    } catch (Exception e) {
+                        log.error("Error grouping landfalls by {}", dimensions, e);
+                        throw new GeocodingException("Failed to group landfalls", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * Regions with the most landfalls
+     * @param limit capped at {@link #MAX_REGIONS}
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @return CompletableFuture with the regions by descending landfall count
+     */
+    public CompletableFuture<List<Map<String, Object>>> regions(
+            int limit, String basin, Integer fromYear, Integer toYear) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return analytics()
+                                .regions(
+                                        CycloneKeys.basinCode(basin),
+                                        LandfallQueries.fromYear(fromYear),
+                                        LandfallQueries.toYear(toYear),
+                                        Math.min(limit, MAX_REGIONS));
+                    } catch (Exception e) {
+                        log.error("Error ranking landfall regions", e);
+                        throw new GeocodingException("Failed to rank landfall regions", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * One metric of the landfalls with a row per key of one dimension and a column per key of
+     * another
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @return CompletableFuture with the rows in key order
+     */
+    public CompletableFuture<List<Map<String, Object>>> pivot(
+            LandfallDimension rows,
+            LandfallDimension columns,
+            LandfallMetric metric,
+            String basin,
+            Integer fromYear,
+            Integer toYear) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return analytics()
+                                .pivot(
+                                        rows,
+                                        columns,
+                                        metric,
+                                        CycloneKeys.basinCode(basin),
+                                        LandfallQueries.fromYear(fromYear),
+                                        LandfallQueries.toYear(toYear));
+                    } catch (IllegalArgumentException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        log.error("Error pivoting landfalls by {} and {}", rows, columns, e);
+                        throw new GeocodingException("Failed to pivot landfalls", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * Frame of the landfalls of the current dataset, built on first access and again once a
+     * newer dataset version is published
+     */
+    private LandfallAnalytics analytics() {
+        long version = datasetHolder.getDataset().version();
+        Frame current = frame;
+        if (current != null && current.version() >= version) {
+            return current.analytics();
+        }
+        synchronized (frameLock) {
+            current = frame;
+            if (current == null || current.version() < version) {
+                long start = System.currentTimeMillis();
+                LandfallAnalytics analytics =
+                        new LandfallAnalytics(datasetHolder.getDataset().landfalls());
+                log.info(
+                        "Loaded {} landfalls into the analytics frame in {}ms",
+                        analytics.size(),
+                        System.currentTimeMillis() - start);
+                current = new Frame(version, analytics);
+                frame = current;
+            }
+            return current.analytics();
+        }
+    }
+
+    private record Frame(long version, LandfallAnalytics analytics) {}
+}
@@ -1,10 +1,24 @@
 /* (C) Said Zitouni 2025 */
 package com.saidworks.florida_storms.service.landfall;
 
+import com.saidworks.florida_storms.models.domain.AttributeFilter;
 import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.CycloneDataset;
+import com.saidworks.florida_storms.models.domain.CycloneKeys;
 import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.GeoCircle;
+import com.saidworks.florida_storms.models.domain.RadiusBatchRequest;
+import com.saidworks.florida_storms.models.domain.RadiusIndex;
+import com.saidworks.florida_storms.models.domain.RadiusMatches;
+import com.saidworks.florida_storms.models.domain.RegionBatchRequest;
+import com.saidworks.florida_storms.models.domain.RegionIndex;
+import com.saidworks.florida_storms.models.domain.RegionLandfalls;
+import com.saidworks.florida_storms.models.domain.TemporalIndex;
 import com.saidworks.florida_storms.models.exception.GeocodingException;
-import com.saidworks.florida_storms.service.batch.CycloneProcessingOrchestrator;
+import com.saidworks.florida_storms.service.dataset.CycloneDatasetHolder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -14,43 +28,78 @@ import org.springframework.stereotype.Service;
 
 /**
  * Service to filter storms that made landfall in specific geographic areas
+ * Landfalls are the flagged points of the resident dataset or, with geometric detection, the
+ * coastline crossings found by {@link GeometricLandfallService}, both indexed with the dataset
  */
 @Service
 @Log4j2
 public class LandfallFilterService {
+    // sequential geocoding chains of a batch query, bounds its lookups in flight
+    private static final int GEOCODING_LANES = 4;
 
-    private final CycloneProcessingOrchestrator orchestrator;
+    private final CycloneDatasetHolder datasetHolder;
     private final GeocodingService geocodingService;
+    private final LandfallQueryCache queryCache;
     private final ExecutorService serviceTaskExecutor;
     private final ExecutorService ioBlockingTaskExecutor;
 
     public LandfallFilterService(
-            CycloneProcessingOrchestrator orchestrator,
+            CycloneDatasetHolder datasetHolder,
             GeocodingService geocodingService,
+            LandfallQueryCache queryCache,
             @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor,
             @Qualifier("ioBlockingTaskExecutor") ExecutorService ioBlockingTaskExecutor) {
-        this.orchestrator = orchestrator;
+        this.datasetHolder = datasetHolder;
         this.geocodingService = geocodingService;
+        this.queryCache = queryCache;
         this.serviceTaskExecutor = serviceTaskExecutor;
         this.ioBlockingTaskExecutor = ioBlockingTaskExecutor;
     }
 
     /**
-     * Filters storms that made landfall in a specific geographic area
+     * Filters storms of every basin that made landfall in a specific geographic area
      * @param areaName The area name (e.g., "Miami", "Gulf Coast")
      * @return CompletableFuture with list of filtered cyclones
      */
     public CompletableFuture<List<Cyclone>> filterByAreaLandfall(String areaName) {
-        log.info("Starting landfall filter for area: {}", areaName);
+        return filterByAreaLandfall(areaName, null);
+    }
+
+    /**
+     * Filters storms that made landfall in a specific geographic area
+     * @param areaName The area name (e.g., "Miami", "Gulf Coast")
+     * @param basin basin code (AL, EP, CP) whose partition is searched, null for every basin
+     * @return CompletableFuture with list of filtered cyclones
+     */
+    public CompletableFuture<List<Cyclone>> filterByAreaLandfall(String areaName, String basin) {
+        return filterByAreaLandfall(areaName, basin, null, null);
+    }
+
+    /**
+     * Filters storms that made landfall in a specific geographic area during a range of years
+     * @param areaName The area name (e.g., "Miami", "Gulf Coast")
+     * @param basin basin code (AL, EP, CP) whose partition is searched, null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @return CompletableFuture with list of filtered cyclones
+     */
+    public CompletableFuture<List<Cyclone>> filterByAreaLandfall(
+            String areaName, String basin, Integer fromYear, Integer toYear) {
+        log.info(
+                "Starting landfall filter for area: {} (basin {}, years {}-{})",
+                areaName,
+                basin,
+                fromYear,
+                toYear);
 
         CompletableFuture<GeoBoundary> boundaryFuture =
                 geocodingService.getAreaBoundaries(areaName);
 
-        CompletableFuture<List<Cyclone>> cyclonesFuture =
+        CompletableFuture<CycloneDataset> datasetFuture =
                 CompletableFuture.supplyAsync(
                         () -> {
                             try {
-                                return orchestrator.processAllCyclones();
+                                return datasetHolder.getDataset();
                             } catch (Exception e) {
                                 log.error("Error loading cyclones", e);
                                 throw new GeocodingException("Failed to load cyclones", e);
@@ -59,19 +108,26 @@ public class LandfallFilterService {
                         ioBlockingTaskExecutor);
 
         return boundaryFuture.thenCombineAsync(
-                cyclonesFuture,
-                (boundary, cyclones) -> {
-                    log.info("Filtering {} cyclones for area boundaries", cyclones.size());
-                    return filterCyclonesByBoundary(cyclones, boundary);
-                },
+                datasetFuture,
+                (boundary, dataset) ->
+                        filterCyclonesByBoundary(dataset, boundary, basin, fromYear, toYear),
                 serviceTaskExecutor);
     }
 
     /**
      * Filters cyclones by custom latitude/longitude boundaries
+     * @param basin basin code (AL, EP, CP) whose partition is searched, null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
      */
     public CompletableFuture<List<Cyclone>> filterByCustomBoundaries(
-            double minLat, double maxLat, double minLon, double maxLon) {
+            double minLat,
+            double maxLat,
+            double minLon,
+            double maxLon,
+            String basin,
+            Integer fromYear,
+            Integer toYear) {
 
         GeoBoundary customBoundary =
                 GeoBoundary.builder()
@@ -85,8 +141,12 @@ public class LandfallFilterService {
         return CompletableFuture.supplyAsync(
                 () -> {
                     try {
-                        List<Cyclone> cyclones = orchestrator.processAllCyclones();
-                        return filterCyclonesByBoundary(cyclones, customBoundary);
+                        return filterCyclonesByBoundary(
+                                datasetHolder.getDataset(),
+                                customBoundary,
+                                basin,
+                                fromYear,
+                                toYear);
                     } catch (Exception e) {
                         log.error("Error filtering by custom boundaries", e);
                         throw new GeocodingException("Failed to filter cyclones", e);
@@ -96,15 +156,275 @@ public class LandfallFilterService {
     }
 
     /**
-     * Core filtering logic - filters cyclones that have landfall points within boundaries
+     * Filters storms that made landfall in each of many areas and boxes, boundaries are resolved
+     * concurrently then every region is evaluated in one pass over the landfall points
+     * @return one result per area then per box, in request order
+     */
+    public CompletableFuture<List<RegionLandfalls>> filterByRegions(RegionBatchRequest request) {
+        List<String> areas = request.areas() == null ? List.of() : request.areas();
+        List<GeoBoundary> boxes = request.boxes() == null ? List.of() : request.boxes();
+        log.info(
+                "Starting batch landfall filter for {} areas and {} boxes",
+                areas.size(),
+                boxes.size());
+
+        CompletableFuture<CycloneDataset> datasetFuture =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return datasetHolder.getDataset();
+                            } catch (Exception e) {
+                                log.error("Error loading cyclones", e);
+                                throw new GeocodingException("Failed to load cyclones", e);
+                            }
+                        },
+                        ioBlockingTaskExecutor);
+
+        return resolveBoundaries(areas)
+                .thenCombineAsync(
+                        datasetFuture,
+                        (lookups, dataset) -> filterRegions(dataset, lookups, boxes, request),
+                        serviceTaskExecutor);
+    }
+
+    private List<RegionLandfalls> filterRegions(
+            CycloneDataset dataset,
+            List<AreaLookup> lookups,
+            List<GeoBoundary> boxes,
+            RegionBatchRequest request) {
+        List<GeoBoundary> boundaries = new ArrayList<>(lookups.size() + boxes.size());
+        for (AreaLookup lookup : lookups) {
+            if (lookup.boundary() != null) {
+                boundaries.add(lookup.boundary());
+            }
+        }
+        boundaries.addAll(boxes);
+        RegionIndex regions = new RegionIndex(boundaries);
+        List<List<Cyclone>> matched =
+                dataset.landfalls()
+                        .cyclonesWithin(
+                                regions,
+                                CycloneKeys.basinCode(request.basin()),
+                                LandfallQueries.fromMinute(request.fromYear()),
+                                LandfallQueries.toMinute(request.toYear()));
+        List<RegionLandfalls> results = new ArrayList<>(lookups.size() + boxes.size());
+        int region = 0;
+        for (AreaLookup lookup : lookups) {
+            if (lookup.boundary() == null) {
+                results.add(RegionLandfalls.unresolved(lookup.area(), lookup.error()));
+            } else {
+                results.add(new RegionLandfalls(regions.region(region), matched.get(region)));
+                region++;
+            }
+        }
+        while (region < regions.size()) {
+            results.add(new RegionLandfalls(regions.region(region), matched.get(region)));
+            region++;
+        }
+        log.info("Filtered landfalls of {} regions", results.size());
+        return results;
+    }
+
+    /**
+     * Looks the areas up on {@link #GEOCODING_LANES} chains running side by side on the blocking
+     * executor, a large batch never floods its queue with lookups
+     * A failed lookup only marks its own area, the other areas of the batch are still matched
+     */
+    private CompletableFuture<List<AreaLookup>> resolveBoundaries(List<String> areas) {
+        AreaLookup[] lookups = new AreaLookup[areas.size()];
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        for (int lane = 0; lane < Math.min(GEOCODING_LANES, areas.size()); lane++) {
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int i = lane; i < areas.size(); i += GEOCODING_LANES) {
+                int area = i;
+                chain =
+                        chain.thenCompose(
+                                _ ->
+                                        geocodingService
+                                                .getAreaBoundaries(
+                                                        areas.get(area), ioBlockingTaskExecutor)
+                                                .handle(
+                                                        (boundary, failure) -> {
+                                                            lookups[area] =
+                                                                    AreaLookup.of(
+                                                                            areas.get(area),
+                                                                            boundary,
+                                                                            failure);
+                                                            return null;
+                                                        }));
+            }
+            lanes.add(chain);
+        }
+        return CompletableFuture.allOf(lanes.toArray(CompletableFuture[]::new))
+                .thenApply(_ -> Arrays.asList(lookups));
+    }
+
+    /**
+     * Boundary of one area of a batch, or the reason its lookup failed
+     */
+    private record AreaLookup(String area, GeoBoundary boundary, String error) {
+
+        static AreaLookup of(String area, GeoBoundary boundary, Throwable failure) {
+            if (failure == null) {
+                return new AreaLookup(area, boundary, null);
+            }
+            log.warn("Could not resolve the boundaries of area: {}", area, failure);
+            return new AreaLookup(area, null, reason(failure));
+        }
+
+        // deepest message of the chain, the geocoding exceptions wrap their cause in turn
+        private static String reason(Throwable failure) {
+            String reason = failure.getMessage();
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause.getMessage() != null) {
+                    reason = cause.getMessage();
+                }
+            }
+            return reason;
+        }
+    }
+
+    /**
+     * Filters storms with a landfall within a great-circle radius of a point
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @return CompletableFuture with the cyclones in dataset order
+     */
+    public CompletableFuture<List<Cyclone>> filterWithinRadius(
+            GeoCircle circle, String basin, Integer fromYear, Integer toYear) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return datasetHolder.getDataset()
+                                .landfallRadii()
+                                .cyclonesWithin(
+                                        circle,
+                                        CycloneKeys.basinCode(basin),
+                                        LandfallQueries.fromMinute(fromYear),
+                                        LandfallQueries.toMinute(toYear));
+                    } catch (Exception e) {
+                        log.error("Error filtering landfalls within {}", circle, e);
+                        throw new GeocodingException("Failed to filter cyclones", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * Filters storms with a landfall within each of many radius circles, the circles are gridded
+     * once and matched in one pass over the landfall points
+     * @return one result per circle, in request order
+     */
+    public CompletableFuture<List<RadiusMatches>> filterWithinRadii(RadiusBatchRequest request) {
+        List<GeoCircle> circles = request.circles() == null ? List.of() : request.circles();
+        log.info("Starting batch radius landfall filter for {} circles", circles.size());
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        RadiusIndex index = new RadiusIndex(circles);
+                        List<List<Cyclone>> matched =
+                                datasetHolder.getDataset()
+                                        .landfallRadii()
+                                        .cyclonesWithin(
+                                                index,
+                                                CycloneKeys.basinCode(request.basin()),
+                                                LandfallQueries.fromMinute(request.fromYear()),
+                                                LandfallQueries.toMinute(request.toYear()));
+                        List<RadiusMatches> results = new ArrayList<>(circles.size());
+                        for (int c = 0; c < circles.size(); c++) {
+                            results.add(new RadiusMatches(circles.get(c), matched.get(c)));
+                        }
+                        return results;
+                    } catch (Exception e) {
+                        log.error("Error filtering landfalls within {} circles", circles.size(), e);
+                        throw new GeocodingException("Failed to filter cyclones", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * Filters storms with a landfall matching a combination of point attributes, the attribute
+     * bitmaps are combined before any point is read
+     * @param boundary null for anywhere
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return CompletableFuture with the cyclones in dataset order
+     */
+    public CompletableFuture<List<Cyclone>> filterByAttributes(
+            AttributeFilter filter, GeoBoundary boundary, String basin) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        List<Cyclone> matched =
+                                datasetHolder.getDataset()
+                                        .landfallAttributes()
+                                        .cyclonesMatching(filter, boundary);
+                        if (basin == null) {
+                            return matched;
+                        }
+                        String code = CycloneKeys.basinCode(basin);
+                        return matched.stream()
+                                .filter(cyclone -> code.equals(cyclone.getHeader().getBasin()))
+                                .toList();
+                    } catch (Exception e) {
+                        log.error("Error filtering by attributes {}", filter, e);
+                        throw new GeocodingException("Failed to filter cyclones", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * Hit, miss and eviction counters of the boundary query cache
      */
-    private List<Cyclone> filterCyclonesByBoundary(List<Cyclone> cyclones, GeoBoundary boundary) {
+    public LandfallQueryCache.Stats queryCacheStats() {
+        return queryCache.stats();
+    }
+
+    /**
+     * Landfalling storms active on a date, between the first and last point of their track
+     * @return CompletableFuture with the cyclones in dataset order
+     */
+    public CompletableFuture<List<Cyclone>> filterActiveOn(LocalDate date) {
+        int from = TemporalIndex.epochMinute(date.atStartOfDay());
+        int to = TemporalIndex.epochMinute(date.plusDays(1).atStartOfDay()) - 1;
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return datasetHolder.getDataset()
+                                .landfallTimes()
+                                .cyclonesActive(from, to);
+                    } catch (Exception e) {
+                        log.error("Error filtering storms active on {}", date, e);
+                        throw new GeocodingException("Failed to filter cyclones", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+
+    /**
+     * Core filtering logic - looks the boundary and years up in the landfall index of the
+     * configured detection, through the query cache
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     */
+    private List<Cyclone> filterCyclonesByBoundary(
+            CycloneDataset dataset,
+            GeoBoundary boundary,
+            String basin,
+            Integer fromYear,
+            Integer toYear) {
         log.info("Applying boundary filter: {}", boundary.getName());
 
         List<Cyclone> filteredCyclones =
-                cyclones.stream()
-                        .filter(cyclone -> hasLandfallInBoundary(cyclone, boundary))
-                        .toList();
+                queryCache.cyclonesWithin(
+                        dataset,
+                        boundary,
+                        CycloneKeys.basinCode(basin),
+                        LandfallQueries.fromMinute(fromYear),
+                        LandfallQueries.toMinute(toYear));
 
         log.info(
                 "Filtered {} cyclones with landfall in {}",
@@ -112,18 +432,4 @@ public class LandfallFilterService {
                 boundary.getName());
         return filteredCyclones;
     }
-
-    /**
-     * Checks if a cyclone has any landfall points within the given boundary
-     */
-    private boolean hasLandfallInBoundary(Cyclone cyclone, GeoBoundary boundary) {
-        return cyclone.getDataLines().stream()
-                .anyMatch(
-                        dataLine ->
-                                boundary.containsCoordinate(
-                                        dataLine.getLatitude(),
-                                        dataLine.getLatitudeDirection(),
-                                        dataLine.getLongitude(),
-                                        dataLine.getLongitudeDirection()));
-    }
 }
@@ -0,0 +1,36 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.saidworks.florida_storms.models.domain.TemporalIndex;
+
+/**
+ * Year parameters of the landfall services turned into index bounds
+ */
+final class LandfallQueries {
+
+    private LandfallQueries() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    /**
+     * First minute of a year, the earliest minute when no year is given
+     */
+    static int fromMinute(Integer fromYear) {
+        return fromYear == null ? Integer.MIN_VALUE : TemporalIndex.startOfYear(fromYear);
+    }
+
+    /**
+     * Last minute of a year, the latest minute when no year is given
+     */
+    static int toMinute(Integer toYear) {
+        return toYear == null ? Integer.MAX_VALUE : TemporalIndex.endOfYear(toYear);
+    }
+
+    static int fromYear(Integer fromYear) {
+        return fromYear == null ? Integer.MIN_VALUE : fromYear;
+    }
+
+    static int toYear(Integer toYear) {
+        return toYear == null ? Integer.MAX_VALUE : toYear;
+    }
+}
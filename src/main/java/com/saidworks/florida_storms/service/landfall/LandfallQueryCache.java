@@ -0,0 +1,250 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.CycloneDataset;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.TemporalIndex;
+import com.saidworks.florida_storms.models.track.BoundaryScan;
+import com.saidworks.florida_storms.models.track.TrackSlice;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded cache of boundary query results keyed by dataset version, landfall detection and the
+ * boundary widened to the {@code cyclone.query-cache.grid-degrees} grid
+ * The cached list is the superset matched by the widened boundary, each request keeps the
+ * cyclones with a point inside its exact boundary, so boxes differing only in float noise share
+ * one index query
+ * A missed key is queried once, requests of the same key arriving meanwhile wait for that query
+ * Entries are evicted least recently used first once {@code max-entries} is reached, expire
+ * after {@code ttl-ms} and are dropped when a newer dataset version is queried
+ */
+@Service
+@Log4j2
+public class LandfallQueryCache {
+    // snapping tolerance in grid cells, a bound a rounding error past a grid line stays on it
+    private static final double SNAP_TOLERANCE = 1e-6;
+
+    private final CycloneProcessingProperties.QueryCache settings;
+    private final CycloneProcessingProperties.Landfall landfall;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<Key, Entry> entries;
+    // index queries of missed keys in progress, guarded by the lock of entries
+    private final Map<Key, CompletableFuture<List<Cyclone>>> inFlight = new HashMap<>();
+    private long latestVersion = Long.MIN_VALUE;
+
+    public LandfallQueryCache(CycloneProcessingProperties properties) {
+        this.settings = properties.getQueryCache();
+        this.landfall = properties.getLandfall();
+        this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                        if (size() > settings.getMaxEntries()) {
+                            evictions.increment();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+    }
+
+    /**
+     * Cyclones of one basin with a landfall of the dataset within the boundary and between two
+     * epoch minutes, refined from the cached superset of the widened boundary
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @return matching cyclones in the order of the indexed landfalls
+     */
+    public List<Cyclone> cyclonesWithin(
+            CycloneDataset dataset,
+            GeoBoundary boundary,
+            String basin,
+            int fromMinute,
+            int toMinute) {
+        if (!settings.isEnabled()
+                || boundary.getMinLatitude() > boundary.getMaxLatitude()
+                || boundary.getMinLongitude() > boundary.getMaxLongitude()) {
+            return dataset.landfallsWithin(boundary, basin, fromMinute, toMinute);
+        }
+        double grid = settings.getGridDegrees();
+        Key key =
+                new Key(
+                        dataset.version(),
+                        landfall.getDetection(),
+                        basin,
+                        fromMinute,
+                        toMinute,
+                        (int) Math.floor(boundary.getMinLatitude() / grid + SNAP_TOLERANCE),
+                        (int) Math.ceil(boundary.getMaxLatitude() / grid - SNAP_TOLERANCE),
+                        (int) Math.floor(boundary.getMinLongitude() / grid + SNAP_TOLERANCE),
+                        (int) Math.ceil(boundary.getMaxLongitude() / grid - SNAP_TOLERANCE));
+
+        return refine(superset(key, dataset, grid), boundary, fromMinute, toMinute);
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        }
+    }
+
+    /**
+     * Cached superset of a key, on a miss the first request queries the index and the requests of
+     * the same key arriving before it is stored wait for its result
+     */
+    private List<Cyclone> superset(Key key, CycloneDataset dataset, double grid) {
+        CompletableFuture<List<Cyclone>> query;
+        boolean queried;
+        synchronized (entries) {
+            List<Cyclone> cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            query = inFlight.get(key);
+            queried = query == null;
+            if (queried) {
+                misses.increment();
+                query = new CompletableFuture<>();
+                inFlight.put(key, query);
+            } else {
+                hits.increment();
+            }
+        }
+        if (!queried) {
+            return query.join();
+        }
+
+        try {
+            List<Cyclone> superset =
+                    dataset.landfallsWithin(
+                            key.boundary(grid), key.basin(), key.fromMinute(), key.toMinute());
+            store(key, superset);
+            query.complete(superset);
+            return superset;
+        } catch (RuntimeException e) {
+            query.completeExceptionally(e);
+            throw e;
+        } finally {
+            synchronized (entries) {
+                inFlight.remove(key);
+            }
+        }
+    }
+
+    private List<Cyclone> lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.cyclones();
+        }
+    }
+
+    private void store(Key key, List<Cyclone> cyclones) {
+        synchronized (entries) {
+            if (key.version() < latestVersion) {
+                return; // computed on a dataset that was replaced meanwhile
+            }
+            if (key.version() > latestVersion) {
+                log.debug(
+                        "Dropping {} cached queries of version {}", entries.size(), latestVersion);
+                evictions.add(entries.size());
+                entries.clear();
+                latestVersion = key.version();
+            }
+            long expiresAt = System.currentTimeMillis() + settings.getTtlMs();
+            entries.put(key, new Entry(cyclones, expiresAt));
+        }
+    }
+
+    /**
+     * Keeps the candidates with a point within the exact boundary and time range, track columns
+     * are read without building any DataLine
+     */
+    static List<Cyclone> refine(
+            List<Cyclone> candidates, GeoBoundary boundary, int fromMinute, int toMinute) {
+        BoundaryScan scan = BoundaryScan.of(boundary);
+        return candidates.stream()
+                .filter(
+                        cyclone ->
+                                cyclone.getDataLines() instanceof TrackSlice slice
+                                        ? slice.anyPointWithin(scan, fromMinute, toMinute)
+                                        : anyPointWithin(
+                                                cyclone.getDataLines(),
+                                                boundary,
+                                                fromMinute,
+                                                toMinute))
+                .toList();
+    }
+
+    private static boolean anyPointWithin(
+            List<DataLine> dataLines, GeoBoundary boundary, int fromMinute, int toMinute) {
+        for (DataLine dataLine : dataLines) {
+            int minute = TemporalIndex.epochMinute(dataLine.getDateTime());
+            if (minute >= fromMinute
+                    && minute <= toMinute
+                    && boundary.containsCoordinate(
+                            dataLine.getLatitude(),
+                            dataLine.getLatitudeDirection(),
+                            dataLine.getLongitude(),
+                            dataLine.getLongitudeDirection())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Query counters since startup, {@code hits} also counts requests that waited for the query of
+     * the same key, {@code evictions} counts entries dropped by size, age or a newer dataset
+     * version
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {}
+
+    /**
+     * Boundary in grid cells, the cached query uses the cell edges
+     */
+    private record Key(
+            long version,
+            CycloneProcessingProperties.LandfallDetection detection,
+            String basin,
+            int fromMinute,
+            int toMinute,
+            int minLatitudeCell,
+            int maxLatitudeCell,
+            int minLongitudeCell,
+            int maxLongitudeCell) {
+
+        GeoBoundary boundary(double grid) {
+            // widened by the snapping tolerance so the edges cover the bounds they came from
+            double margin = 2 * SNAP_TOLERANCE * grid;
+            return GeoBoundary.builder()
+                    .name("Cached Area")
+                    .minLatitude(minLatitudeCell * grid - margin)
+                    .maxLatitude(maxLatitudeCell * grid + margin)
+                    .minLongitude(minLongitudeCell * grid - margin)
+                    .maxLongitude(maxLongitudeCell * grid + margin)
+                    .build();
+        }
+    }
+
+    private record Entry(List<Cyclone> cyclones, long expiresAt) {}
+}
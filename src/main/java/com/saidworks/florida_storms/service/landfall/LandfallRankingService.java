@@ -0,0 +1,99 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.saidworks.florida_storms.models.domain.CycloneKeys;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.LandfallRanking;
+import com.saidworks.florida_storms.models.domain.RankedLandfall;
+import com.saidworks.florida_storms.models.exception.GeocodingException;
+import com.saidworks.florida_storms.service.dataset.CycloneDatasetHolder;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service answering top-K landfall queries by wind, pressure or recency
+ * Only the K best landfalls are ever held, per task on the aggregation fork/join pool then
+ * merged, the filtered landfalls are never collected in full
+ */
+@Service
+@Log4j2
+public class LandfallRankingService {
+    // bounds the heaps of a query whatever K is asked for
+    static final int MAX_K = 1_000;
+
+    private final CycloneDatasetHolder datasetHolder;
+    private final GeocodingService geocodingService;
+    private final ExecutorService serviceTaskExecutor;
+    private final ForkJoinPool aggregationPool;
+
+    public LandfallRankingService(
+            CycloneDatasetHolder datasetHolder,
+            GeocodingService geocodingService,
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor,
+            @Qualifier("aggregationPool") ForkJoinPool aggregationPool) {
+        this.datasetHolder = datasetHolder;
+        this.geocodingService = geocodingService;
+        this.serviceTaskExecutor = serviceTaskExecutor;
+        this.aggregationPool = aggregationPool;
+    }
+
+    /**
+     * K highest ranked landfalls in a geocoded area
+     * @param areaName The area name (e.g., "Miami", "Gulf Coast")
+     * @return CompletableFuture with the landfalls, highest ranked first
+     */
+    public CompletableFuture<List<RankedLandfall>> topLandfallsInArea(
+            String areaName,
+            LandfallRanking ranking,
+            int k,
+            String basin,
+            Integer fromYear,
+            Integer toYear) {
+        return geocodingService
+                .getAreaBoundaries(areaName)
+                .thenCompose(
+                        boundary -> topLandfalls(ranking, k, boundary, basin, fromYear, toYear));
+    }
+
+    /**
+     * K highest ranked landfalls
+     * @param k capped at {@link #MAX_K}
+     * @param boundary null for anywhere
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @return CompletableFuture with the landfalls, highest ranked first
+     */
+    public CompletableFuture<List<RankedLandfall>> topLandfalls(
+            LandfallRanking ranking,
+            int k,
+            GeoBoundary boundary,
+            String basin,
+            Integer fromYear,
+            Integer toYear) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return datasetHolder.getDataset()
+                                .landfallRanks()
+                                .top(
+                                        ranking,
+                                        Math.min(k, MAX_K),
+                                        boundary,
+                                        CycloneKeys.basinCode(basin),
+                                        LandfallQueries.fromMinute(fromYear),
+                                        LandfallQueries.toMinute(toYear),
+                                        aggregationPool);
+                    } catch (Exception e) {
+                        log.error("Error ranking landfalls by {}", ranking, e);
+                        throw new GeocodingException("Failed to rank landfalls", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+}
@@ -0,0 +1,90 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.CycloneDataset;
+import com.saidworks.florida_storms.models.domain.CycloneKeys;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.LandfallAggregation;
+import com.saidworks.florida_storms.models.domain.LandfallGrouping;
+import com.saidworks.florida_storms.models.domain.LandfallStatistics;
+import com.saidworks.florida_storms.models.exception.GeocodingException;
+import com.saidworks.florida_storms.service.dataset.CycloneDatasetHolder;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service computing landfall counts and wind statistics grouped by year, decade, month, category
+ * or region
+ * Queries bounded only by years and category are rolled up from the cube of the landfall index,
+ * queries bounded by a box or a basin are reduced over the landfall points on the aggregation
+ * fork/join pool
+ */
+@Service
+@Log4j2
+public class LandfallStatisticsService {
+    private final CycloneDatasetHolder datasetHolder;
+    private final CycloneProcessingProperties properties;
+    private final ExecutorService serviceTaskExecutor;
+    private final ForkJoinPool aggregationPool;
+
+    public LandfallStatisticsService(
+            CycloneDatasetHolder datasetHolder,
+            CycloneProcessingProperties properties,
+            @Qualifier("serviceTaskExecutor") ExecutorService serviceTaskExecutor,
+            @Qualifier("aggregationPool") ForkJoinPool aggregationPool) {
+        this.datasetHolder = datasetHolder;
+        this.properties = properties;
+        this.serviceTaskExecutor = serviceTaskExecutor;
+        this.aggregationPool = aggregationPool;
+    }
+
+    /**
+     * Landfall statistics per group
+     * @param boundary null for anywhere
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the landfalls, null for no lower bound
+     * @param toYear last year of the landfalls, null for no upper bound
+     * @param minCategory lowest Saffir-Simpson category, 0 for tropical storms, null for any,
+     *     points without a recorded wind only match when null
+     * @return CompletableFuture with the non empty groups in key order
+     */
+    public CompletableFuture<List<LandfallStatistics>> statistics(
+            LandfallGrouping grouping,
+            GeoBoundary boundary,
+            String basin,
+            Integer fromYear,
+            Integer toYear,
+            Integer minCategory) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        CycloneDataset dataset = datasetHolder.getDataset();
+                        if (properties.getStatistics().isCube()
+                                && boundary == null
+                                && basin == null) {
+                            return dataset.landfallCube()
+                                    .aggregate(grouping, fromYear, toYear, minCategory);
+                        }
+                        return LandfallAggregation.statistics(
+                                dataset.landfalls(),
+                                grouping,
+                                boundary,
+                                CycloneKeys.basinCode(basin),
+                                LandfallQueries.fromMinute(fromYear),
+                                LandfallQueries.toMinute(toYear),
+                                minCategory,
+                                aggregationPool);
+                    } catch (Exception e) {
+                        log.error("Error computing landfall statistics by {}", grouping, e);
+                        throw new GeocodingException("Failed to compute landfall statistics", e);
+                    }
+                },
+                serviceTaskExecutor);
+    }
+}
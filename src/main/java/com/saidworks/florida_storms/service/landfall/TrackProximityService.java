@@ -0,0 +1,119 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.CycloneKeys;
+import com.saidworks.florida_storms.models.domain.GeoCircle;
+import com.saidworks.florida_storms.models.domain.RadiusBatchRequest;
+import com.saidworks.florida_storms.models.domain.RadiusMatches;
+import com.saidworks.florida_storms.models.domain.TrackSegmentIndex;
+import com.saidworks.florida_storms.models.exception.BatchProcessingException;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.service.batch.CycloneProcessingOrchestrator;
+import com.saidworks.florida_storms.service.dataset.CycloneDatasetHolder;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+/**
+ * Finds storms whose track came within a great-circle radius of a point, anywhere along the
+ * track rather than only at landfall
+ * The full tracks since 1900 are parsed into a {@link TrackSegmentIndex} by the first track query
+ * of each dataset version, loads and reloads never parse them for this service, every query after
+ * that only reads the segments near its circles
+ */
+@Service
+@Log4j2
+public class TrackProximityService {
+    private final CycloneDatasetHolder datasetHolder;
+    private final CycloneProcessingOrchestrator orchestrator;
+
+    private final Object indexLock = new Object();
+    private volatile IndexedTracks indexed;
+
+    public TrackProximityService(
+            CycloneDatasetHolder datasetHolder, CycloneProcessingOrchestrator orchestrator) {
+        this.datasetHolder = datasetHolder;
+        this.orchestrator = orchestrator;
+    }
+
+    /**
+     * Storms whose track came within the radius
+     * @param basin basin code (AL, EP, CP), null for every basin
+     * @param fromYear first year of the track, null for no lower bound
+     * @param toYear last year of the track, null for no upper bound
+     * @return cyclones with their full track in dataset order
+     */
+    public List<Cyclone> cyclonesNear(
+            GeoCircle circle, String basin, Integer fromYear, Integer toYear) {
+        return segments()
+                .cyclonesNear(
+                        circle,
+                        CycloneKeys.basinCode(basin),
+                        LandfallQueries.fromMinute(fromYear),
+                        LandfallQueries.toMinute(toYear));
+    }
+
+    /**
+     * Storms whose track came within each of many radius circles, every circle is answered from
+     * the same segment grid
+     * @return one result per circle, in request order
+     */
+    public List<RadiusMatches> cyclonesNear(RadiusBatchRequest request) {
+        List<GeoCircle> circles = request.circles() == null ? List.of() : request.circles();
+        log.info("Starting batch track radius search for {} circles", circles.size());
+        List<List<Cyclone>> matched =
+                segments()
+                        .cyclonesNear(
+                                circles,
+                                CycloneKeys.basinCode(request.basin()),
+                                LandfallQueries.fromMinute(request.fromYear()),
+                                LandfallQueries.toMinute(request.toYear()));
+        List<RadiusMatches> results = new ArrayList<>(circles.size());
+        for (int c = 0; c < circles.size(); c++) {
+            results.add(new RadiusMatches(circles.get(c), matched.get(c)));
+        }
+        return results;
+    }
+
+    /**
+     * Segment grid of the tracks of the current dataset, built on first access and again once a
+     * newer dataset version is published
+     */
+    private TrackSegmentIndex segments() {
+        long version = datasetHolder.getDataset().version();
+        IndexedTracks current = indexed;
+        if (current != null && current.version() >= version) {
+            return current.index();
+        }
+        synchronized (indexLock) {
+            current = indexed;
+            if (current == null || current.version() < version) {
+                current = new IndexedTracks(version, build());
+                indexed = current;
+            }
+            return current.index();
+        }
+    }
+
+    private TrackSegmentIndex build() {
+        long start = System.currentTimeMillis();
+        List<Cyclone> tracks;
+        try {
+            tracks = orchestrator.processAllCyclones(TrackPredicate.SINCE_1900);
+        } catch (IOException e) {
+            throw new BatchProcessingException("Failed to load cyclone tracks", e);
+        }
+        TrackSegmentIndex index = new TrackSegmentIndex(tracks);
+        log.info(
+                "Indexed {} track segments of {} cyclones in {}ms",
+                index.size(),
+                tracks.size(),
+                System.currentTimeMillis() - start);
+        return index;
+    }
+
+    private record IndexedTracks(long version, TrackSegmentIndex index) {}
+}
@@ -0,0 +1,433 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.snapshot;
+
+import static com.saidworks.florida_storms.service.snapshot.SnapshotFormat.*;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import com.saidworks.florida_storms.models.track.StormStatusCodes;
+import com.saidworks.florida_storms.models.track.TrackSlice;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32C;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the parsed dataset to a versioned binary snapshot and maps it back on later runs with
+ * the Foreign Function and Memory API
+ * A snapshot is only used when its recorded key matches the current HURDAT2 source and the
+ * settings it was parsed with, a stale or unreadable snapshot is ignored and rebuilt by the next
+ * pipeline run
+ * Every basin file has its own snapshot named after the file and its location
+ */
+@Service
+@Log4j2
+public class DatasetSnapshotService {
+    private final CycloneProcessingProperties properties;
+    private final ResourceLoader resourceLoader;
+    private final ExecutorService ioBlockingTaskExecutor;
+
+    public DatasetSnapshotService(
+            CycloneProcessingProperties properties,
+            ResourceLoader resourceLoader,
+            @Qualifier("ioBlockingTaskExecutor") ExecutorService ioBlockingTaskExecutor) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        this.ioBlockingTaskExecutor = ioBlockingTaskExecutor;
+    }
+
+    public boolean isEnabled() {
+        return properties.getSnapshot().isEnabled();
+    }
+
+    /**
+     * Maps the snapshot of a source if it exists and was built with the given checksum and
+     * predicate
+     * @param sourceChecksum checksum of the source text as read by the batch loader
+     * @return cyclones whose track points are read from the mapping, empty when a rebuild is needed
+     */
+    public Optional<List<Cyclone>> load(
+            String source, TrackPredicate predicate, long sourceChecksum) {
+        Path path = snapshotPath(source);
+        if (!Files.isRegularFile(path)) {
+            log.info("No dataset snapshot at {}", path);
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                log.warn("Dataset snapshot {} is truncated, rebuilding", path);
+                return Optional.empty();
+            }
+            // the mapping lives as long as a cyclone of the snapshot is reachable
+            MemorySegment segment =
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), Arena.ofAuto());
+            return readSnapshot(segment, snapshotKey(predicate, sourceChecksum), path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to read dataset snapshot {}, rebuilding", path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the dataset next to a temporary name and moves it in place, a failure only costs the
+     * next startup a full parse
+     */
+    public void write(
+            String source, TrackPredicate predicate, List<Cyclone> cyclones, long sourceChecksum) {
+        Path path = snapshotPath(source);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(path.getParent());
+            long size =
+                    writeSnapshot(cyclones, snapshotKey(predicate, sourceChecksum), temporary);
+            Files.move(
+                    temporary,
+                    path,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            log.info(
+                    "Wrote dataset snapshot {} ({} bytes) in {}ms",
+                    path,
+                    size,
+                    System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write dataset snapshot {}", path, e);
+        }
+    }
+
+    /**
+     * Writes the snapshot on the io pool so the dataset is published without waiting for it, the
+     * radii of deferred track points are decoded by the writer
+     * @return completes once the snapshot is written or skipped
+     */
+    public CompletableFuture<Void> writeInBackground(
+            String source, TrackPredicate predicate, List<Cyclone> cyclones, long sourceChecksum) {
+        try {
+            return CompletableFuture.runAsync(
+                    () -> write(source, predicate, cyclones, sourceChecksum),
+                    ioBlockingTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Skipped dataset snapshot of {}, the io pool is saturated", source);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Source checksum in the low half and, in the high half, the CRC32C of the predicate that
+     * decided which cyclones and points were kept
+     * Landfall detection runs on the loaded dataset and is not part of the key
+     * Statuses are sorted, the iteration order of a set differs between runs
+     */
+    private long snapshotKey(TrackPredicate predicate, long sourceChecksum) {
+        String settings =
+                String.join(
+                        "|",
+                        String.valueOf(predicate.getFromDate()),
+                        String.valueOf(predicate.getToDate()),
+                        String.valueOf(predicate.getRecordTypes()),
+                        predicate.getStatuses() == null
+                                ? "null"
+                                : new TreeSet<>(predicate.getStatuses()).toString(),
+                        String.valueOf(predicate.getMinWindSpeed()),
+                        String.valueOf(predicate.getBoundary()));
+        CRC32C crc = new CRC32C();
+        crc.update(settings.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() << 32 | (sourceChecksum & 0xFFFF_FFFFL);
+    }
+
+    private Optional<List<Cyclone>> readSnapshot(MemorySegment segment, long key, Path path) {
+        if (segment.get(ValueLayout.JAVA_LONG, MAGIC_OFFSET) != MAGIC
+                || segment.get(ValueLayout.JAVA_INT, VERSION_OFFSET) != VERSION) {
+            log.warn("Dataset snapshot {} has an unknown format, rebuilding", path);
+            return Optional.empty();
+        }
+        if (segment.get(ValueLayout.JAVA_LONG, CHECKSUM_OFFSET) != key) {
+            log.info("Dataset snapshot {} is stale, rebuilding", path);
+            return Optional.empty();
+        }
+
+        int cycloneCount = segment.get(ValueLayout.JAVA_INT, CYCLONE_COUNT_OFFSET);
+        int pointCount = segment.get(ValueLayout.JAVA_INT, POINT_COUNT_OFFSET);
+        long cyclonesOffset = segment.get(ValueLayout.JAVA_LONG, CYCLONES_OFFSET);
+        long stringsOffset = segment.get(ValueLayout.JAVA_LONG, STRINGS_OFFSET);
+        Sections sections =
+                Sections.of(segment.get(ValueLayout.JAVA_LONG, POINTS_OFFSET), pointCount);
+        if (sections.end() > segment.byteSize()) {
+            log.warn("Dataset snapshot {} is truncated, rebuilding", path);
+            return Optional.empty();
+        }
+
+        TrackStore store =
+                new SnapshotTrackStore(
+                        segment,
+                        sections,
+                        pointCount,
+                        readStatusCodes(
+                                segment, segment.get(ValueLayout.JAVA_LONG, STATUSES_OFFSET)));
+
+        List<Cyclone> cyclones = new ArrayList<>(cycloneCount);
+        for (int i = 0; i < cycloneCount; i++) {
+            long entry = cyclonesOffset + i * CYCLONE_ENTRY_SIZE;
+            int basin = segment.get(ValueLayout.JAVA_INT, entry + ENTRY_BASIN);
+            HeaderLine header =
+                    HeaderLine.builder()
+                            .basin("" + (char) (basin >> 8) + (char) (basin & 0xFF))
+                            .cycloneNumber(segment.get(ValueLayout.JAVA_INT, entry + ENTRY_NUMBER))
+                            .year(segment.get(ValueLayout.JAVA_INT, entry + ENTRY_YEAR))
+                            .name(
+                                    readString(
+                                            segment,
+                                            stringsOffset
+                                                    + segment.get(
+                                                            ValueLayout.JAVA_INT,
+                                                            entry + ENTRY_NAME_OFFSET),
+                                            segment.get(
+                                                    ValueLayout.JAVA_INT,
+                                                    entry + ENTRY_NAME_LENGTH)))
+                            .entriesCount(
+                                    segment.get(ValueLayout.JAVA_INT, entry + ENTRY_ENTRIES_COUNT))
+                            .build();
+            cyclones.add(
+                    new Cyclone(
+                            header,
+                            store.slice(
+                                    segment.get(ValueLayout.JAVA_INT, entry + ENTRY_POINT_OFFSET),
+                                    segment.get(ValueLayout.JAVA_INT, entry + ENTRY_POINT_LENGTH)),
+                            segment.get(ValueLayout.JAVA_INT, entry + ENTRY_FIRST_TRACK_MINUTE),
+                            segment.get(ValueLayout.JAVA_INT, entry + ENTRY_LAST_TRACK_MINUTE)));
+        }
+        log.info(
+                "Mapped dataset snapshot {} ({} cyclones, {} track points)",
+                path,
+                cycloneCount,
+                pointCount);
+        return Optional.of(cyclones);
+    }
+
+    private long writeSnapshot(List<Cyclone> cyclones, long key, Path path) throws IOException {
+        List<TrackSlice> tracks = cyclones.stream().map(this::asTrackSlice).toList();
+        String[] statusCodes = StormStatusCodes.registeredCodes();
+        byte[][] names = new byte[cyclones.size()][];
+        long statusesSize = 4;
+        for (String code : statusCodes) {
+            statusesSize += 4 + code.length();
+        }
+        long stringsSize = 0;
+        int pointCount = 0;
+        for (int i = 0; i < cyclones.size(); i++) {
+            names[i] = cyclones.get(i).getHeader().getName().getBytes(StandardCharsets.US_ASCII);
+            stringsSize += names[i].length;
+            pointCount += tracks.get(i).size();
+        }
+
+        long statusesOffset = HEADER_SIZE;
+        long cyclonesOffset = align(statusesOffset + statusesSize);
+        long stringsOffset = align(cyclonesOffset + cyclones.size() * CYCLONE_ENTRY_SIZE);
+        long pointsOffset = align(stringsOffset + stringsSize);
+        Sections sections = Sections.of(pointsOffset, pointCount);
+
+        try (Arena arena = Arena.ofConfined();
+                FileChannel channel =
+                        FileChannel.open(
+                                path,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING,
+                                StandardOpenOption.READ,
+                                StandardOpenOption.WRITE)) {
+            MemorySegment segment =
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, sections.end(), arena);
+
+            segment.set(ValueLayout.JAVA_INT, VERSION_OFFSET, VERSION);
+            segment.set(ValueLayout.JAVA_INT, CYCLONE_COUNT_OFFSET, cyclones.size());
+            segment.set(ValueLayout.JAVA_LONG, CHECKSUM_OFFSET, key);
+            segment.set(ValueLayout.JAVA_INT, POINT_COUNT_OFFSET, pointCount);
+            segment.set(ValueLayout.JAVA_LONG, STATUSES_OFFSET, statusesOffset);
+            segment.set(ValueLayout.JAVA_LONG, CYCLONES_OFFSET, cyclonesOffset);
+            segment.set(ValueLayout.JAVA_LONG, STRINGS_OFFSET, stringsOffset);
+            segment.set(ValueLayout.JAVA_LONG, POINTS_OFFSET, pointsOffset);
+
+            writeStatusCodes(segment, statusesOffset, statusCodes);
+
+            int nameOffset = 0;
+            int pointOffset = 0;
+            for (int i = 0; i < cyclones.size(); i++) {
+                Cyclone cyclone = cyclones.get(i);
+                HeaderLine header = cyclone.getHeader();
+                long entry = cyclonesOffset + i * CYCLONE_ENTRY_SIZE;
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_BASIN, packBasin(header));
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_NUMBER, header.getCycloneNumber());
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_YEAR, header.getYear());
+                segment.set(
+                        ValueLayout.JAVA_INT,
+                        entry + ENTRY_ENTRIES_COUNT,
+                        header.getEntriesCount());
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_NAME_OFFSET, nameOffset);
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_NAME_LENGTH, names[i].length);
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_POINT_OFFSET, pointOffset);
+                segment.set(ValueLayout.JAVA_INT, entry + ENTRY_POINT_LENGTH, tracks.get(i).size());
+                segment.set(
+                        ValueLayout.JAVA_INT,
+                        entry + ENTRY_FIRST_TRACK_MINUTE,
+                        cyclone.getFirstTrackMinute());
+                segment.set(
+                        ValueLayout.JAVA_INT,
+                        entry + ENTRY_LAST_TRACK_MINUTE,
+                        cyclone.getLastTrackMinute());
+
+                MemorySegment.copy(
+                        MemorySegment.ofArray(names[i]),
+                        0,
+                        segment,
+                        stringsOffset + nameOffset,
+                        names[i].length);
+                nameOffset += names[i].length;
+
+                writePoints(segment, sections, tracks.get(i), pointOffset);
+                pointOffset += tracks.get(i).size();
+            }
+
+            // the magic goes last so that a partially written file is never accepted
+            segment.set(ValueLayout.JAVA_LONG, MAGIC_OFFSET, MAGIC);
+            segment.force();
+        }
+        return sections.end();
+    }
+
+    private void writePoints(
+            MemorySegment segment, Sections sections, TrackSlice track, int firstPoint) {
+        TrackStore store = track.getStore();
+        for (int i = 0; i < track.size(); i++) {
+            int source = track.getOffset() + i;
+            long point = firstPoint + i;
+            segment.set(
+                    ValueLayout.JAVA_INT,
+                    sections.epochMinutes() + 4 * point,
+                    store.epochMinute(source));
+            segment.set(
+                    ValueLayout.JAVA_SHORT,
+                    sections.latitudes() + 2 * point,
+                    (short) store.latitudeTenths(source));
+            segment.set(
+                    ValueLayout.JAVA_SHORT,
+                    sections.longitudes() + 2 * point,
+                    (short) store.longitudeTenths(source));
+            segment.set(
+                    ValueLayout.JAVA_BYTE,
+                    sections.hemispheres() + point,
+                    store.hemispheres(source));
+            segment.set(
+                    ValueLayout.JAVA_BYTE,
+                    sections.recordTypes() + point,
+                    (byte) store.recordType(source));
+            segment.set(
+                    ValueLayout.JAVA_BYTE,
+                    sections.statusCodes() + point,
+                    store.statusCode(source));
+            segment.set(
+                    ValueLayout.JAVA_SHORT,
+                    sections.maxWindSpeeds() + 2 * point,
+                    (short) store.maxWindSpeed(source));
+            segment.set(
+                    ValueLayout.JAVA_SHORT,
+                    sections.centralPressures() + 2 * point,
+                    (short) store.centralPressure(source));
+            for (int r = 0; r < RADII; r++) {
+                segment.set(
+                        ValueLayout.JAVA_SHORT,
+                        sections.radii() + 2 * (point * RADII + r),
+                        (short) store.radius(source, r));
+            }
+        }
+    }
+
+    private static void writeStatusCodes(MemorySegment segment, long offset, String[] codes) {
+        segment.set(ValueLayout.JAVA_INT, offset, codes.length);
+        long cursor = offset + 4;
+        for (String code : codes) {
+            byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+            segment.set(ValueLayout.JAVA_INT_UNALIGNED, cursor, bytes.length);
+            MemorySegment.copy(MemorySegment.ofArray(bytes), 0, segment, cursor + 4, bytes.length);
+            cursor += 4 + bytes.length;
+        }
+    }
+
+    /**
+     * Status byte codes are assigned per process, the snapshot codes are translated to the codes
+     * of the running process
+     */
+    private static byte[] readStatusCodes(MemorySegment segment, long offset) {
+        int count = segment.get(ValueLayout.JAVA_INT, offset);
+        byte[] mapping = new byte[256];
+        long cursor = offset + 4;
+        for (int i = 0; i < count; i++) {
+            int length = segment.get(ValueLayout.JAVA_INT_UNALIGNED, cursor);
+            mapping[i] = StormStatusCodes.encode(readString(segment, cursor + 4, length));
+            cursor += 4 + length;
+        }
+        return mapping;
+    }
+
+    private static String readString(MemorySegment segment, long offset, int length) {
+        return new String(
+                segment.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE),
+                StandardCharsets.US_ASCII);
+    }
+
+    private static int packBasin(HeaderLine header) {
+        String basin = header.getBasin();
+        return (basin.charAt(0) & 0xFF) << 8 | (basin.charAt(1) & 0xFF);
+    }
+
+    /**
+     * Cyclones built by the pipeline already hold slices, other lists are copied to a store
+     */
+    private TrackSlice asTrackSlice(Cyclone cyclone) {
+        if (cyclone.getDataLines() instanceof TrackSlice slice) {
+            return slice;
+        }
+        ArrayTrackStore store = new ArrayTrackStore(cyclone.getDataLines().size());
+        store.appendAll(cyclone.getDataLines());
+        return store.slice(0, store.size());
+    }
+
+    /**
+     * Files of the same name in different directories get their own snapshot
+     */
+    private Path snapshotPath(String source) {
+        Resource resource = resourceLoader.getResource(source);
+        CRC32C location = new CRC32C();
+        location.update(resource.getDescription().getBytes(StandardCharsets.UTF_8));
+        return Path.of(properties.getSnapshot().getDirectory())
+                .resolve(
+                        String.format(
+                                Locale.ROOT,
+                                "%s-%08x.snapshot",
+                                resource.getFilename(),
+                                location.getValue()));
+    }
+}
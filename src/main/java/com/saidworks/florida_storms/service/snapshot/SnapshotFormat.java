@@ -0,0 +1,97 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.snapshot;
+
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+
+/**
+ * Binary layout of a dataset snapshot, all values use the native byte order and every section
+ * starts on an 8 byte boundary so it can be read with aligned layouts from the mapping
+ *
+ * <pre>
+ * header       magic, version, snapshot key, counts and section offsets (HEADER_SIZE bytes)
+ * statuses     status code table: count, then (length, ASCII bytes) per code
+ * cyclones     CYCLONE_ENTRY_SIZE bytes per cyclone
+ * strings      ASCII names referenced by the cyclone entries
+ * points       one section per track column, see {@link Sections}
+ * </pre>
+ */
+class SnapshotFormat {
+    static final long MAGIC = 0x464C_5354_534E_4150L; // "FLSTSNAP"
+    static final int VERSION = 2;
+
+    // header fields
+    static final long MAGIC_OFFSET = 0;
+    static final long VERSION_OFFSET = 8;
+    static final long CYCLONE_COUNT_OFFSET = 12;
+    static final long CHECKSUM_OFFSET = 16;
+    static final long POINT_COUNT_OFFSET = 24;
+    static final long STATUSES_OFFSET = 32;
+    static final long CYCLONES_OFFSET = 40;
+    static final long STRINGS_OFFSET = 48;
+    static final long POINTS_OFFSET = 56;
+    static final long HEADER_SIZE = 64;
+
+    // cyclone entry fields, ints
+    static final long ENTRY_BASIN = 0; // two ASCII bytes
+    static final long ENTRY_NUMBER = 4;
+    static final long ENTRY_YEAR = 8;
+    static final long ENTRY_ENTRIES_COUNT = 12;
+    static final long ENTRY_NAME_OFFSET = 16; // relative to the strings section
+    static final long ENTRY_NAME_LENGTH = 20;
+    static final long ENTRY_POINT_OFFSET = 24;
+    static final long ENTRY_POINT_LENGTH = 28;
+    // epoch minutes of the first and last point of the whole track, see Cyclone
+    static final long ENTRY_FIRST_TRACK_MINUTE = 32;
+    static final long ENTRY_LAST_TRACK_MINUTE = 36;
+    static final long CYCLONE_ENTRY_SIZE = 40;
+
+    static final int RADII = HurdatLineCursor.RADII_COUNT;
+
+    private SnapshotFormat() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Offsets of the point columns for a snapshot holding {@code pointCount} points
+     */
+    record Sections(
+            long epochMinutes,
+            long latitudes,
+            long longitudes,
+            long hemispheres,
+            long recordTypes,
+            long statusCodes,
+            long maxWindSpeeds,
+            long centralPressures,
+            long radii,
+            long end) {
+
+        static Sections of(long base, int pointCount) {
+            long epochMinutes = align(base);
+            long latitudes = align(epochMinutes + 4L * pointCount);
+            long longitudes = align(latitudes + 2L * pointCount);
+            long hemispheres = align(longitudes + 2L * pointCount);
+            long recordTypes = align(hemispheres + pointCount);
+            long statusCodes = align(recordTypes + pointCount);
+            long maxWindSpeeds = align(statusCodes + pointCount);
+            long centralPressures = align(maxWindSpeeds + 2L * pointCount);
+            long radii = align(centralPressures + 2L * pointCount);
+            long end = align(radii + 2L * RADII * pointCount);
+            return new Sections(
+                    epochMinutes,
+                    latitudes,
+                    longitudes,
+                    hemispheres,
+                    recordTypes,
+                    statusCodes,
+                    maxWindSpeeds,
+                    centralPressures,
+                    radii,
+                    end);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.snapshot;
+
+import static com.saidworks.florida_storms.service.snapshot.SnapshotFormat.RADII;
+
+import com.saidworks.florida_storms.models.track.TrackStore;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * {@link TrackStore} reading the point columns straight from a mapped snapshot, nothing is copied
+ * to the heap
+ */
+class SnapshotTrackStore implements TrackStore {
+    private final MemorySegment segment;
+    private final SnapshotFormat.Sections sections;
+    private final int size;
+    // snapshot status code -> status code of the running process
+    private final byte[] statusCodeMapping;
+
+    SnapshotTrackStore(
+            MemorySegment segment,
+            SnapshotFormat.Sections sections,
+            int size,
+            byte[] statusCodeMapping) {
+        this.segment = segment;
+        this.sections = sections;
+        this.size = size;
+        this.statusCodeMapping = statusCodeMapping;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int epochMinute(int index) {
+        return segment.get(ValueLayout.JAVA_INT, sections.epochMinutes() + 4L * index);
+    }
+
+    @Override
+    public char recordType(int index) {
+        return (char) (segment.get(ValueLayout.JAVA_BYTE, sections.recordTypes() + index) & 0xFF);
+    }
+
+    @Override
+    public byte statusCode(int index) {
+        return statusCodeMapping[
+                segment.get(ValueLayout.JAVA_BYTE, sections.statusCodes() + index) & 0xFF];
+    }
+
+    @Override
+    public int latitudeTenths(int index) {
+        return segment.get(ValueLayout.JAVA_SHORT, sections.latitudes() + 2L * index);
+    }
+
+    @Override
+    public int longitudeTenths(int index) {
+        return segment.get(ValueLayout.JAVA_SHORT, sections.longitudes() + 2L * index);
+    }
+
+    @Override
+    public byte hemispheres(int index) {
+        return segment.get(ValueLayout.JAVA_BYTE, sections.hemispheres() + index);
+    }
+
+    @Override
+    public int maxWindSpeed(int index) {
+        return segment.get(ValueLayout.JAVA_SHORT, sections.maxWindSpeeds() + 2L * index);
+    }
+
+    @Override
+    public int centralPressure(int index) {
+        return segment.get(ValueLayout.JAVA_SHORT, sections.centralPressures() + 2L * index);
+    }
+
+    @Override
+    public int radius(int index, int radius) {
+        return segment.get(
+                ValueLayout.JAVA_SHORT, sections.radii() + 2L * ((long) index * RADII + radius));
+    }
+}
@@ -0,0 +1,59 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTest {
+    private static final int MAX_VALUE = 300_000;
+
+    private static CompressedBitmap bitmap(BitSet values) {
+        CompressedBitmap.Builder builder = new CompressedBitmap.Builder();
+        values.stream().forEach(builder::add);
+        return builder.build();
+    }
+
+    private static BitSet values(CompressedBitmap bitmap) {
+        BitSet values = new BitSet();
+        bitmap.forEach(values::set);
+        return values;
+    }
+
+    // long runs become run containers, short runs array or bitmap containers
+    private static BitSet runs(Random random) {
+        BitSet values = new BitSet();
+        int value = random.nextInt(50);
+        while (value < MAX_VALUE) {
+            int length = 1 + random.nextInt(random.nextBoolean() ? 3 : 2_000);
+            values.set(value, Math.min(MAX_VALUE, value + length));
+            value += length + 1 + random.nextInt(random.nextBoolean() ? 2 : 3_000);
+        }
+        return values;
+    }
+
+    @Test
+    void testAndOr_AgreeWithBitSetAndRebuiltContainers() {
+        Random random = new Random(1);
+        for (int query = 0; query < 300; query++) {
+            BitSet left = runs(random);
+            BitSet right = runs(random);
+            BitSet and = (BitSet) left.clone();
+            and.and(right);
+            BitSet or = (BitSet) left.clone();
+            or.or(right);
+
+            CompressedBitmap anded = bitmap(left).and(bitmap(right));
+            CompressedBitmap ored = bitmap(left).or(bitmap(right));
+
+            assertThat(values(anded)).isEqualTo(and);
+            assertThat(values(ored)).isEqualTo(or);
+            assertThat(anded.cardinality()).isEqualTo(and.cardinality());
+            // combined runs pick the same containers as a bitmap built from the values
+            assertThat(anded.sizeInBytes()).isEqualTo(bitmap(and).sizeInBytes());
+            assertThat(ored.sizeInBytes()).isEqualTo(bitmap(or).sizeInBytes());
+        }
+    }
+}
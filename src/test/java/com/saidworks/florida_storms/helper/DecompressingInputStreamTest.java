@@ -0,0 +1,66 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.helper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+class DecompressingInputStreamTest {
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Test
+    void testRead_InflatesThroughTheRing() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(7).nextBytes(data);
+
+        try (InputStream input =
+                new DecompressingInputStream(
+                        new ByteArrayInputStream(gzip(data)),
+                        DecompressingInputStream.Format.GZIP,
+                        2,
+                        64,
+                        "test")) {
+            assertThat(input.readAllBytes()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void testRead_RethrowsRuntimeFailureOfTheInflater() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(7).nextBytes(data);
+        byte[] compressed = gzip(data);
+        // the header is read by the caller, the failure happens on the inflater thread
+        InputStream failing =
+                new ByteArrayInputStream(compressed) {
+                    @Override
+                    public synchronized int read(byte[] buffer, int offset, int length) {
+                        if (pos > compressed.length / 2) {
+                            throw new IllegalStateException("source went away");
+                        }
+                        return super.read(buffer, offset, Math.min(length, 256));
+                    }
+                };
+
+        try (InputStream input =
+                new DecompressingInputStream(
+                        failing, DecompressingInputStream.Format.GZIP, 2, 64, "test")) {
+            assertThatThrownBy(input::readAllBytes)
+                    .isInstanceOf(IOException.class)
+                    .hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.randomCyclones;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class AttributeIndexTest {
+    @Test
+    void testCategory_SaffirSimpsonThresholds() {
+        assertThat(AttributeIndex.category(63)).isZero();
+        assertThat(AttributeIndex.category(64)).isEqualTo(1);
+        assertThat(AttributeIndex.category(95)).isEqualTo(2);
+        assertThat(AttributeIndex.category(96)).isEqualTo(3);
+        assertThat(AttributeIndex.category(136)).isEqualTo(4);
+        assertThat(AttributeIndex.category(160)).isEqualTo(5);
+        assertThat(AttributeIndex.categoryKey(-99)).isEqualTo(AttributeIndex.MISSING_WIND);
+    }
+
+    @Test
+    void testCyclonesMatching_AgreesWithScanningEveryPoint() {
+        // enough points for several bitmap chunks, long runs of one decade become run containers
+        List<Cyclone> cyclones = randomCyclones(new Random(11), 30_000, 5, "AL");
+        AttributeIndex index = new AttributeIndex(cyclones);
+        assertThat(index.sizeInBytes()).isPositive();
+
+        List<AttributeFilter> filters =
+                List.of(
+                        AttributeFilter.ANY,
+                        new AttributeFilter(Set.of("HU"), Set.of('L'), 3, Set.of(1950)),
+                        new AttributeFilter(Set.of("TS", "TD"), null, null, Set.of(1920, 2000)),
+                        new AttributeFilter(null, Set.of('I', 'L'), 5, null),
+                        new AttributeFilter(null, null, 0, null),
+                        new AttributeFilter(Set.of("XX"), null, null, null));
+        GeoBoundary boundary = box(20.0, 30.0, -66.0, -62.0);
+        for (AttributeFilter filter : filters) {
+            for (GeoBoundary within : new GeoBoundary[] {null, boundary}) {
+                List<Cyclone> expected =
+                        cyclones.stream()
+                                .filter(cyclone -> hasPoint(cyclone, filter, within))
+                                .toList();
+                assertThat(index.cyclonesMatching(filter, within)).isEqualTo(expected);
+            }
+        }
+    }
+
+    private static boolean hasPoint(Cyclone cyclone, AttributeFilter filter, GeoBoundary within) {
+        return cyclone.getDataLines().stream()
+                .anyMatch(
+                        point ->
+                                matches(filter, point)
+                                        && (within == null
+                                                || within.containsCoordinate(
+                                                        point.getLatitude(),
+                                                        'N',
+                                                        point.getLongitude(),
+                                                        'W')));
+    }
+
+    private static boolean matches(AttributeFilter filter, DataLine point) {
+        char recordType = point.getRecordType() == null ? 0 : point.getRecordType();
+        return (filter.statuses() == null || filter.statuses().contains(point.getStormStatus()))
+                && (filter.recordTypes() == null || filter.recordTypes().contains(recordType))
+                && (filter.minCategory() == null
+                        || (point.getMaxWindSpeed() >= 0
+                                && AttributeIndex.category(point.getMaxWindSpeed())
+                                        >= filter.minCategory()))
+                && (filter.decades() == null
+                        || filter.decades().contains(point.getDateTime().getYear() / 10 * 10));
+    }
+}
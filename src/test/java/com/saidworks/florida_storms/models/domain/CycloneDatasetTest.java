@@ -0,0 +1,75 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class CycloneDatasetTest {
+    private static final String IVAN = "AL092004,            IVAN,     2,";
+    private static final String KATRINA = "AL122005,         KATRINA,     1,";
+    private static final List<String> IVAN_POINTS =
+            List.of(
+                    "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946, -999, -999, -999, -999,"
+                            + " -999, -999, -999, -999, -999, -999, -999, -999",
+                    "20040916, 1200,  , TS, 31.4N,  87.7W,  50,  965, -999, -999, -999, -999,"
+                            + " -999, -999, -999, -999, -999, -999, -999, -999");
+    private static final String KATRINA_POINT =
+            "20050829, 1110, L, HU, 29.3N,  89.6W, 110,  920, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999, -999";
+
+    private static CycloneDataset dataset() {
+        List<Cyclone> cyclones =
+                List.of(
+                        new Cyclone(
+                                HeaderLine.parse(IVAN),
+                                IVAN_POINTS.stream().map(DataLine::parse).toList()),
+                        new Cyclone(
+                                HeaderLine.parse(KATRINA), List.of(DataLine.parse(KATRINA_POINT))));
+        return new CycloneDataset(
+                List.of(new BasinPartition("hurdat2.txt", cyclones, null)), 1, Instant.now());
+    }
+
+    @Test
+    void testSelect_KeepsOnlyMatchingPoints() {
+        TrackPredicate predicate =
+                TrackPredicate.forYears(2004, 2004).toBuilder().minWindSpeed(60).build();
+
+        List<Cyclone> selected = dataset().select(predicate);
+
+        assertThat(selected).hasSize(1);
+        assertThat(selected.getFirst().getHeader().getName()).isEqualTo("IVAN");
+        assertThat(selected.getFirst().getDataLines())
+                .extracting(DataLine::getMaxWindSpeed)
+                .containsExactly(105);
+    }
+
+    @Test
+    void testSelect_AgreesWithParserPushdown() {
+        List<TrackPredicate> predicates =
+                List.of(
+                        TrackPredicate.ALL,
+                        TrackPredicate.LANDFALL_SINCE_1900,
+                        TrackPredicate.builder().statuses(Set.of("TS")).build(),
+                        TrackPredicate.builder()
+                                .boundary(
+                                        GeoBoundary.builder()
+                                                .minLatitude(29.0)
+                                                .maxLatitude(31.0)
+                                                .minLongitude(-90.0)
+                                                .maxLongitude(-87.0)
+                                                .build())
+                                .build());
+        HurdatLineCursor cursor = new HurdatLineCursor();
+        for (TrackPredicate predicate : predicates) {
+            for (String line : List.of(IVAN_POINTS.get(0), IVAN_POINTS.get(1), KATRINA_POINT)) {
+                assertThat(predicate.test(DataLine.parse(line)))
+                        .isEqualTo(predicate.test(cursor.reset(line).parseDataLine()));
+            }
+        }
+    }
+}
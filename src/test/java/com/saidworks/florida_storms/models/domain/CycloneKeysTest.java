@@ -0,0 +1,34 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CycloneKeysTest {
+
+    @Test
+    void testPack_RoundTripsIdentifier() {
+        long key = CycloneKeys.pack("EP", 7, 2024);
+
+        assertThat(CycloneKeys.basin(key)).isEqualTo("EP");
+        assertThat(CycloneKeys.cycloneNumber(key)).isEqualTo(7);
+        assertThat(CycloneKeys.year(key)).isEqualTo(2024);
+        assertThat(CycloneKeys.format(key)).isEqualTo(String.format("%s%02d%d", "EP", 7, 2024));
+        assertThat(CycloneKeys.format(CycloneKeys.pack("AL", 12, 1851))).isEqualTo("AL121851");
+    }
+
+    @Test
+    void testHeaderLine_SharesSymbolsAndFollowsSetters() {
+        HeaderLine first = HeaderLine.parse("AL011851,            UNNAMED,     14,");
+        HeaderLine second = HeaderLine.parse("AL021851,            UNNAMED,      1,");
+
+        assertThat(second.getName()).isSameAs(first.getName());
+        assertThat(second.getBasin()).isSameAs(first.getBasin());
+        assertThat(first.getCycloneId()).isEqualTo("AL011851");
+
+        first.setYear(1852);
+        assertThat(first.getCycloneId()).isEqualTo("AL011852");
+        assertThat(first.getCycloneKey()).isNotEqualTo(second.getCycloneKey());
+    }
+}
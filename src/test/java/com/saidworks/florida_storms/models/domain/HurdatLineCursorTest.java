@@ -0,0 +1,74 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+class HurdatLineCursorTest {
+    private static final String DATA_LINE =
+            "20040913, 1800, L, HU, 24.0N,  83.4W, 140,  910,  180,  150,  110,  150,  100,   90,"
+                    + "   60,   80,   60,   45,   30,   40,   10,";
+
+    private final HurdatLineCursor cursor = new HurdatLineCursor();
+
+    @Test
+    void testParseDataLine_DecodesAllFields() {
+        DataLine dataLine = cursor.reset(DATA_LINE).parseDataLine().toDataLine();
+
+        assertThat(dataLine.getDateTime()).isEqualTo(LocalDateTime.of(2004, 9, 13, 18, 0));
+        assertThat(dataLine.getRecordType()).isEqualTo('L');
+        assertThat(dataLine.getStormStatus()).isEqualTo("HU");
+        assertThat(dataLine.getLatitude()).isEqualTo(24.0);
+        assertThat(dataLine.getLatitudeDirection()).isEqualTo('N');
+        assertThat(dataLine.getLongitude()).isEqualTo(83.4);
+        assertThat(dataLine.getLongitudeDirection()).isEqualTo('W');
+        assertThat(dataLine.getMaxWindSpeed()).isEqualTo(140);
+        assertThat(dataLine.getCentralPressure()).isEqualTo(910);
+        assertThat(dataLine.getWindRadius34NE()).isEqualTo(180);
+        assertThat(dataLine.getWindRadius64NW()).isEqualTo(40);
+        assertThat(dataLine.getMaxWindRadius()).isEqualTo(10);
+        assertThat(cursor.isLandfall()).isTrue();
+        assertThat(cursor.isAfter1900()).isTrue();
+    }
+
+    @Test
+    void testParseDataLine_MissingValuesAndBlankRecordType() {
+        DataLine dataLine =
+                DataLine.parse(
+                        "18510625, 0000,  , HU, 28.0N,  94.8W,  80, -999, -999, -999, -999, -999,"
+                                + " -999, -999, -999, -999, -999, -999, -999, -999");
+
+        assertThat(dataLine.getRecordType()).isNull();
+        assertThat(dataLine.getCentralPressure()).isNull();
+        assertThat(dataLine.getWindRadius50SW()).isNull();
+        assertThat(dataLine.getMaxWindRadius()).isNull();
+        assertThat(dataLine.isAfter1900()).isFalse();
+    }
+
+    @Test
+    void testParseDataLine_RejectsInvalidLines() {
+        assertThatThrownBy(() -> DataLine.parse("18510625, 0000,  , HU, 28.0N"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not enough fields");
+        assertThatThrownBy(() -> DataLine.parse(DATA_LINE.replace("24.0N", "24.0X")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid latitude format");
+        assertThatThrownBy(() -> DataLine.parse(DATA_LINE.replace(" 140,", " 1a0,")))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void testParseHeaderLine() {
+        HeaderLine header = HeaderLine.parse("AL092004,            IVAN,     60,");
+
+        assertThat(header.getBasin()).isEqualTo("AL");
+        assertThat(header.getCycloneNumber()).isEqualTo(9);
+        assertThat(header.getYear()).isEqualTo(2004);
+        assertThat(header.getName()).isEqualTo("IVAN");
+        assertThat(header.getEntriesCount()).isEqualTo(60);
+        assertThat(header.getCycloneId()).isEqualTo("AL092004");
+    }
+}
@@ -0,0 +1,128 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.randomCyclones;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LandfallAggregationTest {
+    private ForkJoinPool pool;
+    private List<Cyclone> cyclones;
+    private LandfallIndex index;
+    private LandfallCube cube;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        cyclones = randomCyclones(new Random(17), 6_000, 3, "EP", "AL", "AL");
+        index = new LandfallIndex(cyclones);
+        cube = new LandfallCube(new IndexedPoints(cyclones));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testAggregate_CubeAgreesWithForkJoin() {
+        for (LandfallGrouping grouping : LandfallGrouping.values()) {
+            for (Integer minCategory : Arrays.asList(null, 0, 1)) {
+                assertThat(cube.aggregate(grouping, 1950, 1999, minCategory))
+                        .isEqualTo(
+                                LandfallAggregation.statistics(
+                                        index,
+                                        grouping,
+                                        null,
+                                        null,
+                                        TemporalIndex.startOfYear(1950),
+                                        TemporalIndex.endOfYear(1999),
+                                        minCategory,
+                                        pool));
+            }
+        }
+    }
+
+    @Test
+    void testAggregate_MissingWindsHaveTheirOwnCategory() {
+        long missing =
+                cyclones.stream()
+                        .flatMap(cyclone -> cyclone.getDataLines().stream())
+                        .filter(point -> point.getMaxWindSpeed() < 0)
+                        .count();
+
+        List<LandfallStatistics> all = cube.aggregate(LandfallGrouping.CATEGORY, null, null, null);
+        List<LandfallStatistics> tropicalStorms =
+                cube.aggregate(LandfallGrouping.CATEGORY, null, null, 0);
+
+        assertThat(all.getLast().group()).isEqualTo("UNKNOWN");
+        assertThat(all.getLast().count()).isEqualTo(missing);
+        assertThat(all.getLast().maxWindSpeed()).isNull();
+        assertThat(tropicalStorms).extracting(LandfallStatistics::group).doesNotContain("UNKNOWN");
+        assertThat(tropicalStorms.getFirst().group()).isEqualTo("TS");
+        assertThat(tropicalStorms.getFirst()).isEqualTo(all.getFirst());
+    }
+
+    @Test
+    void testAggregate_ForkJoinAgreesWithScanningEveryPoint() {
+        GeoBoundary boundary = box(20.0, 32.0, -90.0, -75.0);
+        Map<String, long[]> expected = new TreeMap<>();
+        for (Cyclone cyclone : cyclones) {
+            if (!"AL".equals(cyclone.getHeader().getBasin())) {
+                continue;
+            }
+            for (DataLine point : cyclone.getDataLines()) {
+                double longitude = -point.getLongitude();
+                if (point.getLatitude() < 20.0
+                        || point.getLatitude() > 32.0
+                        || longitude < -90.0
+                        || longitude > -75.0) {
+                    continue;
+                }
+                long[] group =
+                        expected.computeIfAbsent(
+                                point.getDateTime().getYear() / 10 * 10 + "s",
+                                _ -> new long[] {0, Integer.MIN_VALUE});
+                group[0]++;
+                // missing winds are counted but not part of the maximum
+                group[1] = Math.max(group[1], point.getMaxWindSpeed());
+            }
+        }
+
+        List<LandfallStatistics> statistics =
+                LandfallAggregation.statistics(
+                        index,
+                        LandfallGrouping.DECADE,
+                        boundary,
+                        "AL",
+                        Integer.MIN_VALUE,
+                        Integer.MAX_VALUE,
+                        null,
+                        pool);
+
+        assertThat(statistics).extracting(LandfallStatistics::group).isSorted();
+        assertThat(statistics).hasSize(expected.size());
+        for (LandfallStatistics group : statistics) {
+            assertThat(group.count()).isEqualTo(expected.get(group.group())[0]);
+            long maxWind = expected.get(group.group())[1];
+            assertThat(group.maxWindSpeed()).isEqualTo(maxWind < 0 ? null : (int) maxWind);
+        }
+    }
+
+    @Test
+    void testLabel_RegionBounds() {
+        int region = LandfallGrouping.region(257, -803);
+
+        assertThat(LandfallGrouping.REGION.label(region)).isEqualTo("25N-30N 85W-80W");
+    }
+}
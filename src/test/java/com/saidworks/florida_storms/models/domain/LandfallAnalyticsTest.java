@@ -0,0 +1,118 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.randomCyclones;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LandfallAnalyticsTest {
+    private List<Cyclone> cyclones;
+    private LandfallAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        cyclones = randomCyclones(new Random(31), 2_000, 3, "EP", "AL", "AL");
+        analytics = new LandfallAnalytics(new LandfallIndex(cyclones));
+    }
+
+    private List<DataLine> landfalls(String basin, int fromYear, int toYear) {
+        return cyclones.stream()
+                .filter(cyclone -> basin.equals(cyclone.getHeader().getBasin()))
+                .flatMap(cyclone -> cyclone.getDataLines().stream())
+                .filter(point -> point.getDateTime().getYear() >= fromYear)
+                .filter(point -> point.getDateTime().getYear() <= toYear)
+                .toList();
+    }
+
+    @Test
+    void testGroupBy_AgreesWithStreamingEveryLandfall() {
+        Map<Integer, List<DataLine>> expected =
+                landfalls("AL", 1950, 2009).stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        point -> point.getDateTime().getYear() / 10 * 10,
+                                        TreeMap::new,
+                                        Collectors.toList()));
+
+        List<Map<String, Object>> rows =
+                analytics.groupBy(List.of(LandfallDimension.DECADE), "AL", 1950, 2009);
+
+        assertThat(rows)
+                .extracting(row -> row.get("decade"))
+                .isEqualTo(List.copyOf(expected.keySet()));
+        for (Map<String, Object> row : rows) {
+            List<DataLine> points = expected.get((Integer) row.get("decade"));
+            assertThat(row.get("count")).isEqualTo(points.size());
+            assertThat(row.get("maxWind"))
+                    .isEqualTo(
+                            points.stream()
+                                    .mapToInt(DataLine::getMaxWindSpeed)
+                                    .filter(wind -> wind >= 0)
+                                    .max()
+                                    .orElseThrow());
+            assertThat(row.get("minPressure"))
+                    .isEqualTo(
+                            points.stream()
+                                    .mapToInt(DataLine::getCentralPressure)
+                                    .filter(pressure -> pressure > 0)
+                                    .min()
+                                    .orElseThrow());
+        }
+    }
+
+    @Test
+    void testRegions_JoinedWithRegionTableByDescendingCount() {
+        List<Map<String, Object>> regions =
+                analytics.regions(null, Integer.MIN_VALUE, Integer.MAX_VALUE, 5);
+        List<Map<String, Object>> all =
+                analytics.groupBy(
+                        List.of(LandfallDimension.REGION),
+                        null,
+                        Integer.MIN_VALUE,
+                        Integer.MAX_VALUE);
+
+        assertThat(regions).hasSize(5);
+        assertThat(regions)
+                .extracting(region -> (Integer) region.get("count"))
+                .isSortedAccordingTo((a, b) -> b - a);
+        assertThat(regions.getFirst().get("count"))
+                .isEqualTo(
+                        all.stream()
+                                .mapToInt(row -> (Integer) row.get("count"))
+                                .max()
+                                .orElseThrow());
+        assertThat(all).allMatch(row -> row.get("regionLabel") != null);
+        Map<String, Object> first = regions.getFirst();
+        assertThat(first.get("regionLabel"))
+                .isEqualTo(LandfallGrouping.REGION.label((Integer) first.get("region")));
+    }
+
+    @Test
+    void testPivot_EveryRowHasEveryColumn() {
+        List<Map<String, Object>> rows =
+                analytics.pivot(
+                        LandfallDimension.DECADE,
+                        LandfallDimension.BASIN,
+                        LandfallMetric.COUNT,
+                        null,
+                        1950,
+                        2009);
+
+        assertThat(rows)
+                .extracting(row -> row.get("decade"))
+                .containsExactly(1950, 1960, 1970, 1980, 1990, 2000);
+        for (Map<String, Object> row : rows) {
+            assertThat(row.keySet()).containsExactly("decade", "AL", "EP");
+            int decade = (Integer) row.get("decade");
+            assertThat(row.get("AL")).isEqualTo(landfalls("AL", decade, decade + 9).size());
+            assertThat(row.get("EP")).isEqualTo(landfalls("EP", decade, decade + 9).size());
+        }
+    }
+}
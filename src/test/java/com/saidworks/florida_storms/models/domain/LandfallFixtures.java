@@ -0,0 +1,79 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boundaries and cyclones shared by the landfall index tests
+ */
+public final class LandfallFixtures {
+    private static final Character[] RECORD_TYPES = {'L', 'L', 'I', null};
+    private static final String[] STATUSES = {"HU", "TS", "TD", "EX"};
+
+    private LandfallFixtures() {
+        throw new IllegalStateException("can not not instantiate helper method");
+    }
+
+    public static GeoBoundary box(double minLat, double maxLat, double minLon, double maxLon) {
+        return GeoBoundary.builder()
+                .name("box")
+                .minLatitude(minLat)
+                .maxLatitude(maxLat)
+                .minLongitude(minLon)
+                .maxLongitude(maxLon)
+                .build();
+    }
+
+    /**
+     * Cyclones holding 1 to {@code maxPoints} landfall points of a longer track, in year order
+     * from 1900 to 2024 and taking the basins in turn
+     * Points lie between 10N and 40N, 60W and 100W, one wind in ten and one pressure in five are
+     * missing
+     */
+    public static List<Cyclone> randomCyclones(
+            Random random, int count, int maxPoints, String... basins) {
+        List<Cyclone> cyclones = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            LocalDateTime time =
+                    LocalDateTime.of(1900 + c * 125 / count, 1 + random.nextInt(12), 1, 0, 0)
+                            .plusHours(random.nextInt(720));
+            List<DataLine> points = new ArrayList<>();
+            for (int p = random.nextInt(maxPoints); p >= 0; p--) {
+                points.add(
+                        DataLine.builder()
+                                .dateTime(time)
+                                .recordType(RECORD_TYPES[random.nextInt(RECORD_TYPES.length)])
+                                .stormStatus(STATUSES[random.nextInt(STATUSES.length)])
+                                .maxWindSpeed(random.nextInt(10) == 0 ? -99 : random.nextInt(170))
+                                .centralPressure(
+                                        random.nextInt(5) == 0 ? -999 : 880 + random.nextInt(140))
+                                .latitude(10 + random.nextInt(300) / 10.0)
+                                .latitudeDirection('N')
+                                .longitude(60 + random.nextInt(400) / 10.0)
+                                .longitudeDirection('W')
+                                .build());
+                time = time.plusHours(random.nextInt(96));
+            }
+            HeaderLine header =
+                    HeaderLine.builder()
+                            .basin(basins[c % basins.length])
+                            .cycloneNumber(c % 99 + 1)
+                            .year(points.getFirst().getDateTime().getYear())
+                            .name("UNNAMED")
+                            .entriesCount(points.size())
+                            .build();
+            // the track starts up to two days before the first landfall and ends after the last
+            int firstMinute =
+                    TemporalIndex.epochMinute(points.getFirst().getDateTime())
+                            - random.nextInt(2_880);
+            int lastMinute =
+                    TemporalIndex.epochMinute(points.getLast().getDateTime())
+                            + random.nextInt(2_880);
+            cyclones.add(new Cyclone(header, points, firstMinute, lastMinute));
+        }
+        return cyclones;
+    }
+}
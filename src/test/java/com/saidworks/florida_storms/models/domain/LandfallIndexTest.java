@@ -0,0 +1,69 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LandfallIndexTest {
+    private static final String MIAMI =
+            "19260918, 1200, L, HU, 25.6N,  80.3W, 125,  930, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String PENSACOLA =
+            "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String BAJA =
+            "20141103, 0000, L, HU, 23.0N, 109.7W, 110,  951, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    private Cyclone odile;
+    private Cyclone ivan;
+    private Cyclone miami;
+    private LandfallIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ArrayTrackStore store = new ArrayTrackStore();
+        store.append(DataLine.parse(BAJA));
+        store.append(DataLine.parse(PENSACOLA));
+        odile =
+                new Cyclone(
+                        HeaderLine.parse("EP152014,           ODILE,     1,"), store.slice(0, 1));
+        ivan =
+                new Cyclone(
+                        HeaderLine.parse("AL092004,            IVAN,     1,"), store.slice(1, 1));
+        miami =
+                new Cyclone(
+                        HeaderLine.parse("AL061926,         UNNAMED,     1,"),
+                        List.of(DataLine.parse(MIAMI)));
+        index = new LandfallIndex(List.of(odile, ivan, miami));
+    }
+
+    @Test
+    void testCyclonesWithin_ReadsColumnsAndDataLines() {
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.cyclonesWithin(box(24.0, 31.0, -87.9, -80.0)))
+                .containsExactly(ivan, miami);
+        // bounds falling inside a cell are compared exactly
+        assertThat(index.cyclonesWithin(box(24.0, 31.0, -87.8, -80.0))).containsExactly(miami);
+        assertThat(index.cyclonesWithin(box(-90.0, 90.0, -180.0, 180.0)))
+                .containsExactly(odile, ivan, miami);
+        assertThat(index.cyclonesWithin(box(31.0, 24.0, -87.0, -80.0))).isEmpty();
+    }
+
+    @Test
+    void testCyclonesWithin_ReadsOnlyTheGridOfTheBasin() {
+        GeoBoundary anywhere = box(-90.0, 90.0, -180.0, 180.0);
+
+        assertThat(index.cyclonesWithin(anywhere, "AL")).containsExactly(ivan, miami);
+        assertThat(index.cyclonesWithin(anywhere, "EP")).containsExactly(odile);
+        assertThat(index.cyclonesWithin(anywhere, "CP")).isEmpty();
+        // latitudes past the poles fall in the first and last rows
+        assertThat(index.cyclonesWithin(box(-200.0, 200.0, -90.0, -80.0), "AL"))
+                .containsExactly(ivan, miami);
+    }
+}
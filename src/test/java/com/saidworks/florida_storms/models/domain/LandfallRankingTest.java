@@ -0,0 +1,111 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.randomCyclones;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LandfallRankingTest {
+    private ForkJoinPool pool;
+    private List<Cyclone> cyclones;
+    private RankIndex index;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        // enough points in a box for the rows to be split across tasks
+        cyclones = randomCyclones(new Random(29), 30_000, 5, "EP", "AL", "AL", "AL");
+        index = new RankIndex(new LandfallIndex(cyclones));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static int score(LandfallRanking ranking, DataLine point) {
+        return ranking.score(
+                point.getMaxWindSpeed(),
+                point.getCentralPressure(),
+                TemporalIndex.epochMinute(point.getDateTime()));
+    }
+
+    @Test
+    void testTop_AgreesWithSortingEveryLandfall() {
+        GeoBoundary boundary = box(18.0, 33.0, -98.0, -76.0);
+        int from = TemporalIndex.startOfYear(1950);
+        int to = TemporalIndex.endOfYear(2010);
+
+        for (LandfallRanking ranking : LandfallRanking.values()) {
+            List<Integer> expected =
+                    cyclones.stream()
+                            .filter(cyclone -> "AL".equals(cyclone.getHeader().getBasin()))
+                            .flatMap(cyclone -> cyclone.getDataLines().stream())
+                            .filter(
+                                    point -> {
+                                        int minute = TemporalIndex.epochMinute(point.getDateTime());
+                                        return minute >= from
+                                                && minute <= to
+                                                && point.getLatitude() >= 18.0
+                                                && point.getLatitude() <= 33.0
+                                                && point.getLongitude() >= 76.0
+                                                && point.getLongitude() <= 98.0;
+                                    })
+                            .map(point -> score(ranking, point))
+                            .filter(score -> score != LandfallRanking.EXCLUDED)
+                            .sorted(Comparator.reverseOrder())
+                            .limit(25)
+                            .toList();
+
+            List<RankedLandfall> top = index.top(ranking, 25, boundary, "AL", from, to, pool);
+
+            assertThat(top)
+                    .extracting(landfall -> score(ranking, landfall.landfall()))
+                    .isEqualTo(expected);
+            assertThat(top).allMatch(landfall -> "AL".equals(landfall.header().getBasin()));
+        }
+    }
+
+    @Test
+    void testTop_AnywhereMatchesEveryCellAndIsRepeatable() {
+        List<RankedLandfall> first =
+                index.top(
+                        LandfallRanking.PRESSURE,
+                        10,
+                        null,
+                        null,
+                        Integer.MIN_VALUE,
+                        Integer.MAX_VALUE,
+                        pool);
+        int lowest =
+                cyclones.stream()
+                        .flatMap(cyclone -> cyclone.getDataLines().stream())
+                        .mapToInt(DataLine::getCentralPressure)
+                        .filter(pressure -> pressure > 0)
+                        .min()
+                        .orElseThrow();
+
+        assertThat(first).hasSize(10);
+        assertThat(first.getFirst().landfall().getCentralPressure()).isEqualTo(lowest);
+        assertThat(
+                        index.top(
+                                LandfallRanking.PRESSURE,
+                                10,
+                                null,
+                                null,
+                                Integer.MIN_VALUE,
+                                Integer.MAX_VALUE,
+                                pool))
+                .isEqualTo(first);
+        assertThat(index.top(LandfallRanking.WIND, 0, null, null, 0, Integer.MAX_VALUE, pool))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,130 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.randomCyclones;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RadiusIndexTest {
+
+    private static DataLine point(int year, double latitude, double longitude) {
+        return DataLine.builder()
+                .dateTime(LocalDateTime.of(year, 9, 1, 0, 0))
+                .recordType('L')
+                .latitude(Math.abs(latitude))
+                .latitudeDirection(latitude < 0 ? 'S' : 'N')
+                .longitude(Math.abs(longitude))
+                .longitudeDirection(longitude < 0 ? 'W' : 'E')
+                .build();
+    }
+
+    private static Cyclone cyclone(String basin, List<DataLine> points) {
+        return new Cyclone(HeaderLine.parse(basin + "011950,         UNNAMED,     1,"), points);
+    }
+
+    private static boolean anyPointWithin(Cyclone cyclone, GeoCircle circle, int from, int to) {
+        return cyclone.getDataLines().stream()
+                .anyMatch(
+                        point -> {
+                            int minute = TemporalIndex.epochMinute(point.getDateTime());
+                            double latitude =
+                                    point.getLatitudeDirection() == 'S'
+                                            ? -point.getLatitude()
+                                            : point.getLatitude();
+                            double longitude =
+                                    point.getLongitudeDirection() == 'W'
+                                            ? -point.getLongitude()
+                                            : point.getLongitude();
+                            return minute >= from
+                                    && minute <= to
+                                    && circle.distanceNm(latitude, longitude)
+                                            <= circle.radiusNm();
+                        });
+    }
+
+    @Test
+    void testCyclonesWithin_AgreesWithHaversineOnEveryPoint() {
+        Random random = new Random(23);
+        List<Cyclone> cyclones = randomCyclones(random, 3_000, 3, "AL", "EP");
+        RadiusSearch search = new RadiusSearch(new LandfallIndex(cyclones));
+
+        List<GeoCircle> circles = new ArrayList<>();
+        for (int r = 0; r < 200; r++) {
+            circles.add(
+                    new GeoCircle(
+                            "asset" + r,
+                            10 + random.nextDouble() * 30,
+                            -100 + random.nextDouble() * 40,
+                            random.nextDouble() * 150));
+        }
+        // a negative radius matches nothing
+        circles.add(new GeoCircle("none", 25.0, -80.0, -1));
+        int from = TemporalIndex.startOfYear(1950);
+        int to = TemporalIndex.endOfYear(2010);
+
+        List<List<Cyclone>> batch = search.cyclonesWithin(new RadiusIndex(circles), "AL", from, to);
+
+        assertThat(batch).hasSize(circles.size());
+        for (int r = 0; r < circles.size(); r++) {
+            GeoCircle circle = circles.get(r);
+            List<Cyclone> expected =
+                    cyclones.stream()
+                            .filter(cyclone -> "AL".equals(cyclone.getHeader().getBasin()))
+                            .filter(cyclone -> anyPointWithin(cyclone, circle, from, to))
+                            .toList();
+            assertThat(search.cyclonesWithin(circle, "AL", from, to)).isEqualTo(expected);
+            assertThat(batch.get(r)).isEqualTo(expected);
+        }
+        assertThat(batch.getLast()).isEmpty();
+    }
+
+    @Test
+    void testPruneBoxes_SplitAtAntimeridian() {
+        GeoCircle circle = new GeoCircle("dateline", 20.0, 179.5, 120);
+
+        List<GeoBoundary> boxes = circle.pruneBoxes();
+
+        assertThat(boxes).hasSize(2);
+        assertThat(boxes.get(0).getMaxLongitude()).isEqualTo(180);
+        assertThat(boxes.get(1).getMinLongitude()).isEqualTo(-180);
+        assertThat(boxes.get(1).getMaxLongitude()).isGreaterThan(-179);
+    }
+
+    @Test
+    void testCyclonesNear_FindsClosestApproachBetweenPoints() {
+        // both points are over 100 nm from Miami, the segment between them passes within 5 nm
+        Cyclone crossing =
+                cyclone("AL", List.of(point(2004, 25.8, -82.2), point(2004, 25.8, -78.2)));
+        Cyclone passing =
+                cyclone("AL", List.of(point(2004, 28.0, -82.2), point(2004, 28.0, -78.2)));
+        Cyclone single = cyclone("AL", List.of(point(2004, 25.9, -80.2)));
+        Cyclone pacific =
+                cyclone("EP", List.of(point(2004, 20.0, 179.0), point(2004, 20.0, -179.0)));
+        TrackSegmentIndex index =
+                new TrackSegmentIndex(List.of(crossing, passing, single, pacific));
+        GeoCircle miami = new GeoCircle("Miami", 25.77, -80.19, 50);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.cyclonesNear(miami, null, Integer.MIN_VALUE, Integer.MAX_VALUE))
+                .containsExactly(crossing, single);
+        assertThat(
+                        index.cyclonesNear(
+                                miami,
+                                null,
+                                TemporalIndex.startOfYear(2005),
+                                Integer.MAX_VALUE))
+                .isEmpty();
+        assertThat(
+                        index.cyclonesNear(
+                                List.of(miami, new GeoCircle("dateline", 20.0, 180.0, 10)),
+                                "EP",
+                                Integer.MIN_VALUE,
+                                Integer.MAX_VALUE))
+                .containsExactly(List.of(), List.of(pacific));
+    }
+}
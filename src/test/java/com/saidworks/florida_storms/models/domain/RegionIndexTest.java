@@ -0,0 +1,44 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class RegionIndexTest {
+
+    @Test
+    void testCyclonesWithin_OnePassAgreesWithEachRegion() {
+        Random random = new Random(5);
+        LandfallIndex index =
+                new LandfallIndex(LandfallFixtures.randomCyclones(random, 2_000, 3, "AL", "EP"));
+
+        List<GeoBoundary> boxes = new ArrayList<>();
+        for (int r = 0; r < 150; r++) {
+            double minLat = 9 + random.nextInt(300) / 10.0;
+            double minLon = -101 + random.nextInt(400) / 10.0;
+            boxes.add(
+                    LandfallFixtures.box(
+                            minLat,
+                            minLat + random.nextInt(60) / 10.0,
+                            minLon,
+                            minLon + random.nextInt(60) / 10.0));
+        }
+        // an inverted box matches nothing
+        boxes.add(LandfallFixtures.box(31.0, 24.0, -87.0, -80.0));
+        int from = TemporalIndex.startOfYear(1950);
+        int to = TemporalIndex.endOfYear(1999);
+
+        List<List<Cyclone>> matched = index.cyclonesWithin(new RegionIndex(boxes), "AL", from, to);
+
+        assertThat(matched).hasSize(boxes.size());
+        for (int r = 0; r < boxes.size(); r++) {
+            assertThat(matched.get(r))
+                    .isEqualTo(index.cyclonesWithin(boxes.get(r), "AL", from, to));
+        }
+        assertThat(matched.getLast()).isEmpty();
+    }
+}
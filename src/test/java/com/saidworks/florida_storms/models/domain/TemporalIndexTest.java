@@ -0,0 +1,120 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.domain;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.randomCyclones;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TemporalIndexTest {
+    private static final String ANDREW =
+            "19920824, 0905, L, HU, 25.5N,  80.3W, 145,  922, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String FRANCES =
+            "20040905, 0430, L, HU, 27.2N,  80.2W,  90,  960, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String FRANCES_GULF =
+            "20040906, 1800, L, TS, 30.1N,  84.0W,  55,  982, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    private static int minute(LocalDate date) {
+        return TemporalIndex.epochMinute(date.atStartOfDay());
+    }
+
+    @Test
+    void testYearRangeAndStabbing() {
+        Cyclone andrew =
+                new Cyclone(
+                        HeaderLine.parse("AL041992,          ANDREW,     1,"),
+                        List.of(DataLine.parse(ANDREW)));
+        // the track of Frances runs from August 25 to September 10
+        Cyclone frances =
+                new Cyclone(
+                        HeaderLine.parse("AL062004,         FRANCES,     2,"),
+                        List.of(DataLine.parse(FRANCES), DataLine.parse(FRANCES_GULF)),
+                        minute(LocalDate.of(2004, 8, 25)),
+                        minute(LocalDate.of(2004, 9, 10)));
+        LandfallIndex index = new LandfallIndex(List.of(andrew, frances));
+        TemporalIndex temporal = new TemporalIndex(List.of(andrew, frances));
+
+        assertThat(temporal.pointsBetween(TemporalIndex.startOfYear(1950), Integer.MAX_VALUE))
+                .isEqualTo(3);
+        assertThat(
+                        temporal.cyclonesBetween(
+                                TemporalIndex.startOfYear(1950), TemporalIndex.endOfYear(1992)))
+                .containsExactly(andrew);
+        // between the two landfalls of Frances
+        int september6 = minute(LocalDate.of(2004, 9, 6));
+        assertThat(temporal.cyclonesActive(september6, september6 + 60)).containsExactly(frances);
+        assertThat(temporal.cyclonesBetween(september6, september6 + 60)).isEmpty();
+        // at sea before its first landfall
+        int september1 = minute(LocalDate.of(2004, 9, 1));
+        assertThat(temporal.cyclonesActive(september1, september1 + 60)).containsExactly(frances);
+        assertThat(temporal.cyclonesActive(minute(LocalDate.of(2004, 9, 11)), Integer.MAX_VALUE))
+                .isEmpty();
+        assertThat(
+                        index.cyclonesWithin(
+                                box(24.0, 31.0, -87.0, -80.0),
+                                TemporalIndex.startOfYear(2000),
+                                TemporalIndex.endOfYear(2010)))
+                .containsExactly(frances);
+    }
+
+    @Test
+    void testQueries_AgreeWithScanningEveryPoint() {
+        Random random = new Random(7);
+        LocalDateTime origin = LocalDateTime.of(1900, 1, 1, 0, 0);
+        List<Cyclone> cyclones = randomCyclones(random, 300, 4, "AL");
+        LandfallIndex index = new LandfallIndex(cyclones);
+        TemporalIndex temporal = new TemporalIndex(cyclones);
+
+        for (int query = 0; query < 500; query++) {
+            int from = TemporalIndex.epochMinute(origin.plusHours(random.nextInt(1_000_000)));
+            int to = from + random.nextInt(query % 2 == 0 ? 6_000 : 6_000_000);
+            double minLat = random.nextInt(400) / 10.0;
+            double minLon = -100 + random.nextInt(400) / 10.0;
+            GeoBoundary boundary = box(minLat, minLat + 5, minLon, minLon + 10);
+
+            List<Cyclone> between = new ArrayList<>();
+            List<Cyclone> active = new ArrayList<>();
+            List<Cyclone> within = new ArrayList<>();
+            for (Cyclone cyclone : cyclones) {
+                List<Integer> minutes =
+                        cyclone.getDataLines().stream()
+                                .map(point -> TemporalIndex.epochMinute(point.getDateTime()))
+                                .toList();
+                if (minutes.stream().anyMatch(minute -> minute >= from && minute <= to)) {
+                    between.add(cyclone);
+                }
+                if (cyclone.getFirstTrackMinute() <= to && cyclone.getLastTrackMinute() >= from) {
+                    active.add(cyclone);
+                }
+                if (cyclone.getDataLines().stream()
+                        .anyMatch(
+                                point -> {
+                                    int minute = TemporalIndex.epochMinute(point.getDateTime());
+                                    return minute >= from
+                                            && minute <= to
+                                            && boundary.containsCoordinate(
+                                                    point.getLatitude(),
+                                                    'N',
+                                                    point.getLongitude(),
+                                                    'W');
+                                })) {
+                    within.add(cyclone);
+                }
+            }
+
+            assertThat(temporal.cyclonesBetween(from, to)).isEqualTo(between);
+            assertThat(temporal.cyclonesActive(from, to)).isEqualTo(active);
+            assertThat(temporal.cyclonesWithin(boundary, null, from, to)).isEqualTo(within);
+            assertThat(index.cyclonesWithin(boundary, from, to)).isEqualTo(within);
+        }
+    }
+}
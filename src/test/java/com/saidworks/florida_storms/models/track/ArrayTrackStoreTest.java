@@ -0,0 +1,66 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ArrayTrackStoreTest {
+    private static final String LINE_WEST =
+            "19040913, 1800, L, HU, 25.4N,  80.6W, 140,  910,  180,  150,  110,  150,  100,   90,"
+                    + "   60,   80,   60,   45,   30,   40,   10,";
+    private static final String LINE_EAST =
+            "18510625, 0600,  , EX,  0.0S,   2.5E,  35, -999, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    @Test
+    void testViewsMatchParsedDataLines() {
+        ArrayTrackStore store = new ArrayTrackStore(1);
+        HurdatLineCursor cursor = new HurdatLineCursor();
+        store.append(cursor.reset(LINE_WEST).parseDataLine());
+        store.append(cursor.reset(LINE_EAST).parseDataLine());
+
+        assertThat(store.slice(0, 2))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(DataLine.parse(LINE_WEST), DataLine.parse(LINE_EAST));
+        assertThat(store.latitudeTenths(0)).isEqualTo(254);
+        assertThat(store.longitudeTenths(0)).isEqualTo(-806);
+        assertThat(store.longitudeTenths(1)).isEqualTo(25);
+    }
+
+    @Test
+    void testAppendAllCopiesSlicesAndDataLines() {
+        ArrayTrackStore batchStore = new ArrayTrackStore();
+        batchStore.append(new HurdatLineCursor().reset(LINE_WEST).parseDataLine());
+
+        ArrayTrackStore merged = new ArrayTrackStore();
+        merged.appendAll(batchStore.slice(0, 1));
+        merged.appendAll(List.of(DataLine.parse(LINE_EAST)));
+
+        assertThat(merged.size()).isEqualTo(2);
+        assertThat(merged.slice(0, 2))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(DataLine.parse(LINE_WEST), DataLine.parse(LINE_EAST));
+    }
+
+    @Test
+    void testAnyPointWithinUsesSignedCoordinates() {
+        ArrayTrackStore store = new ArrayTrackStore();
+        store.append(new HurdatLineCursor().reset(LINE_WEST).parseDataLine());
+        GeoBoundary florida =
+                GeoBoundary.builder()
+                        .minLatitude(24.0)
+                        .maxLatitude(31.0)
+                        .minLongitude(-87.0)
+                        .maxLongitude(-80.0)
+                        .build();
+
+        assertThat(store.slice(0, 1).anyPointWithin(florida)).isTrue();
+        florida.setMaxLongitude(-81.0);
+        assertThat(store.slice(0, 1).anyPointWithin(florida)).isFalse();
+    }
+}
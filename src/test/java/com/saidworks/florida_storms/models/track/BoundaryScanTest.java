@@ -0,0 +1,56 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BoundaryScanTest {
+
+    @Test
+    void testNextMatch_AgreesWithContainsTenths() {
+        Random random = new Random(42);
+        short[] latitudes = new short[4_099];
+        short[] longitudes = new short[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = (short) (random.nextInt(1_801) - 900);
+            longitudes[i] = (short) (random.nextInt(3_601) - 1_800);
+        }
+
+        for (int query = 0; query < 2_000; query++) {
+            // bounds on a tenth, between two tenths or with a rounding error like -87.9 * 10
+            double minLat = (random.nextInt(1_701) - 900) / 10.0 + (query % 3) * 0.05;
+            double minLon = (random.nextInt(3_401) - 1_800) / 10.0 - (query % 2) * 0.07;
+            GeoBoundary boundary =
+                    box(minLat, minLat + random.nextInt(200) / 10.0, minLon, minLon + 20.3);
+            BoundaryScan scan = BoundaryScan.of(boundary);
+            int from = random.nextInt(latitudes.length);
+            int to = from + random.nextInt(latitudes.length - from + 1);
+
+            int expected = to;
+            for (int i = from; i < to; i++) {
+                if (boundary.containsTenths(latitudes[i], longitudes[i])) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertThat(scan.nextMatch(latitudes, longitudes, from, to)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testNextMatch_EmptyAndInvertedBoundaries() {
+        short[] latitudes = {254, 254};
+        short[] longitudes = {-806, -806};
+
+        BoundaryScan inverted = BoundaryScan.of(box(31.0, 24.0, -87.0, -80.0));
+        BoundaryScan point = BoundaryScan.of(box(25.4, 25.4, -80.6, -80.6));
+
+        assertThat(inverted.nextMatch(latitudes, longitudes, 0, 2)).isEqualTo(2);
+        assertThat(point.nextMatch(latitudes, longitudes, 0, 2)).isZero();
+        assertThat(BoundaryScan.of(box(25.41, 25.5, -81, -80)).contains(254, -806)).isFalse();
+    }
+}
@@ -0,0 +1,35 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+
+    @Test
+    void testEncode_KeepsCodesWhileGrowing() {
+        SymbolTable table = new SymbolTable("test symbols", 100, "A");
+
+        for (int i = 1; i < 100; i++) {
+            assertThat(table.encode("S" + i)).isEqualTo(i);
+        }
+
+        assertThat(table.size()).isEqualTo(100);
+        assertThat(table.decode(0)).isEqualTo("A");
+        assertThat(table.decode(42)).isEqualTo("S42");
+        assertThat(table.symbols()).hasSize(100).startsWith("A", "S1");
+        assertThatThrownBy(() -> table.encode("S100")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testIntern_KeepsUnknownSymbolOnceFull() {
+        SymbolTable table = new SymbolTable("test symbols", 2, "A", "B");
+        String unknown = new String("C");
+
+        assertThat(table.intern(new String("A"))).isSameAs(table.decode(0));
+        assertThat(table.intern(unknown)).isSameAs(unknown);
+        assertThat(table.size()).isEqualTo(2);
+    }
+}
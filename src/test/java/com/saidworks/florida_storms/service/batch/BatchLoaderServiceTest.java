@@ -0,0 +1,316 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.batch.IngestionCheckpoint;
+import com.saidworks.florida_storms.models.batch.RawBatch;
+import com.saidworks.florida_storms.models.batch.TailBatches;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class BatchLoaderServiceTest {
+    private static final String FIRST_CYCLONE =
+            """
+            AL011851,            UNNAMED,     1,
+            18510625, 0000,  , HU, 28.0N,  94.8W,  80, -999, -999, -999, -999, -999, -999, -999,\
+             -999, -999, -999, -999, -999, -999,
+            """;
+    private static final String SECOND_CYCLONE_START =
+            """
+            AL021851,            UNNAMED,     2,
+            18510705, 1200,  , HU, 22.2N,  97.6W,  80, -999, -999, -999, -999, -999, -999, -999,\
+             -999, -999, -999, -999, -999, -999,
+            """;
+    private static final String APPENDED =
+            """
+            18510706, 0000,  , TS, 22.5N,  98.0W,  50, -999, -999, -999, -999, -999, -999, -999,\
+             -999, -999, -999, -999, -999, -999,
+            AL031851,            UNNAMED,     1,
+            18510710, 1200,  , TS, 22.2N,  97.6W,  50, -999, -999, -999, -999, -999, -999, -999,\
+             -999, -999, -999, -999, -999, -999,
+            """;
+
+    @TempDir Path directory;
+
+    private Path source;
+    private BatchLoaderService batchLoaderService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        source = directory.resolve("hurdat2.txt");
+        Files.writeString(source, FIRST_CYCLONE + SECOND_CYCLONE_START);
+
+        CycloneProcessingProperties properties = new CycloneProcessingProperties();
+        properties.getProcessing().setChunkSize(1000);
+        batchLoaderService =
+                new BatchLoaderService(
+                        properties,
+                        new DefaultResourceLoader(),
+                        Executors.newSingleThreadExecutor(),
+                        Executors.newSingleThreadExecutor());
+    }
+
+    private String location() {
+        return source.toUri().toString();
+    }
+
+    private static List<RawBatch> collect(Flow.Publisher<RawBatch> publisher) {
+        List<RawBatch> batches = new ArrayList<>();
+        CompletableFuture<List<RawBatch>> done = new CompletableFuture<>();
+        publisher.subscribe(
+                new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(RawBatch batch) {
+                        batches.add(batch);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        done.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        done.complete(batches);
+                    }
+                });
+        return done.join();
+    }
+
+    /**
+     * Trimmed non blank lines of a batch, read from the mapping for mapped batches
+     */
+    private static List<String> linesOf(RawBatch batch) {
+        if (!batch.isMapped()) {
+            return batch.getLines();
+        }
+        long length = batch.getEndOffset() - batch.getStartOffset();
+        byte[] bytes =
+                batch.getSource()
+                        .asSlice(batch.getStartOffset(), length)
+                        .toArray(ValueLayout.JAVA_BYTE);
+        return new String(bytes, StandardCharsets.US_ASCII)
+                .lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .toList();
+    }
+
+    @Test
+    void testPublishBatches_MappedLoaderMatchesStreamLoader() throws IOException {
+        // a short first cyclone then a long one, the middle of the file falls inside the long one
+        StringBuilder text = new StringBuilder(FIRST_CYCLONE);
+        text.append("AL021851,            UNNAMED,    40,\n");
+        for (int point = 0; point < 40; point++) {
+            text.append(
+                    String.format(
+                            "185107%02d, %02d00,  , HU, 22.2N,  97.6W,  80, -999, -999, -999,"
+                                    + " -999, -999, -999, -999, -999, -999, -999, -999, -999,"
+                                    + " -999,\n",
+                            5 + point / 4,
+                            point % 4 * 6));
+        }
+        text.append(SECOND_CYCLONE_START.replace("AL021851", "AL031851"));
+        Files.writeString(source, text);
+        long middle = Files.size(source) / 2;
+        assertThat(text.indexOf("AL021851")).isLessThan((int) middle);
+        assertThat(text.indexOf("AL031851")).isGreaterThan((int) middle);
+
+        CycloneProcessingProperties streamProperties = new CycloneProcessingProperties();
+        CycloneProcessingProperties mappedProperties = new CycloneProcessingProperties();
+        mappedProperties
+                .getProcessing()
+                .setLoaderMode(CycloneProcessingProperties.LoaderMode.MAPPED);
+        mappedProperties.getProcessing().setScanParallelism(2);
+        List<RawBatch> streamed =
+                collect(
+                        new BatchLoaderService(
+                                        streamProperties,
+                                        new DefaultResourceLoader(),
+                                        Executors.newFixedThreadPool(4),
+                                        Executors.newSingleThreadExecutor())
+                                .publishBatches(location(), 4, 2));
+        List<RawBatch> mapped =
+                collect(
+                        new BatchLoaderService(
+                                        mappedProperties,
+                                        new DefaultResourceLoader(),
+                                        Executors.newFixedThreadPool(4),
+                                        Executors.newSingleThreadExecutor())
+                                .publishBatches(location(), 4, 2));
+
+        assertThat(mapped).allMatch(RawBatch::isMapped);
+        assertThat(mapped.stream().flatMap(batch -> linesOf(batch).stream()))
+                .containsExactlyElementsOf(
+                        streamed.stream().flatMap(batch -> linesOf(batch).stream()).toList());
+        assertThat(mapped).extracting(RawBatch::getBatchId).containsExactly(0, 1, 2);
+        assertThat(mapped)
+                .extracting(RawBatch::getLineCount)
+                .isEqualTo(streamed.stream().map(RawBatch::getLineCount).toList());
+        // the cyclone cut by the range split is read whole by the first range
+        assertThat(linesOf(mapped.get(1))).hasSize(41);
+        assertThat(linesOf(mapped.get(1)).getFirst()).startsWith("AL021851");
+        assertThat(mapped)
+                .extracting(batch -> linesOf(batch).getFirst())
+                .allMatch(line -> line.chars().filter(ch -> ch == ',').count() <= 3);
+    }
+
+    @Test
+    void testPublishBatches_MappedRangesLeaveRoomForTheProcessingStage() throws IOException {
+        Files.writeString(source, FIRST_CYCLONE + SECOND_CYCLONE_START + APPENDED);
+        CycloneProcessingProperties properties = new CycloneProcessingProperties();
+        properties.getProcessing().setLoaderMode(CycloneProcessingProperties.LoaderMode.MAPPED);
+        properties.getProcessing().setScanParallelism(8);
+        // one thread and one queued task, fewer than the 4 batches the processing stage keeps
+        ThreadPoolExecutor pool =
+                new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+
+        List<RawBatch> mapped =
+                collect(
+                        new BatchLoaderService(
+                                        properties,
+                                        new DefaultResourceLoader(),
+                                        pool,
+                                        Executors.newSingleThreadExecutor())
+                                .publishBatches(location(), 4, 2));
+
+        assertThat(mapped.stream().flatMap(batch -> linesOf(batch).stream()))
+                .containsExactlyElementsOf(
+                        collect(batchLoaderService.publishBatches(location(), 4, 2)).stream()
+                                .flatMap(batch -> linesOf(batch).stream())
+                                .toList());
+        // the single range is scanned by the reader, nothing was submitted to the pool
+        assertThat(pool.getTaskCount()).isZero();
+        pool.shutdown();
+    }
+
+    @Test
+    void testPublishBatches_CompletesChecksumOfTheParsedBytes() throws IOException {
+        CycloneProcessingProperties mappedProperties = new CycloneProcessingProperties();
+        mappedProperties
+                .getProcessing()
+                .setLoaderMode(CycloneProcessingProperties.LoaderMode.MAPPED);
+        BatchLoaderService mappedLoader =
+                new BatchLoaderService(
+                        mappedProperties,
+                        new DefaultResourceLoader(),
+                        Executors.newSingleThreadExecutor(),
+                        Executors.newSingleThreadExecutor());
+        long checksum = batchLoaderService.sourceChecksum(location());
+
+        CompletableFuture<Long> streamed = new CompletableFuture<>();
+        collect(batchLoaderService.publishBatches(location(), 4, 2, streamed));
+        CompletableFuture<Long> mapped = new CompletableFuture<>();
+        collect(mappedLoader.publishBatches(location(), 4, 2, mapped));
+        assertThat(streamed).isCompletedWithValue(checksum);
+        assertThat(mapped).isCompletedWithValue(checksum);
+
+        // the file changed after it was checked, the parsed bytes decide the checksum
+        Files.writeString(source, APPENDED, StandardOpenOption.APPEND);
+        CompletableFuture<Long> appended = new CompletableFuture<>();
+        collect(mappedLoader.publishBatches(location(), 4, 2, appended));
+        assertThat(appended.join())
+                .isNotEqualTo(checksum)
+                .isEqualTo(batchLoaderService.sourceChecksum(location()));
+    }
+
+    @Test
+    void testLoadTailBatches_StartsAtLastHeader() throws IOException {
+        IngestionCheckpoint checkpoint =
+                batchLoaderService.createCheckpoint(location()).orElseThrow();
+        assertThat(checkpoint.getLastCycloneId()).isEqualTo("AL021851");
+        assertThat(checkpoint.getLastHeaderLineNumber()).isEqualTo(2);
+
+        Files.writeString(source, APPENDED, StandardOpenOption.APPEND);
+        TailBatches tail = batchLoaderService.loadTailBatches(location(), checkpoint).orElseThrow();
+
+        assertThat(tail.getBatches()).hasSize(1);
+        assertThat(tail.getBatches().get(0).getStartLineNumber()).isEqualTo(2);
+        assertThat(tail.getBatches().get(0).getLineCount()).isEqualTo(5);
+        assertThat(tail.getCheckpoint().getLastCycloneId()).isEqualTo("AL031851");
+        assertThat(tail.getCheckpoint().getLastHeaderLineNumber()).isEqualTo(5);
+    }
+
+    @Test
+    void testLoadTailBatches_RejectsModifiedPrefix() throws IOException {
+        IngestionCheckpoint checkpoint =
+                batchLoaderService.createCheckpoint(location()).orElseThrow();
+
+        Files.writeString(
+                source, FIRST_CYCLONE.replace("HU", "TS") + SECOND_CYCLONE_START + APPENDED);
+        Optional<TailBatches> tail = batchLoaderService.loadTailBatches(location(), checkpoint);
+
+        assertThat(tail).isEmpty();
+    }
+
+    @Test
+    void testLoadBatches_InflatesCompressedSources() throws IOException {
+        byte[] text =
+                (FIRST_CYCLONE + SECOND_CYCLONE_START + APPENDED)
+                        .getBytes(StandardCharsets.US_ASCII);
+        Files.write(source, text);
+        Path gzip = directory.resolve("hurdat2.txt.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            output.write(text);
+        }
+        Path zip = directory.resolve("hurdat2.zip");
+        try (ZipOutputStream output = new ZipOutputStream(Files.newOutputStream(zip))) {
+            output.putNextEntry(new ZipEntry("hurdat2.txt"));
+            output.write(text);
+        }
+
+        CycloneProcessingProperties properties = new CycloneProcessingProperties();
+        properties.getProcessing().setChunkSize(2);
+        // buffers shorter than a line, the ring wraps many times per batch
+        properties.getProcessing().setDecompressionBuffers(2);
+        properties.getProcessing().setDecompressionBufferSize(16);
+        BatchLoaderService loader =
+                new BatchLoaderService(
+                        properties,
+                        new DefaultResourceLoader(),
+                        Executors.newSingleThreadExecutor(),
+                        Executors.newSingleThreadExecutor());
+
+        List<RawBatch> plain = collect(loader.publishBatches(location(), 4, 2));
+        assertThat(plain).hasSize(3);
+        assertThat(collect(loader.publishBatches(gzip.toUri().toString(), 4, 2)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(plain);
+        assertThat(collect(loader.publishBatches(zip.toUri().toString(), 4, 2)))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(plain);
+        assertThat(loader.createCheckpoint(gzip.toUri().toString())).isEmpty();
+        // the text of a compressed source is checksummed, not its compressed bytes
+        assertThat(loader.sourceChecksum(zip.toUri().toString()))
+                .isEqualTo(loader.sourceChecksum(gzip.toUri().toString()))
+                .isEqualTo(loader.sourceChecksum(location()));
+    }
+}
@@ -0,0 +1,75 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class BatchMergerServiceTest {
+    private static final String LANDFALL =
+            "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    private final BatchMergerService batchMergerService =
+            new BatchMergerService(Executors.newFixedThreadPool(2));
+
+    private static ProcessedBatch batch(int batchId, String header) {
+        HeaderLine headerLine = header == null ? null : HeaderLine.parse(header);
+        ProcessedBatch.PartialCyclone partial =
+                ProcessedBatch.PartialCyclone.builder()
+                        .cycloneId(headerLine == null ? "UNKNOWN" : headerLine.getCycloneId())
+                        .header(headerLine)
+                        .isHeaderPresent(headerLine != null)
+                        .dataLines(Collections.nCopies(1, DataLine.parse(LANDFALL)))
+                        .build();
+        return ProcessedBatch.createEmptyBatch(batchId).partialCyclones(List.of(partial)).build();
+    }
+
+    @Test
+    void testMergeBatches_TreeReduceKeepsFileOrder() {
+        // one cyclone every 5 batches, the batches in between only continue it, so continuations
+        // cross the ranges folded by separate tasks
+        List<ProcessedBatch> batches = new ArrayList<>();
+        for (int batchId = 0; batchId < 60; batchId++) {
+            String header =
+                    batchId % 5 == 0
+                            ? String.format("AL%02d2004,         UNNAMED,     5,", batchId / 5 + 1)
+                            : null;
+            batches.add(batch(batchId, header));
+        }
+        CycloneAccumulator sequential = new CycloneAccumulator();
+        batches.forEach(sequential::add);
+        List<Cyclone> folded = sequential.finish();
+
+        List<Cyclone> merged = batchMergerService.mergeBatches(batches);
+
+        assertThat(merged).hasSize(12).allSatisfy(c -> assertThat(c.getDataLines()).hasSize(5));
+        assertThat(merged)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(folded);
+    }
+
+    @Test
+    void testAppendTailBatches_KeepsRetainedCyclonesFirst() {
+        List<Cyclone> retained =
+                batchMergerService.mergeBatches(
+                        List.of(batch(0, "AL012004,         UNNAMED,     2,"), batch(1, null)));
+
+        List<Cyclone> cyclones =
+                batchMergerService.appendTailBatches(
+                        retained, List.of(batch(0, "AL022004,         UNNAMED,     1,")));
+
+        assertThat(cyclones)
+                .extracting(cyclone -> cyclone.getHeader().getCycloneId())
+                .containsExactly("AL012004", "AL022004");
+        assertThat(cyclones.getFirst()).isSameAs(retained.getFirst());
+    }
+}
@@ -3,10 +3,17 @@ package com.saidworks.florida_storms.service.batch;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
 import com.saidworks.florida_storms.models.batch.ProcessedBatch;
 import com.saidworks.florida_storms.models.batch.RawBatch;
+import com.saidworks.florida_storms.models.domain.Cyclone;
 import com.saidworks.florida_storms.models.domain.DataLine;
 import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.domain.TemporalIndex;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -20,7 +27,7 @@ class BatchProcessorServiceTest {
     private final ExecutorService executorService = Executors.newFixedThreadPool(2);
 
     private final BatchProcessorService batchProcessorService =
-            new BatchProcessorService(executorService);
+            new BatchProcessorService(executorService, new CycloneProcessingProperties());
 
     // Test method for processBatch with valid data
     @Test
@@ -73,6 +80,9 @@ class BatchProcessorServiceTest {
                                                     + " -999, -999, -999, -999, -999")))
                         .isHeaderPresent(true)
                         .isComplete(false)
+                        .cycloneYear(1951)
+                        .firstMinute(TemporalIndex.epochMinute(LocalDateTime.of(1951, 8, 16, 0, 0)))
+                        .lastMinute(TemporalIndex.epochMinute(LocalDateTime.of(1951, 8, 17, 0, 0)))
                         .build();
 
         expectedBatchBuilder.partialCyclones(List.of(partialCyclone1));
@@ -89,6 +99,150 @@ class BatchProcessorServiceTest {
         log.info("Validation successful: {}", result);
     }
 
+    // Lazy track points decode the radii on access with the same result, short lines are rejected
+    // Snapshots are enabled by default and do not turn the deferral off
+    @Test
+    void testProcessBatch_LazyTrackPointsMatchEagerParsing() {
+        CycloneProcessingProperties lazyProperties = new CycloneProcessingProperties();
+        lazyProperties.getProcessing().setLazyTrackPoints(true);
+        BatchProcessorService lazyProcessorService =
+                new BatchProcessorService(executorService, lazyProperties);
+        String text =
+                String.join(
+                        "\n",
+                        "AL092004,            IVAN,     3,",
+                        "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946,  180,  150,  110,  150,"
+                                + "  100,   90,   60,   80,   60,   45,   30,   40,   10,",
+                        "20040916, 1200, L, HU, 31.4N,  87.7W,  70,  965,",
+                        "20040916, 1800, L, HU, 32.0N,  87.5W,  60,  975,  170,  150,  110,  150,"
+                                + "  100,   90,   60,   80,   60,   45,   30,   40,   10,");
+        RawBatch rawBatch =
+                RawBatch.builder()
+                        .batchId(1)
+                        .source(MemorySegment.ofArray(text.getBytes(StandardCharsets.US_ASCII)))
+                        .startOffset(0)
+                        .endOffset(text.length())
+                        .startLineNumber(0)
+                        .endLineNumber(4)
+                        .build();
+
+        ProcessedBatch eager = batchProcessorService.processBatch(rawBatch).join();
+        ProcessedBatch lazy = lazyProcessorService.processBatch(rawBatch).join();
+
+        assertThat(lazy)
+                .usingRecursiveComparison()
+                .ignoringFields("processingTimeMs")
+                .isEqualTo(eager);
+        assertThat(lazy.getValidationErrors()).hasSize(1);
+        assertThat(lazy.getPartialCyclones().get(0).getDataLines()).hasSize(2);
+        assertThat(lazy.getPartialCyclones().get(0).getDataLines().get(0).getMaxWindRadius())
+                .isEqualTo(10);
+    }
+
+    // Predicates are evaluated on the raw fields while the batch is parsed
+    @Test
+    void testProcessBatch_PredicatePushdown() {
+        RawBatch rawBatch =
+                RawBatch.builder()
+                        .batchId(1)
+                        .lines(
+                                List.of(
+                                        "AL011899,            UNNAMED,     1,",
+                                        "18990801, 1200, L, HU, 30.2N,  87.9W, 105,  946,",
+                                        "AL092004,            IVAN,     3,",
+                                        "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946,  180,"
+                                                + "  150,  110,  150,  100,   90,   60,   80,   60,"
+                                                + "   45,   30,   40,   10,",
+                                        "20040916, 1200,  , TS, 31.4N,  87.7W,  50,  965,  170,"
+                                                + "  150,  110,  150,  100,   90,   60,   80,   60,"
+                                                + "   45,   30,   40,   10,",
+                                        "20040916, 1800,  , TS, 32.0N,  87.5W,  45,  975,  n/a,"
+                                                + "  150,  110,  150,  100,   90,   60,   80,   60,"
+                                                + "   45,   30,   40,   10,"))
+                        .startLineNumber(0)
+                        .endLineNumber(6)
+                        .build();
+
+        TrackPredicate strongSince2000 =
+                TrackPredicate.forYears(2000, 2010).toBuilder().minWindSpeed(60).build();
+        ProcessedBatch result =
+                batchProcessorService.processBatch(rawBatch, strongSince2000).join();
+
+        // the 1899 cyclone is kept without fully parsing its short data line, the radii of the
+        // dropped tropical storm points are never decoded
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getPartialCyclones()).hasSize(2);
+        assertThat(result.getPartialCyclones().get(0).getDataLines()).isEmpty();
+        assertThat(result.getPartialCyclones().get(1).getDataLines())
+                .extracting(DataLine::getMaxWindSpeed)
+                .containsExactly(105);
+        // the span of the track still ends at the last dropped tropical storm point
+        assertThat(result.getPartialCyclones().get(1).getLastMinute())
+                .isEqualTo(TemporalIndex.epochMinute(LocalDateTime.of(2004, 9, 16, 18, 0)));
+
+        ProcessedBatch all =
+                batchProcessorService.processBatch(rawBatch, TrackPredicate.ALL).join();
+        assertThat(all.isValid()).isFalse();
+        assertThat(all.getValidationErrors()).hasSize(2);
+        assertThat(all.getPartialCyclones().get(1).getDataLines()).hasSize(2);
+    }
+
+    // A batch continuing a cyclone of the previous batch takes the year of the header batch
+    @Test
+    void testProcessBatch_ContinuationKeepsTheYearOfItsHeader() {
+        String point =
+                ", 1200,  , TS, 25.0N,  80.0W,  50,  990, -999, -999, -999, -999, -999, -999,"
+                        + " -999, -999, -999, -999, -999, -999";
+        RawBatch header =
+                RawBatch.builder()
+                        .batchId(0)
+                        .lines(List.of("AL202000,         UNNAMED,     2,", "20001231" + point))
+                        .startLineNumber(0)
+                        .endLineNumber(2)
+                        .build();
+        RawBatch continuation =
+                RawBatch.builder()
+                        .batchId(1)
+                        .lines(List.of("20010101" + point))
+                        .startLineNumber(2)
+                        .endLineNumber(3)
+                        .build();
+        RawBatch tooEarly =
+                RawBatch.builder()
+                        .batchId(0)
+                        .lines(List.of("AL201998,         UNNAMED,     2,", "19981231" + point))
+                        .startLineNumber(0)
+                        .endLineNumber(2)
+                        .build();
+        RawBatch nextYear =
+                RawBatch.builder()
+                        .batchId(1)
+                        .lines(List.of("19990101" + point))
+                        .startLineNumber(2)
+                        .endLineNumber(3)
+                        .build();
+
+        TrackPredicate upTo2000 = TrackPredicate.forYears(1999, 2000);
+        CycloneAccumulator accumulator = new CycloneAccumulator();
+        accumulator.add(batchProcessorService.processBatch(header, upTo2000).join());
+        accumulator.add(batchProcessorService.processBatch(continuation, upTo2000).join());
+        Cyclone cyclone = accumulator.finish().getFirst();
+
+        // the 2001 point is dropped by its date but still ends the span of the 2000 cyclone
+        assertThat(cyclone.getDataLines()).hasSize(1);
+        assertThat(cyclone.getLastTrackMinute())
+                .isEqualTo(TemporalIndex.epochMinute(LocalDateTime.of(2001, 1, 1, 12, 0)));
+
+        // the continuation of a cyclone that can not match is dropped with its header batch
+        TrackPredicate from2000 = TrackPredicate.forYears(2000, 2010);
+        CycloneAccumulator dropped = new CycloneAccumulator();
+        dropped.add(batchProcessorService.processBatch(tooEarly, from2000).join());
+        dropped.add(batchProcessorService.processBatch(nextYear, from2000).join());
+        Cyclone early = dropped.finish().getFirst();
+        assertThat(early.getDataLines()).isEmpty();
+        assertThat(early.getLastTrackMinute()).isEqualTo(Integer.MIN_VALUE);
+    }
+
     // Test method for validateBatch
     @Test
     void testValidateBatch_Valid() {
@@ -0,0 +1,101 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.batch.RawBatch;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class ChunkSizeTunerTest {
+    @TempDir Path directory;
+
+    private final CycloneProcessingProperties properties = new CycloneProcessingProperties();
+    // 4 workers and 8 queued tasks, a file is cut in 4 to 12 batches
+    private final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(4, 8, 1, TimeUnit.SECONDS, new ArrayBlockingQueue<>(8));
+
+    private String source;
+    private ChunkSizeTuner chunkSizeTuner;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // about 4000 lines
+        Path file = directory.resolve("hurdat2.txt");
+        Files.write(file, new byte[120 * 4000]);
+        source = file.toUri().toString();
+
+        properties.getProcessing().setChunkSize(1000);
+        properties
+                .getProcessing()
+                .setChunkSizeMode(CycloneProcessingProperties.ChunkSizeMode.ADAPTIVE);
+        chunkSizeTuner = new ChunkSizeTuner(properties, new DefaultResourceLoader(), executor);
+    }
+
+    private static void record(
+            ChunkSizeTuner.BatchTimings timings, int batches, int lines, long processingMs) {
+        for (int i = 0; i < batches; i++) {
+            timings.record(
+                    RawBatch.builder().batchId(i).lines(Collections.nCopies(lines, "")).build(),
+                    ProcessedBatch.createEmptyBatch(i).processingTimeMs(processingMs).build());
+        }
+    }
+
+    @Test
+    void testChunkSize_FixedModeUsesConfiguredSize() {
+        properties
+                .getProcessing()
+                .setChunkSizeMode(CycloneProcessingProperties.ChunkSizeMode.FIXED);
+
+        ChunkSizeTuner.BatchTimings timings = chunkSizeTuner.timings(source);
+        record(timings, 4, 1000, 500);
+        chunkSizeTuner.update(timings);
+
+        assertThat(chunkSizeTuner.chunkSize(source)).isEqualTo(1000);
+    }
+
+    @Test
+    void testChunkSize_InitialBatchesFitInExecutor() {
+        // 16 batches of 250 lines would overflow the queue, 12 batches of 334 lines fit
+        assertThat(chunkSizeTuner.chunkSize(source)).isEqualTo(334);
+    }
+
+    @Test
+    void testUpdate_ConvergesTowardsTargetBatchTime() {
+        ChunkSizeTuner.BatchTimings fast = chunkSizeTuner.timings(source);
+        // 0.1ms per line, 500 lines take the 50ms target
+        record(fast, 10, 400, 40);
+        chunkSizeTuner.update(fast);
+        assertThat(chunkSizeTuner.chunkSize(source)).isEqualTo((334 + 500) / 2);
+
+        ChunkSizeTuner.BatchTimings slow = chunkSizeTuner.timings(source);
+        // 1ms per line, smaller batches would no longer fit in the executor
+        record(slow, 10, 400, 400);
+        chunkSizeTuner.update(slow);
+        assertThat(chunkSizeTuner.chunkSize(source)).isEqualTo(334);
+    }
+
+    @Test
+    void testMaxInFlightBatches_FitInExecutorForEveryPipeline() {
+        // 8 threads and 8 queued tasks accept 16 batches before rejecting one
+        properties.getProcessing().setMaxInFlightBatches(64);
+
+        assertThat(chunkSizeTuner.maxInFlightBatches(1)).isEqualTo(16);
+        assertThat(chunkSizeTuner.maxInFlightBatches(2)).isEqualTo(8);
+        assertThat(chunkSizeTuner.maxInFlightBatches(32)).isEqualTo(1);
+
+        properties.getProcessing().setMaxInFlightBatches(4);
+        assertThat(chunkSizeTuner.maxInFlightBatches(2)).isEqualTo(4);
+    }
+}
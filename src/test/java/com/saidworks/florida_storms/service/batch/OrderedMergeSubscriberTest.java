@@ -0,0 +1,128 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.models.batch.ProcessedBatch;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import org.junit.jupiter.api.Test;
+
+class OrderedMergeSubscriberTest {
+    private static final String LANDFALL =
+            "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    private final BatchMergerService batchMergerService = new BatchMergerService(executorService);
+
+    private static ProcessedBatch batch(int batchId, ProcessedBatch.PartialCyclone... partials) {
+        return ProcessedBatch.createEmptyBatch(batchId).partialCyclones(List.of(partials)).build();
+    }
+
+    private static ProcessedBatch.PartialCyclone partial(String header, int points) {
+        HeaderLine headerLine = header == null ? null : HeaderLine.parse(header);
+        return ProcessedBatch.PartialCyclone.builder()
+                .cycloneId(headerLine == null ? "UNKNOWN" : headerLine.getCycloneId())
+                .header(headerLine)
+                .isHeaderPresent(headerLine != null)
+                .dataLines(Collections.nCopies(points, DataLine.parse(LANDFALL)))
+                .build();
+    }
+
+    @Test
+    void testOrderedMerge_FoldsOutOfOrderBatchesInBatchOrder() {
+        List<ProcessedBatch> batches =
+                List.of(
+                        batch(0, partial("AL092004,            IVAN,     3,", 1)),
+                        batch(1, partial(null, 2), partial("AL102004,          JEANNE,     1,", 1)),
+                        batch(2, partial("AL112004,            KARL,     1,", 1)));
+        List<Cyclone> expected = batchMergerService.mergeBatches(batches);
+
+        OrderedMergeSubscriber merge = batchMergerService.orderedMerge(3);
+        try (SubmissionPublisher<ProcessedBatch> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(merge);
+            publisher.submit(batches.get(2));
+            publisher.submit(batches.get(1));
+            publisher.submit(batches.get(0));
+        }
+        List<Cyclone> merged = merge.result().join();
+
+        assertThat(merged)
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+        assertThat(merged.get(0).getDataLines()).hasSize(3);
+    }
+
+    @Test
+    void testOrderedMerge_RequestsOnlyWhatItFolds() {
+        List<Long> requests = new ArrayList<>();
+        OrderedMergeSubscriber merge = batchMergerService.orderedMerge(3);
+        merge.onSubscribe(
+                new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        requests.add(n);
+                    }
+
+                    @Override
+                    public void cancel() {}
+                });
+        assertThat(requests).containsExactly(3L);
+
+        // batches ahead of batch 0 wait without being replaced
+        merge.onNext(batch(2, partial("AL112004,            KARL,     1,", 1)));
+        merge.onNext(batch(1, partial("AL102004,          JEANNE,     1,", 1)));
+        assertThat(requests).containsExactly(3L);
+
+        merge.onNext(batch(0, partial("AL092004,            IVAN,     1,", 1)));
+        assertThat(requests).containsExactly(3L, 3L);
+        merge.onComplete();
+        assertThat(merge.result().join()).hasSize(3);
+    }
+
+    @Test
+    void testOrderedMerge_MergesRunsOfShuffledBatches() {
+        // one cyclone every 5 batches, continuations cross the runs merged out of order
+        List<ProcessedBatch> batches = new ArrayList<>();
+        for (int batchId = 0; batchId < 60; batchId++) {
+            batches.add(
+                    batchId % 5 == 0
+                            ? batch(
+                                    batchId,
+                                    partial(
+                                            String.format(
+                                                    "AL%02d2004,         UNNAMED,     5,",
+                                                    batchId / 5 + 1),
+                                            1))
+                            : batch(batchId, partial(null, 1)));
+        }
+        List<ProcessedBatch> shuffled = new ArrayList<>(batches);
+        Collections.shuffle(shuffled, new Random(13));
+
+        OrderedMergeSubscriber merge = batchMergerService.orderedMerge(batches.size());
+        merge.onSubscribe(
+                new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {}
+
+                    @Override
+                    public void cancel() {}
+                });
+        shuffled.forEach(merge::onNext);
+        merge.onComplete();
+
+        assertThat(merge.result().join())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(batchMergerService.mergeBatches(batches));
+    }
+}
@@ -0,0 +1,173 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.batch.IngestionCheckpoint;
+import com.saidworks.florida_storms.models.batch.TailIngestion;
+import com.saidworks.florida_storms.models.domain.BasinPartition;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.CycloneDataset;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import com.saidworks.florida_storms.service.batch.CycloneProcessingOrchestrator;
+import com.saidworks.florida_storms.service.landfall.GeometricLandfallService;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class CycloneDatasetHolderTest {
+    private final CycloneProcessingOrchestrator orchestrator =
+            mock(CycloneProcessingOrchestrator.class);
+
+    private final GeometricLandfallService geometricLandfallService =
+            mock(GeometricLandfallService.class);
+
+    private final CycloneDatasetHolder datasetHolder =
+            new CycloneDatasetHolder(
+                    orchestrator,
+                    geometricLandfallService,
+                    new CycloneProcessingProperties(),
+                    new DefaultResourceLoader(),
+                    Executors.newSingleThreadExecutor());
+
+    private static List<BasinPartition> partition(String... headers) {
+        List<Cyclone> cyclones =
+                Arrays.stream(headers)
+                        .map(header -> new Cyclone(HeaderLine.parse(header)))
+                        .toList();
+        return List.of(new BasinPartition("hurdat2.txt", cyclones, null));
+    }
+
+    @Test
+    void testGetDataset_BuildsOnceAndReusesDataset() throws IOException {
+        when(orchestrator.processAllCyclones())
+                .thenReturn(partition("AL011851,            UNNAMED,     14,"));
+
+        CycloneDataset first = datasetHolder.getDataset();
+        CycloneDataset second = datasetHolder.getDataset();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.version()).isEqualTo(1);
+        verify(orchestrator, times(1)).processAllCyclones();
+    }
+
+    @Test
+    void testReload_SwapsDatasetAndKeepsPreviousOnFailure() throws IOException {
+        when(orchestrator.processAllCyclones())
+                .thenReturn(partition("AL011851,            UNNAMED,     14,"))
+                .thenReturn(partition("AL092004,            IVAN,     2,"))
+                .thenThrow(new IOException("file is being rewritten"));
+        CycloneDataset initial = datasetHolder.getDataset();
+
+        datasetHolder.reload();
+        CycloneDataset reloaded = datasetHolder.getDataset();
+        datasetHolder.reload();
+
+        assertThat(reloaded.version()).isEqualTo(initial.version() + 1);
+        assertThat(reloaded.cyclones().get(0).getHeader().getName()).isEqualTo("IVAN");
+        assertThat(datasetHolder.getDataset()).isSameAs(reloaded);
+    }
+
+    @Test
+    void testGetDataset_FlaggedLandfallsNeverParseTheFullTracks() throws IOException {
+        when(orchestrator.processAllCyclones())
+                .thenReturn(partition("AL011851,            UNNAMED,     14,"));
+
+        datasetHolder.getDataset();
+        datasetHolder.reload();
+
+        verify(orchestrator, never()).processAllCyclones(TrackPredicate.SINCE_1900);
+    }
+
+    @Test
+    void testGetCyclones_ReadsOnlyTheBasinPartition() throws IOException {
+        when(orchestrator.processAllCyclones())
+                .thenReturn(
+                        partition(
+                                "EP011949,            UNNAMED,      3,",
+                                "CP011950,            HIKI,     20,",
+                                "EP021949,            UNNAMED,      2,"));
+
+        assertThat(datasetHolder.getCyclones()).hasSize(3);
+        assertThat(datasetHolder.getCyclones("EP"))
+                .extracting(cyclone -> cyclone.getHeader().getCycloneId())
+                .containsExactly("EP011949", "EP021949");
+        assertThat(datasetHolder.getCyclones("cp")).hasSize(1);
+        assertThat(datasetHolder.getCyclones("AL")).isEmpty();
+    }
+
+    @Test
+    void testGetDataset_IndexesDetectedLandfallsBeforePublishing() throws IOException {
+        List<BasinPartition> partitions = partition("AL011851,            UNNAMED,     14,");
+        List<Cyclone> tracks =
+                List.of(
+                        new Cyclone(
+                                HeaderLine.parse("AL092004,    IVAN,     2,"),
+                                List.of(
+                                        DataLine.parse(
+                                                "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946,"
+                                                        + " -999, -999, -999, -999, -999, -999,"
+                                                        + " -999, -999, -999, -999, -999,"
+                                                        + " -999"))));
+        when(orchestrator.processAllCyclones()).thenReturn(partitions);
+        when(orchestrator.processAllCyclones(TrackPredicate.SINCE_1900)).thenReturn(tracks);
+        when(geometricLandfallService.isEnabled()).thenReturn(true);
+        when(geometricLandfallService.detectLandfalls(any())).thenReturn(tracks);
+
+        CycloneDataset dataset = datasetHolder.getDataset();
+
+        assertThat(dataset.landfalls().cyclones()).isEqualTo(tracks);
+        assertThat(dataset.cyclones()).isEqualTo(partitions.getFirst().cyclones());
+        verify(geometricLandfallService, times(1)).detectLandfalls(tracks);
+        verify(orchestrator, times(1)).processAllCyclones(TrackPredicate.SINCE_1900);
+    }
+
+    @Test
+    void testReload_DetectsOnlyTheLandfallsOfTheFileTails() throws IOException {
+        Cyclone ivan = new Cyclone(HeaderLine.parse("AL092004,            IVAN,     2,"));
+        Cyclone katrina = new Cyclone(HeaderLine.parse("AL122005,         KATRINA,     1,"));
+        Cyclone wilma = new Cyclone(HeaderLine.parse("AL252005,           WILMA,     1,"));
+        IngestionCheckpoint checkpoint =
+                IngestionCheckpoint.builder().lastCycloneId("AL122005").build();
+        List<BasinPartition> initial =
+                List.of(new BasinPartition("hurdat2.txt", List.of(ivan, katrina), checkpoint));
+        BasinPartition appended =
+                new BasinPartition("hurdat2.txt", List.of(ivan, katrina, wilma), checkpoint);
+        when(orchestrator.processAllCyclones()).thenReturn(initial);
+        when(orchestrator.processAllCyclones(TrackPredicate.SINCE_1900))
+                .thenReturn(List.of(ivan, katrina));
+        when(orchestrator.processAppendedCyclones(any(), anyBoolean()))
+                .thenReturn(
+                        Optional.of(
+                                TailIngestion.builder()
+                                        .partition(appended)
+                                        .tracks(List.of(katrina, wilma))
+                                        .build()));
+        when(geometricLandfallService.isEnabled()).thenReturn(true);
+        when(geometricLandfallService.detectLandfalls(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        datasetHolder.getDataset();
+
+        datasetHolder.reload();
+
+        assertThat(datasetHolder.getDataset().landfalls().cyclones())
+                .containsExactly(ivan, katrina, wilma);
+        verify(orchestrator, times(1)).processAppendedCyclones(initial.getFirst(), true);
+        verify(orchestrator, times(1)).processAllCyclones(TrackPredicate.SINCE_1900);
+        verify(geometricLandfallService, times(1)).detectLandfalls(List.of(katrina, wilma));
+    }
+}
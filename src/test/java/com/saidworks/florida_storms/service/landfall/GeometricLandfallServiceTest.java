@@ -0,0 +1,109 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class GeometricLandfallServiceTest {
+    // square island from 81W to 79W and 24N to 26N with a lagoon from 80.5W to 79.5W
+    private static final String ISLAND =
+            """
+            {"type": "FeatureCollection", "features": [{"type": "Feature", "geometry": {
+              "type": "Polygon", "coordinates": [
+                [[-81, 24], [-79, 24], [-79, 26], [-81, 26], [-81, 24]],
+                [[-80.5, 24.5], [-79.5, 24.5], [-79.5, 25.5], [-80.5, 25.5], [-80.5, 24.5]]
+              ]}}]}
+            """;
+    private static final String AT_SEA =
+            "19260918, 1200,  , HU, 25.0N,  82.0W, 100,  950, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String ON_ISLAND =
+            "19260918, 1800,  , HU, 25.0N,  80.8W,  80,  970, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String ON_ISLAND_UNKNOWN =
+            "19260918, 1800,  , HU, 25.0N,  80.8W, -99, -999, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String IN_LAGOON =
+            "19260919, 0000,  , HU, 25.0N,  80.0W,  70, -999, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    @TempDir Path directory;
+
+    private GeometricLandfallService geometricLandfallService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path coastline = directory.resolve("land.geojson");
+        Files.writeString(coastline, ISLAND);
+        CycloneProcessingProperties properties = new CycloneProcessingProperties();
+        properties.getLandfall().setCoastline(coastline.toUri().toString());
+        properties
+                .getLandfall()
+                .setDetection(CycloneProcessingProperties.LandfallDetection.GEOMETRIC);
+        geometricLandfallService =
+                new GeometricLandfallService(
+                        properties,
+                        new DefaultResourceLoader(),
+                        Executors.newFixedThreadPool(2));
+    }
+
+    @Test
+    void testDetectLandfalls_InterpolatesFirstCoastlineCrossing() {
+        Cyclone crossing =
+                new Cyclone(
+                        HeaderLine.parse("AL061926,         UNNAMED,     3,"),
+                        List.of(
+                                DataLine.parse(AT_SEA),
+                                DataLine.parse(ON_ISLAND),
+                                DataLine.parse(IN_LAGOON)));
+        Cyclone atSea =
+                new Cyclone(
+                        HeaderLine.parse("AL071926,         UNNAMED,     1,"),
+                        List.of(DataLine.parse(AT_SEA)));
+
+        List<Cyclone> landfalls =
+                geometricLandfallService.detectLandfalls(List.of(atSea, crossing));
+
+        assertThat(landfalls).hasSize(1);
+        assertThat(landfalls.getFirst().getHeader().getCycloneId()).isEqualTo("AL061926");
+        // the lagoon is water, moving into it is not a landfall
+        assertThat(landfalls.getFirst().getDataLines()).hasSize(1);
+        DataLine landfall = landfalls.getFirst().getDataLines().getFirst();
+        // 81W is reached after 1.0 of the 1.2 degrees between the two points
+        assertThat(landfall.isLandfall()).isTrue();
+        assertThat(landfall.getDateTime()).isEqualTo(LocalDateTime.of(1926, 9, 18, 17, 0));
+        assertThat(landfall.getLatitude()).isEqualTo(25.0);
+        assertThat(landfall.getLongitude()).isEqualTo(81.0);
+        assertThat(landfall.getLongitudeDirection()).isEqualTo('W');
+        assertThat(landfall.getMaxWindSpeed()).isEqualTo(83);
+        assertThat(landfall.getCentralPressure()).isEqualTo(967);
+    }
+
+    @Test
+    void testDetectLandfalls_KeepsMissingMeasurementsMissing() {
+        Cyclone crossing =
+                new Cyclone(
+                        HeaderLine.parse("AL061926,         UNNAMED,     2,"),
+                        List.of(DataLine.parse(AT_SEA), DataLine.parse(ON_ISLAND_UNKNOWN)));
+
+        List<Cyclone> landfalls = geometricLandfallService.detectLandfalls(List.of(crossing));
+
+        DataLine landfall = landfalls.getFirst().getDataLines().getFirst();
+        assertThat(landfall.getMaxWindSpeed()).isEqualTo(-99);
+        assertThat(landfall.getCentralPressure()).isEqualTo(-999);
+    }
+}
@@ -0,0 +1,154 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.landfall;
+
+import static com.saidworks.florida_storms.models.domain.LandfallFixtures.box;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.BasinPartition;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.CycloneDataset;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.GeoBoundary;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LandfallQueryCacheTest {
+    private static final String MIAMI =
+            "19260918, 1200, L, HU, 25.6N,  80.3W, 125,  930, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+    private static final String KEY_LARGO =
+            "19600910, 0600, L, HU, 25.0N,  80.4W, 120,  932, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    private CycloneProcessingProperties properties;
+    private Map<Long, CycloneDataset> datasets;
+    private Cyclone miami;
+    private Cyclone donna;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CycloneProcessingProperties();
+        properties.getQueryCache().setGridDegrees(1.0);
+        properties.getQueryCache().setMaxEntries(2);
+        ArrayTrackStore store = new ArrayTrackStore();
+        store.append(DataLine.parse(MIAMI));
+        miami =
+                new Cyclone(
+                        HeaderLine.parse("AL061926,         UNNAMED,     1,"), store.slice(0, 1));
+        donna =
+                new Cyclone(
+                        HeaderLine.parse("AL051960,           DONNA,     1,"),
+                        List.of(DataLine.parse(KEY_LARGO)));
+        datasets = new ConcurrentHashMap<>();
+    }
+
+    private List<Cyclone> query(LandfallQueryCache cache, long version, GeoBoundary boundary) {
+        CycloneDataset dataset = datasets.computeIfAbsent(version, this::dataset);
+        return cache.cyclonesWithin(dataset, boundary, null, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    private CycloneDataset dataset(long version) {
+        BasinPartition partition = new BasinPartition("hurdat2.txt", List.of(miami, donna), null);
+        return new CycloneDataset(List.of(partition), version, Instant.EPOCH);
+    }
+
+    @Test
+    void testCyclonesWithin_RefinesNearDuplicatesFromOneEntry() {
+        LandfallQueryCache cache = new LandfallQueryCache(properties);
+
+        assertThat(query(cache, 1, box(25.5, 25.7, -80.4, -80.2))).containsExactly(miami);
+        assertThat(query(cache, 1, box(25.5000001, 25.6999999, -80.4, -80.2)))
+                .containsExactly(miami);
+        // same grid cells, the exact boundary leaves out the point at 25.6N
+        assertThat(query(cache, 1, box(25.0, 25.5, -80.5, -80.2))).containsExactly(donna);
+        // a bound a rounding error below a grid line snaps to it and still covers the line
+        assertThat(query(cache, 1, box(24.9999999999, 25.3, -80.5, -80.0)))
+                .containsExactly(donna);
+
+        LandfallQueryCache.Stats stats = cache.stats();
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits()).isEqualTo(3);
+    }
+
+    @Test
+    void testCyclonesWithin_EvictsLeastRecentlyUsedAndOlderVersions() {
+        LandfallQueryCache cache = new LandfallQueryCache(properties);
+
+        query(cache, 1, box(25.0, 26.0, -81.0, -80.0));
+        query(cache, 1, box(20.0, 21.0, -81.0, -80.0));
+        query(cache, 1, box(25.0, 26.0, -81.0, -80.0));
+        query(cache, 1, box(30.0, 31.0, -81.0, -80.0));
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+        // the box of 20N was the least recently used
+        query(cache, 1, box(25.0, 26.0, -81.0, -80.0));
+        assertThat(cache.stats().hits()).isEqualTo(2);
+
+        assertThat(query(cache, 2, box(25.0, 26.0, -81.0, -80.0))).containsExactly(miami, donna);
+        assertThat(cache.stats().size()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(4);
+    }
+
+    @Test
+    void testCyclonesWithin_KeysByLandfallDetection() {
+        LandfallQueryCache cache = new LandfallQueryCache(properties);
+
+        query(cache, 1, box(25.0, 26.0, -81.0, -80.0));
+        properties
+                .getLandfall()
+                .setDetection(CycloneProcessingProperties.LandfallDetection.GEOMETRIC);
+        query(cache, 1, box(25.0, 26.0, -81.0, -80.0));
+
+        assertThat(cache.stats().misses()).isEqualTo(2);
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void testCyclonesWithin_QueriesAMissedKeyOnce() throws Exception {
+        LandfallQueryCache cache = new LandfallQueryCache(properties);
+        GeoBoundary boundary = box(25.0, 26.0, -81.0, -80.0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<List<Cyclone>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(
+                        CompletableFuture.supplyAsync(
+                                () -> {
+                                    await(start);
+                                    return query(cache, 1, boundary);
+                                },
+                                executor));
+            }
+            start.countDown();
+
+            for (CompletableFuture<List<Cyclone>> result : results) {
+                assertThat(result.get()).containsExactly(miami, donna);
+            }
+            assertThat(cache.stats().misses()).isEqualTo(1);
+            assertThat(cache.stats().hits()).isEqualTo(7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
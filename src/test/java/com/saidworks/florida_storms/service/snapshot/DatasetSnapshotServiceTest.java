@@ -0,0 +1,168 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.service.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.saidworks.florida_storms.config.CycloneProcessingProperties;
+import com.saidworks.florida_storms.models.domain.Cyclone;
+import com.saidworks.florida_storms.models.domain.DataLine;
+import com.saidworks.florida_storms.models.domain.HeaderLine;
+import com.saidworks.florida_storms.models.domain.HurdatLineCursor;
+import com.saidworks.florida_storms.models.domain.TemporalIndex;
+import com.saidworks.florida_storms.models.track.ArrayTrackStore;
+import com.saidworks.florida_storms.models.track.TrackPredicate;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class DatasetSnapshotServiceTest {
+    private static final TrackPredicate PREDICATE = TrackPredicate.LANDFALL_SINCE_1900;
+    private static final long CHECKSUM = 0x1D2C_3B4AL;
+    private static final String HEADER = "AL092004,            IVAN,     2,";
+    private static final String LANDFALL =
+            "20040916, 0650, L, HU, 30.2N,  87.9W, 105,  946,  180,  150,  110,  150,  100,   90,"
+                    + "   60,   80,   60,   45,   30,   40,   10,";
+    private static final String EXTRATROPICAL =
+            "20040918, 0000,  , EX, 35.0S,   5.0E,  25, -999, -999, -999, -999, -999, -999, -999,"
+                    + " -999, -999, -999, -999, -999, -999";
+
+    @TempDir Path directory;
+
+    private final ExecutorService ioBlockingTaskExecutor = Executors.newSingleThreadExecutor();
+    private CycloneProcessingProperties properties;
+    private DatasetSnapshotService snapshotService;
+    private String source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = directory.resolve("hurdat2.txt");
+        Files.writeString(file, HEADER + "\n" + LANDFALL + "\n" + EXTRATROPICAL + "\n");
+        source = file.toUri().toString();
+
+        properties = new CycloneProcessingProperties();
+        properties.getSnapshot().setDirectory(directory.resolve("snapshots").toString());
+        snapshotService =
+                new DatasetSnapshotService(
+                        properties, new DefaultResourceLoader(), ioBlockingTaskExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ioBlockingTaskExecutor.shutdownNow();
+    }
+
+    @Test
+    void testWriteThenLoad_RoundTripsCyclones() {
+        List<Cyclone> cyclones =
+                List.of(
+                        new Cyclone(
+                                HeaderLine.parse(HEADER),
+                                List.of(DataLine.parse(LANDFALL), DataLine.parse(EXTRATROPICAL))));
+
+        snapshotService.write(source, PREDICATE, cyclones, CHECKSUM);
+        Optional<List<Cyclone>> loaded = snapshotService.load(source, PREDICATE, CHECKSUM);
+
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(cyclones);
+    }
+
+    @Test
+    void testWriteThenLoad_KeepsSpanOfFilteredTrack() {
+        int firstMinute = TemporalIndex.epochMinute(LocalDateTime.of(2004, 9, 2, 18, 0));
+        int lastMinute = TemporalIndex.epochMinute(LocalDateTime.of(2004, 9, 24, 6, 0));
+        Cyclone landfalls =
+                new Cyclone(
+                        HeaderLine.parse(HEADER),
+                        List.of(DataLine.parse(LANDFALL)),
+                        firstMinute,
+                        lastMinute);
+
+        snapshotService.write(source, PREDICATE, List.of(landfalls), CHECKSUM);
+        Cyclone loaded = snapshotService.load(source, PREDICATE, CHECKSUM).orElseThrow().getFirst();
+
+        assertThat(loaded.getDataLines()).hasSize(1);
+        assertThat(loaded.getFirstTrackMinute()).isEqualTo(firstMinute);
+        assertThat(loaded.getLastTrackMinute()).isEqualTo(lastMinute);
+    }
+
+    // Points of a mapped batch parsed with lazy track points get their radii from the writer
+    @Test
+    void testWriteInBackground_DecodesDeferredRadii() {
+        byte[] line = LANDFALL.getBytes(StandardCharsets.US_ASCII);
+        HurdatLineCursor cursor =
+                new HurdatLineCursor().reset(MemorySegment.ofArray(line), 0, line.length);
+        ArrayTrackStore store = new ArrayTrackStore();
+        store.appendDeferred(
+                cursor.parseDataLineKeys().parseDataLinePosition().parseDataLineIntensity());
+        Cyclone deferred = new Cyclone(HeaderLine.parse(HEADER), store.slice(0, 1));
+
+        snapshotService.writeInBackground(source, PREDICATE, List.of(deferred), CHECKSUM).join();
+        Optional<List<Cyclone>> loaded = snapshotService.load(source, PREDICATE, CHECKSUM);
+
+        assertThat(loaded).isPresent();
+        assertThat(loaded.get())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(
+                        new Cyclone(HeaderLine.parse(HEADER), List.of(DataLine.parse(LANDFALL))));
+    }
+
+    @Test
+    void testLoad_IgnoresStaleOrMissingSnapshot() {
+        assertThat(snapshotService.load(source, PREDICATE, CHECKSUM)).isEmpty();
+
+        snapshotService.write(
+                source, PREDICATE, List.of(new Cyclone(HeaderLine.parse(HEADER))), CHECKSUM);
+
+        assertThat(snapshotService.load(source, PREDICATE, CHECKSUM + 1)).isEmpty();
+        assertThat(snapshotService.load(source, PREDICATE, CHECKSUM)).isPresent();
+    }
+
+    @Test
+    void testLoad_IgnoresSnapshotOfOtherPredicate() {
+        snapshotService.write(
+                source, PREDICATE, List.of(new Cyclone(HeaderLine.parse(HEADER))), CHECKSUM);
+
+        assertThat(snapshotService.load(source, TrackPredicate.SINCE_1900, CHECKSUM)).isEmpty();
+        // landfalls are detected on the loaded dataset, the snapshot holds the same points
+        properties
+                .getLandfall()
+                .setDetection(CycloneProcessingProperties.LandfallDetection.GEOMETRIC);
+        assertThat(snapshotService.load(source, PREDICATE, CHECKSUM)).isPresent();
+    }
+
+    @Test
+    void testWrite_KeepsSourcesOfTheSameNameApart() throws IOException {
+        Path other = Files.createDirectories(directory.resolve("other")).resolve("hurdat2.txt");
+        Files.writeString(other, HEADER + "\n" + LANDFALL + "\n");
+        String otherSource = other.toUri().toString();
+        long otherChecksum = CHECKSUM + 1;
+
+        snapshotService.write(
+                source, PREDICATE, List.of(new Cyclone(HeaderLine.parse(HEADER))), CHECKSUM);
+        snapshotService.write(
+                otherSource,
+                PREDICATE,
+                List.of(new Cyclone(HeaderLine.parse(HEADER), List.of(DataLine.parse(LANDFALL)))),
+                otherChecksum);
+
+        List<Cyclone> loaded = snapshotService.load(source, PREDICATE, CHECKSUM).orElseThrow();
+        List<Cyclone> otherLoaded =
+                snapshotService.load(otherSource, PREDICATE, otherChecksum).orElseThrow();
+        assertThat(loaded.getFirst().getDataLines()).isEmpty();
+        assertThat(otherLoaded.getFirst().getDataLines()).hasSize(1);
+    }
+}
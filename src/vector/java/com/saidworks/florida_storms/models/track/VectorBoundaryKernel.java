@@ -0,0 +1,47 @@
+/* (C) Said Zitouni 2025 */
+package com.saidworks.florida_storms.models.track;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API loop of {@link BoundaryScan}, built only with the {@code vectorScan} Gradle property
+ * and loaded by name once the jdk.incubator.vector module is known to be present
+ */
+final class VectorBoundaryKernel implements BoundaryKernel {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    @Override
+    public String describe() {
+        return SPECIES.length() + " short lanes (" + SPECIES.vectorBitSize() + " bits)";
+    }
+
+    @Override
+    public int nextMatch(
+            short[] latitudes,
+            short[] longitudes,
+            int from,
+            int to,
+            short minLatitude,
+            short maxLatitude,
+            short minLongitude,
+            short maxLongitude) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector latitude = ShortVector.fromArray(SPECIES, latitudes, i);
+            ShortVector longitude = ShortVector.fromArray(SPECIES, longitudes, i);
+            VectorMask<Short> within =
+                    latitude.compare(VectorOperators.GE, minLatitude)
+                            .and(latitude.compare(VectorOperators.LE, maxLatitude))
+                            .and(longitude.compare(VectorOperators.GE, minLongitude))
+                            .and(longitude.compare(VectorOperators.LE, maxLongitude));
+            if (within.anyTrue()) {
+                return i + within.firstTrue();
+            }
+        }
+        return i;
+    }
+}